@@ -2,18 +2,35 @@ package com.oceanbase.datamocker;
 
 import com.oceanbase.datamocker.ai.FieldSemanticInferrer;
 import com.oceanbase.datamocker.ai.SemanticInferrerFactory;
+import com.oceanbase.datamocker.change.ChangeSink;
+import com.oceanbase.datamocker.change.ChangeStreamConfig;
+import com.oceanbase.datamocker.change.ChangeStreamGenerator;
 import com.oceanbase.datamocker.config.FieldConfig;
 import com.oceanbase.datamocker.config.MockerConfig;
-import com.oceanbase.datamocker.generator.DataGenerator;
-import com.oceanbase.datamocker.generator.DataGeneratorFactory;
+import com.oceanbase.datamocker.generator.RandomStreams;
 import com.oceanbase.datamocker.generator.SemanticDataGenerator;
+import com.oceanbase.datamocker.generator.ValuePoolCache;
+import com.oceanbase.datamocker.job.GenerationJob;
+import com.oceanbase.datamocker.job.JobCheckpoint;
+import com.oceanbase.datamocker.job.JobConfig;
+import com.oceanbase.datamocker.job.SchemaJob;
+import com.oceanbase.datamocker.job.SchemaJobSpec;
+import com.oceanbase.datamocker.mask.CsvMasker;
+import com.oceanbase.datamocker.mask.MaskingConfig;
+import com.oceanbase.datamocker.mask.ValueMasker;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.schema.TableSchema;
+import com.oceanbase.datamocker.sink.RowSink;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.*;
 
 /**
  * 数据模拟生成器主类
+ * 实例可以被多个线程同时使用，每个线程使用独立的随机流
  */
 @Slf4j
 public class DataMocker {
@@ -21,6 +38,8 @@ public class DataMocker {
     private final MockerConfig config;
     private final FieldSemanticInferrer semanticInferrer;
     private final SemanticDataGenerator semanticDataGenerator;
+    private final ValuePoolCache valuePools = new ValuePoolCache();
+    private final MockerMetrics metrics;
     
     /**
      * 构造函数
@@ -29,8 +48,9 @@ public class DataMocker {
      */
     public DataMocker(MockerConfig config) {
         this.config = config;
+        this.metrics = MockerMetrics.create(config.getMetrics());
         this.semanticInferrer = SemanticInferrerFactory.createInferrer(config);
-        this.semanticDataGenerator = new SemanticDataGenerator(semanticInferrer);
+        this.semanticDataGenerator = new SemanticDataGenerator(semanticInferrer, metrics);
     }
     
     /**
@@ -43,83 +63,218 @@ public class DataMocker {
      * @return 生成的数据，每行是一个Map，key为字段名，value为生成的值
      */
     public List<Map<String, Object>> generateData(String tableName, List<String> fieldNames, List<String> fieldTypes, int rowCount) {
-        if (fieldNames.size() != fieldTypes.size()) {
-            throw new IllegalArgumentException("Field names and types must have the same size");
-        }
-        
+        return generateData(compilePlan(tableName, fieldNames, fieldTypes), rowCount);
+    }
+    
+    /**
+     * 按编译好的生成计划生成模拟数据
+     *
+     * @param plan 表的生成计划
+     * @param rowCount 生成的行数
+     * @return 生成的数据，每行是一个Map，key为字段名，value为生成的值
+     */
+    public List<Map<String, Object>> generateData(TablePlan plan, int rowCount) {
         if (rowCount <= 0) {
             rowCount = config.getDefaultRowCount();
         }
         
-        log.info("Generating {} rows of data for table: {}", rowCount, tableName);
+        log.info("Generating {} rows of data for table: {}", rowCount, plan.getTableName());
         
         List<Map<String, Object>> result = new ArrayList<>(rowCount);
-        Set<String> excludeFields = new HashSet<>(Arrays.asList(config.getExcludeFields()));
         
-        // 生成每一行数据
-        for (int i = 0; i < rowCount; i++) {
-            Map<String, Object> row = new LinkedHashMap<>();
-            
-            // 生成每个字段的数据
-            for (int j = 0; j < fieldNames.size(); j++) {
-                String fieldName = fieldNames.get(j);
-                String fieldType = fieldTypes.get(j);
-                
-                // 跳过排除的字段
-                if (excludeFields.contains(fieldName)) {
-                    continue;
-                }
-                
-                // 获取字段配置
-                FieldConfig fieldConfig = getFieldConfig(fieldName, fieldType);
-                
-                // 生成字段值
-                Object value = generateFieldValue(fieldName, fieldConfig);
-                
-                row.put(fieldName, value);
+        // 按字段依赖顺序生成每一行数据
+        if (config.getSeed() != null) {
+            long tableSeed = RandomStreams.derive(config.getSeed(), plan.getTableName());
+            for (int i = 0; i < rowCount; i++) {
+                result.add(plan.toMap(plan.generateRow(i, tableSeed), config.isOmitNullFields()));
+            }
+        } else {
+            Random random = RandomStreams.current();
+            long nullSeed = random.nextLong();
+            for (int i = 0; i < rowCount; i++) {
+                result.add(plan.toMap(plan.generateRow(i, random, nullSeed), config.isOmitNullFields()));
             }
-            
-            result.add(row);
         }
+        logVerification(plan);
         
         return result;
     }
     
     /**
-     * 获取字段配置
+     * 按编译好的生成计划逐行生成数据并写出到行输出，内存占用与行数无关
      *
-     * @param fieldName 字段名
-     * @param fieldType 字段类型
-     * @return 字段配置
+     * @param plan 表的生成计划
+     * @param rowCount 生成的行数，不大于0时使用配置中的默认行数
+     * @param sink 行输出，调用方负责关闭
+     * @return 写出的字节数
+     * @throws IOException 写出失败
      */
-    private FieldConfig getFieldConfig(String fieldName, String fieldType) {
-        // 如果配置中有该字段的配置，使用配置中的
-        FieldConfig fieldConfig = config.getFieldConfigs().get(fieldName);
-        if (fieldConfig != null) {
-            // 确保类型已设置
-            if (fieldConfig.getType() == null || fieldConfig.getType().isEmpty()) {
-                fieldConfig.setType(fieldType);
+    public long generateData(TablePlan plan, long rowCount, RowSink sink) throws IOException {
+        if (rowCount <= 0) {
+            rowCount = config.getDefaultRowCount();
+        }
+        log.info("Streaming {} rows of data for table: {}", rowCount, plan.getTableName());
+        long before = sink.getBytesWritten();
+        sink.open(plan.getTableName(), plan.getOutputColumns());
+        if (config.getSeed() != null) {
+            long tableSeed = RandomStreams.derive(config.getSeed(), plan.getTableName());
+            for (long i = 0; i < rowCount; i++) {
+                plan.writeRow(sink, plan.generateRow(i, tableSeed), i);
+            }
+        } else {
+            Random random = RandomStreams.current();
+            long nullSeed = random.nextLong();
+            for (long i = 0; i < rowCount; i++) {
+                plan.writeRow(sink, plan.generateRow(i, random, nullSeed), i);
             }
-            return fieldConfig;
         }
-        
-        // 否则创建一个新的配置
-        fieldConfig = new FieldConfig();
-        fieldConfig.setType(fieldType);
-        
-        return fieldConfig;
+        plan.flush(sink);
+        long written = sink.getBytesWritten() - before;
+        plan.getMetrics().addBytes(written);
+        logVerification(plan);
+        return written;
+    }
+    
+    /**
+     * 按编译好的生成计划逐行生成数据并写出到行输出，写出的字节数达到目标后停止，最后一行使输出刚好达到或略微超过目标
+     *
+     * @param plan 表的生成计划
+     * @param targetBytes 目标字节数，按行输出写出的字节数计算，压缩前的大小
+     * @param sink 行输出，调用方负责关闭
+     * @return 生成的行数
+     * @throws IOException 写出失败
+     * @throws IllegalArgumentException 目标字节数不是正数，或行输出不统计写出的字节数
+     */
+    public long generateDataToSize(TablePlan plan, long targetBytes, RowSink sink) throws IOException {
+        if (targetBytes <= 0) {
+            throw new IllegalArgumentException("targetBytes must be positive");
+        }
+        if (!sink.isCountingBytes()) {
+            throw new IllegalArgumentException("Sink " + sink.getClass().getSimpleName() + " does not count written bytes, generate by row count instead");
+        }
+        log.info("Streaming {} bytes of data for table: {}", targetBytes, plan.getTableName());
+        long before = sink.getBytesWritten();
+        long limit = before + targetBytes;
+        sink.open(plan.getTableName(), plan.getOutputColumns());
+        Random random = RandomStreams.current();
+        long tableSeed = config.getSeed() != null ? RandomStreams.derive(config.getSeed(), plan.getTableName()) : 0L;
+        long nullSeed = config.getSeed() != null ? tableSeed : random.nextLong();
+        long rows = 0;
+        while (sink.getBytesWritten() < limit) {
+            plan.writeRow(sink, config.getSeed() != null ? plan.generateRow(rows, tableSeed) : plan.generateRow(rows, random, nullSeed), rows);
+            rows++;
+        }
+        plan.flush(sink);
+        plan.getMetrics().addBytes(sink.getBytesWritten() - before);
+        logVerification(plan);
+        return rows;
+    }
+    
+    /**
+     * 启用了生成结果校验时输出校验报告，报告累计计划创建以来生成的全部行
+     *
+     * @param plan 表的生成计划
+     */
+    private static void logVerification(TablePlan plan) {
+        if (plan.getVerifier() != null) {
+            plan.getVerifier().logReport();
+        }
+    }
+    
+    /**
+     * 运行可从检查点恢复的生成作业，将数据写出到文件。检查点文件存在时从中断处继续
+     *
+     * @param plan 表的生成计划
+     * @param rowCount 生成的行数
+     * @param jobConfig 作业配置
+     * @return 作业结束时的检查点
+     * @throws IOException 读写文件失败
+     */
+    public JobCheckpoint runJob(TablePlan plan, long rowCount, JobConfig jobConfig) throws IOException {
+        JobCheckpoint checkpoint = new GenerationJob(plan, rowCount, config.getSeed(), jobConfig).run();
+        logVerification(plan);
+        return checkpoint;
     }
     
     /**
-     * 生成字段值
+     * 按作业描述在一个共享的工作窃取线程池中生成多张表，字段配置和生成器来自本实例
      *
-     * @param fieldName 字段名
-     * @param fieldConfig 字段配置
-     * @return 生成的值
+     * @param spec 多表作业描述
+     * @return 表名到输出文件字节数的映射
+     * @throws IOException 读取DDL或写出文件失败
      */
-    private Object generateFieldValue(String fieldName, FieldConfig fieldConfig) {
-        // 使用语义数据生成器生成数据
-        return semanticDataGenerator.generate(fieldName, fieldConfig);
+    public Map<String, Long> runSchemaJob(SchemaJobSpec spec) throws IOException {
+        return new SchemaJob(this, spec).run();
+    }
+    
+    /**
+     * 针对按本实例配置生成的数据集生成变更流，目标行的主键按配置中的种子重新计算
+     *
+     * @param plan 数据集的表生成计划
+     * @param rowCount 数据集的行数
+     * @param changeConfig 变更流配置
+     * @param sink 变更输出
+     * @return 写出的变更数
+     * @throws IOException 输出失败
+     */
+    public long generateChanges(TablePlan plan, long rowCount, ChangeStreamConfig changeConfig, ChangeSink sink) throws IOException {
+        return new ChangeStreamGenerator(plan, rowCount, config.getSeed(), changeConfig).run(sink);
+    }
+    
+    /**
+     * 脱敏真实导出的CSV文件：按字段名识别个人信息字段，用语义生成器替换为同一密钥下确定的假值，其余字段原样保留
+     *
+     * @param input 原始CSV文件
+     * @param output 脱敏后的CSV文件
+     * @param maskingConfig 脱敏配置
+     * @return 处理的记录数
+     * @throws IOException 读写失败
+     */
+    public long maskCsv(File input, File output, MaskingConfig maskingConfig) throws IOException {
+        ValueMasker masker = new ValueMasker(maskingConfig.getSecret(), semanticDataGenerator);
+        return new CsvMasker(maskingConfig, semanticInferrer, masker).mask(input, output);
+    }
+    
+    /**
+     * 编译表的生成计划，计划可以在多次生成之间复用
+     *
+     * @param tableName 表名
+     * @param fieldNames 字段名列表
+     * @param fieldTypes 字段类型列表
+     * @return 表的生成计划
+     */
+    public TablePlan compilePlan(String tableName, List<String> fieldNames, List<String> fieldTypes) {
+        return TablePlan.compile(tableName, fieldNames, fieldTypes, config, semanticDataGenerator, valuePools, metrics);
+    }
+    
+    /**
+     * 按DDL导入的表结构编译生成计划，配置文件中的字段配置优先于从DDL推导的配置
+     *
+     * @param schema 表结构
+     * @param schemaFieldConfigs 从DDL推导的字段配置
+     * @return 表的生成计划
+     */
+    public TablePlan compilePlan(TableSchema schema, Map<String, FieldConfig> schemaFieldConfigs) {
+        MockerConfig tableConfig = config.withBaseFieldConfigs(schemaFieldConfigs);
+        return TablePlan.compile(schema.getName(), schema.getFieldNames(), schema.getFieldTypes(), tableConfig, semanticDataGenerator, valuePools, metrics);
+    }
+    
+    /**
+     * 获取配置
+     *
+     * @return 配置
+     */
+    public MockerConfig getConfig() {
+        return config;
+    }
+    
+    /**
+     * 获取运行指标
+     *
+     * @return 运行指标，未启用时为MockerMetrics.DISABLED
+     */
+    public MockerMetrics getMetrics() {
+        return metrics;
     }
     
     /**
@@ -129,18 +284,7 @@ public class DataMocker {
      * @return 数据模拟器
      */
     public static DataMocker fromConfigFile(File configFile) {
-        MockerConfig config;
-        
-        if (configFile.getName().endsWith(".yaml") || configFile.getName().endsWith(".yml")) {
-            config = MockerConfig.fromYaml(configFile);
-        } else if (configFile.getName().endsWith(".json")) {
-            config = MockerConfig.fromJson(configFile);
-        } else {
-            log.warn("Unsupported config file format: {}, using default config", configFile.getName());
-            config = new MockerConfig();
-        }
-        
-        return new DataMocker(config);
+        return new DataMocker(MockerConfig.fromFile(configFile));
     }
     
     /**
@@ -156,6 +300,8 @@ public class DataMocker {
      * 关闭数据模拟器，释放资源
      */
     public void close() {
+        valuePools.clear();
+        metrics.close();
         if (semanticInferrer != null) {
             semanticInferrer.close();
         }
@@ -4,6 +4,7 @@ import com.oceanbase.datamocker.config.FieldConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.regex.Pattern;
 
@@ -14,16 +15,25 @@ import java.util.regex.Pattern;
 @Slf4j
 public class RuleBasedSemanticInferrer implements FieldSemanticInferrer {
     
-    private static final Map<Pattern, SemanticType> NAME_PATTERNS = new HashMap<>();
+    /**
+     * 名称模式按注册顺序匹配，更具体的模式需要先于通用模式注册
+     */
+    private static final Map<Pattern, SemanticType> NAME_PATTERNS = new LinkedHashMap<>();
     private static final Map<String, SemanticType> SQL_TYPE_MAPPINGS = new HashMap<>();
     
     static {
         // 初始化名称模式
-        NAME_PATTERNS.put(Pattern.compile("(?i).*name.*"), SemanticType.NAME);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*user.*name.*"), SemanticType.USERNAME);
         NAME_PATTERNS.put(Pattern.compile("(?i).*first.*name.*"), SemanticType.NAME);
         NAME_PATTERNS.put(Pattern.compile("(?i).*last.*name.*"), SemanticType.NAME);
         NAME_PATTERNS.put(Pattern.compile("(?i).*full.*name.*"), SemanticType.NAME);
-        NAME_PATTERNS.put(Pattern.compile("(?i).*user.*name.*"), SemanticType.USERNAME);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*name.*"), SemanticType.NAME);
+        
+        // 描述类字段名常包含ip、tel等片段（如description、hotel_remark），需先于这些模式匹配
+        NAME_PATTERNS.put(Pattern.compile("(?i).*desc.*"), SemanticType.DESCRIPTION);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*description.*"), SemanticType.DESCRIPTION);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*remark.*"), SemanticType.DESCRIPTION);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*comment.*"), SemanticType.DESCRIPTION);
         
         NAME_PATTERNS.put(Pattern.compile("(?i).*email.*"), SemanticType.EMAIL);
         NAME_PATTERNS.put(Pattern.compile("(?i).*mail.*"), SemanticType.EMAIL);
@@ -63,7 +73,8 @@ public class RuleBasedSemanticInferrer implements FieldSemanticInferrer {
         
         NAME_PATTERNS.put(Pattern.compile("(?i).*job.*"), SemanticType.JOB_TITLE);
         NAME_PATTERNS.put(Pattern.compile("(?i).*position.*"), SemanticType.JOB_TITLE);
-        NAME_PATTERNS.put(Pattern.compile("(?i).*title.*"), SemanticType.JOB_TITLE);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*title.*"), SemanticType.TITLE);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*headline.*"), SemanticType.TITLE);
         
         NAME_PATTERNS.put(Pattern.compile("(?i).*country.*"), SemanticType.COUNTRY);
         NAME_PATTERNS.put(Pattern.compile("(?i).*nation.*"), SemanticType.COUNTRY);
@@ -88,14 +99,14 @@ public class RuleBasedSemanticInferrer implements FieldSemanticInferrer {
         NAME_PATTERNS.put(Pattern.compile("(?i).*password.*"), SemanticType.PASSWORD);
         NAME_PATTERNS.put(Pattern.compile("(?i).*pwd.*"), SemanticType.PASSWORD);
         
+        // 身份证号需先于通用的id模式匹配
+        NAME_PATTERNS.put(Pattern.compile("(?i).*id_?card.*"), SemanticType.ID_CARD);
+        NAME_PATTERNS.put(Pattern.compile("(?i)(.*_)?id_?(no|number)"), SemanticType.ID_CARD);
+        NAME_PATTERNS.put(Pattern.compile("(?i).*identity.*"), SemanticType.ID_CARD);
+        
         NAME_PATTERNS.put(Pattern.compile("(?i).*id.*"), SemanticType.IDENTIFIER);
         NAME_PATTERNS.put(Pattern.compile("(?i).*code.*"), SemanticType.IDENTIFIER);
         
-        NAME_PATTERNS.put(Pattern.compile("(?i).*desc.*"), SemanticType.DESCRIPTION);
-        NAME_PATTERNS.put(Pattern.compile("(?i).*description.*"), SemanticType.DESCRIPTION);
-        NAME_PATTERNS.put(Pattern.compile("(?i).*remark.*"), SemanticType.DESCRIPTION);
-        NAME_PATTERNS.put(Pattern.compile("(?i).*comment.*"), SemanticType.DESCRIPTION);
-        
         // 初始化SQL类型映射
         SQL_TYPE_MAPPINGS.put("DATE", SemanticType.DATE);
         SQL_TYPE_MAPPINGS.put("TIME", SemanticType.TIME);
@@ -0,0 +1,56 @@
+package com.oceanbase.datamocker.change;
+
+import lombok.Getter;
+
+/**
+ * 变更流中的一个变更
+ */
+@Getter
+public class ChangeEvent {
+    
+    /**
+     * 变更类型
+     */
+    public enum Operation {
+        /**
+         * 按主键更新部分字段
+         */
+        UPDATE,
+        
+        /**
+         * 按主键删除
+         */
+        DELETE,
+        
+        /**
+         * 主键存在时更新整行，否则插入
+         */
+        UPSERT
+    }
+    
+    private final long sequence;
+    private final Operation operation;
+    
+    /**
+     * 目标行在原数据集中的行号
+     */
+    private final long targetRow;
+    
+    /**
+     * 主键值，按主键字段的顺序排列
+     */
+    private final Object[] keyValues;
+    
+    /**
+     * UPDATE为更新字段的新值，UPSERT为按输出字段顺序排列的整行，DELETE为空数组
+     */
+    private final Object[] values;
+    
+    public ChangeEvent(long sequence, Operation operation, long targetRow, Object[] keyValues, Object[] values) {
+        this.sequence = sequence;
+        this.operation = operation;
+        this.targetRow = targetRow;
+        this.keyValues = keyValues;
+        this.values = values;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,37 @@
+package com.oceanbase.datamocker.change;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 变更流输出接口，实现类不要求线程安全
+ */
+public interface ChangeSink extends Closeable {
+    
+    /**
+     * 开始输出一张表的变更
+     *
+     * @param tableName 表名
+     * @param columns 全部输出字段，UPSERT的值按此顺序排列
+     * @param keyColumns 主键字段
+     * @param updateColumns UPDATE更新的字段
+     * @throws IOException 输出失败
+     */
+    void open(String tableName, List<String> columns, List<String> keyColumns, List<String> updateColumns) throws IOException;
+    
+    /**
+     * 写出一个变更
+     *
+     * @param event 变更
+     * @throws IOException 输出失败
+     */
+    void write(ChangeEvent event) throws IOException;
+    
+    /**
+     * 结束当前批次，已写出的变更在一个事务中提交
+     *
+     * @throws IOException 输出失败
+     */
+    void commit() throws IOException;
+} 
\ No newline at end of file
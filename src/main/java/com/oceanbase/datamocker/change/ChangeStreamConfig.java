@@ -0,0 +1,70 @@
+package com.oceanbase.datamocker.change;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 变更流的配置
+ */
+@Data
+public class ChangeStreamConfig {
+    
+    /**
+     * 主键的选择分布
+     */
+    public enum KeyDistribution {
+        /**
+         * 所有已有行被选中的概率相同
+         */
+        UNIFORM,
+        
+        /**
+         * 大部分变更集中在一小段热点行上
+         */
+        HOTSPOT
+    }
+    
+    /**
+     * 变更总数
+     */
+    private long operations = 10_000L;
+    
+    /**
+     * 各类变更的比例，按三者之和归一化
+     */
+    private double updateRatio = 0.6;
+    private double deleteRatio = 0.2;
+    private double upsertRatio = 0.2;
+    
+    /**
+     * 主键分布
+     */
+    private KeyDistribution keyDistribution = KeyDistribution.UNIFORM;
+    
+    /**
+     * 热点行占全部行的比例，热点行为行号最小的一段
+     */
+    private double hotspotKeyRatio = 0.01;
+    
+    /**
+     * 落在热点行上的变更比例
+     */
+    private double hotspotAccessRatio = 0.9;
+    
+    /**
+     * 主键字段，为空时使用序列字段，没有序列字段时使用第一个输出字段
+     */
+    private List<String> keyColumns = new ArrayList<>();
+    
+    /**
+     * UPDATE更新的字段，为空时更新全部非主键字段
+     */
+    private List<String> updateColumns = new ArrayList<>();
+    
+    /**
+     * 每批的变更数，每批在一个事务中提交
+     */
+    private int batchSize = 1000;
+} 
\ No newline at end of file
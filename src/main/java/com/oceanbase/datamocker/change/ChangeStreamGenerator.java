@@ -0,0 +1,223 @@
+package com.oceanbase.datamocker.change;
+
+import com.oceanbase.datamocker.generator.FastRandom;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.ColumnPlan;
+import com.oceanbase.datamocker.plan.TablePlan;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 针对已生成的数据集生成变更流（UPDATE/DELETE/UPSERT）
+ * 目标行的主键不从数据库读取，而是按数据集的种子重新计算：主键全为序列字段时直接由行号得到，
+ * 否则用与生成数据集时相同的种子重新生成目标行。每个变更的类型、目标行和新值只由种子和变更序号决定，
+ * 同一配置下生成的变更流可以完整重现
+ */
+@Slf4j
+public class ChangeStreamGenerator {
+    
+    private final TablePlan plan;
+    private final long rowCount;
+    private final ChangeStreamConfig config;
+    private final long tableSeed;
+    private final long changeSeed;
+    
+    @Getter
+    private final List<String> keyColumns;
+    
+    @Getter
+    private final List<String> updateColumns;
+    
+    private final int[] keyIndexes;
+    private final int[] updateIndexes;
+    
+    /**
+     * 主键是否全部为序列字段，此时新生成的行与原数据集中同一行号的主键相同
+     */
+    private final boolean sequenceKeys;
+    
+    private final double updateThreshold;
+    private final double deleteThreshold;
+    
+    /**
+     * 创建变更流生成器
+     *
+     * @param plan 数据集的表生成计划
+     * @param rowCount 数据集的行数
+     * @param seed 生成数据集时使用的种子，主键全为序列字段时可以为null
+     * @param config 变更流配置
+     */
+    public ChangeStreamGenerator(TablePlan plan, long rowCount, Long seed, ChangeStreamConfig config) {
+        if (rowCount <= 0) {
+            throw new IllegalArgumentException("Change streams require an existing dataset with at least one row");
+        }
+        if (config.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.plan = plan;
+        this.rowCount = rowCount;
+        this.config = config;
+        
+        List<String> output = plan.getOutputColumns();
+        this.keyColumns = Collections.unmodifiableList(resolveKeyColumns(plan, config));
+        this.keyIndexes = indexesOf(output, keyColumns);
+        List<String> updates = new ArrayList<>(config.getUpdateColumns());
+        if (updates.isEmpty()) {
+            for (String column : output) {
+                if (!keyColumns.contains(column)) {
+                    updates.add(column);
+                }
+            }
+        }
+        this.updateColumns = Collections.unmodifiableList(updates);
+        this.updateIndexes = indexesOf(output, updateColumns);
+        
+        boolean allSequences = true;
+        for (String key : keyColumns) {
+            allSequences &= columnOf(plan, key).getKind() == ColumnPlan.Kind.SEQUENCE;
+        }
+        this.sequenceKeys = allSequences;
+        if (seed == null && !sequenceKeys) {
+            throw new IllegalArgumentException("Key columns " + keyColumns
+                    + " are not sequences; set the seed the dataset was generated with so keys can be recomputed");
+        }
+        long baseSeed = seed == null ? 0L : seed;
+        this.tableSeed = RandomStreams.derive(baseSeed, plan.getTableName());
+        this.changeSeed = RandomStreams.derive(baseSeed, plan.getTableName() + "#changes");
+        
+        double update = updateColumns.isEmpty() ? 0 : Math.max(0, config.getUpdateRatio());
+        double delete = Math.max(0, config.getDeleteRatio());
+        double upsert = Math.max(0, config.getUpsertRatio());
+        double total = update + delete + upsert;
+        if (total <= 0) {
+            throw new IllegalArgumentException("At least one of updateRatio, deleteRatio and upsertRatio must be positive");
+        }
+        this.updateThreshold = update / total;
+        this.deleteThreshold = (update + delete) / total;
+    }
+    
+    /**
+     * 生成第n个变更
+     *
+     * @param sequence 变更序号
+     * @return 变更
+     */
+    public ChangeEvent next(long sequence) {
+        FastRandom random = new FastRandom(RandomStreams.rowSeed(changeSeed, sequence));
+        double p = random.nextDouble();
+        ChangeEvent.Operation operation = p < updateThreshold ? ChangeEvent.Operation.UPDATE
+                : p < deleteThreshold ? ChangeEvent.Operation.DELETE : ChangeEvent.Operation.UPSERT;
+        long target = pickRow(random);
+        
+        Object[] fresh = null;
+        if (operation != ChangeEvent.Operation.DELETE || sequenceKeys) {
+            // 以目标行号生成新值，序列字段的值与原数据集一致，其他字段使用变更自己的随机流；
+            // 空值位图固定使用变更流的种子，避免每个变更都重新填充位图
+            FastRandom rowRandom = RandomStreams.current();
+            rowRandom.setSeed(RandomStreams.rowSeed(random.nextLong(), target));
+            fresh = plan.toOutput(plan.generateRow(target, rowRandom, changeSeed));
+        }
+        Object[] existing = sequenceKeys ? fresh : plan.toOutput(plan.generateRow(target, tableSeed));
+        Object[] keys = pick(existing, keyIndexes);
+        
+        switch (operation) {
+            case UPDATE:
+                return new ChangeEvent(sequence, operation, target, keys, pick(fresh, updateIndexes));
+            case DELETE:
+                return new ChangeEvent(sequence, operation, target, keys, new Object[0]);
+            case UPSERT:
+            default:
+                Object[] row = fresh.clone();
+                for (int i = 0; i < keyIndexes.length; i++) {
+                    row[keyIndexes[i]] = keys[i];
+                }
+                return new ChangeEvent(sequence, operation, target, keys, row);
+        }
+    }
+    
+    /**
+     * 生成全部变更并写出，每batchSize个变更提交一次
+     *
+     * @param sink 变更输出
+     * @return 写出的变更数
+     * @throws IOException 输出失败
+     */
+    public long run(ChangeSink sink) throws IOException {
+        sink.open(plan.getTableName(), plan.getOutputColumns(), keyColumns, updateColumns);
+        long total = config.getOperations();
+        for (long i = 0; i < total; i++) {
+            sink.write(next(i));
+            if ((i + 1) % config.getBatchSize() == 0) {
+                sink.commit();
+            }
+        }
+        sink.commit();
+        log.info("Generated {} changes for table {} (keys {}, {} distribution)",
+                total, plan.getTableName(), keyColumns, config.getKeyDistribution());
+        return total;
+    }
+    
+    private long pickRow(FastRandom random) {
+        if (config.getKeyDistribution() == ChangeStreamConfig.KeyDistribution.HOTSPOT) {
+            long hotRows = Math.max(1, Math.min(rowCount, (long) (rowCount * config.getHotspotKeyRatio())));
+            if (hotRows < rowCount && random.nextDouble() >= config.getHotspotAccessRatio()) {
+                return hotRows + nextLong(random, rowCount - hotRows);
+            }
+            return nextLong(random, hotRows);
+        }
+        return nextLong(random, rowCount);
+    }
+    
+    private static long nextLong(FastRandom random, long bound) {
+        return bound <= Integer.MAX_VALUE ? random.nextInt((int) bound) : Math.floorMod(random.nextLong(), bound);
+    }
+    
+    private static Object[] pick(Object[] row, int[] indexes) {
+        Object[] values = new Object[indexes.length];
+        for (int i = 0; i < indexes.length; i++) {
+            values[i] = row[indexes[i]];
+        }
+        return values;
+    }
+    
+    private static List<String> resolveKeyColumns(TablePlan plan, ChangeStreamConfig config) {
+        if (!config.getKeyColumns().isEmpty()) {
+            return new ArrayList<>(config.getKeyColumns());
+        }
+        List<String> keys = new ArrayList<>();
+        for (ColumnPlan column : plan.getColumns()) {
+            if (column.isOutput() && column.getKind() == ColumnPlan.Kind.SEQUENCE) {
+                keys.add(column.getName());
+            }
+        }
+        if (keys.isEmpty()) {
+            keys.add(plan.getOutputColumns().get(0));
+        }
+        return keys;
+    }
+    
+    private static int[] indexesOf(List<String> output, List<String> names) {
+        int[] indexes = new int[names.size()];
+        for (int i = 0; i < names.size(); i++) {
+            indexes[i] = output.indexOf(names.get(i));
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Column " + names.get(i) + " is not an output column");
+            }
+        }
+        return indexes;
+    }
+    
+    private static ColumnPlan columnOf(TablePlan plan, String name) {
+        for (ColumnPlan column : plan.getColumns()) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        throw new IllegalArgumentException("Unknown column " + name);
+    }
+} 
\ No newline at end of file
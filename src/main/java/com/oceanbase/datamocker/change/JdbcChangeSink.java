@@ -0,0 +1,145 @@
+package com.oceanbase.datamocker.change;
+
+import com.oceanbase.datamocker.sql.JdbcValues;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 通过JDBC执行变更流
+ * 同类型的连续变更合并为一个JDBC批次，类型变化时先执行前一个批次，保证变更按生成顺序生效；
+ * 每批变更在一个事务中提交
+ */
+@Slf4j
+public class JdbcChangeSink implements ChangeSink {
+    
+    private final Connection connection;
+    private final SqlDialect dialect;
+    private final boolean ownsConnection;
+    private PreparedStatement update;
+    private PreparedStatement delete;
+    private PreparedStatement upsert;
+    private PreparedStatement batched;
+    
+    /**
+     * 创建JDBC变更输出
+     *
+     * @param connection 数据库连接
+     * @param dialect SQL方言
+     * @param ownsConnection 关闭时是否同时关闭连接
+     * @throws IOException 设置连接失败
+     */
+    public JdbcChangeSink(Connection connection, SqlDialect dialect, boolean ownsConnection) throws IOException {
+        this.connection = connection;
+        this.dialect = dialect;
+        this.ownsConnection = ownsConnection;
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Failed to disable auto-commit", e);
+        }
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns, List<String> keyColumns, List<String> updateColumns) throws IOException {
+        try {
+            update = updateColumns.isEmpty() ? null : connection.prepareStatement(
+                    dialect.update(tableName, updateColumns, keyColumns, placeholders(updateColumns.size()), placeholders(keyColumns.size())));
+            delete = connection.prepareStatement(dialect.delete(tableName, keyColumns, placeholders(keyColumns.size())));
+            upsert = connection.prepareStatement(dialect.upsert(tableName, columns, keyColumns, placeholders(columns.size())));
+        } catch (SQLException e) {
+            throw new IOException("Failed to prepare change statements for table " + tableName, e);
+        }
+    }
+    
+    @Override
+    public void write(ChangeEvent event) throws IOException {
+        try {
+            PreparedStatement statement;
+            int index = 1;
+            switch (event.getOperation()) {
+                case UPDATE:
+                    statement = update;
+                    for (Object value : event.getValues()) {
+                        JdbcValues.bind(statement, index++, value);
+                    }
+                    break;
+                case DELETE:
+                    statement = delete;
+                    break;
+                case UPSERT:
+                default:
+                    statement = upsert;
+                    for (Object value : event.getValues()) {
+                        JdbcValues.bind(statement, index++, value);
+                    }
+                    break;
+            }
+            if (event.getOperation() != ChangeEvent.Operation.UPSERT) {
+                for (Object key : event.getKeyValues()) {
+                    JdbcValues.bind(statement, index++, key);
+                }
+            }
+            if (batched != null && batched != statement) {
+                batched.executeBatch();
+            }
+            statement.addBatch();
+            batched = statement;
+        } catch (SQLException e) {
+            throw new IOException("Failed to execute change #" + event.getSequence(), e);
+        }
+    }
+    
+    @Override
+    public void commit() throws IOException {
+        try {
+            if (batched != null) {
+                batched.executeBatch();
+                batched = null;
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            throw new IOException("Failed to commit change batch", e);
+        }
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            for (PreparedStatement statement : Arrays.asList(update, delete, upsert)) {
+                closeQuietly(statement);
+            }
+            if (ownsConnection) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Failed to close connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private static void closeQuietly(PreparedStatement statement) {
+        if (statement != null) {
+            try {
+                statement.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close statement: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private static String[] placeholders(int count) {
+        String[] result = new String[count];
+        Arrays.fill(result, "?");
+        return result;
+    }
+} 
\ No newline at end of file
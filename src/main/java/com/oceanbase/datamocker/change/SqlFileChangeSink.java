@@ -0,0 +1,85 @@
+package com.oceanbase.datamocker.change;
+
+import com.oceanbase.datamocker.sql.SqlDialect;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 将变更流写为SQL脚本，每个变更一条语句，每批以COMMIT结束
+ */
+public class SqlFileChangeSink implements ChangeSink {
+    
+    private final Writer writer;
+    private final SqlDialect dialect;
+    private String tableName;
+    private List<String> columns;
+    private List<String> keyColumns;
+    private List<String> updateColumns;
+    private boolean pending;
+    
+    public SqlFileChangeSink(OutputStream out, SqlDialect dialect) {
+        this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        this.dialect = dialect;
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns, List<String> keyColumns, List<String> updateColumns) {
+        this.tableName = tableName;
+        this.columns = columns;
+        this.keyColumns = keyColumns;
+        this.updateColumns = updateColumns;
+    }
+    
+    @Override
+    public void write(ChangeEvent event) throws IOException {
+        String[] keys = literals(event.getKeyValues());
+        String sql;
+        switch (event.getOperation()) {
+            case UPDATE:
+                sql = dialect.update(tableName, updateColumns, keyColumns, literals(event.getValues()), keys);
+                break;
+            case DELETE:
+                sql = dialect.delete(tableName, keyColumns, keys);
+                break;
+            case UPSERT:
+            default:
+                sql = dialect.upsert(tableName, columns, keyColumns, literals(event.getValues()));
+                break;
+        }
+        writer.write(sql);
+        writer.write(";\n");
+        pending = true;
+    }
+    
+    @Override
+    public void commit() throws IOException {
+        if (pending) {
+            writer.write("COMMIT;\n");
+            pending = false;
+        }
+        writer.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            commit();
+        } finally {
+            writer.close();
+        }
+    }
+    
+    private String[] literals(Object[] values) {
+        String[] result = new String[values.length];
+        for (int i = 0; i < values.length; i++) {
+            result[i] = dialect.literal(values[i]);
+        }
+        return result;
+    }
+} 
\ No newline at end of file
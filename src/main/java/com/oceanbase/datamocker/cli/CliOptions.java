@@ -0,0 +1,101 @@
+package com.oceanbase.datamocker.cli;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 命令行选项解析结果
+ * 支持 "--name value" 形式的选项和不带值的 "--flag" 开关，其余参数按位置参数处理
+ */
+public class CliOptions {
+    
+    /**
+     * 不带值的开关，之后的参数总是按下一个选项或位置参数处理
+     */
+    static final Set<String> FLAGS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            "continuous", "no-header", "partitioned", "server", "single-file", "verify")));
+    
+    private final Map<String, String> options = new HashMap<>();
+    private final List<String> positional = new ArrayList<>();
+    
+    /**
+     * 解析命令行参数
+     *
+     * @param args 命令行参数
+     * @return 解析结果
+     */
+    public static CliOptions parse(String[] args) {
+        CliOptions result = new CliOptions();
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (arg.startsWith("--") && arg.length() > 2) {
+                String name = arg.substring(2);
+                int eq = name.indexOf('=');
+                if (eq > 0) {
+                    result.options.put(name.substring(0, eq), name.substring(eq + 1));
+                } else if (!FLAGS.contains(name) && i + 1 < args.length && !args[i + 1].startsWith("--")) {
+                    result.options.put(name, args[++i]);
+                } else {
+                    result.options.put(name, "true");
+                }
+            } else {
+                result.positional.add(arg);
+            }
+        }
+        return result;
+    }
+    
+    public boolean has(String name) {
+        return options.containsKey(name);
+    }
+    
+    public String get(String name, String defaultValue) {
+        return options.getOrDefault(name, defaultValue);
+    }
+    
+    public int getInt(String name, int defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+    
+    public long getLong(String name, long defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+    
+    public double getDouble(String name, double defaultValue) {
+        String value = options.get(name);
+        if (value == null) {
+            return defaultValue;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid value for --" + name + ": " + value);
+        }
+    }
+    
+    public List<String> getPositional() {
+        return positional;
+    }
+} 
\ No newline at end of file
@@ -1,15 +1,49 @@
 package com.oceanbase.datamocker.cli;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
 import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.change.ChangeSink;
+import com.oceanbase.datamocker.change.ChangeStreamConfig;
+import com.oceanbase.datamocker.change.JdbcChangeSink;
+import com.oceanbase.datamocker.change.SqlFileChangeSink;
+import com.oceanbase.datamocker.compress.CompressionCodecs;
 import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.continuous.ContinuousConfig;
+import com.oceanbase.datamocker.continuous.ContinuousGenerator;
+import com.oceanbase.datamocker.continuous.ContinuousResult;
+import com.oceanbase.datamocker.continuous.RateSchedule;
+import com.oceanbase.datamocker.job.ByteTarget;
+import com.oceanbase.datamocker.job.JobConfig;
+import com.oceanbase.datamocker.job.SchemaJobSpec;
+import com.oceanbase.datamocker.mask.MaskingConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.profile.SchemaProfile;
+import com.oceanbase.datamocker.profiler.DataProfile;
+import com.oceanbase.datamocker.profiler.DataProfiler;
+import com.oceanbase.datamocker.schema.SchemaPlan;
+import com.oceanbase.datamocker.server.MockerServer;
+import com.oceanbase.datamocker.schema.TableSchema;
+import com.oceanbase.datamocker.sink.JsonArrayRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sink.SqlInsertRowSink;
+import com.oceanbase.datamocker.sql.SqlDialect;
 import lombok.extern.slf4j.Slf4j;
 
 import java.io.File;
+import java.io.FileDescriptor;
+import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
 import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * 数据模拟器命令行工具
@@ -17,79 +51,564 @@ import java.util.Map;
 @Slf4j
 public class DataMockerCli {
     
+    /**
+     * 未指定 --rows 时每张表的行数
+     */
+    private static final long DEFAULT_ROWS = 10;
+    
     /**
      * 主方法
      *
      * @param args 命令行参数
      */
     public static void main(String[] args) {
-        if (args.length < 3) {
-            printUsage();
+        // 位置参数之外还可以带 --verify、--config 等选项，开关不会占用其后的位置参数
+        runWithOptions(CliOptions.parse(args));
+    }
+    
+    /**
+     * 按 "--name value" 形式的选项执行命令
+     *
+     * @param options 命令行选项
+     */
+    private static void runWithOptions(CliOptions options) {
+        try {
+            if (options.has("server")) {
+                runServer(options);
+            } else if (options.has("changes")) {
+                generateChanges(options);
+            } else if (options.has("continuous")) {
+                runContinuous(options);
+            } else if (options.has("learn")) {
+                learnConfig(options);
+            } else if (options.has("mask")) {
+                maskCsv(options);
+            } else if (options.has("job") || options.has("profile")) {
+                runSchemaJob(options);
+            } else if (options.has("ddl")) {
+                generateFromDdl(options);
+            } else if (options.getPositional().size() >= 3) {
+                generatePositional(options, new FileOutputStream(FileDescriptor.out));
+            } else {
+                printUsage();
+                System.exit(1);
+            }
+        } catch (Exception e) {
+            log.error("Error generating mock data: {}", e.getMessage(), e);
             System.exit(1);
         }
+    }
+    
+    /**
+     * 按位置参数 <表名> <字段名列表> <字段类型列表> [行数] [配置文件] 生成数据，
+     * 逐行生成并以缩进的JSON数组输出，不在内存中保留全部数据；行数不大于0时使用配置中的默认行数
+     *
+     * @param options 命令行选项
+     * @param out 输出流，通常为标准输出，写完后关闭
+     * @throws IOException 写出失败
+     */
+    static void generatePositional(CliOptions options, OutputStream out) throws IOException {
+        List<String> args = options.getPositional();
+        String tableName = args.get(0);
+        List<String> fieldNames = Arrays.asList(args.get(1).split(","));
+        List<String> fieldTypes = Arrays.asList(args.get(2).split(","));
+        long rowCount = DEFAULT_ROWS;
+        if (args.size() > 3) {
+            try {
+                rowCount = Long.parseLong(args.get(3));
+            } catch (NumberFormatException e) {
+                throw new IllegalArgumentException("Invalid row count: " + args.get(3));
+            }
+        }
+        File configFile = null;
+        if (args.size() > 4) {
+            configFile = new File(args.get(4));
+        } else if (options.has("config")) {
+            configFile = new File(options.get("config", null));
+        }
+        
+        DataMocker dataMocker = createDataMocker(configFile, options.has("verify"));
+        try {
+            TablePlan plan = dataMocker.compilePlan(tableName, fieldNames, fieldTypes);
+            try (RowSink sink = new JsonArrayRowSink(out, true)) {
+                dataMocker.generateData(plan, rowCount, sink);
+            }
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 根据DDL文件为其中的每张表生成数据，每张表输出一个JSON文件；
+     * 指定 --format 时改为按可从检查点恢复的作业输出CSV、NDJSON或SQL文件；
+     * 指定 --target-size 时每张表按输出文件的大小而不是 --rows 生成
+     *
+     * @param options 命令行选项
+     * @throws IOException 读写文件失败
+     */
+    private static void generateFromDdl(CliOptions options) throws IOException {
+        File ddlFile = new File(options.get("ddl", null));
+        if (!ddlFile.exists()) {
+            throw new IllegalArgumentException("DDL file not found: " + ddlFile.getAbsolutePath());
+        }
+        long rowCount = options.getLong("rows", DEFAULT_ROWS);
+        long targetBytes = options.has("target-size") ? ByteTarget.parseSize(options.get("target-size", null)) : 0;
+        File outputDir = new File(options.get("output-dir", "."));
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Failed to create output directory: " + outputDir.getAbsolutePath());
+        }
+        File cacheFile = options.has("plan-cache") ? new File(options.get("plan-cache", null)) : null;
+        Set<String> includedTables = null;
+        if (options.has("tables")) {
+            includedTables = new HashSet<>(Arrays.asList(options.get("tables", "").split(",")));
+        }
+        
+        // 指定 --format 时按可恢复的作业写出，进度保存在输出目录下的 <表名>.checkpoint.json
+        JobConfig jobConfig = null;
+        if (options.has("format")) {
+            jobConfig = new JobConfig();
+            jobConfig.setOutputDir(outputDir.getPath());
+            jobConfig.setFormat(options.get("format", null));
+            jobConfig.setPartitions(options.getInt("partitions", 1));
+            jobConfig.setSingleFile(options.has("single-file"));
+            jobConfig.setChunkRows(options.getLong("chunk-rows", jobConfig.getChunkRows()));
+            jobConfig.setCheckpointIntervalRows(options.getLong("checkpoint-interval", jobConfig.getCheckpointIntervalRows()));
+            jobConfig.setSqlDialect(options.get("dialect", jobConfig.getSqlDialect()));
+            jobConfig.setCompression(options.get("compress", null));
+            jobConfig.setCompressionLevel(options.getInt("compress-level", -1));
+            jobConfig.setTargetBytes(targetBytes);
+        }
         
+        SchemaPlan schemaPlan = SchemaPlan.load(ddlFile, rowCount, cacheFile);
+        DataMocker dataMocker = createDataMocker(options);
         try {
-            String tableName = args[0];
-            List<String> fieldNames = Arrays.asList(args[1].split(","));
-            List<String> fieldTypes = Arrays.asList(args[2].split(","));
-            
-            int rowCount = 10; // 默认生成10行
-            if (args.length > 3) {
-                try {
-                    rowCount = Integer.parseInt(args[3]);
-                } catch (NumberFormatException e) {
-                    log.error("Invalid row count: {}", args[3]);
-                    printUsage();
-                    System.exit(1);
+            for (TableSchema table : schemaPlan.getTables()) {
+                if (includedTables != null && !includedTables.contains(table.getName())) {
+                    continue;
+                }
+                TablePlan plan = dataMocker.compilePlan(table, schemaPlan.getFieldConfigs().get(table.getName()));
+                if (jobConfig != null) {
+                    dataMocker.runJob(plan, rowCount, jobConfig);
+                    continue;
                 }
+                File outputFile = new File(outputDir, table.getName() + ".json");
+                long rows = rowCount;
+                try (RowSink sink = new JsonArrayRowSink(new FileOutputStream(outputFile), true)) {
+                    if (targetBytes > 0) {
+                        rows = dataMocker.generateDataToSize(plan, targetBytes, sink);
+                    } else {
+                        dataMocker.generateData(plan, rowCount, sink);
+                    }
+                }
+                log.info("Wrote {} rows of table {} to {}", rows, table.getName(), outputFile.getAbsolutePath());
+            }
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 按作业描述文件或内置的基准测试模板生成多张表，所有表共用一个工作窃取线程池
+     *
+     * @param options 命令行选项
+     * @throws IOException 读写文件失败
+     */
+    private static void runSchemaJob(CliOptions options) throws IOException {
+        SchemaJobSpec spec;
+        if (options.has("profile")) {
+            double scale = Double.parseDouble(options.get("scale", "1"));
+            spec = SchemaProfile.load(options.get("profile", null)).toJobSpec(scale);
+            spec.setOutputDir(options.get("output-dir", "."));
+            spec.setFormat(options.get("format", spec.getFormat()));
+            spec.setSqlDialect(options.get("dialect", spec.getSqlDialect()));
+            spec.setCompression(options.get("compress", null));
+            spec.setChunkRows(options.getLong("chunk-rows", spec.getChunkRows()));
+            spec.setJdbcUrl(options.get("jdbc-url", null));
+            spec.setJdbcUser(options.get("jdbc-user", null));
+            spec.setJdbcPassword(options.get("jdbc-password", null));
+            spec.setBatchSize(options.getInt("batch-size", spec.getBatchSize()));
+        } else {
+            spec = SchemaJobSpec.load(new File(options.get("job", null)));
+        }
+        if (options.has("threads")) {
+            spec.setThreads(options.getInt("threads", 0));
+        }
+        if (options.has("partitioned")) {
+            spec.setPartitionedOutput(true);
+        }
+        DataMocker dataMocker = createDataMocker(options);
+        try {
+            dataMocker.runSchemaJob(spec);
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 一次扫描CSV文件或JDBC查询结果，统计各字段的分布并输出可复现这些统计特征的配置文件
+     *
+     * @param options 命令行选项
+     * @throws IOException 读写文件或查询失败
+     */
+    private static void learnConfig(CliOptions options) throws IOException {
+        String delimiter = options.get("delimiter", ",");
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("CSV delimiter must be a single character: " + delimiter);
+        }
+        DataProfiler profiler = new DataProfiler(delimiter.charAt(0), !options.has("no-header"),
+                options.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        String source = options.get("learn", null);
+        DataProfile profile;
+        if (options.has("jdbc-url")) {
+            // 使用JDBC时 --learn 的值是查询语句
+            try (Connection connection = DriverManager.getConnection(options.get("jdbc-url", null),
+                    options.get("jdbc-user", null), options.get("jdbc-password", null))) {
+                profile = profiler.profileJdbc(connection, source);
+            } catch (SQLException e) {
+                throw new IOException("Failed to profile query: " + source, e);
             }
-            
-            File configFile = null;
-            if (args.length > 4) {
-                configFile = new File(args[4]);
-                if (!configFile.exists()) {
-                    log.error("Config file not found: {}", configFile.getAbsolutePath());
-                    System.exit(1);
+        } else {
+            profile = profiler.profileCsv(new File(source));
+        }
+        File configFile = new File(options.get("emit-config", "learned.yaml"));
+        profile.toMockerConfig().toYaml(configFile);
+        log.info("Learned {} fields from {} rows, config written to {}; field types: {}",
+                profile.getColumns().size(), profile.getRowCount(), configFile.getAbsolutePath(),
+                String.join(",", profile.getFieldTypes()));
+    }
+    
+    /**
+     * 脱敏CSV文件中的个人信息字段，密钥来自 --mask-secret 或环境变量 MOCKER_MASK_SECRET
+     *
+     * @param options 命令行选项
+     * @throws IOException 读写文件失败
+     */
+    private static void maskCsv(CliOptions options) throws IOException {
+        if (!options.has("output")) {
+            throw new IllegalArgumentException("Masking requires --output");
+        }
+        String delimiter = options.get("delimiter", ",");
+        if (delimiter.length() != 1) {
+            throw new IllegalArgumentException("CSV delimiter must be a single character: " + delimiter);
+        }
+        MaskingConfig maskingConfig = new MaskingConfig();
+        // 未指定 --mask-secret 时读取环境变量，避免密钥出现在进程列表和命令历史中
+        maskingConfig.setSecret(options.get("mask-secret", System.getenv("MOCKER_MASK_SECRET")));
+        maskingConfig.setDelimiter(delimiter.charAt(0));
+        maskingConfig.setHeader(!options.has("no-header"));
+        maskingConfig.setThreads(options.getInt("threads", 0));
+        maskingConfig.setCompression(options.get("compress", null));
+        maskingConfig.setCompressionLevel(options.getInt("compress-level", -1));
+        if (options.has("mask-columns")) {
+            for (String item : options.get("mask-columns", "").split(",")) {
+                int colon = item.lastIndexOf(':');
+                if (colon <= 0 || colon == item.length() - 1) {
+                    throw new IllegalArgumentException("Invalid --mask-columns entry '" + item + "', expected column:TYPE or column:none");
                 }
+                maskingConfig.getColumns().put(item.substring(0, colon).trim(), item.substring(colon + 1).trim());
             }
-            
-            // 创建数据模拟器
-            DataMocker dataMocker;
-            if (configFile != null) {
-                dataMocker = DataMocker.fromConfigFile(configFile);
-            } else {
-                dataMocker = DataMocker.createDefault();
+        }
+        File input = new File(options.get("mask", null));
+        File output = new File(options.get("output", null));
+        DataMocker dataMocker = createDataMocker(options);
+        try {
+            long rows = dataMocker.maskCsv(input, output, maskingConfig);
+            log.info("Masked {} rows of {} into {}", rows, input, output.getAbsolutePath());
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 按速率计划持续生成一张表的数据，直到计划结束或进程被中断
+     *
+     * @param options 命令行选项
+     * @throws IOException 写出失败
+     */
+    private static void runContinuous(CliOptions options) throws IOException {
+        ContinuousConfig continuousConfig = new ContinuousConfig();
+        if (options.has("schedule")) {
+            continuousConfig.setSchedule(RateSchedule.parse(options.get("schedule", null)));
+        } else {
+            if (!options.has("rate") || !options.has("duration")) {
+                throw new IllegalArgumentException("Continuous mode requires --schedule or both --rate and --duration");
             }
-            
+            continuousConfig.setSchedule(RateSchedule.of(RateSchedule.parseRate(options.get("rate", null)),
+                    RateSchedule.parseDuration(options.get("ramp-up", "0")),
+                    RateSchedule.parseDuration(options.get("duration", null)),
+                    RateSchedule.parseDuration(options.get("ramp-down", "0"))));
+        }
+        continuousConfig.setUnit(ContinuousConfig.RateUnit.valueOf(options.get("unit", "rows").toUpperCase()));
+        continuousConfig.setBatchSize(options.getInt("batch-size", continuousConfig.getBatchSize()));
+        continuousConfig.setProducerThreads(options.getInt("producers", continuousConfig.getProducerThreads()));
+        
+        DataMocker dataMocker = createDataMocker(options);
+        try {
+            // 外键按被引用表已有的行数取值，与 --ddl 模式的默认行数一致
+            TablePlan plan = compileSingleTablePlan(dataMocker, options, options.getLong("rows", DEFAULT_ROWS));
+            continuousConfig.setSeed(dataMocker.getConfig().getSeed());
+            try (RowSink sink = createSink(options)) {
+                ContinuousGenerator generator = new ContinuousGenerator(plan, sink, continuousConfig);
+                // 进程被中断时停止生成，并等待已生成的数据写出
+                Thread runner = Thread.currentThread();
+                Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                    generator.stop();
+                    try {
+                        runner.join(5000);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }));
+                ContinuousResult result = generator.run();
+                System.err.println(result.summary());
+            }
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 针对已生成的数据集生成变更流，写为SQL文件或通过JDBC执行
+     *
+     * @param options 命令行选项
+     * @throws IOException 输出失败
+     */
+    private static void generateChanges(CliOptions options) throws IOException {
+        if (!options.has("rows")) {
+            throw new IllegalArgumentException("Missing required option --rows (row count of the existing dataset)");
+        }
+        ChangeStreamConfig changeConfig = new ChangeStreamConfig();
+        changeConfig.setOperations(options.getLong("changes", changeConfig.getOperations()));
+        changeConfig.setBatchSize(options.getInt("batch-size", changeConfig.getBatchSize()));
+        if (options.has("mix")) {
+            // 形如 update=60,delete=20,upsert=20，未列出的类型比例为0
+            changeConfig.setUpdateRatio(0);
+            changeConfig.setDeleteRatio(0);
+            changeConfig.setUpsertRatio(0);
+            for (String part : options.get("mix", "").split(",")) {
+                String[] pair = part.split("=");
+                if (pair.length != 2) {
+                    throw new IllegalArgumentException("Invalid --mix entry: " + part);
+                }
+                double ratio = Double.parseDouble(pair[1].trim());
+                switch (pair[0].trim().toLowerCase()) {
+                    case "update":
+                        changeConfig.setUpdateRatio(ratio);
+                        break;
+                    case "delete":
+                        changeConfig.setDeleteRatio(ratio);
+                        break;
+                    case "upsert":
+                        changeConfig.setUpsertRatio(ratio);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown change type in --mix: " + pair[0]);
+                }
+            }
+        }
+        changeConfig.setKeyDistribution(ChangeStreamConfig.KeyDistribution.valueOf(options.get("key-distribution", "uniform").toUpperCase()));
+        if (options.has("hot-keys")) {
+            changeConfig.setHotspotKeyRatio(Double.parseDouble(options.get("hot-keys", null)));
+        }
+        if (options.has("hot-access")) {
+            changeConfig.setHotspotAccessRatio(Double.parseDouble(options.get("hot-access", null)));
+        }
+        if (options.has("key-columns")) {
+            changeConfig.setKeyColumns(Arrays.asList(options.get("key-columns", "").split(",")));
+        }
+        if (options.has("update-columns")) {
+            changeConfig.setUpdateColumns(Arrays.asList(options.get("update-columns", "").split(",")));
+        }
+        SqlDialect dialect = SqlDialect.of(options.get("dialect", "mysql"));
+        
+        DataMocker dataMocker = createDataMocker(options);
+        try {
+            TablePlan plan = compileSingleTablePlan(dataMocker, options, options.getLong("rows", 0));
+            try (ChangeSink sink = createChangeSink(options, dialect)) {
+                dataMocker.generateChanges(plan, options.getLong("rows", 0), changeConfig, sink);
+            }
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    /**
+     * 指定 --jdbc-url 时通过JDBC执行变更，否则按 --output 写为SQL脚本
+     */
+    private static ChangeSink createChangeSink(CliOptions options, SqlDialect dialect) throws IOException {
+        if (options.has("jdbc-url")) {
             try {
-                // 生成数据
-                List<Map<String, Object>> data = dataMocker.generateData(tableName, fieldNames, fieldTypes, rowCount);
-                
-                // 输出JSON格式的结果
-                ObjectMapper mapper = new ObjectMapper();
-                System.out.println(mapper.writerWithDefaultPrettyPrinter().writeValueAsString(data));
-            } finally {
-                // 关闭资源
-                dataMocker.close();
+                return new JdbcChangeSink(DriverManager.getConnection(options.get("jdbc-url", null),
+                        options.get("jdbc-user", null), options.get("jdbc-password", null)), dialect, true);
+            } catch (SQLException e) {
+                throw new IOException("Failed to connect to " + options.get("jdbc-url", null), e);
             }
-        } catch (Exception e) {
-            log.error("Error generating mock data: {}", e.getMessage(), e);
-            System.exit(1);
         }
+        String output = options.get("output", "-");
+        return new SqlFileChangeSink("-".equals(output) ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output), dialect);
+    }
+    
+    /**
+     * 启动本地数据生成服务，直到进程被中断
+     *
+     * @param options 命令行选项
+     * @throws IOException 读取DDL文件或绑定端口失败
+     * @throws InterruptedException 等待时被中断
+     */
+    private static void runServer(CliOptions options) throws IOException, InterruptedException {
+        DataMocker dataMocker = createDataMocker(options);
+        InetSocketAddress address = new InetSocketAddress(options.get("host", "127.0.0.1"), options.getInt("port", 8080));
+        MockerServer server = new MockerServer(dataMocker, address,
+                options.getInt("threads", Runtime.getRuntime().availableProcessors()));
+        if (options.has("ddl")) {
+            byte[] ddl = Files.readAllBytes(new File(options.get("ddl", null)).toPath());
+            server.registerSchema(new String(ddl, StandardCharsets.UTF_8));
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(server::close));
+        server.start();
+        Thread.currentThread().join();
+    }
+    
+    /**
+     * 编译单张表的生成计划，表结构来自 --ddl 和 --table，或者 --table、--fields 和 --types
+     *
+     * @param rowCount 使用DDL时被引用表的行数，外键在此范围内取值
+     */
+    private static TablePlan compileSingleTablePlan(DataMocker dataMocker, CliOptions options, long rowCount) throws IOException {
+        String tableName = options.get("table", null);
+        if (tableName == null) {
+            throw new IllegalArgumentException("Missing required option --table");
+        }
+        if (options.has("ddl")) {
+            SchemaPlan schemaPlan = SchemaPlan.load(new File(options.get("ddl", null)), rowCount, null);
+            for (TableSchema table : schemaPlan.getTables()) {
+                if (table.getName().equalsIgnoreCase(tableName)) {
+                    return dataMocker.compilePlan(table, schemaPlan.getFieldConfigs().get(table.getName()));
+                }
+            }
+            throw new IllegalArgumentException("Table " + tableName + " not found in DDL file");
+        }
+        if (!options.has("fields") || !options.has("types")) {
+            throw new IllegalArgumentException("Missing required options --fields and --types (or --ddl)");
+        }
+        return dataMocker.compilePlan(tableName, Arrays.asList(options.get("fields", "").split(",")),
+                Arrays.asList(options.get("types", "").split(",")));
+    }
+    
+    /**
+     * 按 --format 和 --compress 创建行输出，--output 未指定或为 "-" 时输出到标准输出
+     */
+    private static RowSink createSink(CliOptions options) throws IOException {
+        String output = options.get("output", "-");
+        OutputStream out = "-".equals(output) ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output);
+        try {
+            out = CompressionCodecs.wrap(out, options.get("compress", null), options.getInt("compress-level", -1));
+            String format = options.get("format", "csv");
+            if ("sql".equalsIgnoreCase(format)) {
+                return new SqlInsertRowSink(out, SqlDialect.of(options.get("dialect", "mysql")),
+                        options.getInt("statement-rows", SqlInsertRowSink.DEFAULT_MAX_ROWS),
+                        options.getLong("statement-bytes", SqlInsertRowSink.DEFAULT_MAX_BYTES));
+            }
+            return RowSinks.create(format, out, true);
+        } catch (IllegalArgumentException e) {
+            out.close();
+            throw e;
+        }
+    }
+    
+    /**
+     * 按 --config 指定的配置文件创建数据模拟器，指定 --verify 时启用生成结果校验
+     *
+     * @param options 命令行选项
+     * @return 数据模拟器
+     */
+    private static DataMocker createDataMocker(CliOptions options) {
+        return createDataMocker(options.has("config") ? new File(options.get("config", null)) : null, options.has("verify"));
+    }
+    
+    /**
+     * 创建数据模拟器
+     *
+     * @param configFile 配置文件，为null时使用默认配置
+     * @param verify 是否启用生成结果校验
+     * @return 数据模拟器
+     */
+    private static DataMocker createDataMocker(File configFile, boolean verify) {
+        if (configFile != null && !configFile.exists()) {
+            throw new IllegalArgumentException("Config file not found: " + configFile.getAbsolutePath());
+        }
+        if (!verify) {
+            return configFile == null ? DataMocker.createDefault() : DataMocker.fromConfigFile(configFile);
+        }
+        MockerConfig config = configFile == null ? new MockerConfig() : MockerConfig.fromFile(configFile);
+        config.getMetrics().setVerify(true);
+        return new DataMocker(config);
     }
     
     /**
      * 打印使用说明
      */
     private static void printUsage() {
-        System.out.println("Usage: java -jar ob-data-mocker.jar <table_name> <field_names> <field_types> [row_count] [config_file]");
+        System.out.println("Usage: java -jar ob-data-mocker.jar <table_name> <field_names> <field_types> [row_count] [config_file] [--verify]");
         System.out.println("  table_name: Name of the table");
         System.out.println("  field_names: Comma-separated list of field names");
         System.out.println("  field_types: Comma-separated list of field types");
         System.out.println("  row_count: Number of rows to generate (default: 10)");
         System.out.println("  config_file: Path to YAML or JSON configuration file (optional)");
         System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --ddl <ddl_file> [--rows N] [--config file] [--output-dir dir] [--plan-cache file] [--tables t1,t2]");
+        System.out.println("  --ddl: File with CREATE TABLE statements; every table is generated into <output-dir>/<table>.json");
+        System.out.println("  --plan-cache: Cache file for the parsed schema, reused while the DDL and row count are unchanged");
+        System.out.println("  --format csv|ndjson|sql [--dialect mysql|oracle] [--partitions N] [--checkpoint-interval rows] [--compress gzip] [--compress-level 1-9]:");
+        System.out.println("      Write files as a resumable job, optionally compressed in parallel blocks;");
+        System.out.println("      progress is saved to <output-dir>/<table>.checkpoint.json and a rerun continues where it stopped");
+        System.out.println("  --single-file [--chunk-rows N]: With --format, let --partitions threads write one file per table in parallel regions");
+        System.out.println("  --target-size SIZE: Generate each table up to an output size such as 512M or 10G instead of --rows;");
+        System.out.println("      with --format the size is that of the files on disk (after compression), split evenly across partitions");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --job <spec.yaml> [--threads N] [--partitioned] [--config file]");
+        System.out.println("  --job: Generate every table listed in a job spec on one shared work-stealing pool, largest tables first");
+        System.out.println("  --partitioned: Write each partition of a table with PARTITION BY HASH/KEY/RANGE to its own file, sorted by primary key");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --profile tpch|tpcc [--scale SF] [--output-dir dir] [--format csv|ndjson|sql] [--compress gzip]");
+        System.out.println("           [--jdbc-url url [--jdbc-user u] [--jdbc-password p] [--batch-size N]] [--threads N] [--config file]");
+        System.out.println("  --profile: Generate a bundled benchmark schema; --scale is the TPC-H scale factor or the TPC-C warehouse count");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --learn <file.csv> [--delimiter ,] [--no-header] [--threads N] [--emit-config learned.yaml]");
+        System.out.println("   or: java -jar ob-data-mocker.jar --learn \"SELECT ...\" --jdbc-url url [--jdbc-user u] [--jdbc-password p] [--emit-config learned.yaml]");
+        System.out.println("  --learn: Profile a sample in one pass (distinct counts, quantiles, heavy hitters, null rates, lengths)");
+        System.out.println("      and write a config that reproduces these statistics; large CSV files are split and profiled in parallel");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --mask <file.csv> --output <masked.csv> [--mask-secret S] [--delimiter ,] [--no-header]");
+        System.out.println("           [--threads N] [--mask-columns col:TYPE,col2:none] [--compress gzip] [--config file]");
+        System.out.println("  --mask: Replace names, phones, emails, addresses and ID card numbers with fake values that are deterministic");
+        System.out.println("      for a secret (--mask-secret or MOCKER_MASK_SECRET), so masked tables still join; other columns are kept");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --continuous --table <name> (--fields f1,f2 --types T1,T2 | --ddl <ddl_file>)");
+        System.out.println("           (--rate R --duration D [--ramp-up D] [--ramp-down D] | --schedule spec) [--unit rows|bytes]");
+        System.out.println("           [--output file] [--format csv|ndjson|sql] [--compress gzip] [--batch-size N] [--producers N] [--config file]");
+        System.out.println("  --continuous: Emit rows at a target rate until the schedule ends; latency percentiles are printed to stderr");
+        System.out.println("  --rows: With --ddl, the row count of the tables referenced by foreign keys (default 10)");
+        System.out.println("  --schedule: Comma-separated phases <rate>:<duration> or <from>-><to>:<duration>, e.g. 0->500k:30s,500k:10m");
+        System.out.println("  --format sql: Multi-row INSERT statements capped by --statement-rows (default 1000) and --statement-bytes");
+        System.out.println("      (default 4194304, keep it below max_allowed_packet); --dialect mysql|oracle selects literal escaping");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --changes N --table <name> (--fields f1,f2 --types T1,T2 | --ddl <ddl_file>) --rows <existing_rows>");
+        System.out.println("           [--mix update=60,delete=20,upsert=20] [--key-distribution uniform|hotspot] [--hot-keys 0.01] [--hot-access 0.9]");
+        System.out.println("           [--key-columns k1,k2] [--update-columns c1,c2] [--dialect mysql|oracle] [--batch-size N]");
+        System.out.println("           [--output file | --jdbc-url url [--jdbc-user u] [--jdbc-password p]] [--config file]");
+        System.out.println("  --changes: Generate UPDATE/DELETE/UPSERT statements against a dataset generated with the same config and seed");
+        System.out.println();
+        System.out.println("   or: java -jar ob-data-mocker.jar --server [--host 127.0.0.1] [--port 8080] [--threads N] [--ddl file] [--config file]");
+        System.out.println("  --server: Keep compiled plans in memory and stream rows over HTTP, e.g. GET /generate?table=orders&rows=1000&format=ndjson");
+        System.out.println("      Each streaming response holds one of the --threads workers; further requests wait in a queue");
+        System.out.println();
+        System.out.println("  --verify: With any of the usages above, sketch every generated column and log a report comparing");
+        System.out.println("      null rates, ranges, enum mix and distribution quantiles with the field configs");
+        System.out.println();
         System.out.println("Example:");
         System.out.println("  java -jar ob-data-mocker.jar users \"id,name,email,age\" \"INT,STRING,STRING,INT\" 20 config.yaml");
+        System.out.println("  java -jar ob-data-mocker.jar --ddl schema.sql --rows 1000 --output-dir out --plan-cache out/schema.plan.json");
+        System.out.println("  java -jar ob-data-mocker.jar --continuous --ddl schema.sql --table orders --rate 100k --duration 10m --ramp-up 1m --output orders.csv");
     }
 } 
\ No newline at end of file
@@ -0,0 +1,38 @@
+package com.oceanbase.datamocker.compress;
+
+import java.io.IOException;
+
+/**
+ * 压缩编解码器
+ * 每个块独立压缩，压缩结果可以直接首尾拼接，拼接后的文件能被对应的标准工具解压。
+ * 实现类必须是线程安全的，多个块会在不同线程上同时压缩。
+ * 可以通过SPI机制（META-INF/services/com.oceanbase.datamocker.compress.CompressionCodec）注册LZ4、zstd等实现
+ */
+public interface CompressionCodec {
+    
+    /**
+     * 编解码器名称，如 gzip
+     *
+     * @return 名称
+     */
+    String getName();
+    
+    /**
+     * 压缩文件的扩展名，不含点，如 gz
+     *
+     * @return 扩展名
+     */
+    String getExtension();
+    
+    /**
+     * 将一个块压缩为可以独立解压的帧
+     *
+     * @param data 数据
+     * @param offset 起始位置
+     * @param length 长度
+     * @param level 压缩级别，-1表示默认级别
+     * @return 压缩后的帧
+     * @throws IOException 压缩失败
+     */
+    byte[] compress(byte[] data, int offset, int length, int level) throws IOException;
+} 
\ No newline at end of file
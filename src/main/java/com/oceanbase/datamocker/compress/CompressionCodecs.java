@@ -0,0 +1,87 @@
+package com.oceanbase.datamocker.compress;
+
+import java.io.OutputStream;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.TreeMap;
+
+/**
+ * 压缩编解码器注册表
+ */
+public final class CompressionCodecs {
+    
+    /**
+     * 表示不压缩的名称
+     */
+    public static final String NONE = "none";
+    
+    private static final Map<String, CompressionCodec> CODECS = new TreeMap<>();
+    
+    static {
+        // 注册内置编解码器
+        register(new GzipCodec());
+        
+        // 加载通过SPI机制注册的编解码器
+        for (CompressionCodec codec : ServiceLoader.load(CompressionCodec.class)) {
+            register(codec);
+        }
+    }
+    
+    private CompressionCodecs() {
+    }
+    
+    private static void register(CompressionCodec codec) {
+        CODECS.put(codec.getName().toLowerCase(), codec);
+    }
+    
+    /**
+     * 按名称获取编解码器
+     *
+     * @param name 名称，忽略大小写
+     * @return 编解码器，name为null、空或none时返回null
+     */
+    public static CompressionCodec get(String name) {
+        if (isNone(name)) {
+            return null;
+        }
+        CompressionCodec codec = CODECS.get(name.toLowerCase());
+        if (codec == null) {
+            throw new IllegalArgumentException("Unsupported compression: " + name + ", available: " + CODECS.keySet());
+        }
+        return codec;
+    }
+    
+    /**
+     * 是否表示不压缩
+     *
+     * @param name 名称
+     * @return name为null、空或none时返回true
+     */
+    public static boolean isNone(String name) {
+        return name == null || name.isEmpty() || NONE.equalsIgnoreCase(name);
+    }
+    
+    /**
+     * 按名称包装输出流，不压缩时原样返回
+     *
+     * @param out 输出流
+     * @param name 编解码器名称
+     * @param level 压缩级别，-1表示默认级别
+     * @return 输出流
+     */
+    public static OutputStream wrap(OutputStream out, String name, int level) {
+        CompressionCodec codec = get(name);
+        return codec == null ? out : new ParallelCompressingOutputStream(out, codec, level);
+    }
+    
+    /**
+     * 获取压缩后文件名的后缀，不压缩时返回空字符串
+     *
+     * @param name 编解码器名称
+     * @return 以点开头的后缀
+     */
+    public static String suffix(String name) {
+        CompressionCodec codec = get(name);
+        return codec == null ? "" : "." + codec.getExtension();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.oceanbase.datamocker.compress;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 并行分块压缩的输出流
+ * 写入的数据按固定大小切成块，每块在工作线程池中独立压缩，压缩结果按块的顺序写入底层输出流。
+ * 写入线程只负责拷贝数据，压缩在其他线程进行，在途的块数有上限，底层输出跟不上时写入线程会等待。
+ * flush会把不满一块的数据作为一个短块压缩并写出，因此flush之后底层输出总是停在帧的边界上
+ */
+public class ParallelCompressingOutputStream extends OutputStream {
+    
+    /**
+     * 默认块大小
+     */
+    public static final int DEFAULT_BLOCK_SIZE = 1024 * 1024;
+    
+    private static final AtomicInteger THREAD_IDS = new AtomicInteger();
+    
+    /**
+     * 所有压缩流共享的工作线程池，线程数等于CPU核数
+     */
+    private static final ExecutorService SHARED_POOL = new ThreadPoolExecutor(
+            Runtime.getRuntime().availableProcessors(), Runtime.getRuntime().availableProcessors(),
+            60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+        Thread thread = new Thread(r, "mocker-compress-" + THREAD_IDS.incrementAndGet());
+        thread.setDaemon(true);
+        return thread;
+    });
+    
+    private final OutputStream out;
+    private final CompressionCodec codec;
+    private final int level;
+    private final int blockSize;
+    private final int maxInFlight;
+    private final ExecutorService executor;
+    private final ArrayDeque<Future<byte[]>> inFlight = new ArrayDeque<>();
+    
+    /**
+     * 与inFlight一一对应的输入块，块压缩完成并写出后放回spareBlocks复用
+     */
+    private final ArrayDeque<byte[]> inFlightBlocks = new ArrayDeque<>();
+    private final ArrayDeque<byte[]> spareBlocks = new ArrayDeque<>();
+    private byte[] block;
+    private int position;
+    private long compressedBytes;
+    private boolean closed;
+    
+    public ParallelCompressingOutputStream(OutputStream out, CompressionCodec codec, int level) {
+        this(out, codec, level, DEFAULT_BLOCK_SIZE, SHARED_POOL, Runtime.getRuntime().availableProcessors() * 2);
+    }
+    
+    /**
+     * 创建并行压缩输出流
+     *
+     * @param out 底层输出流
+     * @param codec 编解码器
+     * @param level 压缩级别，-1表示默认级别
+     * @param blockSize 块大小
+     * @param executor 压缩线程池
+     * @param maxInFlight 最多同时在压缩或等待写出的块数
+     */
+    public ParallelCompressingOutputStream(OutputStream out, CompressionCodec codec, int level, int blockSize,
+                                           ExecutorService executor, int maxInFlight) {
+        if (blockSize <= 0 || maxInFlight <= 0) {
+            throw new IllegalArgumentException("blockSize and maxInFlight must be positive");
+        }
+        this.out = out;
+        this.codec = codec;
+        this.level = level;
+        this.blockSize = blockSize;
+        this.executor = executor;
+        this.maxInFlight = maxInFlight;
+        this.block = new byte[blockSize];
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        if (position == blockSize) {
+            submitBlock();
+        }
+        block[position++] = (byte) b;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        while (len > 0) {
+            if (position == blockSize) {
+                submitBlock();
+            }
+            int n = Math.min(len, blockSize - position);
+            System.arraycopy(b, off, block, position, n);
+            position += n;
+            off += n;
+            len -= n;
+        }
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        if (position > 0) {
+            submitBlock();
+        }
+        while (!inFlight.isEmpty()) {
+            writeHead();
+        }
+        out.flush();
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        try {
+            flush();
+        } finally {
+            for (Future<byte[]> future : inFlight) {
+                future.cancel(true);
+            }
+            out.close();
+        }
+    }
+    
+    /**
+     * 获取已写入底层输出流的压缩字节数
+     *
+     * @return 字节数
+     */
+    public long getCompressedBytes() {
+        return compressedBytes;
+    }
+    
+    private void submitBlock() throws IOException {
+        while (inFlight.size() >= maxInFlight) {
+            writeHead();
+        }
+        byte[] data = block;
+        int length = position;
+        inFlight.addLast(executor.submit(() -> codec.compress(data, 0, length, level)));
+        inFlightBlocks.addLast(data);
+        // 已提交的块由压缩任务持有，换一个空闲的缓冲区继续写入
+        block = spareBlocks.isEmpty() ? new byte[blockSize] : spareBlocks.pollFirst();
+        position = 0;
+        // 顺便写出已经完成的块，减少flush时的等待
+        while (!inFlight.isEmpty() && inFlight.peekFirst().isDone()) {
+            writeHead();
+        }
+    }
+    
+    private void writeHead() throws IOException {
+        byte[] compressed;
+        try {
+            compressed = inFlight.peekFirst().get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while waiting for compression");
+        } catch (ExecutionException e) {
+            throw new IOException("Failed to compress block with " + codec.getName(), e.getCause());
+        }
+        inFlight.removeFirst();
+        spareBlocks.addLast(inFlightBlocks.removeFirst());
+        out.write(compressed);
+        compressedBytes += compressed.length;
+    }
+} 
\ No newline at end of file
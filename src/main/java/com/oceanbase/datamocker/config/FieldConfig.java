@@ -2,7 +2,9 @@ package com.oceanbase.datamocker.config;
 
 import lombok.Data;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -46,6 +48,31 @@ public class FieldConfig {
      */
     private Integer maxLength;
     
+    /**
+     * 小数位数（适用于DECIMAL类型，默认为2）
+     */
+    private Integer scale;
+    
+    /**
+     * 是否按序列生成（以min为起始值逐行递增，适用于主键、唯一键）
+     */
+    private boolean sequence = false;
+    
+    /**
+     * 默认值
+     */
+    private String defaultValue;
+    
+    /**
+     * 使用默认值的比例，取值范围0-1
+     */
+    private double defaultRate = 0.0;
+    
+    /**
+     * 外键引用的字段，格式为"表名.字段名"
+     */
+    private String references;
+    
     /**
      * 正则表达式模式（用于生成符合特定格式的数据）
      */
@@ -76,6 +103,130 @@ public class FieldConfig {
      */
     private Map<String, Object> customGeneratorParams = new HashMap<>();
     
+    /**
+     * 派生表达式，基于同一行中其他字段的值计算本字段（如 "plusSeconds(create_time, randInt(0, 86400))"）
+     */
+    private String expression;
+    
+    /**
+     * 关联的源字段名，与valueMapping配合使用
+     */
+    private String correlatedWith;
+    
+    /**
+     * 关联取值映射，key为源字段的值，value为本字段在该取值下的候选值列表
+     */
+    private Map<String, String[]> valueMapping = new HashMap<>();
+    
+    /**
+     * 条件生成规则，按顺序匹配第一个条件成立的规则，均不成立时按本字段的配置生成
+     */
+    private List<ConditionalRule> conditions = new ArrayList<>();
+    
+    /**
+     * 值池配置，设置后字段预先生成一批不同的值，之后从池中按分布采样
+     */
+    private ValuePoolConfig valuePool;
+    
+    /**
+     * JSON对象模板，key为属性名，每个属性按自己的配置生成，可以继续嵌套对象和数组
+     */
+    private Map<String, FieldConfig> properties;
+    
+    /**
+     * JSON数组模板，数组中的每个元素按该配置生成
+     */
+    private FieldConfig items;
+    
+    /**
+     * JSON数组的最小元素个数，默认为0
+     */
+    private Integer minItems;
+    
+    /**
+     * JSON数组的最大元素个数，默认为5
+     */
+    private Integer maxItems;
+    
+    /**
+     * 复制一份不生成空值的配置，空值已由生成计划按位图决定时用于调用字段生成器
+     *
+     * @return 配置副本，集合类型的属性与原配置共享
+     */
+    public FieldConfig withoutNulls() {
+        FieldConfig copy = new FieldConfig();
+        copy.setType(type);
+        copy.setAllowNull(false);
+        copy.setNullRate(0.0);
+        copy.setMin(min);
+        copy.setMax(max);
+        copy.setMinLength(minLength);
+        copy.setMaxLength(maxLength);
+        copy.setScale(scale);
+        copy.setSequence(sequence);
+        copy.setDefaultValue(defaultValue);
+        copy.setDefaultRate(defaultRate);
+        copy.setReferences(references);
+        copy.setPattern(pattern);
+        copy.setEnumValues(enumValues);
+        copy.setDistributionType(distributionType);
+        copy.setDistributionParams(distributionParams);
+        copy.setCustomGeneratorClass(customGeneratorClass);
+        copy.setCustomGeneratorParams(customGeneratorParams);
+        copy.setExpression(expression);
+        copy.setCorrelatedWith(correlatedWith);
+        copy.setValueMapping(valueMapping);
+        copy.setConditions(conditions);
+        copy.setValuePool(valuePool);
+        copy.setProperties(properties);
+        copy.setItems(items);
+        copy.setMinItems(minItems);
+        copy.setMaxItems(maxItems);
+        return copy;
+    }
+    
+    /**
+     * 条件生成规则
+     */
+    @Data
+    public static class ConditionalRule {
+        /**
+         * 条件表达式，可引用同一行的其他字段
+         */
+        private String when;
+        
+        /**
+         * 条件成立时使用的字段配置，未设置类型时沿用所属字段的类型
+         */
+        private FieldConfig then;
+    }
+    
+    /**
+     * 值池配置，适用于地址、正则等单值生成代价较高的字段
+     */
+    @Data
+    public static class ValuePoolConfig {
+        /**
+         * 池中不同值的个数
+         */
+        private int size = 10000;
+        
+        /**
+         * 从池中采样的分布，EXPONENTIAL使靠前的值成为热点值
+         */
+        private DistributionType distribution = DistributionType.UNIFORM;
+        
+        /**
+         * 是否将值的UTF-8字节存放在堆外内存中（仅适用于字符串值）
+         */
+        private boolean offHeap = false;
+        
+        /**
+         * 构建值池的并行度，0表示使用CPU核数
+         */
+        private int parallelism = 0;
+    }
+    
     /**
      * 数据分布类型枚举
      */
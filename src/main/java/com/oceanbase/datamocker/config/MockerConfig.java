@@ -28,6 +28,11 @@ public class MockerConfig {
      */
     private int defaultRowCount = 100;
     
+    /**
+     * 随机种子，设置后相同配置生成的数据可复现，且与生成线程数无关
+     */
+    private Long seed;
+    
     /**
      * 字段配置映射，key为字段名，value为字段配置
      */
@@ -38,11 +43,21 @@ public class MockerConfig {
      */
     private String[] excludeFields = new String[0];
     
+    /**
+     * 生成Map形式的行数据时是否省略值为null的字段，适用于大部分字段为空的稀疏宽表
+     */
+    private boolean omitNullFields = false;
+    
     /**
      * AI模型配置
      */
     private AiModelConfig aiModelConfig = new AiModelConfig();
     
+    /**
+     * 运行指标配置
+     */
+    private MetricsConfig metrics = new MetricsConfig();
+    
     /**
      * 从YAML文件加载配置
      *
@@ -77,6 +92,55 @@ public class MockerConfig {
         }
     }
     
+    /**
+     * 按扩展名从YAML或JSON文件加载配置，不支持的格式使用默认配置
+     *
+     * @param configFile 配置文件
+     * @return 配置对象
+     */
+    public static MockerConfig fromFile(File configFile) {
+        if (configFile.getName().endsWith(".yaml") || configFile.getName().endsWith(".yml")) {
+            return fromYaml(configFile);
+        } else if (configFile.getName().endsWith(".json")) {
+            return fromJson(configFile);
+        }
+        log.warn("Unsupported config file format: {}, using default config", configFile.getName());
+        return new MockerConfig();
+    }
+    
+    /**
+     * 将配置写入YAML文件，省略值为null或空集合的选项
+     *
+     * @param configFile 配置文件
+     * @throws IOException 写入失败
+     */
+    public void toYaml(File configFile) throws IOException {
+        ObjectMapper mapper = new ObjectMapper(new YAMLFactory());
+        mapper.setSerializationInclusion(JsonInclude.Include.NON_EMPTY);
+        mapper.writeValue(configFile, this);
+    }
+    
+    /**
+     * 以给定的字段配置为基础创建配置副本，当前配置中同名字段的配置优先
+     *
+     * @param baseFieldConfigs 基础字段配置（如从DDL导入的配置）
+     * @return 配置副本
+     */
+    public MockerConfig withBaseFieldConfigs(Map<String, FieldConfig> baseFieldConfigs) {
+        MockerConfig copy = new MockerConfig();
+        copy.setEnableAiInference(enableAiInference);
+        copy.setDefaultRowCount(defaultRowCount);
+        copy.setExcludeFields(excludeFields);
+        copy.setOmitNullFields(omitNullFields);
+        copy.setAiModelConfig(aiModelConfig);
+        copy.setSeed(seed);
+        copy.setMetrics(metrics);
+        Map<String, FieldConfig> merged = new HashMap<>(baseFieldConfigs);
+        merged.putAll(fieldConfigs);
+        copy.setFieldConfigs(merged);
+        return copy;
+    }
+    
     /**
      * AI模型配置
      */
@@ -102,4 +166,45 @@ public class MockerConfig {
          */
         private long inferenceTimeout = 5000;
     }
+    
+    /**
+     * 运行指标配置
+     */
+    @Data
+    public static class MetricsConfig {
+        /**
+         * 是否启用运行指标，关闭时生成路径上只有一次布尔判断
+         */
+        private boolean enabled = false;
+        
+        /**
+         * 是否通过JMX暴露运行指标
+         */
+        private boolean jmx = true;
+        
+        /**
+         * 进度文件路径，设置后定期以JSON格式写出运行指标快照
+         */
+        private String progressFile;
+        
+        /**
+         * 进度文件的写出间隔（毫秒）
+         */
+        private long progressIntervalMillis = 1000;
+        
+        /**
+         * 字段耗时的采样间隔，每隔该行数对各字段的生成计时一次，必须为2的幂
+         */
+        private int columnSampleInterval = 64;
+        
+        /**
+         * 是否统计生成结果并与字段配置对比，生成结束时输出校验报告；与运行指标是否启用无关
+         */
+        private boolean verify = false;
+        
+        /**
+         * 校验时分位数和枚举值分布的采样间隔，每隔该行数记录一次，必须为2的幂；计数、空值、最值和不同值个数统计每一行
+         */
+        private int verifySampleInterval = 16;
+    }
 } 
\ No newline at end of file
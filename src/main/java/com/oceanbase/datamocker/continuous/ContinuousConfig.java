@@ -0,0 +1,65 @@
+package com.oceanbase.datamocker.continuous;
+
+import lombok.Data;
+
+/**
+ * 持续生成模式的配置
+ */
+@Data
+public class ContinuousConfig {
+    
+    /**
+     * 速率单位
+     */
+    public enum RateUnit {
+        /**
+         * 行/秒
+         */
+        ROWS,
+        
+        /**
+         * 字节/秒（按输出的字节数计算）
+         */
+        BYTES
+    }
+    
+    /**
+     * 速率计划
+     */
+    private RateSchedule schedule;
+    
+    /**
+     * 速率单位
+     */
+    private RateUnit unit = RateUnit.ROWS;
+    
+    /**
+     * 生成线程每批生成的行数
+     */
+    private int batchSize = 1000;
+    
+    /**
+     * 生成线程数，生成在独立的线程中进行，不占用控制发送节奏的线程
+     */
+    private int producerThreads = Math.max(1, Runtime.getRuntime().availableProcessors() - 1);
+    
+    /**
+     * 生成线程与发送线程之间的队列容量（批数）
+     */
+    private int queueCapacity = 64;
+    
+    /**
+     * 发送节奏的时间粒度（纳秒），每次写出约为该时长内应发送的数据量
+     */
+    private long tickNanos = 1_000_000L;
+    
+    /**
+     * 写出开始时间晚于预定时间超过该值（纳秒）时计为一次未达标
+     */
+    private long lateThresholdNanos = 1_000_000L;
+    
+    /**
+     * 随机种子，设置后第N行的内容可复现
+     */
+    private Long seed;
+} 
\ No newline at end of file
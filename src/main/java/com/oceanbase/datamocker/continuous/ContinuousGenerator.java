@@ -0,0 +1,216 @@
+package com.oceanbase.datamocker.continuous;
+
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 按速率计划持续生成数据
+ * 生成线程预先生成整批的行放入队列，调用run的线程只负责按计划的节奏写出。
+ * 每次写出都有一个只由速率计划决定的预定时间，延迟从预定时间开始计算，
+ * 因此写出阻塞导致的积压会计入后续写出的延迟，不会出现协调遗漏
+ */
+@Slf4j
+public class ContinuousGenerator {
+    
+    /**
+     * 距离预定时间小于该值时不再park，改为自旋等待
+     */
+    private static final long SPIN_THRESHOLD_NANOS = 50_000L;
+    
+    /**
+     * 按字节计速时，在还没有写出数据前估算的每行字节数
+     */
+    private static final double INITIAL_ROW_BYTES = 100;
+    
+    private static final String QUEUE_DEPTH_GAUGE = "sinkQueueDepth";
+    
+    private final TablePlan plan;
+    private final RowSink sink;
+    private final ContinuousConfig config;
+    private final AtomicLong nextRowIndex = new AtomicLong();
+    private final AtomicReference<Throwable> producerFailure = new AtomicReference<>();
+    private volatile boolean stopped;
+    
+    public ContinuousGenerator(TablePlan plan, RowSink sink, ContinuousConfig config) {
+        if (config.getSchedule() == null) {
+            throw new IllegalArgumentException("Continuous generation requires a rate schedule");
+        }
+        if (config.getBatchSize() <= 0 || config.getProducerThreads() <= 0 || config.getQueueCapacity() <= 0) {
+            throw new IllegalArgumentException("batchSize, producerThreads and queueCapacity must be positive");
+        }
+        this.plan = plan;
+        this.sink = sink;
+        this.config = config;
+    }
+    
+    /**
+     * 按速率计划生成并写出数据，直到计划结束或调用stop
+     *
+     * @return 运行结果
+     * @throws IOException 写出失败
+     */
+    public ContinuousResult run() throws IOException {
+        BlockingQueue<Object[][]> queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+        List<Thread> producers = startProducers(queue);
+        
+        RateSchedule schedule = config.getSchedule();
+        boolean byBytes = config.getUnit() == ContinuousConfig.RateUnit.BYTES;
+        LatencyHistogram latency = new LatencyHistogram();
+        long rows = 0;
+        long lateWrites = 0;
+        long stalls = 0;
+        double units = 0;
+        Object[][] batch = null;
+        int batchOffset = 0;
+        
+        MockerMetrics metrics = plan.getMetrics();
+        metrics.registerGauge(QUEUE_DEPTH_GAUGE, queue::size);
+        sink.open(plan.getTableName(), plan.getOutputColumns());
+        long startBytes = sink.getBytesWritten();
+        long start = System.nanoTime();
+        try {
+            while (!stopped) {
+                long offset = schedule.timeForUnits(units);
+                if (offset < 0) {
+                    break;
+                }
+                long intended = start + offset;
+                waitUntil(intended);
+                
+                if (batch == null || batchOffset == batch.length) {
+                    batch = queue.poll();
+                    if (batch == null) {
+                        stalls++;
+                        batch = take(queue);
+                        if (batch == null) {
+                            break;
+                        }
+                    }
+                    batchOffset = 0;
+                }
+                
+                // 每次写出约一个时间粒度内应发送的量，不超过计划剩余的量
+                long now = System.nanoTime();
+                if (now - intended > config.getLateThresholdNanos()) {
+                    lateWrites++;
+                }
+                double rate = Math.max(schedule.rateAt(offset), 1);
+                double rowBytes = rows == 0 ? INITIAL_ROW_BYTES : (double) (sink.getBytesWritten() - startBytes) / rows;
+                double remainingUnits = schedule.getTotalUnits() - units;
+                double chunkUnits = Math.min(rate * config.getTickNanos() / 1e9, remainingUnits);
+                long chunk = (long) Math.ceil(byBytes ? chunkUnits / rowBytes : chunkUnits);
+                int count = (int) Math.max(1, Math.min(chunk, batch.length - batchOffset));
+                
+                long bytesBefore = sink.getBytesWritten();
+                for (int i = 0; i < count; i++) {
+                    sink.write(batch[batchOffset + i]);
+                }
+                batchOffset += count;
+                rows += count;
+                long written = sink.getBytesWritten() - bytesBefore;
+                units += byBytes ? written : count;
+                long done = System.nanoTime();
+                latency.record(done - intended);
+                metrics.addBytes(written);
+                metrics.addPhaseNanos(MockerMetrics.Phase.WRITE, done - now);
+            }
+            long flushStart = System.nanoTime();
+            sink.flush();
+            metrics.addPhaseNanos(MockerMetrics.Phase.FLUSH, System.nanoTime() - flushStart);
+        } finally {
+            stopped = true;
+            metrics.unregisterGauge(QUEUE_DEPTH_GAUGE);
+            for (Thread producer : producers) {
+                producer.interrupt();
+            }
+        }
+        
+        Throwable failure = producerFailure.get();
+        if (failure != null) {
+            throw new IllegalStateException("Row generation failed: " + failure.getMessage(), failure);
+        }
+        long elapsed = System.nanoTime() - start;
+        ContinuousResult result = new ContinuousResult(rows, sink.getBytesWritten() - startBytes, elapsed, latency, lateWrites, stalls);
+        log.info("Continuous generation of table {} finished: {}", plan.getTableName(), result.summary());
+        return result;
+    }
+    
+    /**
+     * 停止生成，正在进行的run会在当前写出完成后返回
+     */
+    public void stop() {
+        stopped = true;
+    }
+    
+    private List<Thread> startProducers(BlockingQueue<Object[][]> queue) {
+        List<Thread> producers = new ArrayList<>(config.getProducerThreads());
+        for (int i = 0; i < config.getProducerThreads(); i++) {
+            Thread thread = new Thread(() -> produce(queue), "mocker-producer-" + plan.getTableName() + "-" + i);
+            thread.setDaemon(true);
+            thread.start();
+            producers.add(thread);
+        }
+        return producers;
+    }
+    
+    private void produce(BlockingQueue<Object[][]> queue) {
+        int batchSize = config.getBatchSize();
+        Long seed = config.getSeed() == null ? null : RandomStreams.derive(config.getSeed(), plan.getTableName());
+        try {
+            while (!stopped) {
+                long first = nextRowIndex.getAndAdd(batchSize);
+                Object[][] batch = new Object[batchSize][];
+                for (int i = 0; i < batchSize; i++) {
+                    long rowIndex = first + i;
+                    Object[] row = seed != null ? plan.generateRow(rowIndex, seed) : plan.generateRow(rowIndex, RandomStreams.current());
+                    batch[i] = plan.toOutput(row);
+                }
+                while (!stopped && !queue.offer(batch, 100, TimeUnit.MILLISECONDS)) {
+                    // 队列已满，等待发送线程消费
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            producerFailure.compareAndSet(null, e);
+            stopped = true;
+        }
+    }
+    
+    private Object[][] take(BlockingQueue<Object[][]> queue) {
+        try {
+            while (!stopped) {
+                Object[][] batch = queue.poll(100, TimeUnit.MILLISECONDS);
+                if (batch != null) {
+                    return batch;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            stopped = true;
+        }
+        return null;
+    }
+    
+    private static void waitUntil(long deadline) {
+        long remaining;
+        while ((remaining = deadline - System.nanoTime()) > 0) {
+            if (remaining > SPIN_THRESHOLD_NANOS) {
+                LockSupport.parkNanos(remaining - SPIN_THRESHOLD_NANOS);
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,60 @@
+package com.oceanbase.datamocker.continuous;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 持续生成的运行结果
+ */
+@Getter
+public class ContinuousResult {
+    
+    private final long rowsWritten;
+    private final long bytesWritten;
+    private final long elapsedNanos;
+    
+    /**
+     * 每次写出的延迟，从预定发送时间开始计算到写出完成
+     */
+    private final LatencyHistogram latency;
+    
+    /**
+     * 开始时间晚于预定时间的写出次数
+     */
+    private final long lateWrites;
+    
+    /**
+     * 发送线程等待生成线程的次数，不为0说明生成速度跟不上目标速率
+     */
+    private final long generatorStalls;
+    
+    ContinuousResult(long rowsWritten, long bytesWritten, long elapsedNanos, LatencyHistogram latency,
+                     long lateWrites, long generatorStalls) {
+        this.rowsWritten = rowsWritten;
+        this.bytesWritten = bytesWritten;
+        this.elapsedNanos = elapsedNanos;
+        this.latency = latency;
+        this.lateWrites = lateWrites;
+        this.generatorStalls = generatorStalls;
+    }
+    
+    /**
+     * 获取平均速率（行/秒）
+     *
+     * @return 平均速率
+     */
+    public double getRowsPerSecond() {
+        return elapsedNanos == 0 ? 0 : rowsWritten * 1e9 / elapsedNanos;
+    }
+    
+    /**
+     * 生成运行摘要
+     *
+     * @return 摘要文本
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "rows=%d bytes=%d elapsed=%.1fs rate=%.0f rows/s late=%d stalls=%d latency: %s",
+                rowsWritten, bytesWritten, elapsedNanos / 1e9, getRowsPerSecond(), lateWrites, generatorStalls, latency.summary());
+    }
+} 
\ No newline at end of file
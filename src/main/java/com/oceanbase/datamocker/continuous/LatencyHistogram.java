@@ -0,0 +1,140 @@
+package com.oceanbase.datamocker.continuous;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * 对数-线性分桶的延迟直方图（HDR风格）
+ * 小于128纳秒的值精确记录，更大的值按2的幂分段、每段64个线性子桶，相对误差不超过1/64，
+ * 记录一个值只需要常数时间且不分配内存。只允许单个线程写入
+ */
+public class LatencyHistogram {
+    
+    private static final int LINEAR_LIMIT = 128;
+    private static final int SUB_BUCKET_BITS = 6;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = LINEAR_LIMIT + (63 - 7) * SUB_BUCKETS;
+    
+    private final long[] counts = new long[BUCKET_COUNT];
+    private long totalCount;
+    private long min = Long.MAX_VALUE;
+    private long max;
+    private double sum;
+    
+    /**
+     * 记录一个值
+     *
+     * @param value 值（纳秒），负数按0记录
+     */
+    public void record(long value) {
+        long v = Math.max(0, value);
+        counts[indexOf(v)]++;
+        totalCount++;
+        sum += v;
+        if (v < min) {
+            min = v;
+        }
+        if (v > max) {
+            max = v;
+        }
+    }
+    
+    /**
+     * 合并另一个直方图的记录
+     *
+     * @param other 另一个直方图
+     */
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        sum += other.sum;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+    }
+    
+    /**
+     * 清空所有记录
+     */
+    public void reset() {
+        Arrays.fill(counts, 0L);
+        totalCount = 0;
+        sum = 0;
+        min = Long.MAX_VALUE;
+        max = 0;
+    }
+    
+    /**
+     * 获取指定百分位的值
+     *
+     * @param percentile 百分位，取值范围0-100
+     * @return 该百分位的值（所在桶的上界，不超过记录的最大值）
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (totalCount == 0) {
+            return 0;
+        }
+        long target = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percentile)) / 100 * totalCount));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += counts[i];
+            if (seen >= target) {
+                return Math.min(max, upperBoundOf(i));
+            }
+        }
+        return max;
+    }
+    
+    public long getTotalCount() {
+        return totalCount;
+    }
+    
+    public long getMin() {
+        return totalCount == 0 ? 0 : min;
+    }
+    
+    public long getMax() {
+        return max;
+    }
+    
+    public double getMean() {
+        return totalCount == 0 ? 0 : sum / totalCount;
+    }
+    
+    /**
+     * 生成百分位摘要，时间单位为毫秒
+     *
+     * @return 摘要文本
+     */
+    public String summary() {
+        return String.format(Locale.ROOT, "count=%d mean=%.3fms p50=%.3fms p90=%.3fms p99=%.3fms p99.9=%.3fms max=%.3fms",
+                totalCount, getMean() / 1e6, getValueAtPercentile(50) / 1e6, getValueAtPercentile(90) / 1e6,
+                getValueAtPercentile(99) / 1e6, getValueAtPercentile(99.9) / 1e6, max / 1e6);
+    }
+    
+    @Override
+    public String toString() {
+        return summary();
+    }
+    
+    static int indexOf(long value) {
+        if (value < LINEAR_LIMIT) {
+            return (int) value;
+        }
+        int exponent = 63 - Long.numberOfLeadingZeros(value);
+        int shift = exponent - SUB_BUCKET_BITS;
+        int subBucket = (int) (value >>> shift) - SUB_BUCKETS;
+        return LINEAR_LIMIT + (exponent - 7) * SUB_BUCKETS + subBucket;
+    }
+    
+    static long upperBoundOf(int index) {
+        if (index < LINEAR_LIMIT) {
+            return index;
+        }
+        int exponent = (index - LINEAR_LIMIT) / SUB_BUCKETS + 7;
+        int subBucket = (index - LINEAR_LIMIT) % SUB_BUCKETS + SUB_BUCKETS;
+        int shift = exponent - SUB_BUCKET_BITS;
+        return (((long) subBucket + 1) << shift) - 1;
+    }
+} 
\ No newline at end of file
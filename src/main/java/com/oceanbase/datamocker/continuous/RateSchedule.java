@@ -0,0 +1,246 @@
+package com.oceanbase.datamocker.continuous;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * 速率计划
+ * 由若干阶段组成，每个阶段在给定时长内将速率从起始值线性变化到结束值，用于描述爬坡、稳定和降速过程。
+ * 速率单位由使用方决定（行/秒或字节/秒）
+ */
+public class RateSchedule {
+    
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+    
+    private final List<Phase> phases;
+    private final long[] startNanos;
+    private final double[] startUnits;
+    private final long totalNanos;
+    private final double totalUnits;
+    
+    public RateSchedule(List<Phase> phases) {
+        if (phases.isEmpty()) {
+            throw new IllegalArgumentException("Rate schedule requires at least one phase");
+        }
+        this.phases = Collections.unmodifiableList(new ArrayList<>(phases));
+        this.startNanos = new long[phases.size() + 1];
+        this.startUnits = new double[phases.size() + 1];
+        for (int i = 0; i < phases.size(); i++) {
+            Phase phase = phases.get(i);
+            startNanos[i + 1] = startNanos[i] + phase.durationNanos;
+            startUnits[i + 1] = startUnits[i] + (phase.fromRate + phase.toRate) / 2 * (phase.durationNanos / NANOS_PER_SECOND);
+        }
+        this.totalNanos = startNanos[phases.size()];
+        this.totalUnits = startUnits[phases.size()];
+    }
+    
+    /**
+     * 创建带爬坡和降速的速率计划，爬坡和降速时长为0时省略对应阶段
+     *
+     * @param rate 稳定阶段的速率
+     * @param rampUpNanos 爬坡时长
+     * @param holdNanos 稳定阶段时长
+     * @param rampDownNanos 降速时长
+     * @return 速率计划
+     */
+    public static RateSchedule of(double rate, long rampUpNanos, long holdNanos, long rampDownNanos) {
+        List<Phase> phases = new ArrayList<>();
+        if (rampUpNanos > 0) {
+            phases.add(new Phase(0, rate, rampUpNanos));
+        }
+        phases.add(new Phase(rate, rate, holdNanos));
+        if (rampDownNanos > 0) {
+            phases.add(new Phase(rate, 0, rampDownNanos));
+        }
+        return new RateSchedule(phases);
+    }
+    
+    /**
+     * 解析速率计划，阶段之间以逗号分隔，每个阶段为 "速率:时长" 或 "起始速率->结束速率:时长"，
+     * 如 "0->500k:30s,500k:10m,500k->0:30s"。速率支持k、M后缀，时长支持ms、s、m、h后缀（无后缀为秒）
+     *
+     * @param spec 速率计划描述
+     * @return 速率计划
+     */
+    public static RateSchedule parse(String spec) {
+        List<Phase> phases = new ArrayList<>();
+        for (String part : spec.split(",")) {
+            part = part.trim();
+            if (part.isEmpty()) {
+                continue;
+            }
+            int colon = part.lastIndexOf(':');
+            if (colon < 0) {
+                throw new IllegalArgumentException("Invalid rate phase '" + part + "', expected <rate>:<duration>");
+            }
+            String rates = part.substring(0, colon);
+            long duration = parseDuration(part.substring(colon + 1));
+            int arrow = rates.indexOf("->");
+            if (arrow >= 0) {
+                phases.add(new Phase(parseRate(rates.substring(0, arrow)), parseRate(rates.substring(arrow + 2)), duration));
+            } else {
+                double rate = parseRate(rates);
+                phases.add(new Phase(rate, rate, duration));
+            }
+        }
+        return new RateSchedule(phases);
+    }
+    
+    /**
+     * 解析速率，支持k（千）和M（百万）后缀
+     *
+     * @param text 速率文本
+     * @return 速率
+     */
+    public static double parseRate(String text) {
+        String value = text.trim();
+        double multiplier = 1;
+        if (value.endsWith("k") || value.endsWith("K")) {
+            multiplier = 1_000;
+            value = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("M")) {
+            multiplier = 1_000_000;
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            double rate = Double.parseDouble(value) * multiplier;
+            if (rate < 0 || Double.isNaN(rate) || Double.isInfinite(rate)) {
+                throw new IllegalArgumentException("Invalid rate: " + text);
+            }
+            return rate;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid rate: " + text);
+        }
+    }
+    
+    /**
+     * 解析时长，支持ms、s、m、h后缀，无后缀时按秒处理
+     *
+     * @param text 时长文本
+     * @return 纳秒数
+     */
+    public static long parseDuration(String text) {
+        String value = text.trim().toLowerCase(Locale.ROOT);
+        double unitNanos = NANOS_PER_SECOND;
+        if (value.endsWith("ms")) {
+            unitNanos = 1_000_000.0;
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("s")) {
+            value = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("m")) {
+            unitNanos = 60 * NANOS_PER_SECOND;
+            value = value.substring(0, value.length() - 1);
+        } else if (value.endsWith("h")) {
+            unitNanos = 3600 * NANOS_PER_SECOND;
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            double nanos = Double.parseDouble(value) * unitNanos;
+            if (nanos < 0 || Double.isNaN(nanos)) {
+                throw new IllegalArgumentException("Invalid duration: " + text);
+            }
+            return (long) nanos;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid duration: " + text);
+        }
+    }
+    
+    /**
+     * 获取指定时刻的目标速率
+     *
+     * @param elapsedNanos 从计划开始经过的纳秒数
+     * @return 目标速率，计划结束后为0
+     */
+    public double rateAt(long elapsedNanos) {
+        if (elapsedNanos < 0 || elapsedNanos >= totalNanos) {
+            return 0;
+        }
+        int i = phaseAt(elapsedNanos);
+        Phase phase = phases.get(i);
+        double fraction = (double) (elapsedNanos - startNanos[i]) / phase.durationNanos;
+        return phase.fromRate + (phase.toRate - phase.fromRate) * fraction;
+    }
+    
+    /**
+     * 获取累计输出量达到指定值的计划时刻，即第units个单位的预定发送时间。
+     * 发送时间只由计划决定而与实际发送情况无关，延迟按预定时间计算可以避免协调遗漏
+     *
+     * @param units 累计输出量
+     * @return 从计划开始经过的纳秒数，计划的总量不足时返回-1
+     */
+    public long timeForUnits(double units) {
+        if (units >= totalUnits) {
+            return -1;
+        }
+        if (units <= 0) {
+            return firstActiveNanos();
+        }
+        int i = 0;
+        while (startUnits[i + 1] <= units) {
+            i++;
+        }
+        Phase phase = phases.get(i);
+        double duration = phase.durationNanos / NANOS_PER_SECOND;
+        double a = (phase.toRate - phase.fromRate) / (2 * duration);
+        double b = phase.fromRate;
+        double c = units - startUnits[i];
+        // 求解 a*t^2 + b*t = c，使用数值稳定的形式，a为0时退化为 c/b
+        double t = 2 * c / (b + Math.sqrt(Math.max(0, b * b + 4 * a * c)));
+        return startNanos[i] + Math.min(phase.durationNanos, (long) (t * NANOS_PER_SECOND));
+    }
+    
+    public long getTotalNanos() {
+        return totalNanos;
+    }
+    
+    public double getTotalUnits() {
+        return totalUnits;
+    }
+    
+    public List<Phase> getPhases() {
+        return phases;
+    }
+    
+    private int phaseAt(long elapsedNanos) {
+        int i = 0;
+        while (startNanos[i + 1] <= elapsedNanos) {
+            i++;
+        }
+        return i;
+    }
+    
+    private long firstActiveNanos() {
+        for (int i = 0; i < phases.size(); i++) {
+            if (startUnits[i + 1] > 0) {
+                return startNanos[i];
+            }
+        }
+        return -1;
+    }
+    
+    /**
+     * 速率计划的一个阶段
+     */
+    @Getter
+    public static class Phase {
+        private final double fromRate;
+        private final double toRate;
+        private final long durationNanos;
+        
+        public Phase(double fromRate, double toRate, long durationNanos) {
+            if (fromRate < 0 || toRate < 0) {
+                throw new IllegalArgumentException("Rate must not be negative");
+            }
+            if (durationNanos <= 0) {
+                throw new IllegalArgumentException("Phase duration must be positive");
+            }
+            this.fromRate = fromRate;
+            this.toRate = toRate;
+            this.durationNanos = durationNanos;
+        }
+    }
+} 
\ No newline at end of file
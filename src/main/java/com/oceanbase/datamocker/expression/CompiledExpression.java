@@ -0,0 +1,57 @@
+package com.oceanbase.datamocker.expression;
+
+import lombok.Getter;
+
+import java.util.Collections;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 表达式编译结果，包含可执行的表达式树以及其引用的字段
+ */
+@Getter
+public class CompiledExpression implements Expression {
+    
+    /**
+     * 表达式源码
+     */
+    private final String source;
+    
+    /**
+     * 表达式树根节点
+     */
+    private final Expression root;
+    
+    /**
+     * 表达式引用的字段名
+     */
+    private final Set<String> references;
+    
+    public CompiledExpression(String source, Expression root, Set<String> references) {
+        this.source = source;
+        this.root = root;
+        this.references = Collections.unmodifiableSet(references);
+    }
+    
+    @Override
+    public Object evaluate(Object[] row, long rowIndex, Random random) {
+        return root.evaluate(row, rowIndex, random);
+    }
+    
+    /**
+     * 按真值语义对表达式求值
+     *
+     * @param row 当前行
+     * @param rowIndex 当前行的行号
+     * @param random 随机数生成器
+     * @return 求值结果是否为真
+     */
+    public boolean test(Object[] row, long rowIndex, Random random) {
+        return Values.isTruthy(root.evaluate(row, rowIndex, random));
+    }
+    
+    @Override
+    public String toString() {
+        return source;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.oceanbase.datamocker.expression;
+
+import java.util.Random;
+
+/**
+ * 编译后的表达式
+ * 表达式在编译阶段已完成解析和字段绑定，求值时只按字段下标读取当前行的值
+ */
+public interface Expression {
+    
+    /**
+     * 对当前行求值
+     *
+     * @param row 当前行的字段值，下标为字段在表中声明的位置
+     * @param rowIndex 当前行的行号（从0开始）
+     * @param random 随机数生成器
+     * @return 表达式的值
+     */
+    Object evaluate(Object[] row, long rowIndex, Random random);
+} 
\ No newline at end of file
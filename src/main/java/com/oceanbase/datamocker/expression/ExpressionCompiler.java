@@ -0,0 +1,617 @@
+package com.oceanbase.datamocker.expression;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+/**
+ * 派生字段表达式编译器
+ * 将表达式源码一次性解析为表达式树，字段引用在编译期绑定为字段下标，函数在编译期完成分派，
+ * 逐行求值时不再进行任何解析工作。
+ *
+ * <p>支持的语法：</p>
+ * <ul>
+ *     <li>字面量：整数、小数、'字符串'、"字符串"、true、false、null</li>
+ *     <li>字段引用：字段名，或使用反引号包裹的字段名，如 `order-id`</li>
+ *     <li>运算符：+ - * / %，==（或 =） != &lt; &lt;= &gt; &gt;=，&amp;&amp; || !，字符串使用 + 拼接</li>
+ *     <li>函数：concat、lower、upper、trim、substr、length、replace、abs、round、min、max、if、coalesce、
+ *     str、randInt、randDouble、pick、elt、rowIndex、plusDays、plusHours、plusMinutes、plusSeconds</li>
+ * </ul>
+ */
+public class ExpressionCompiler {
+    
+    private final Map<String, Integer> columnIndexes;
+    
+    /**
+     * 构造函数
+     *
+     * @param columnIndexes 字段名到字段下标的映射
+     */
+    public ExpressionCompiler(Map<String, Integer> columnIndexes) {
+        this.columnIndexes = columnIndexes;
+    }
+    
+    /**
+     * 编译表达式
+     *
+     * @param source 表达式源码
+     * @return 编译后的表达式
+     * @throws IllegalArgumentException 表达式语法错误或引用了不存在的字段
+     */
+    public CompiledExpression compile(String source) {
+        if (source == null || source.trim().isEmpty()) {
+            throw new IllegalArgumentException("Expression must not be empty");
+        }
+        Parser parser = new Parser(source);
+        Expression root = parser.parseExpression();
+        parser.expectEnd();
+        return new CompiledExpression(source, root, parser.references);
+    }
+    
+    /**
+     * 递归下降语法分析器
+     */
+    private class Parser {
+        private final String source;
+        private final Set<String> references = new LinkedHashSet<>();
+        private int pos;
+        
+        Parser(String source) {
+            this.source = source;
+        }
+        
+        Expression parseExpression() {
+            return parseOr();
+        }
+        
+        void expectEnd() {
+            skipWhitespace();
+            if (pos < source.length()) {
+                throw error("Unexpected character '" + source.charAt(pos) + "'");
+            }
+        }
+        
+        private Expression parseOr() {
+            Expression left = parseAnd();
+            while (match("||") || matchKeyword("or")) {
+                Expression l = left;
+                Expression r = parseAnd();
+                left = (row, index, random) -> Values.isTruthy(l.evaluate(row, index, random))
+                        || Values.isTruthy(r.evaluate(row, index, random));
+            }
+            return left;
+        }
+        
+        private Expression parseAnd() {
+            Expression left = parseComparison();
+            while (match("&&") || matchKeyword("and")) {
+                Expression l = left;
+                Expression r = parseComparison();
+                left = (row, index, random) -> Values.isTruthy(l.evaluate(row, index, random))
+                        && Values.isTruthy(r.evaluate(row, index, random));
+            }
+            return left;
+        }
+        
+        private Expression parseComparison() {
+            Expression left = parseAdditive();
+            String op = null;
+            for (String candidate : new String[]{"==", "!=", "<=", ">=", "<", ">", "="}) {
+                if (match(candidate)) {
+                    op = candidate;
+                    break;
+                }
+            }
+            if (op == null) {
+                return left;
+            }
+            Expression l = left;
+            Expression r = parseAdditive();
+            switch (op) {
+                case "==":
+                case "=":
+                    return (row, index, random) -> Values.valueEquals(l.evaluate(row, index, random), r.evaluate(row, index, random));
+                case "!=":
+                    return (row, index, random) -> !Values.valueEquals(l.evaluate(row, index, random), r.evaluate(row, index, random));
+                default:
+                    String comparison = op;
+                    return (row, index, random) -> {
+                        Object a = l.evaluate(row, index, random);
+                        Object b = r.evaluate(row, index, random);
+                        if (a == null || b == null) {
+                            return false;
+                        }
+                        int result = Values.compare(a, b);
+                        switch (comparison) {
+                            case "<":
+                                return result < 0;
+                            case "<=":
+                                return result <= 0;
+                            case ">":
+                                return result > 0;
+                            default:
+                                return result >= 0;
+                        }
+                    };
+            }
+        }
+        
+        private Expression parseAdditive() {
+            Expression left = parseMultiplicative();
+            while (true) {
+                char op;
+                if (match("+")) {
+                    op = '+';
+                } else if (peekMinus()) {
+                    pos++;
+                    op = '-';
+                } else {
+                    return left;
+                }
+                Expression l = left;
+                Expression r = parseMultiplicative();
+                char operator = op;
+                left = (row, index, random) -> Values.arithmetic(operator, l.evaluate(row, index, random), r.evaluate(row, index, random));
+            }
+        }
+        
+        private Expression parseMultiplicative() {
+            Expression left = parseUnary();
+            while (true) {
+                char op;
+                if (match("*")) {
+                    op = '*';
+                } else if (match("/")) {
+                    op = '/';
+                } else if (match("%")) {
+                    op = '%';
+                } else {
+                    return left;
+                }
+                Expression l = left;
+                Expression r = parseUnary();
+                char operator = op;
+                left = (row, index, random) -> Values.arithmetic(operator, l.evaluate(row, index, random), r.evaluate(row, index, random));
+            }
+        }
+        
+        private Expression parseUnary() {
+            if (peekMinus()) {
+                pos++;
+                Expression operand = parseUnary();
+                if (operand instanceof Literal) {
+                    return new Literal(Values.negate(((Literal) operand).value));
+                }
+                return (row, index, random) -> Values.negate(operand.evaluate(row, index, random));
+            }
+            if (peek() == '!' && (pos + 1 >= source.length() || source.charAt(pos + 1) != '=')) {
+                pos++;
+                Expression operand = parseUnary();
+                return (row, index, random) -> !Values.isTruthy(operand.evaluate(row, index, random));
+            }
+            return parsePrimary();
+        }
+        
+        private Expression parsePrimary() {
+            skipWhitespace();
+            if (pos >= source.length()) {
+                throw error("Unexpected end of expression");
+            }
+            char c = source.charAt(pos);
+            if (c == '(') {
+                pos++;
+                Expression inner = parseExpression();
+                expect(')');
+                return inner;
+            }
+            if (c == '\'' || c == '"') {
+                return new Literal(parseString(c));
+            }
+            if (Character.isDigit(c) || (c == '.' && pos + 1 < source.length() && Character.isDigit(source.charAt(pos + 1)))) {
+                return new Literal(parseNumber());
+            }
+            if (c == '`') {
+                int end = source.indexOf('`', pos + 1);
+                if (end < 0) {
+                    throw error("Unterminated quoted identifier");
+                }
+                String name = source.substring(pos + 1, end);
+                pos = end + 1;
+                return columnReference(name);
+            }
+            if (Character.isLetter(c) || c == '_') {
+                String name = parseIdentifier();
+                skipWhitespace();
+                if (peek() == '(') {
+                    pos++;
+                    List<Expression> args = parseArguments();
+                    return function(name, args);
+                }
+                switch (name.toLowerCase(Locale.ROOT)) {
+                    case "true":
+                        return (row, index, random) -> Boolean.TRUE;
+                    case "false":
+                        return (row, index, random) -> Boolean.FALSE;
+                    case "null":
+                        return (row, index, random) -> null;
+                    default:
+                        return columnReference(name);
+                }
+            }
+            throw error("Unexpected character '" + c + "'");
+        }
+        
+        private List<Expression> parseArguments() {
+            List<Expression> args = new ArrayList<>();
+            skipWhitespace();
+            if (peek() == ')') {
+                pos++;
+                return args;
+            }
+            while (true) {
+                args.add(parseExpression());
+                skipWhitespace();
+                if (peek() == ',') {
+                    pos++;
+                } else {
+                    expect(')');
+                    return args;
+                }
+            }
+        }
+        
+        private Expression columnReference(String name) {
+            Integer columnIndex = columnIndexes.get(name);
+            if (columnIndex == null) {
+                throw error("Unknown column '" + name + "'");
+            }
+            references.add(name);
+            int i = columnIndex;
+            return (row, index, random) -> row[i];
+        }
+        
+        private Expression function(String name, List<Expression> args) {
+            switch (name.toLowerCase(Locale.ROOT)) {
+                case "concat":
+                    Expression[] parts = args.toArray(new Expression[0]);
+                    return (row, index, random) -> {
+                        StringBuilder sb = new StringBuilder();
+                        for (Expression part : parts) {
+                            Object value = part.evaluate(row, index, random);
+                            if (value != null) {
+                                sb.append(value);
+                            }
+                        }
+                        return sb.toString();
+                    };
+                case "lower":
+                    checkArity(name, args, 1, 1);
+                    return stringFunction(args.get(0), s -> s.toLowerCase(Locale.ROOT));
+                case "upper":
+                    checkArity(name, args, 1, 1);
+                    return stringFunction(args.get(0), s -> s.toUpperCase(Locale.ROOT));
+                case "trim":
+                    checkArity(name, args, 1, 1);
+                    return stringFunction(args.get(0), String::trim);
+                case "str":
+                    checkArity(name, args, 1, 1);
+                    return stringFunction(args.get(0), s -> s);
+                case "length": {
+                    checkArity(name, args, 1, 1);
+                    Expression arg = args.get(0);
+                    return (row, index, random) -> {
+                        Object value = arg.evaluate(row, index, random);
+                        return value == null ? null : (long) value.toString().length();
+                    };
+                }
+                case "substr": {
+                    checkArity(name, args, 2, 3);
+                    Expression text = args.get(0);
+                    Expression start = args.get(1);
+                    Expression length = args.size() > 2 ? args.get(2) : null;
+                    return (row, index, random) -> {
+                        Object value = text.evaluate(row, index, random);
+                        if (value == null) {
+                            return null;
+                        }
+                        String s = value.toString();
+                        int begin = Math.min(s.length(), Math.max(0, Values.toNumber(start.evaluate(row, index, random)).intValue()));
+                        int end = s.length();
+                        if (length != null) {
+                            end = Math.min(s.length(), begin + Math.max(0, Values.toNumber(length.evaluate(row, index, random)).intValue()));
+                        }
+                        return s.substring(begin, end);
+                    };
+                }
+                case "replace": {
+                    checkArity(name, args, 3, 3);
+                    Expression text = args.get(0);
+                    Expression target = args.get(1);
+                    Expression replacement = args.get(2);
+                    return (row, index, random) -> {
+                        Object value = text.evaluate(row, index, random);
+                        if (value == null) {
+                            return null;
+                        }
+                        return value.toString().replace(String.valueOf(target.evaluate(row, index, random)),
+                                String.valueOf(replacement.evaluate(row, index, random)));
+                    };
+                }
+                case "abs": {
+                    checkArity(name, args, 1, 1);
+                    Expression arg = args.get(0);
+                    return (row, index, random) -> {
+                        Object value = arg.evaluate(row, index, random);
+                        if (value == null) {
+                            return null;
+                        }
+                        return Values.compare(value, 0L) < 0 ? Values.negate(value) : value;
+                    };
+                }
+                case "round": {
+                    checkArity(name, args, 1, 2);
+                    Expression arg = args.get(0);
+                    Expression scale = args.size() > 1 ? args.get(1) : null;
+                    return (row, index, random) -> {
+                        Object value = arg.evaluate(row, index, random);
+                        if (value == null) {
+                            return null;
+                        }
+                        Number number = Values.toNumber(value);
+                        if (scale == null) {
+                            return Values.isIntegral(number) ? number.longValue() : Math.round(number.doubleValue());
+                        }
+                        int digits = Values.toNumber(scale.evaluate(row, index, random)).intValue();
+                        return Values.toDecimal(number).setScale(digits, RoundingMode.HALF_UP);
+                    };
+                }
+                case "min":
+                case "max": {
+                    checkArity(name, args, 2, Integer.MAX_VALUE);
+                    Expression[] operands = args.toArray(new Expression[0]);
+                    boolean max = "max".equalsIgnoreCase(name);
+                    return (row, index, random) -> {
+                        Object best = null;
+                        for (Expression operand : operands) {
+                            Object value = operand.evaluate(row, index, random);
+                            if (value != null && (best == null || (Values.compare(value, best) > 0) == max)) {
+                                best = value;
+                            }
+                        }
+                        return best;
+                    };
+                }
+                case "if": {
+                    checkArity(name, args, 3, 3);
+                    Expression condition = args.get(0);
+                    Expression then = args.get(1);
+                    Expression otherwise = args.get(2);
+                    return (row, index, random) -> Values.isTruthy(condition.evaluate(row, index, random))
+                            ? then.evaluate(row, index, random) : otherwise.evaluate(row, index, random);
+                }
+                case "coalesce": {
+                    checkArity(name, args, 1, Integer.MAX_VALUE);
+                    Expression[] operands = args.toArray(new Expression[0]);
+                    return (row, index, random) -> {
+                        for (Expression operand : operands) {
+                            Object value = operand.evaluate(row, index, random);
+                            if (value != null) {
+                                return value;
+                            }
+                        }
+                        return null;
+                    };
+                }
+                case "randint": {
+                    checkArity(name, args, 2, 2);
+                    Expression low = args.get(0);
+                    Expression high = args.get(1);
+                    if (low instanceof Literal && high instanceof Literal
+                            && ((Literal) low).value instanceof Number && ((Literal) high).value instanceof Number
+                            && Values.compare(((Literal) low).value, ((Literal) high).value) > 0) {
+                        throw error("Lower bound of randInt is greater than its upper bound");
+                    }
+                    return (row, index, random) -> {
+                        long from = Values.toNumber(low.evaluate(row, index, random)).longValue();
+                        long to = Values.toNumber(high.evaluate(row, index, random)).longValue();
+                        if (to <= from) {
+                            return from;
+                        }
+                        return randomBetween(random, from, to);
+                    };
+                }
+                case "randdouble": {
+                    checkArity(name, args, 2, 2);
+                    Expression low = args.get(0);
+                    Expression high = args.get(1);
+                    return (row, index, random) -> {
+                        double from = Values.toNumber(low.evaluate(row, index, random)).doubleValue();
+                        double to = Values.toNumber(high.evaluate(row, index, random)).doubleValue();
+                        return from + (to - from) * random.nextDouble();
+                    };
+                }
+                case "pick": {
+                    checkArity(name, args, 1, Integer.MAX_VALUE);
+                    Expression[] choices = args.toArray(new Expression[0]);
+                    return (row, index, random) -> choices[random.nextInt(choices.length)].evaluate(row, index, random);
+                }
+                case "elt": {
+                    checkArity(name, args, 2, Integer.MAX_VALUE);
+                    Expression position = args.get(0);
+                    Expression[] choices = args.subList(1, args.size()).toArray(new Expression[0]);
+                    return (row, index, random) -> {
+                        Object value = position.evaluate(row, index, random);
+                        if (value == null) {
+                            return null;
+                        }
+                        long n = Values.toNumber(value).longValue();
+                        return n >= 1 && n <= choices.length ? choices[(int) n - 1].evaluate(row, index, random) : null;
+                    };
+                }
+                case "rowindex":
+                    checkArity(name, args, 0, 0);
+                    return (row, index, random) -> index;
+                case "plusdays":
+                    return dateFunction(name, args, 86400L);
+                case "plushours":
+                    return dateFunction(name, args, 3600L);
+                case "plusminutes":
+                    return dateFunction(name, args, 60L);
+                case "plusseconds":
+                    return dateFunction(name, args, 1L);
+                default:
+                    throw error("Unknown function '" + name + "'");
+            }
+        }
+        
+        private Expression stringFunction(Expression arg, java.util.function.Function<String, String> function) {
+            return (row, index, random) -> {
+                Object value = arg.evaluate(row, index, random);
+                return value == null ? null : function.apply(value.toString());
+            };
+        }
+        
+        private Expression dateFunction(String name, List<Expression> args, long unitSeconds) {
+            checkArity(name, args, 2, 2);
+            Expression date = args.get(0);
+            Expression amount = args.get(1);
+            return (row, index, random) -> {
+                Object value = amount.evaluate(row, index, random);
+                if (value == null) {
+                    return null;
+                }
+                return Values.plusSeconds(date.evaluate(row, index, random), Values.toNumber(value).longValue() * unitSeconds);
+            };
+        }
+        
+        private void checkArity(String name, List<Expression> args, int min, int max) {
+            if (args.size() < min || args.size() > max) {
+                throw error("Wrong number of arguments for function '" + name + "': " + args.size());
+            }
+        }
+        
+        private Object parseString(char quote) {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < source.length()) {
+                char c = source.charAt(pos++);
+                if (c == '\\' && pos < source.length()) {
+                    sb.append(source.charAt(pos++));
+                } else if (c == quote) {
+                    return sb.toString();
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw error("Unterminated string literal");
+        }
+        
+        private Object parseNumber() {
+            int start = pos;
+            boolean decimal = false;
+            while (pos < source.length() && (Character.isDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                decimal |= source.charAt(pos) == '.';
+                pos++;
+            }
+            String text = source.substring(start, pos);
+            try {
+                return decimal ? new BigDecimal(text) : (Object) Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                throw error("Invalid number '" + text + "'");
+            }
+        }
+        
+        private String parseIdentifier() {
+            int start = pos;
+            while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '_')) {
+                pos++;
+            }
+            return source.substring(start, pos);
+        }
+        
+        private boolean peekMinus() {
+            return peek() == '-';
+        }
+        
+        private char peek() {
+            skipWhitespace();
+            return pos < source.length() ? source.charAt(pos) : '\0';
+        }
+        
+        private boolean match(String token) {
+            skipWhitespace();
+            if (source.startsWith(token, pos)) {
+                pos += token.length();
+                return true;
+            }
+            return false;
+        }
+        
+        private boolean matchKeyword(String keyword) {
+            skipWhitespace();
+            int end = pos + keyword.length();
+            if (source.regionMatches(true, pos, keyword, 0, keyword.length())
+                    && (end >= source.length() || !Character.isLetterOrDigit(source.charAt(end)))) {
+                pos = end;
+                return true;
+            }
+            return false;
+        }
+        
+        private void expect(char c) {
+            skipWhitespace();
+            if (pos >= source.length() || source.charAt(pos) != c) {
+                throw error("Expected '" + c + "'");
+            }
+            pos++;
+        }
+        
+        private void skipWhitespace() {
+            while (pos < source.length() && Character.isWhitespace(source.charAt(pos))) {
+                pos++;
+            }
+        }
+        
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException(message + " at position " + pos + " in expression: " + source);
+        }
+    }
+    
+    /**
+     * 在闭区间 [from, to] 中均匀取值，区间的跨度按long计算，超出long的表示范围时按拒绝采样取值
+     */
+    private static long randomBetween(Random random, long from, long to) {
+        long span = to - from;
+        if (span < 0 || span == Long.MAX_VALUE) {
+            // 区间覆盖一半以上的long取值，每次采样落入区间的概率超过1/2
+            long value;
+            do {
+                value = random.nextLong();
+            } while (value < from || value > to);
+            return value;
+        }
+        return from + Math.min(span, (long) (random.nextDouble() * (span + 1)));
+    }
+    
+    /**
+     * 字面量，编译阶段可以直接取值用于参数检查
+     */
+    private static final class Literal implements Expression {
+        private final Object value;
+        
+        Literal(Object value) {
+            this.value = value;
+        }
+        
+        @Override
+        public Object evaluate(Object[] row, long rowIndex, Random random) {
+            return value;
+        }
+    }
+} 
\ No newline at end of file
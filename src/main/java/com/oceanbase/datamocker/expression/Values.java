@@ -0,0 +1,198 @@
+package com.oceanbase.datamocker.expression;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Objects;
+
+/**
+ * 表达式求值时使用的值运算工具
+ */
+final class Values {
+    
+    private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final DateTimeFormatter DATETIME_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    
+    private Values() {
+    }
+    
+    /**
+     * 判断值的真假：null、false、数值0和空字符串为假，其余为真
+     */
+    static boolean isTruthy(Object value) {
+        if (value == null) {
+            return false;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).doubleValue() != 0;
+        }
+        return !value.toString().isEmpty();
+    }
+    
+    static boolean isIntegral(Object value) {
+        return value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte;
+    }
+    
+    static Number toNumber(Object value) {
+        if (value instanceof Number) {
+            return (Number) value;
+        }
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof Boolean) {
+            return (Boolean) value ? 1L : 0L;
+        }
+        String text = value.toString().trim();
+        try {
+            if (text.indexOf('.') < 0 && text.indexOf('e') < 0 && text.indexOf('E') < 0) {
+                return Long.parseLong(text);
+            }
+            return new BigDecimal(text);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Value is not a number: " + text);
+        }
+    }
+    
+    static BigDecimal toDecimal(Number number) {
+        if (number instanceof BigDecimal) {
+            return (BigDecimal) number;
+        }
+        if (isIntegral(number)) {
+            return BigDecimal.valueOf(number.longValue());
+        }
+        return BigDecimal.valueOf(number.doubleValue());
+    }
+    
+    /**
+     * 算术运算，两个整数得到整数，任一为DECIMAL得到DECIMAL，否则得到浮点数
+     */
+    static Object arithmetic(char op, Object left, Object right) {
+        if (left == null || right == null) {
+            return null;
+        }
+        if (op == '+' && (left instanceof CharSequence || right instanceof CharSequence)) {
+            return left.toString() + right.toString();
+        }
+        Number a = toNumber(left);
+        Number b = toNumber(right);
+        if (isIntegral(a) && isIntegral(b)) {
+            long x = a.longValue();
+            long y = b.longValue();
+            switch (op) {
+                case '+':
+                    return x + y;
+                case '-':
+                    return x - y;
+                case '*':
+                    return x * y;
+                case '/':
+                    return y == 0 ? null : x / y;
+                case '%':
+                    return y == 0 ? null : x % y;
+                default:
+                    throw new IllegalStateException("Unknown operator: " + op);
+            }
+        }
+        if (a instanceof BigDecimal || b instanceof BigDecimal) {
+            BigDecimal x = toDecimal(a);
+            BigDecimal y = toDecimal(b);
+            switch (op) {
+                case '+':
+                    return x.add(y);
+                case '-':
+                    return x.subtract(y);
+                case '*':
+                    return x.multiply(y);
+                case '/':
+                    return y.signum() == 0 ? null : x.divide(y, Math.max(x.scale(), 6), RoundingMode.HALF_UP);
+                case '%':
+                    return y.signum() == 0 ? null : x.remainder(y);
+                default:
+                    throw new IllegalStateException("Unknown operator: " + op);
+            }
+        }
+        double x = a.doubleValue();
+        double y = b.doubleValue();
+        switch (op) {
+            case '+':
+                return x + y;
+            case '-':
+                return x - y;
+            case '*':
+                return x * y;
+            case '/':
+                return x / y;
+            case '%':
+                return x % y;
+            default:
+                throw new IllegalStateException("Unknown operator: " + op);
+        }
+    }
+    
+    static Object negate(Object value) {
+        if (value == null) {
+            return null;
+        }
+        Number number = toNumber(value);
+        if (isIntegral(number)) {
+            return -number.longValue();
+        }
+        if (number instanceof BigDecimal) {
+            return ((BigDecimal) number).negate();
+        }
+        return -number.doubleValue();
+    }
+    
+    /**
+     * 比较两个值，数值按大小比较，其余按字符串比较
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    static int compare(Object left, Object right) {
+        if (left instanceof Number && right instanceof Number) {
+            return toDecimal((Number) left).compareTo(toDecimal((Number) right));
+        }
+        if (left instanceof Number || right instanceof Number) {
+            return toDecimal(toNumber(left)).compareTo(toDecimal(toNumber(right)));
+        }
+        if (left instanceof Comparable && left.getClass() == right.getClass()) {
+            return ((Comparable) left).compareTo(right);
+        }
+        return left.toString().compareTo(right.toString());
+    }
+    
+    static boolean valueEquals(Object left, Object right) {
+        if (left == null || right == null) {
+            return left == right;
+        }
+        if (left instanceof Number || right instanceof Number) {
+            try {
+                return compare(left, right) == 0;
+            } catch (IllegalArgumentException e) {
+                return false;
+            }
+        }
+        return Objects.equals(left.toString(), right.toString());
+    }
+    
+    /**
+     * 对日期或日期时间字符串加上指定的秒数，保持原有的格式
+     */
+    static Object plusSeconds(Object value, long seconds) {
+        if (value == null) {
+            return null;
+        }
+        String text = value.toString();
+        if (text.length() <= 10) {
+            LocalDate date = LocalDate.parse(text, DATE_FORMATTER);
+            return date.plusDays(Math.floorDiv(seconds, 86400L)).format(DATE_FORMATTER);
+        }
+        LocalDateTime dateTime = LocalDateTime.parse(text.replace(' ', 'T'), DATETIME_FORMATTER);
+        return dateTime.plusSeconds(seconds).format(DATETIME_FORMATTER);
+    }
+} 
\ No newline at end of file
@@ -11,7 +11,10 @@ import java.util.Random;
 @Slf4j
 public abstract class AbstractDataGenerator implements DataGenerator {
     
-    protected final Random random = new Random();
+    /**
+     * 随机数生成器，委托给调用线程的随机流，并发调用之间没有竞争
+     */
+    protected final Random random = RandomStreams.threadLocalView();
     
     /**
      * 检查是否应该生成null值
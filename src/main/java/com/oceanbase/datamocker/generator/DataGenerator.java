@@ -2,6 +2,10 @@ package com.oceanbase.datamocker.generator;
 
 import com.oceanbase.datamocker.config.FieldConfig;
 
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+
 /**
  * 数据生成器接口
  */
@@ -23,4 +27,43 @@ public interface DataGenerator {
      * @return 是否支持
      */
     boolean supports(String fieldType);
+    
+    /**
+     * 声明支持的字段类型（大写），注册时直接写入类型分发表
+     * 未声明类型的生成器只在分发表未命中时通过supports判断
+     *
+     * @return 支持的字段类型
+     */
+    default Collection<String> supportedTypes() {
+        return Collections.emptyList();
+    }
+    
+    /**
+     * 优先级，多个生成器支持同一类型时优先级高的生效，内置生成器的优先级为0
+     *
+     * @return 优先级
+     */
+    default int priority() {
+        return 0;
+    }
+    
+    /**
+     * 使用字段配置中的customGeneratorParams初始化自定义生成器，每个字段调用一次
+     *
+     * @param params 生成器参数
+     */
+    default void configure(Map<String, Object> params) {
+    }
+    
+    /**
+     * 返回实际为该字段生成值的生成器，编译生成计划时每个字段调用一次，
+     * 逐行生成时直接调用返回的生成器，避免重复的类型分发和语义推断
+     *
+     * @param fieldName 字段名
+     * @param fieldConfig 字段配置
+     * @return 实际使用的生成器
+     */
+    default DataGenerator resolve(String fieldName, FieldConfig fieldConfig) {
+        return this;
+    }
 } 
\ No newline at end of file
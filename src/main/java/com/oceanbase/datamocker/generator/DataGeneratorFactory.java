@@ -3,22 +3,38 @@ package com.oceanbase.datamocker.generator;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
 import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 数据生成器工厂类
+ * 生成器注册时按声明的类型写入分发表，字段类型只在首次出现时归一化并解析，之后为一次哈希查找
  */
 @Slf4j
 public class DataGeneratorFactory {
     
-    private static final List<DataGenerator> generators = new ArrayList<>();
+    private static final DataGenerator DEFAULT_GENERATOR = new StringDataGenerator();
+    
+    /**
+     * 当前的注册表快照，注册生成器时整体替换，读取时无需加锁
+     */
+    private static volatile Registry registry = new Registry(Collections.<DataGenerator>emptyList());
+    
+    private static final Map<String, Class<?>> customGeneratorClasses = new ConcurrentHashMap<>();
     
     static {
         // 注册内置生成器
         registerGenerator(new StringDataGenerator());
         registerGenerator(new NumberDataGenerator());
         registerGenerator(new DateTimeDataGenerator());
+        registerGenerator(new JsonDataGenerator());
+        registerGenerator(new LobDataGenerator());
         
         // 加载通过SPI机制注册的生成器
         ServiceLoader<DataGenerator> serviceLoader = ServiceLoader.load(DataGenerator.class);
@@ -32,9 +48,11 @@ public class DataGeneratorFactory {
      *
      * @param generator 数据生成器
      */
-    public static void registerGenerator(DataGenerator generator) {
+    public static synchronized void registerGenerator(DataGenerator generator) {
+        List<DataGenerator> generators = new ArrayList<>(registry.generators);
         generators.add(generator);
-        log.debug("Registered data generator: {}", generator.getClass().getName());
+        registry = new Registry(generators);
+        log.debug("Registered data generator: {} (priority {})", generator.getClass().getName(), generator.priority());
     }
     
     /**
@@ -44,14 +62,121 @@ public class DataGeneratorFactory {
      * @return 数据生成器，如果没有找到合适的生成器，返回默认的字符串生成器
      */
     public static DataGenerator getGenerator(String fieldType) {
-        for (DataGenerator generator : generators) {
-            if (generator.supports(fieldType)) {
-                return generator;
+        return registry.get(fieldType == null ? "" : fieldType);
+    }
+    
+    /**
+     * 归一化字段类型：去掉长度、精度和修饰词并转为大写，如 "varchar(64)" 归一化为 "VARCHAR"，
+     * "int unsigned" 归一化为 "INT"，未设置类型时视为 "STRING"
+     *
+     * @param fieldType 字段类型
+     * @return 归一化后的类型
+     */
+    public static String normalizeType(String fieldType) {
+        if (fieldType == null) {
+            return "STRING";
+        }
+        String type = fieldType.trim();
+        int end = 0;
+        while (end < type.length() && (Character.isLetterOrDigit(type.charAt(end)) || type.charAt(end) == '_')) {
+            end++;
+        }
+        type = type.substring(0, end);
+        return type.isEmpty() ? "STRING" : type.toUpperCase(Locale.ROOT);
+    }
+    
+    /**
+     * 创建自定义生成器，生成器类需要实现DataGenerator并提供无参构造函数
+     *
+     * @param className 生成器类名
+     * @param params 生成器参数
+     * @return 初始化后的生成器
+     * @throws IllegalArgumentException 类不存在、未实现DataGenerator或无法实例化
+     */
+    public static DataGenerator createCustomGenerator(String className, Map<String, Object> params) {
+        Class<?> generatorClass = customGeneratorClasses.computeIfAbsent(className, DataGeneratorFactory::loadGeneratorClass);
+        DataGenerator generator;
+        try {
+            generator = (DataGenerator) generatorClass.getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalArgumentException("Failed to instantiate custom generator " + className + ": " + e.getMessage(), e);
+        }
+        generator.configure(params == null ? new HashMap<>() : params);
+        log.debug("Created custom generator: {}", className);
+        return generator;
+    }
+    
+    private static Class<?> loadGeneratorClass(String className) {
+        Class<?> generatorClass;
+        try {
+            ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+            generatorClass = Class.forName(className, true,
+                    classLoader != null ? classLoader : DataGeneratorFactory.class.getClassLoader());
+        } catch (ClassNotFoundException e) {
+            throw new IllegalArgumentException("Custom generator class not found: " + className, e);
+        }
+        if (!DataGenerator.class.isAssignableFrom(generatorClass)) {
+            throw new IllegalArgumentException("Custom generator class " + className + " does not implement " + DataGenerator.class.getName());
+        }
+        return generatorClass;
+    }
+    
+    /**
+     * 不可变的生成器注册表
+     */
+    private static final class Registry {
+        
+        private final List<DataGenerator> generators;
+        
+        /**
+         * 归一化类型到生成器的分发表
+         */
+        private final Map<String, DataGenerator> typeGenerators;
+        
+        /**
+         * 原始类型字符串到生成器的解析缓存，只缓存由不可变状态推导出的结果
+         */
+        private final Map<String, DataGenerator> resolved = new ConcurrentHashMap<>();
+        
+        Registry(List<DataGenerator> registered) {
+            List<DataGenerator> sorted = new ArrayList<>(registered);
+            // 稳定排序，同优先级的生成器保持注册顺序
+            sorted.sort(Comparator.comparingInt(DataGenerator::priority).reversed());
+            Map<String, DataGenerator> types = new HashMap<>();
+            for (DataGenerator generator : sorted) {
+                for (String type : generator.supportedTypes()) {
+                    types.putIfAbsent(normalizeType(type), generator);
+                }
+            }
+            this.generators = Collections.unmodifiableList(sorted);
+            this.typeGenerators = Collections.unmodifiableMap(types);
+        }
+        
+        DataGenerator get(String fieldType) {
+            DataGenerator generator = resolved.get(fieldType);
+            if (generator == null) {
+                generator = resolved.computeIfAbsent(fieldType, this::lookup);
             }
+            return generator;
         }
         
-        // 如果没有找到合适的生成器，返回默认的字符串生成器
-        log.warn("No suitable generator found for field type: {}, using default string generator", fieldType);
-        return new StringDataGenerator();
+        private DataGenerator lookup(String fieldType) {
+            String normalized = normalizeType(fieldType);
+            DataGenerator generator = typeGenerators.get(normalized);
+            if (generator != null) {
+                return generator;
+            }
+            
+            // 未声明类型的生成器（如早期通过SPI注册的生成器）按优先级依次判断
+            for (DataGenerator candidate : generators) {
+                if (candidate.supports(normalized)) {
+                    return candidate;
+                }
+            }
+            
+            // 如果没有找到合适的生成器，返回默认的字符串生成器，每种类型只提示一次
+            log.warn("No suitable generator found for field type: {}, using default string generator", fieldType);
+            return DEFAULT_GENERATOR;
+        }
     }
 } 
\ No newline at end of file
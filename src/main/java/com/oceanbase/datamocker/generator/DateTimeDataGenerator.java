@@ -7,6 +7,7 @@ import java.time.*;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -30,6 +31,11 @@ public class DateTimeDataGenerator extends AbstractDataGenerator {
         return SUPPORTED_TYPES.contains(fieldType.toUpperCase());
     }
     
+    @Override
+    public Collection<String> supportedTypes() {
+        return SUPPORTED_TYPES;
+    }
+    
     @Override
     protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
         String type = fieldConfig.getType().toUpperCase();
@@ -0,0 +1,102 @@
+package com.oceanbase.datamocker.generator;
+
+import java.util.Random;
+
+/**
+ * 非同步的随机数生成器（SplitMix64）
+ * 不使用CAS更新种子，只能由单个线程使用，通过RandomStreams为每个线程提供独立的实例
+ */
+public class FastRandom extends Random {
+    
+    private static final long serialVersionUID = 1L;
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private long state;
+    private double nextGaussian;
+    private boolean haveNextGaussian;
+    
+    public FastRandom(long seed) {
+        super(0L);
+        this.state = seed;
+    }
+    
+    @Override
+    public void setSeed(long seed) {
+        // 父类构造函数会调用setSeed，此时字段尚未初始化，由本类构造函数设置种子
+        this.state = seed;
+        this.haveNextGaussian = false;
+    }
+    
+    @Override
+    protected int next(int bits) {
+        return (int) (nextLong() >>> (64 - bits));
+    }
+    
+    @Override
+    public long nextLong() {
+        return mix(state += GOLDEN_GAMMA);
+    }
+    
+    @Override
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+    
+    @Override
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        // Lemire的乘法取模，避免除法
+        long product = (nextLong() >>> 33) * bound;
+        return (int) (product >>> 31);
+    }
+    
+    @Override
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+    
+    @Override
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+    
+    @Override
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+    
+    @Override
+    public double nextGaussian() {
+        if (haveNextGaussian) {
+            haveNextGaussian = false;
+            return nextGaussian;
+        }
+        double v1;
+        double v2;
+        double s;
+        do {
+            v1 = 2 * nextDouble() - 1;
+            v2 = 2 * nextDouble() - 1;
+            s = v1 * v1 + v2 * v2;
+        } while (s >= 1 || s == 0);
+        double multiplier = StrictMath.sqrt(-2 * StrictMath.log(s) / s);
+        nextGaussian = v2 * multiplier;
+        haveNextGaussian = true;
+        return v1 * multiplier;
+    }
+    
+    /**
+     * SplitMix64的混淆函数，也用于由种子和行号派生独立的随机流
+     *
+     * @param z 输入
+     * @return 混淆后的值
+     */
+    public static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+} 
\ No newline at end of file
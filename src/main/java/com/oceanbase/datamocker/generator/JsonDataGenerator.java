@@ -0,0 +1,36 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+
+import java.util.Collection;
+import java.util.Collections;
+
+/**
+ * JSON类型数据生成器
+ * 编译生成计划时为每个字段编译一次JSON模板，逐行生成由编译后的模板完成
+ */
+public class JsonDataGenerator extends AbstractDataGenerator {
+    
+    private static final String TYPE = "JSON";
+    
+    @Override
+    public boolean supports(String fieldType) {
+        return TYPE.equalsIgnoreCase(fieldType);
+    }
+    
+    @Override
+    public Collection<String> supportedTypes() {
+        return Collections.singletonList(TYPE);
+    }
+    
+    @Override
+    public DataGenerator resolve(String fieldName, FieldConfig fieldConfig) {
+        return JsonTemplate.compile(fieldName, fieldConfig, null);
+    }
+    
+    @Override
+    protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+        // 未经编译直接调用时临时编译模板，逐行生成应使用resolve返回的模板
+        return resolve(fieldName, fieldConfig).generate(fieldName, fieldConfig.withoutNulls());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,79 @@
+package com.oceanbase.datamocker.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * JSON字段的值，持有按模板序列化好的UTF-8字节
+ * 文本输出端直接写出字节，JSON输出端把它作为嵌套的JSON值而不是字符串写出；字符串形式在首次使用时才解码
+ */
+public final class JsonDocument implements Utf8Text, JsonSerializable {
+    
+    private final byte[] bytes;
+    private String text;
+    
+    JsonDocument(byte[] bytes) {
+        this.bytes = bytes;
+    }
+    
+    @Override
+    public byte[] getBytes() {
+        return bytes;
+    }
+    
+    @Override
+    public int byteLength() {
+        return bytes.length;
+    }
+    
+    @Override
+    public int length() {
+        return toString().length();
+    }
+    
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+    
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        generator.writeRawValue(toString());
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        return this == obj || (obj instanceof JsonDocument && Arrays.equals(bytes, ((JsonDocument) obj).bytes));
+    }
+    
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(bytes);
+    }
+    
+    @Override
+    public String toString() {
+        String result = text;
+        if (result == null) {
+            result = new String(bytes, StandardCharsets.UTF_8);
+            text = result;
+        }
+        return result;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,338 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 编译后的JSON模板
+ * 字段配置中的properties、items在编译时转换为对象、数组、值三类写出节点，属性名预先编码为UTF-8字节；
+ * 逐行生成时各节点直接把UTF-8文本写入当前线程复用的缓冲区，叶子节点复用已有的生成器和分布，
+ * 不为每行构建Map或JsonNode
+ */
+public final class JsonTemplate extends AbstractDataGenerator {
+    
+    private static final int DEFAULT_MAX_ITEMS = 5;
+    private static final int MAX_DEPTH = 32;
+    
+    private static final ThreadLocal<Output> OUTPUTS = ThreadLocal.withInitial(Output::new);
+    
+    private final Node root;
+    
+    private JsonTemplate(Node root) {
+        this.root = root;
+    }
+    
+    /**
+     * 编译字段的JSON模板，未配置properties和items时使用包含id、name、tags的默认对象模板
+     *
+     * @param fieldName 字段名
+     * @param fieldConfig 字段配置
+     * @param resolver 解析叶子节点生成器的生成器，以属性名和属性配置调用其resolve；为null时按属性的类型选择生成器
+     * @return 编译后的模板
+     * @throws IllegalArgumentException 模板配置不合法
+     */
+    public static JsonTemplate compile(String fieldName, FieldConfig fieldConfig, DataGenerator resolver) {
+        FieldConfig template = fieldConfig;
+        if (fieldConfig.getProperties() == null && fieldConfig.getItems() == null) {
+            template = defaultTemplate();
+        }
+        return new JsonTemplate(compileNode(fieldName, template, resolver, 0));
+    }
+    
+    private static Node compileNode(String path, FieldConfig config, DataGenerator resolver, int depth) {
+        if (config == null) {
+            throw new IllegalArgumentException("JSON template node '" + path + "' has no config");
+        }
+        if (depth > MAX_DEPTH) {
+            throw new IllegalArgumentException("JSON template of '" + path + "' is nested deeper than " + MAX_DEPTH + " levels");
+        }
+        if (config.getProperties() != null && config.getItems() != null) {
+            throw new IllegalArgumentException("JSON template node '" + path + "' cannot define both properties and items");
+        }
+        if (config.getProperties() != null) {
+            List<String> names = new ArrayList<>(config.getProperties().keySet());
+            Node[] children = new Node[names.size()];
+            byte[][] prefixes = new byte[names.size()][];
+            for (int i = 0; i < names.size(); i++) {
+                String name = names.get(i);
+                children[i] = compileNode(path + "." + name, config.getProperties().get(name), resolver, depth + 1);
+                Output key = new Output();
+                if (i > 0) {
+                    key.write(',');
+                }
+                key.writeString(name);
+                key.write(':');
+                prefixes[i] = key.toByteArray();
+            }
+            return new ObjectNode(prefixes, children);
+        }
+        if (config.getItems() != null) {
+            int minItems = config.getMinItems() != null ? config.getMinItems() : 0;
+            int maxItems = config.getMaxItems() != null ? config.getMaxItems() : Math.max(minItems, DEFAULT_MAX_ITEMS);
+            if (minItems < 0 || maxItems < minItems) {
+                throw new IllegalArgumentException("Invalid item count [" + minItems + ", " + maxItems + "] for JSON array '" + path + "'");
+            }
+            return new ArrayNode(compileNode(path + "[]", config.getItems(), resolver, depth + 1), minItems, maxItems);
+        }
+        String className = config.getCustomGeneratorClass();
+        boolean custom = className != null && !className.trim().isEmpty();
+        if (!custom && "JSON".equals(DataGeneratorFactory.normalizeType(config.getType()))) {
+            // 未给出结构的嵌套JSON属性按默认模板生成
+            return compileNode(path, defaultTemplate(), resolver, depth + 1);
+        }
+        // 数组元素沿用数组的属性名，便于按名称推断语义
+        String name = path.substring(path.lastIndexOf('.') + 1).replace("[]", "");
+        DataGenerator generator;
+        if (custom) {
+            generator = DataGeneratorFactory.createCustomGenerator(className.trim(), config.getCustomGeneratorParams());
+        } else if (resolver != null) {
+            generator = resolver.resolve(name, config);
+        } else {
+            generator = DataGeneratorFactory.getGenerator(config.getType()).resolve(name, config);
+        }
+        return new ValueNode(name, config, generator);
+    }
+    
+    private static FieldConfig defaultTemplate() {
+        FieldConfig id = new FieldConfig();
+        id.setType("INT");
+        id.setMin("1");
+        id.setMax("1000000");
+        FieldConfig name = new FieldConfig();
+        name.setType("VARCHAR");
+        FieldConfig tag = new FieldConfig();
+        tag.setType("VARCHAR");
+        tag.setMinLength(3);
+        tag.setMaxLength(8);
+        FieldConfig tags = new FieldConfig();
+        tags.setItems(tag);
+        tags.setMaxItems(3);
+        
+        Map<String, FieldConfig> properties = new LinkedHashMap<>();
+        properties.put("id", id);
+        properties.put("name", name);
+        properties.put("tags", tags);
+        FieldConfig template = new FieldConfig();
+        template.setProperties(properties);
+        return template;
+    }
+    
+    @Override
+    public boolean supports(String fieldType) {
+        return true;
+    }
+    
+    @Override
+    protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+        Output output = OUTPUTS.get();
+        output.reset();
+        root.write(output, RandomStreams.current());
+        return new JsonDocument(output.toByteArray());
+    }
+    
+    /**
+     * 模板节点，把一个JSON值写入输出缓冲区
+     */
+    private abstract static class Node {
+        abstract void write(Output output, Random random);
+    }
+    
+    private static final class ObjectNode extends Node {
+        
+        /**
+         * 每个属性之前写出的字节，即可能带前导逗号的 "name":
+         */
+        private final byte[][] prefixes;
+        private final Node[] children;
+        
+        ObjectNode(byte[][] prefixes, Node[] children) {
+            this.prefixes = prefixes;
+            this.children = children;
+        }
+        
+        @Override
+        void write(Output output, Random random) {
+            output.write('{');
+            for (int i = 0; i < children.length; i++) {
+                output.write(prefixes[i]);
+                children[i].write(output, random);
+            }
+            output.write('}');
+        }
+    }
+    
+    private static final class ArrayNode extends Node {
+        private final Node item;
+        private final int minItems;
+        private final int maxItems;
+        
+        ArrayNode(Node item, int minItems, int maxItems) {
+            this.item = item;
+            this.minItems = minItems;
+            this.maxItems = maxItems;
+        }
+        
+        @Override
+        void write(Output output, Random random) {
+            int count = minItems == maxItems ? minItems : minItems + random.nextInt(maxItems - minItems + 1);
+            output.write('[');
+            for (int i = 0; i < count; i++) {
+                if (i > 0) {
+                    output.write(',');
+                }
+                item.write(output, random);
+            }
+            output.write(']');
+        }
+    }
+    
+    private static final class ValueNode extends Node {
+        private final String name;
+        private final FieldConfig config;
+        private final DataGenerator generator;
+        
+        ValueNode(String name, FieldConfig config, DataGenerator generator) {
+            this.name = name;
+            this.config = config;
+            this.generator = generator;
+        }
+        
+        @Override
+        void write(Output output, Random random) {
+            Object value = generator.generate(name, config);
+            if (value == null) {
+                output.writeAscii("null");
+            } else if (value instanceof JsonDocument) {
+                output.write(((JsonDocument) value).getBytes());
+            } else if (value instanceof Utf8Text) {
+                output.writeEscapedUtf8((Utf8Text) value);
+            } else if (value instanceof CharSequence) {
+                output.writeString((CharSequence) value);
+            } else if (value instanceof BigDecimal) {
+                output.writeAscii(((BigDecimal) value).toPlainString());
+            } else if (value instanceof Double || value instanceof Float) {
+                double number = ((Number) value).doubleValue();
+                // JSON没有NaN和无穷大
+                output.writeAscii(Double.isNaN(number) || Double.isInfinite(number) ? "null" : value.toString());
+            } else if (value instanceof Number || value instanceof BigInteger || value instanceof Boolean) {
+                output.writeAscii(value.toString());
+            } else {
+                output.writeString(value.toString());
+            }
+        }
+    }
+    
+    /**
+     * 可增长的UTF-8字节缓冲区，每个线程复用一个
+     */
+    private static final class Output {
+        
+        /**
+         * ASCII字符在JSON字符串中的转义形式，不需要转义时为null
+         */
+        private static final byte[][] ESCAPES = new byte[128][];
+        
+        static {
+            for (int c = 0; c < 0x20; c++) {
+                ESCAPES[c] = String.format("\\u%04x", c).getBytes(StandardCharsets.US_ASCII);
+            }
+            ESCAPES['\b'] = "\\b".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['\t'] = "\\t".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['\n'] = "\\n".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['\f'] = "\\f".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['\r'] = "\\r".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['"'] = "\\\"".getBytes(StandardCharsets.US_ASCII);
+            ESCAPES['\\'] = "\\\\".getBytes(StandardCharsets.US_ASCII);
+        }
+        
+        private byte[] buffer = new byte[256];
+        private int position;
+        
+        void reset() {
+            position = 0;
+        }
+        
+        byte[] toByteArray() {
+            return Arrays.copyOf(buffer, position);
+        }
+        
+        private void ensure(int extra) {
+            if (position + extra > buffer.length) {
+                buffer = Arrays.copyOf(buffer, Math.max(buffer.length * 2, position + extra));
+            }
+        }
+        
+        void write(int b) {
+            ensure(1);
+            buffer[position++] = (byte) b;
+        }
+        
+        void write(byte[] bytes) {
+            ensure(bytes.length);
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+        
+        void writeAscii(String text) {
+            int length = text.length();
+            ensure(length);
+            for (int i = 0; i < length; i++) {
+                buffer[position++] = (byte) text.charAt(i);
+            }
+        }
+        
+        /**
+         * 写出带引号的UTF-8字节串，需要转义的字符都是ASCII字符，不会出现在多字节序列中，可以直接按字节转义
+         */
+        void writeEscapedUtf8(Utf8Text text) {
+            int length = text.byteLength();
+            ensure(length + 2);
+            buffer[position++] = '"';
+            for (int i = 0; i < length; i++) {
+                byte b = text.byteAt(i);
+                byte[] escaped = b >= 0 ? ESCAPES[b] : null;
+                if (escaped != null) {
+                    write(escaped);
+                } else {
+                    write(b);
+                }
+            }
+            write('"');
+        }
+        
+        /**
+         * 写出带引号并转义的字符串
+         */
+        void writeString(CharSequence text) {
+            int length = text.length();
+            ensure(length + 2);
+            buffer[position++] = '"';
+            for (int i = 0; i < length; i++) {
+                char c = text.charAt(i);
+                if (c < 0x80) {
+                    byte[] escaped = ESCAPES[c];
+                    if (escaped != null) {
+                        write(escaped);
+                    } else {
+                        write(c);
+                    }
+                } else {
+                    int codePoint = Utf8Encoder.codePointAt(text, i);
+                    ensure(Utf8Encoder.MAX_BYTES);
+                    position = Utf8Encoder.encode(codePoint, buffer, position);
+                    i += Character.charCount(codePoint) - 1;
+                }
+            }
+            write('"');
+        }
+    }
+} 
\ No newline at end of file
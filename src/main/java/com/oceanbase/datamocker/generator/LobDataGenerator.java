@@ -0,0 +1,94 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Locale;
+
+/**
+ * 大对象类型数据生成器
+ * 每个值只抽取长度和内容种子，返回的LobValue在输出时按块生成内容，生成和缓冲一行的开销与值的大小无关。
+ * 长度（字节数）取minLength到maxLength之间，按distributionType分布，默认不超过对应类型的最大长度
+ */
+@Slf4j
+public class LobDataGenerator extends AbstractDataGenerator {
+    
+    private static final long DEFAULT_MIN_LENGTH = 1024;
+    private static final long DEFAULT_MAX_LENGTH = 64 * 1024;
+    private static final long TINY_MAX_LENGTH = 255;
+    private static final long BLOB_MAX_LENGTH = 65535;
+    private static final long MEDIUM_MAX_LENGTH = 16 * 1024 * 1024 - 1;
+    
+    @Override
+    public boolean supports(String fieldType) {
+        return fieldType != null && supportedTypes().contains(fieldType.toUpperCase(Locale.ROOT));
+    }
+    
+    @Override
+    public Collection<String> supportedTypes() {
+        return Arrays.asList("BLOB", "TINYBLOB", "MEDIUMBLOB", "LONGBLOB", "MEDIUMTEXT", "LONGTEXT", "CLOB");
+    }
+    
+    /**
+     * 判断字段类型是否为大对象类型
+     *
+     * @param fieldType 字段类型
+     * @return 是否为大对象类型
+     */
+    public static boolean isLobType(String fieldType) {
+        if (fieldType == null) {
+            return false;
+        }
+        String type = DataGeneratorFactory.normalizeType(fieldType);
+        return type.endsWith("BLOB") || "MEDIUMTEXT".equals(type) || "LONGTEXT".equals(type) || "CLOB".equals(type);
+    }
+    
+    @Override
+    protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+        String type = DataGeneratorFactory.normalizeType(fieldConfig.getType());
+        long cap = maxLengthOf(type);
+        long min = fieldConfig.getMinLength() != null ? Math.max(0, fieldConfig.getMinLength()) : Math.min(DEFAULT_MIN_LENGTH, cap);
+        long max = fieldConfig.getMaxLength() != null ? fieldConfig.getMaxLength() : Math.min(DEFAULT_MAX_LENGTH, cap);
+        if (max > cap) {
+            max = cap;
+        }
+        if (min > max) {
+            min = max;
+        }
+        
+        double span = max - min;
+        double length;
+        switch (fieldConfig.getDistributionType()) {
+            case NORMAL:
+                length = Math.max(min, Math.min(max, random.nextGaussian() * span / 6 + (min + max) / 2.0));
+                break;
+            case EXPONENTIAL:
+                // 多数值较小、少数值接近上限，与NumberDataGenerator的指数分布参数一致
+                length = Math.min(max, min - Math.log(1 - random.nextDouble()) * span / 5);
+                break;
+            case UNIFORM:
+            default:
+                length = min + span * random.nextDouble();
+                break;
+        }
+        return new LobValue(random.nextLong(), Math.round(length), type.endsWith("BLOB"));
+    }
+    
+    /**
+     * 返回大对象类型允许的最大字节数
+     */
+    private static long maxLengthOf(String type) {
+        if (type.startsWith("TINY")) {
+            return TINY_MAX_LENGTH;
+        }
+        if ("BLOB".equals(type)) {
+            return BLOB_MAX_LENGTH;
+        }
+        if (type.startsWith("MEDIUM")) {
+            return MEDIUM_MAX_LENGTH;
+        }
+        return Integer.MAX_VALUE;
+    }
+} 
\ No newline at end of file
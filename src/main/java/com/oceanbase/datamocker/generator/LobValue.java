@@ -0,0 +1,250 @@
+package com.oceanbase.datamocker.generator;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializable;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsontype.TypeSerializer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 大对象（BLOB、LONGTEXT等）字段的值
+ * 只记录内容的种子和长度，内容在输出时由种子按块重新生成，任何时候都不需要在内存中保存完整的值。
+ * 二进制大对象的内容为随机字节，文本大对象的内容为由小写字母和空格组成的ASCII文本，
+ * 不包含任何需要在CSV、SQL、JSON中转义的字符，因此编码后的长度可以预先算出
+ */
+public final class LobValue implements JsonSerializable {
+    
+    /**
+     * 输出时每次生成的块大小
+     */
+    public static final int CHUNK_SIZE = 64 * 1024;
+    
+    /**
+     * 文本内容的字符表，每个字符取5个随机位，约六分之一为空格，平均词长约5个字母
+     */
+    private static final byte[] TEXT_ALPHABET = "abcdefghijklmnopqrstuvwxyz      ".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] HEX_DIGITS = "0123456789ABCDEF".getBytes(StandardCharsets.US_ASCII);
+    
+    private final long seed;
+    private final long length;
+    private final boolean binary;
+    
+    LobValue(long seed, long length, boolean binary) {
+        this.seed = seed;
+        this.length = length;
+        this.binary = binary;
+    }
+    
+    /**
+     * 获取内容的字节数，文本大对象的字符数与字节数相同
+     *
+     * @return 字节数
+     */
+    public long length() {
+        return length;
+    }
+    
+    /**
+     * 是否为二进制大对象
+     *
+     * @return 二进制大对象返回true，文本大对象返回false
+     */
+    public boolean isBinary() {
+        return binary;
+    }
+    
+    /**
+     * 判断输出的文本中是否可能出现指定字符，二进制内容按十六进制输出时判断
+     *
+     * @param c 字符
+     * @return 可能出现时返回true
+     */
+    public boolean mayContain(char c) {
+        byte[] chars = binary ? HEX_DIGITS : TEXT_ALPHABET;
+        for (byte b : chars) {
+            if (b == c) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    /**
+     * 打开一个读取内容的输入流，每次调用都从头生成，多个输入流之间互不影响
+     *
+     * @return 输入流
+     */
+    public InputStream openStream() {
+        return new ContentStream();
+    }
+    
+    /**
+     * 以字符流读取文本大对象的内容
+     *
+     * @return 字符流
+     */
+    public Reader openReader() {
+        return new InputStreamReader(openStream(), StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * 按块写出原始内容
+     *
+     * @param out 输出流
+     * @throws IOException 写出失败
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        ContentStream in = new ContentStream();
+        byte[] chunk = new byte[(int) Math.min(CHUNK_SIZE, Math.max(length, 1))];
+        int read;
+        while ((read = in.read(chunk, 0, chunk.length)) > 0) {
+            out.write(chunk, 0, read);
+        }
+    }
+    
+    /**
+     * 按块写出内容的十六进制形式（大写），长度为内容字节数的两倍
+     *
+     * @param out 输出流
+     * @throws IOException 写出失败
+     */
+    public void writeHexTo(OutputStream out) throws IOException {
+        ContentStream in = new ContentStream();
+        int size = (int) Math.min(CHUNK_SIZE, Math.max(length, 1));
+        byte[] chunk = new byte[size];
+        byte[] hex = new byte[size * 2];
+        int read;
+        while ((read = in.read(chunk, 0, chunk.length)) > 0) {
+            for (int i = 0; i < read; i++) {
+                hex[2 * i] = HEX_DIGITS[(chunk[i] >> 4) & 0xF];
+                hex[2 * i + 1] = HEX_DIGITS[chunk[i] & 0xF];
+            }
+            out.write(hex, 0, read * 2);
+        }
+    }
+    
+    @Override
+    public void serialize(JsonGenerator generator, SerializerProvider provider) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Large object of " + length + " bytes is too large for JSON output");
+        }
+        if (binary) {
+            // 以Base64写出，生成器按块读取输入流
+            generator.writeBinary(openStream(), (int) length);
+        } else {
+            generator.writeString(openReader(), (int) length);
+        }
+    }
+    
+    @Override
+    public void serializeWithType(JsonGenerator generator, SerializerProvider provider, TypeSerializer typeSerializer) throws IOException {
+        serialize(generator, provider);
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof LobValue)) {
+            return false;
+        }
+        LobValue other = (LobValue) obj;
+        return seed == other.seed && length == other.length && binary == other.binary;
+    }
+    
+    @Override
+    public int hashCode() {
+        return Long.hashCode(FastRandom.mix(seed ^ length)) ^ (binary ? 1 : 0);
+    }
+    
+    /**
+     * 返回完整的内容，二进制内容按十六进制表示；会在内存中生成整个值，只适用于调试和较小的对象
+     */
+    @Override
+    public String toString() {
+        ByteArrayOutputStream out = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, binary ? length * 2 : length));
+        try {
+            if (binary) {
+                writeHexTo(out);
+            } else {
+                writeTo(out);
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return new String(out.toByteArray(), StandardCharsets.US_ASCII);
+    }
+    
+    /**
+     * 由种子逐个64位随机数生成内容的输入流，内容只由种子和位置决定，与每次读取的大小无关
+     */
+    private final class ContentStream extends InputStream {
+        
+        private final FastRandom random = new FastRandom(seed);
+        private long remaining = length;
+        
+        /**
+         * 当前随机数中尚未使用的位和可以取出的字节数
+         */
+        private long bits;
+        private int available;
+        
+        @Override
+        public int read() {
+            if (remaining <= 0) {
+                return -1;
+            }
+            byte[] one = new byte[1];
+            read(one, 0, 1);
+            return one[0] & 0xFF;
+        }
+        
+        @Override
+        public int read(byte[] buffer, int offset, int count) {
+            if (remaining <= 0) {
+                return -1;
+            }
+            int n = (int) Math.min(count, remaining);
+            for (int i = offset; i < offset + n; i++) {
+                if (available == 0) {
+                    bits = random.nextLong();
+                    // 二进制内容每个随机数取8个字节，文本每个字符取5位，每个随机数取12个字符
+                    available = binary ? 8 : 12;
+                }
+                if (binary) {
+                    buffer[i] = (byte) bits;
+                    bits >>>= 8;
+                } else {
+                    buffer[i] = TEXT_ALPHABET[(int) (bits & 31)];
+                    bits >>>= 5;
+                }
+                available--;
+            }
+            remaining -= n;
+            return n;
+        }
+        
+        @Override
+        public long skip(long n) {
+            long skipped = 0;
+            byte[] discard = new byte[(int) Math.min(CHUNK_SIZE, Math.max(n, 1))];
+            while (skipped < n && remaining > 0) {
+                skipped += read(discard, 0, (int) Math.min(discard.length, n - skipped));
+            }
+            return skipped;
+        }
+        
+        @Override
+        public int available() {
+            return (int) Math.min(Integer.MAX_VALUE, remaining);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,108 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+
+import java.io.File;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * 马尔可夫文本生成器
+ * 按语料的n元语法生成读起来接近真实文本的句子，用于描述、备注、标题等字段，
+ * 生成结果的压缩率和分词结果与真实文本相近，适合全文检索和压缩相关的测试
+ *
+ * <p>作为自定义生成器使用时支持以下参数：
+ * <ul>
+ *   <li>corpus：UTF-8编码的语料文件路径，不设置时使用内置语料</li>
+ *   <li>language：内置语料的语言，zh或en，不设置时每个值随机选择</li>
+ *   <li>order：阶数，1到3，与corpus或language一起使用，阶数越高越接近语料原文，内置中文语料默认为2、英文语料默认为1，自定义语料默认为2</li>
+ *   <li>mode：text生成多个句子组成的文本，title生成不带末尾标点的短标题，默认text</li>
+ * </ul>
+ */
+public class MarkovTextGenerator extends AbstractDataGenerator {
+    
+    private static final int DEFAULT_TEXT_MIN_LENGTH = 20;
+    private static final int DEFAULT_TEXT_MAX_LENGTH = 200;
+    private static final int DEFAULT_TITLE_MIN_LENGTH = 6;
+    private static final int DEFAULT_TITLE_MAX_LENGTH = 30;
+    
+    private static final ThreadLocal<StringBuilder> BUFFERS = ThreadLocal.withInitial(StringBuilder::new);
+    
+    private boolean title;
+    
+    /**
+     * 使用的模型，为null时每个值在内置的中文、英文模型之间随机选择
+     */
+    private MarkovTextModel model;
+    
+    public MarkovTextGenerator() {
+        this(false);
+    }
+    
+    /**
+     * @param title 是否生成标题
+     */
+    public MarkovTextGenerator(boolean title) {
+        this.title = title;
+    }
+    
+    @Override
+    public void configure(Map<String, Object> params) {
+        Object mode = params.get("mode");
+        if (mode != null) {
+            if (!"text".equalsIgnoreCase(mode.toString()) && !"title".equalsIgnoreCase(mode.toString())) {
+                throw new IllegalArgumentException("Unsupported text mode: " + mode + " (expected text or title)");
+            }
+            title = "title".equalsIgnoreCase(mode.toString());
+        }
+        Object order = params.get("order");
+        Object language = params.get("language");
+        Object corpus = params.get("corpus");
+        if (corpus != null) {
+            model = MarkovTextModel.load(new File(corpus.toString()), order == null ? 2 : parseOrder(order));
+        } else if (language != null) {
+            model = order == null ? MarkovTextModel.bundled(language.toString())
+                    : MarkovTextModel.bundled(language.toString(), parseOrder(order));
+        }
+    }
+    
+    private static int parseOrder(Object order) {
+        try {
+            return order instanceof Number ? ((Number) order).intValue() : Integer.parseInt(order.toString().trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid Markov order: " + order);
+        }
+    }
+    
+    @Override
+    public boolean supports(String fieldType) {
+        return true;
+    }
+    
+    @Override
+    protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+        int defaultMin = title ? DEFAULT_TITLE_MIN_LENGTH : DEFAULT_TEXT_MIN_LENGTH;
+        int defaultMax = title ? DEFAULT_TITLE_MAX_LENGTH : DEFAULT_TEXT_MAX_LENGTH;
+        int maxLength = fieldConfig.getMaxLength() != null && fieldConfig.getMaxLength() > 0 ? fieldConfig.getMaxLength() : defaultMax;
+        int minLength = fieldConfig.getMinLength() != null && fieldConfig.getMinLength() >= 0
+                ? fieldConfig.getMinLength() : Math.min(defaultMin, maxLength);
+        
+        // 直接取当前线程的随机流，避免每个词元都经过线程本地视图
+        Random current = RandomStreams.current();
+        MarkovTextModel selected = model;
+        if (selected == null) {
+            selected = current.nextBoolean() ? Bundled.ZH : Bundled.EN;
+        }
+        StringBuilder buffer = BUFFERS.get();
+        return title ? selected.generateTitle(current, minLength, maxLength, buffer)
+                : selected.generate(current, minLength, maxLength, buffer);
+    }
+    
+    /**
+     * 内置语料的模型，首次使用时构建
+     */
+    private static final class Bundled {
+        static final MarkovTextModel ZH = MarkovTextModel.bundled("zh");
+        static final MarkovTextModel EN = MarkovTextModel.bundled("en");
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,419 @@
+package com.oceanbase.datamocker.generator;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 基于n元语法的马尔可夫文本模型
+ * 从语料中统计前n个词元之后出现各个词元的次数，构建后以基本类型数组保存：
+ * 每个状态的出边连续存放，出边记录词元、累计次数和转移后的状态，生成时只需沿状态编号游走，
+ * 不做哈希查找，也不为每个词创建对象。中文按单字切分，英文按单词切分，标点单独作为词元
+ */
+public final class MarkovTextModel {
+    
+    /**
+     * 句子边界词元，作为上下文时表示句首，作为出边时表示句子结束
+     */
+    private static final int BOUNDARY = 0;
+    
+    /**
+     * 每个词元编号占用的位数，上下文按位拼接为long
+     */
+    private static final int TOKEN_BITS = 21;
+    private static final int MAX_ORDER = 3;
+    
+    private static final Map<String, MarkovTextModel> CACHE = new ConcurrentHashMap<>();
+    
+    private final String[] tokens;
+    
+    /**
+     * 词元是否以字母或数字开头、结尾，用于决定相邻词元之间是否需要空格
+     */
+    private final boolean[] wordStart;
+    private final boolean[] wordEnd;
+    private final boolean[] punctuation;
+    
+    /**
+     * 状态s的出边为下标[edgeOffsets[s], edgeOffsets[s + 1])
+     */
+    private final int[] edgeOffsets;
+    private final int[] edgeTokens;
+    private final int[] edgeTargets;
+    
+    /**
+     * 状态内出边的累计次数，最后一条出边的累计次数即该状态的总次数
+     */
+    private final int[] cumulativeCounts;
+    
+    private final int order;
+    
+    private MarkovTextModel(String[] tokens, int[] edgeOffsets, int[] edgeTokens, int[] edgeTargets,
+                            int[] cumulativeCounts, int order) {
+        this.tokens = tokens;
+        this.edgeOffsets = edgeOffsets;
+        this.edgeTokens = edgeTokens;
+        this.edgeTargets = edgeTargets;
+        this.cumulativeCounts = cumulativeCounts;
+        this.order = order;
+        this.wordStart = new boolean[tokens.length];
+        this.wordEnd = new boolean[tokens.length];
+        this.punctuation = new boolean[tokens.length];
+        for (int i = 1; i < tokens.length; i++) {
+            String token = tokens[i];
+            wordStart[i] = isWordChar(token.charAt(0));
+            wordEnd[i] = isWordChar(token.charAt(token.length() - 1));
+            punctuation[i] = !wordStart[i] && !isCjk(token.charAt(0));
+        }
+    }
+    
+    /**
+     * 获取内置语料构建的模型，中文按二阶、英文按一阶构建
+     *
+     * @param language 语言，zh或en
+     * @return 文本模型
+     * @throws IllegalArgumentException 不支持的语言
+     */
+    public static MarkovTextModel bundled(String language) {
+        String name = normalizeLanguage(language);
+        return bundled(name, "zh".equals(name) ? 2 : 1);
+    }
+    
+    /**
+     * 获取内置语料按指定阶数构建的模型
+     *
+     * @param language 语言，zh或en
+     * @param order 阶数，即决定下一个词元的前序词元个数，1到3
+     * @return 文本模型
+     * @throws IllegalArgumentException 不支持的语言或阶数不合法
+     */
+    public static MarkovTextModel bundled(String language, int order) {
+        String resource = "corpus/" + normalizeLanguage(language) + ".txt";
+        return CACHE.computeIfAbsent("classpath:" + resource + "#" + order, key -> {
+            try (InputStream in = MarkovTextModel.class.getClassLoader().getResourceAsStream(resource)) {
+                if (in == null) {
+                    throw new IllegalArgumentException("Text corpus not found on classpath: " + resource);
+                }
+                return build(new InputStreamReader(in, StandardCharsets.UTF_8), order);
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read text corpus " + resource, e);
+            }
+        });
+    }
+    
+    private static String normalizeLanguage(String language) {
+        String name = language == null ? "" : language.trim().toLowerCase(Locale.ROOT);
+        if (!"zh".equals(name) && !"en".equals(name)) {
+            throw new IllegalArgumentException("Unsupported text corpus language: " + language + " (expected zh or en)");
+        }
+        return name;
+    }
+    
+    /**
+     * 获取由语料文件构建的模型，同一文件和阶数只构建一次
+     *
+     * @param corpus UTF-8编码的语料文件
+     * @param order 阶数，1到3
+     * @return 文本模型
+     * @throws IllegalArgumentException 文件无法读取或不包含文本
+     */
+    public static MarkovTextModel load(File corpus, int order) {
+        return CACHE.computeIfAbsent(corpus.getAbsolutePath() + "#" + order, key -> {
+            try (Reader reader = Files.newBufferedReader(corpus.toPath(), StandardCharsets.UTF_8)) {
+                return build(reader, order);
+            } catch (IOException e) {
+                throw new IllegalArgumentException("Failed to read text corpus " + corpus + ": " + e.getMessage(), e);
+            }
+        });
+    }
+    
+    /**
+     * 由语料构建模型，句子在句末标点和换行处切分
+     *
+     * @param corpus 语料
+     * @param order 阶数，1到3
+     * @return 文本模型
+     * @throws IOException 读取语料失败
+     * @throws IllegalArgumentException 阶数不合法或语料不包含文本
+     */
+    public static MarkovTextModel build(Reader corpus, int order) throws IOException {
+        if (order < 1 || order > MAX_ORDER) {
+            throw new IllegalArgumentException("Markov order must be between 1 and " + MAX_ORDER + ": " + order);
+        }
+        Map<String, Integer> tokenIds = new HashMap<>();
+        List<String> tokenList = new ArrayList<>();
+        tokenList.add("");
+        
+        // 上下文 -> (词元 -> 次数)，按首次出现的顺序编号，保证相同语料构建出相同的模型
+        Map<Long, Map<Integer, int[]>> transitions = new LinkedHashMap<>();
+        transitions.put(0L, new LinkedHashMap<>());
+        
+        BufferedReader reader = corpus instanceof BufferedReader ? (BufferedReader) corpus : new BufferedReader(corpus);
+        List<String> sentence = new ArrayList<>();
+        String line;
+        while ((line = reader.readLine()) != null) {
+            tokenize(line, sentence);
+            int start = 0;
+            for (int i = 0; i < sentence.size(); i++) {
+                String token = sentence.get(i);
+                if ((token.length() == 1 && isSentenceEnd(token.charAt(0))) || i == sentence.size() - 1) {
+                    addSentence(sentence.subList(start, i + 1), order, tokenIds, tokenList, transitions);
+                    start = i + 1;
+                }
+            }
+            sentence.clear();
+        }
+        if (tokenList.size() == 1) {
+            throw new IllegalArgumentException("Text corpus contains no text");
+        }
+        if (tokenList.size() >= 1 << TOKEN_BITS) {
+            throw new IllegalArgumentException("Text corpus has too many distinct tokens: " + tokenList.size());
+        }
+        
+        Map<Long, Integer> stateIds = new HashMap<>();
+        for (Long context : transitions.keySet()) {
+            stateIds.put(context, stateIds.size());
+        }
+        int edgeCount = 0;
+        for (Map<Integer, int[]> next : transitions.values()) {
+            edgeCount += next.size();
+        }
+        int[] offsets = new int[transitions.size() + 1];
+        int[] edgeTokens = new int[edgeCount];
+        int[] edgeTargets = new int[edgeCount];
+        int[] cumulative = new int[edgeCount];
+        int state = 0;
+        int edge = 0;
+        long mask = contextMask(order);
+        for (Map.Entry<Long, Map<Integer, int[]>> entry : transitions.entrySet()) {
+            offsets[state++] = edge;
+            int total = 0;
+            for (Map.Entry<Integer, int[]> next : entry.getValue().entrySet()) {
+                int token = next.getKey();
+                total += next.getValue()[0];
+                edgeTokens[edge] = token;
+                edgeTargets[edge] = token == BOUNDARY ? 0 : stateIds.get(((entry.getKey() << TOKEN_BITS) | token) & mask);
+                cumulative[edge] = total;
+                edge++;
+            }
+        }
+        offsets[state] = edge;
+        return new MarkovTextModel(tokenList.toArray(new String[0]), offsets, edgeTokens, edgeTargets, cumulative, order);
+    }
+    
+    private static void addSentence(List<String> sentence, int order, Map<String, Integer> tokenIds,
+                                    List<String> tokenList, Map<Long, Map<Integer, int[]>> transitions) {
+        long mask = contextMask(order);
+        long context = 0L;
+        for (String text : sentence) {
+            Integer token = tokenIds.get(text);
+            if (token == null) {
+                token = tokenList.size();
+                tokenIds.put(text, token);
+                tokenList.add(text);
+            }
+            transitions.computeIfAbsent(context, k -> new LinkedHashMap<>()).computeIfAbsent(token, k -> new int[1])[0]++;
+            context = ((context << TOKEN_BITS) | token) & mask;
+        }
+        transitions.computeIfAbsent(context, k -> new LinkedHashMap<>()).computeIfAbsent(BOUNDARY, k -> new int[1])[0]++;
+    }
+    
+    /**
+     * 上下文只保留最近order个词元的编号
+     */
+    private static long contextMask(int order) {
+        return (1L << (TOKEN_BITS * order)) - 1;
+    }
+    
+    /**
+     * 切分一行文本：连续的字母、数字（含词内的撇号）为一个词元，汉字和标点各为一个词元，空白只用于分隔
+     */
+    static void tokenize(String line, List<String> out) {
+        int i = 0;
+        int length = line.length();
+        while (i < length) {
+            char c = line.charAt(i);
+            if (Character.isWhitespace(c)) {
+                i++;
+            } else if (isWordChar(c)) {
+                int end = i + 1;
+                while (end < length && (isWordChar(line.charAt(end))
+                        || (line.charAt(end) == '\'' && end + 1 < length && isWordChar(line.charAt(end + 1))))) {
+                    end++;
+                }
+                out.add(line.substring(i, end));
+                i = end;
+            } else {
+                int end = Character.isHighSurrogate(c) && i + 1 < length ? i + 2 : i + 1;
+                out.add(line.substring(i, end));
+                i = end;
+            }
+        }
+    }
+    
+    private static boolean isSentenceEnd(char c) {
+        return c == '.' || c == '!' || c == '?' || c == '。' || c == '！' || c == '？';
+    }
+    
+    private static boolean isWordChar(char c) {
+        return c < 0x80 ? Character.isLetterOrDigit(c) : Character.isLetterOrDigit(c) && !isCjk(c);
+    }
+    
+    private static boolean isCjk(char c) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(c);
+        return script == Character.UnicodeScript.HAN || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA || script == Character.UnicodeScript.HANGUL;
+    }
+    
+    /**
+     * 生成一段文本，按句子连续生成直到长度达到[minLength, maxLength]内随机选取的目标长度，
+     * 下一个词元超出maxLength时截止
+     *
+     * @param random 随机数生成器
+     * @param minLength 最小长度（字符数）
+     * @param maxLength 最大长度（字符数）
+     * @param buffer 复用的缓冲区，生成前会被清空
+     * @return 生成的文本
+     */
+    public String generate(Random random, int minLength, int maxLength, StringBuilder buffer) {
+        buffer.setLength(0);
+        int target = minLength >= maxLength ? maxLength : minLength + random.nextInt(maxLength - minLength + 1);
+        int state = 0;
+        int previous = BOUNDARY;
+        while (true) {
+            int edge = pick(state, random);
+            int token = edgeTokens[edge];
+            if (token == BOUNDARY) {
+                if (buffer.length() >= target) {
+                    break;
+                }
+                state = 0;
+                continue;
+            }
+            if (!append(buffer, previous, token, maxLength)) {
+                break;
+            }
+            previous = token;
+            state = edgeTargets[edge];
+        }
+        trimTrailingPunctuation(buffer, false);
+        return buffer.toString();
+    }
+    
+    /**
+     * 生成一个标题：取一个句子的开头，长度达到目标长度后在下一个标点处截止，不保留末尾的标点
+     *
+     * @param random 随机数生成器
+     * @param minLength 最小长度（字符数）
+     * @param maxLength 最大长度（字符数）
+     * @param buffer 复用的缓冲区，生成前会被清空
+     * @return 生成的标题
+     */
+    public String generateTitle(Random random, int minLength, int maxLength, StringBuilder buffer) {
+        buffer.setLength(0);
+        int target = minLength >= maxLength ? maxLength : minLength + random.nextInt(maxLength - minLength + 1);
+        int state = 0;
+        int previous = BOUNDARY;
+        while (true) {
+            int edge = pick(state, random);
+            int token = edgeTokens[edge];
+            if (token == BOUNDARY || (punctuation[token] && buffer.length() >= target)) {
+                if (buffer.length() >= minLength) {
+                    break;
+                }
+                if (token == BOUNDARY) {
+                    state = 0;
+                    continue;
+                }
+            }
+            if (!append(buffer, previous, token, maxLength)) {
+                break;
+            }
+            previous = token;
+            state = edgeTargets[edge];
+        }
+        trimTrailingPunctuation(buffer, true);
+        return buffer.toString();
+    }
+    
+    private int pick(int state, Random random) {
+        int from = edgeOffsets[state];
+        int to = edgeOffsets[state + 1] - 1;
+        if (from == to) {
+            return from;
+        }
+        int r = random.nextInt(cumulativeCounts[to]);
+        // 在累计次数中二分查找第一个大于r的出边
+        while (from < to) {
+            int mid = (from + to) >>> 1;
+            if (cumulativeCounts[mid] > r) {
+                to = mid;
+            } else {
+                from = mid + 1;
+            }
+        }
+        return from;
+    }
+    
+    private boolean append(StringBuilder buffer, int previous, int token, int maxLength) {
+        // 两个单词之间、英文标点与其后的单词之间需要空格，汉字之间不需要
+        boolean space = buffer.length() > 0 && wordStart[token]
+                && (wordEnd[previous] || (punctuation[previous] && tokens[previous].charAt(0) < 0x80));
+        String text = tokens[token];
+        if (buffer.length() + text.length() + (space ? 1 : 0) > maxLength) {
+            return false;
+        }
+        if (space) {
+            buffer.append(' ');
+        }
+        buffer.append(text);
+        return true;
+    }
+    
+    private static void trimTrailingPunctuation(StringBuilder buffer, boolean all) {
+        int length = buffer.length();
+        while (length > 0) {
+            char c = buffer.charAt(length - 1);
+            if (Character.isLetterOrDigit(c) || (!all && isSentenceEnd(c))) {
+                break;
+            }
+            length--;
+        }
+        buffer.setLength(length);
+    }
+    
+    /**
+     * 获取阶数
+     */
+    public int getOrder() {
+        return order;
+    }
+    
+    /**
+     * 获取不同词元的个数
+     */
+    public int getTokenCount() {
+        return tokens.length - 1;
+    }
+    
+    /**
+     * 获取状态（出现过的上下文）个数
+     */
+    public int getStateCount() {
+        return edgeOffsets.length - 1;
+    }
+} 
\ No newline at end of file
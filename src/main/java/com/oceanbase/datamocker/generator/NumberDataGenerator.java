@@ -6,7 +6,9 @@ import lombok.extern.slf4j.Slf4j;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * 数值类型数据生成器
@@ -21,12 +23,19 @@ public class NumberDataGenerator extends AbstractDataGenerator {
     
     private static final double DEFAULT_MIN = 0;
     private static final double DEFAULT_MAX = 1000;
+    private static final int DEFAULT_SCALE = 2;
+    private static final AtomicBoolean QUANTILES_WARNED = new AtomicBoolean();
     
     @Override
     public boolean supports(String fieldType) {
         return SUPPORTED_TYPES.contains(fieldType.toUpperCase());
     }
     
+    @Override
+    public Collection<String> supportedTypes() {
+        return SUPPORTED_TYPES;
+    }
+    
     @Override
     protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
         String type = fieldConfig.getType().toUpperCase();
@@ -35,7 +44,7 @@ public class NumberDataGenerator extends AbstractDataGenerator {
         if (fieldConfig.getEnumValues() != null && fieldConfig.getEnumValues().length > 0) {
             int index = random.nextInt(fieldConfig.getEnumValues().length);
             String value = fieldConfig.getEnumValues()[index];
-            return parseNumber(value, type);
+            return parseNumber(value, type, fieldConfig);
         }
         
         double min = DEFAULT_MIN;
@@ -81,6 +90,19 @@ public class NumberDataGenerator extends AbstractDataGenerator {
                 // 确保值在范围内
                 value = Math.min(max, value);
                 break;
+            case CUSTOM:
+                // 按distributionParams.quantiles给出的等间隔分位数做逆变换采样，分位数之间线性插值
+                List<?> quantiles = quantiles(fieldConfig);
+                if (quantiles != null) {
+                    double position = random.nextDouble() * (quantiles.size() - 1);
+                    int lower = (int) position;
+                    double from = toDouble(quantiles.get(lower));
+                    double to = toDouble(quantiles.get(Math.min(lower + 1, quantiles.size() - 1)));
+                    value = from + (to - from) * (position - lower);
+                    break;
+                }
+                value = min + (max - min) * random.nextDouble();
+                break;
             case UNIFORM:
             default:
                 // 均匀分布
@@ -89,7 +111,25 @@ public class NumberDataGenerator extends AbstractDataGenerator {
         }
         
         // 根据字段类型返回适当的数值类型
-        return formatNumberByType(value, type);
+        return formatNumberByType(value, type, fieldConfig);
+    }
+    
+    /**
+     * 读取自定义分布的分位数列表，少于两个分位数时返回null
+     */
+    private List<?> quantiles(FieldConfig fieldConfig) {
+        Object quantiles = fieldConfig.getDistributionParams() == null ? null : fieldConfig.getDistributionParams().get("quantiles");
+        if (quantiles instanceof List && ((List<?>) quantiles).size() >= 2) {
+            return (List<?>) quantiles;
+        }
+        if (QUANTILES_WARNED.compareAndSet(false, true)) {
+            log.warn("CUSTOM distribution needs at least two distributionParams.quantiles, using UNIFORM instead");
+        }
+        return null;
+    }
+    
+    private static double toDouble(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : Double.parseDouble(String.valueOf(value));
     }
     
     /**
@@ -97,9 +137,10 @@ public class NumberDataGenerator extends AbstractDataGenerator {
      *
      * @param value 数值
      * @param type 字段类型
+     * @param fieldConfig 字段配置
      * @return 格式化后的数值对象
      */
-    private Object formatNumberByType(double value, String type) {
+    private Object formatNumberByType(double value, String type, FieldConfig fieldConfig) {
         switch (type) {
             case "INT":
             case "INTEGER":
@@ -117,8 +158,9 @@ public class NumberDataGenerator extends AbstractDataGenerator {
             case "DECIMAL":
             case "NUMBER":
             case "NUMERIC":
-                // 对于DECIMAL类型，保留2位小数
-                return BigDecimal.valueOf(value).setScale(2, RoundingMode.HALF_UP);
+                // 对于DECIMAL类型，按配置的小数位数保留，默认保留2位小数
+                int scale = fieldConfig.getScale() != null ? fieldConfig.getScale() : DEFAULT_SCALE;
+                return BigDecimal.valueOf(value).setScale(scale, RoundingMode.HALF_UP);
             default:
                 return value;
         }
@@ -129,9 +171,10 @@ public class NumberDataGenerator extends AbstractDataGenerator {
      *
      * @param value 字符串值
      * @param type 字段类型
+     * @param fieldConfig 字段配置
      * @return 解析后的数值对象
      */
-    private Object parseNumber(String value, String type) {
+    private Object parseNumber(String value, String type, FieldConfig fieldConfig) {
         try {
             switch (type) {
                 case "INT":
@@ -156,7 +199,7 @@ public class NumberDataGenerator extends AbstractDataGenerator {
             }
         } catch (NumberFormatException e) {
             log.warn("Failed to parse number: {}, using default", value);
-            return formatNumberByType(DEFAULT_MIN, type);
+            return formatNumberByType(DEFAULT_MIN, type, fieldConfig);
         }
     }
 } 
\ No newline at end of file
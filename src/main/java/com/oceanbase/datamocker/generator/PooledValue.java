@@ -0,0 +1,152 @@
+package com.oceanbase.datamocker.generator;
+
+import com.fasterxml.jackson.annotation.JsonValue;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 值池中的字符串值
+ * 同时持有字符串和预先编码好的UTF-8字节，输出端可以直接写出字节而无需再次编码。
+ * 堆外值池中的值只持有缓冲区中的字节，输出端按字节扫描和批量复制，字符串只在调用toString时临时解码且不缓存，
+ * 否则输出过的值会把字符串重新留在堆上。
+ */
+public final class PooledValue implements Utf8Text, Comparable<PooledValue> {
+    
+    private final ByteBuffer buffer;
+    private final int offset;
+    private final int length;
+    private final byte[] bytes;
+    private final String text;
+    
+    PooledValue(String text) {
+        this.text = text;
+        this.bytes = text.getBytes(StandardCharsets.UTF_8);
+        this.buffer = null;
+        this.offset = 0;
+        this.length = bytes.length;
+    }
+    
+    PooledValue(ByteBuffer buffer, int offset, int length) {
+        this.buffer = buffer;
+        this.offset = offset;
+        this.length = length;
+        this.bytes = null;
+        this.text = null;
+    }
+    
+    @Override
+    public int byteLength() {
+        return length;
+    }
+    
+    /**
+     * 获取UTF-8字节，堆外的值每次调用都会复制一份，输出端应使用 {@link #byteAt(int)} 或 {@link #copyBytes(int, byte[], int, int)}
+     */
+    @Override
+    public byte[] getBytes() {
+        if (bytes != null) {
+            return bytes;
+        }
+        byte[] result = new byte[length];
+        copyBytes(0, result, 0, length);
+        return result;
+    }
+    
+    @Override
+    public byte byteAt(int index) {
+        return bytes != null ? bytes[index] : buffer.get(offset + index);
+    }
+    
+    @Override
+    public void copyBytes(int srcIndex, byte[] dst, int dstIndex, int length) {
+        if (bytes != null) {
+            System.arraycopy(bytes, srcIndex, dst, dstIndex, length);
+            return;
+        }
+        ByteBuffer view = buffer.duplicate();
+        view.position(offset + srcIndex);
+        view.get(dst, dstIndex, length);
+    }
+    
+    /**
+     * 将UTF-8字节写入输出流
+     *
+     * @param out 输出流
+     * @throws IOException 写入失败
+     */
+    public void writeTo(OutputStream out) throws IOException {
+        out.write(getBytes(), 0, length);
+    }
+    
+    /**
+     * 字符数，堆外的值直接按UTF-8字节计算，不解码：每个非后续字节对应一个字符，四字节序列对应一个代理对
+     */
+    @Override
+    public int length() {
+        if (text != null) {
+            return text.length();
+        }
+        int chars = 0;
+        for (int i = 0; i < length; i++) {
+            int b = buffer.get(offset + i) & 0xFF;
+            if ((b & 0xC0) != 0x80) {
+                chars += b >= 0xF0 ? 2 : 1;
+            }
+        }
+        return chars;
+    }
+    
+    @Override
+    public char charAt(int index) {
+        return toString().charAt(index);
+    }
+    
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        return toString().subSequence(start, end);
+    }
+    
+    @Override
+    public int compareTo(PooledValue other) {
+        return toString().compareTo(other.toString());
+    }
+    
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof PooledValue)) {
+            return false;
+        }
+        // UTF-8编码是一一对应的，字节相同即字符串相同
+        PooledValue other = (PooledValue) obj;
+        if (length != other.length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (byteAt(i) != other.byteAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    @Override
+    public int hashCode() {
+        int hash = 1;
+        for (int i = 0; i < length; i++) {
+            hash = 31 * hash + byteAt(i);
+        }
+        return hash;
+    }
+    
+    @JsonValue
+    @Override
+    public String toString() {
+        return text != null ? text : new String(getBytes(), StandardCharsets.UTF_8);
+    }
+} 
\ No newline at end of file
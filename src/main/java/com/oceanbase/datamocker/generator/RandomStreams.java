@@ -0,0 +1,117 @@
+package com.oceanbase.datamocker.generator;
+
+import java.util.Random;
+
+/**
+ * 每个线程独立的随机数流
+ * 生成路径上的随机数都来自当前线程的FastRandom，并发调用之间没有共享的可变状态；
+ * 设置了种子时按(种子, 行号)重置当前线程的随机流，使每行的结果与线程和生成顺序无关
+ */
+public final class RandomStreams {
+    
+    private static final ThreadLocal<FastRandom> STREAMS = ThreadLocal.withInitial(
+            () -> new FastRandom(System.nanoTime() ^ FastRandom.mix(Thread.currentThread().getId())));
+    
+    private static final Random THREAD_LOCAL_VIEW = new ThreadLocalView();
+    
+    private RandomStreams() {
+    }
+    
+    /**
+     * 获取当前线程的随机数生成器，不能传递给其他线程使用
+     *
+     * @return 当前线程的随机数生成器
+     */
+    public static FastRandom current() {
+        return STREAMS.get();
+    }
+    
+    /**
+     * 获取一个始终委托给调用线程随机流的Random视图，可以安全地被多个线程共享
+     *
+     * @return 线程本地随机流的视图
+     */
+    public static Random threadLocalView() {
+        return THREAD_LOCAL_VIEW;
+    }
+    
+    /**
+     * 由种子和行号派生该行的随机流种子
+     *
+     * @param seed 种子
+     * @param rowIndex 行号
+     * @return 该行的种子
+     */
+    public static long rowSeed(long seed, long rowIndex) {
+        return FastRandom.mix(seed + FastRandom.mix(rowIndex + 0x632BE59BD9B4E019L));
+    }
+    
+    /**
+     * 由种子和名称派生子种子，用于区分不同表、字段的随机流
+     *
+     * @param seed 种子
+     * @param name 名称
+     * @return 子种子
+     */
+    public static long derive(long seed, String name) {
+        return FastRandom.mix(seed ^ FastRandom.mix(name.hashCode()));
+    }
+    
+    /**
+     * 委托给当前线程随机流的Random，所有方法都不访问自身状态
+     */
+    private static final class ThreadLocalView extends Random {
+        
+        private static final long serialVersionUID = 1L;
+        
+        @Override
+        public void setSeed(long seed) {
+            // 父类构造函数会调用setSeed，视图本身没有状态
+        }
+        
+        @Override
+        protected int next(int bits) {
+            return (int) (current().nextLong() >>> (64 - bits));
+        }
+        
+        @Override
+        public int nextInt() {
+            return current().nextInt();
+        }
+        
+        @Override
+        public int nextInt(int bound) {
+            return current().nextInt(bound);
+        }
+        
+        @Override
+        public long nextLong() {
+            return current().nextLong();
+        }
+        
+        @Override
+        public double nextDouble() {
+            return current().nextDouble();
+        }
+        
+        @Override
+        public float nextFloat() {
+            return current().nextFloat();
+        }
+        
+        @Override
+        public boolean nextBoolean() {
+            return current().nextBoolean();
+        }
+        
+        @Override
+        public double nextGaussian() {
+            return current().nextGaussian();
+        }
+        
+        @Override
+        public void nextBytes(byte[] bytes) {
+            current().nextBytes(bytes);
+        }
+    }
+} 
\ No newline at end of file
@@ -3,10 +3,15 @@ package com.oceanbase.datamocker.generator;
 import com.oceanbase.datamocker.ai.FieldSemanticInferrer;
 import com.oceanbase.datamocker.ai.SemanticType;
 import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
 import lombok.extern.slf4j.Slf4j;
 
-import java.util.HashMap;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.Collections;
+import java.util.EnumMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 语义数据生成器
@@ -16,10 +21,26 @@ import java.util.Map;
 public class SemanticDataGenerator extends AbstractDataGenerator {
     
     private final FieldSemanticInferrer semanticInferrer;
-    private final Map<SemanticType, DataGenerator> semanticGenerators = new HashMap<>();
+    
+    /**
+     * 语义类型到生成器的映射，注册时整体替换为新的不可变映射
+     */
+    private volatile Map<SemanticType, DataGenerator> semanticGenerators = Collections.emptyMap();
+    
+    /**
+     * 语义推断结果缓存，key为字段名和字段类型，重复编译生成计划时不再重复推断
+     */
+    private final Map<String, SemanticType> inferenceCache = new ConcurrentHashMap<>();
+    
+    private final MockerMetrics metrics;
     
     public SemanticDataGenerator(FieldSemanticInferrer semanticInferrer) {
+        this(semanticInferrer, MockerMetrics.DISABLED);
+    }
+    
+    public SemanticDataGenerator(FieldSemanticInferrer semanticInferrer, MockerMetrics metrics) {
         this.semanticInferrer = semanticInferrer;
+        this.metrics = metrics;
         initializeSemanticGenerators();
     }
     
@@ -33,6 +54,9 @@ public class SemanticDataGenerator extends AbstractDataGenerator {
         registerSemanticGenerator(SemanticType.EMAIL, new EmailGenerator());
         registerSemanticGenerator(SemanticType.PHONE, new PhoneGenerator());
         registerSemanticGenerator(SemanticType.ADDRESS, new AddressGenerator());
+        registerSemanticGenerator(SemanticType.ID_CARD, new IdCardGenerator());
+        registerSemanticGenerator(SemanticType.DESCRIPTION, new MarkovTextGenerator(false));
+        registerSemanticGenerator(SemanticType.TITLE, new MarkovTextGenerator(true));
     }
     
     /**
@@ -41,34 +65,76 @@ public class SemanticDataGenerator extends AbstractDataGenerator {
      * @param type 语义类型
      * @param generator 数据生成器
      */
-    public void registerSemanticGenerator(SemanticType type, DataGenerator generator) {
-        semanticGenerators.put(type, generator);
+    public synchronized void registerSemanticGenerator(SemanticType type, DataGenerator generator) {
+        Map<SemanticType, DataGenerator> generators = new EnumMap<>(SemanticType.class);
+        generators.putAll(semanticGenerators);
+        generators.put(type, generator);
+        semanticGenerators = Collections.unmodifiableMap(generators);
         log.debug("Registered semantic generator for type: {}", type);
     }
     
+    /**
+     * 获取语义类型对应的生成器
+     *
+     * @param type 语义类型
+     * @return 生成器，该语义类型没有专门的生成器时返回null
+     */
+    public DataGenerator getSemanticGenerator(SemanticType type) {
+        return semanticGenerators.get(type);
+    }
+    
     @Override
     public boolean supports(String fieldType) {
         // 语义生成器支持所有类型，因为它是基于语义而非类型
         return true;
     }
     
+    @Override
+    public Object generate(String fieldName, FieldConfig fieldConfig) {
+        // 空值由实际使用的生成器处理，避免空值比例被重复应用
+        return resolve(fieldName, fieldConfig).generate(fieldName, fieldConfig);
+    }
+    
     @Override
     protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+        return resolve(fieldName, fieldConfig).generate(fieldName, fieldConfig);
+    }
+    
+    @Override
+    public DataGenerator resolve(String fieldName, FieldConfig fieldConfig) {
+        // JSON字段的结构由模板决定，不按字段名推断语义；模板中的属性仍按属性名推断
+        if (fieldConfig.getProperties() != null || fieldConfig.getItems() != null
+                || "JSON".equals(DataGeneratorFactory.normalizeType(fieldConfig.getType()))) {
+            return JsonTemplate.compile(fieldName, fieldConfig, this);
+        }
+        
+        // 大对象字段按配置的长度分布流式生成，语义生成器产生的短字符串不适用
+        if (LobDataGenerator.isLobType(fieldConfig.getType())) {
+            return DataGeneratorFactory.getGenerator(fieldConfig.getType()).resolve(fieldName, fieldConfig);
+        }
+        
         // 推断字段的语义类型
-        SemanticType semanticType = semanticInferrer.inferSemanticType(fieldName, fieldConfig.getType());
+        String cacheKey = fieldName + '\u0000' + fieldConfig.getType();
+        SemanticType semanticType = inferenceCache.get(cacheKey);
+        metrics.recordInference(semanticType != null);
+        if (semanticType == null) {
+            semanticType = semanticInferrer.inferSemanticType(fieldName, fieldConfig.getType());
+            if (semanticType != null) {
+                inferenceCache.put(cacheKey, semanticType);
+            }
+        }
         log.debug("Inferred semantic type for field '{}': {}", fieldName, semanticType);
         
         // 如果有对应的语义生成器，使用它生成数据
         DataGenerator semanticGenerator = semanticGenerators.get(semanticType);
         if (semanticGenerator != null) {
             log.debug("Using semantic generator for type: {}", semanticType);
-            return semanticGenerator.generate(fieldName, fieldConfig);
+            return semanticGenerator;
         }
         
         // 如果没有对应的语义生成器，使用常规的类型生成器
         log.debug("No semantic generator found for type: {}, using type-based generator", semanticType);
-        DataGenerator typeGenerator = DataGeneratorFactory.getGenerator(fieldConfig.getType());
-        return typeGenerator.generate(fieldName, fieldConfig);
+        return DataGeneratorFactory.getGenerator(fieldConfig.getType()).resolve(fieldName, fieldConfig);
     }
     
     /**
@@ -229,4 +295,38 @@ public class SemanticDataGenerator extends AbstractDataGenerator {
             return sb.toString();
         }
     }
+    
+    /**
+     * 身份证号生成器，生成18位、出生日期和校验码有效的居民身份证号
+     */
+    private class IdCardGenerator extends AbstractDataGenerator {
+        private final String[] REGIONS = {"110101", "110105", "110108", "310101", "310104", "310115", "440106", "440305", "330106", "320102", "420102", "510104", "610113", "500103", "370202", "210203"};
+        private final int[] WEIGHTS = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+        private final String CHECK_CODES = "10X98765432";
+        private final LocalDate EARLIEST_BIRTH = LocalDate.of(1950, 1, 1);
+        private final int BIRTH_DAYS = (int) (LocalDate.of(2005, 12, 31).toEpochDay() - EARLIEST_BIRTH.toEpochDay());
+        
+        @Override
+        public boolean supports(String fieldType) {
+            return true;
+        }
+        
+        @Override
+        protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
+            StringBuilder sb = new StringBuilder(18);
+            sb.append(REGIONS[random.nextInt(REGIONS.length)]);
+            sb.append(EARLIEST_BIRTH.plusDays(random.nextInt(BIRTH_DAYS + 1)).format(DateTimeFormatter.BASIC_ISO_DATE));
+            
+            // 顺序码，末位奇数为男性、偶数为女性
+            int sequence = random.nextInt(999) + 1;
+            sb.append((char) ('0' + sequence / 100)).append((char) ('0' + sequence / 10 % 10)).append((char) ('0' + sequence % 10));
+            
+            // 按 GB 11643 计算校验码
+            int sum = 0;
+            for (int i = 0; i < WEIGHTS.length; i++) {
+                sum += (sb.charAt(i) - '0') * WEIGHTS[i];
+            }
+            return sb.append(CHECK_CODES.charAt(sum % 11)).toString();
+        }
+    }
 } 
\ No newline at end of file
@@ -4,6 +4,8 @@ import com.oceanbase.datamocker.config.FieldConfig;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Arrays;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.regex.Pattern;
 
 /**
@@ -16,6 +18,7 @@ public class StringDataGenerator extends AbstractDataGenerator {
     private static final String[] CHARS = "abcdefghijklmnopqrstuvwxyzABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789".split("");
     private static final int DEFAULT_MIN_LENGTH = 5;
     private static final int DEFAULT_MAX_LENGTH = 20;
+    private static final AtomicBoolean PATTERN_WARNED = new AtomicBoolean();
     
     @Override
     public boolean supports(String fieldType) {
@@ -23,6 +26,11 @@ public class StringDataGenerator extends AbstractDataGenerator {
                 || "CHAR".equalsIgnoreCase(fieldType) || "TEXT".equalsIgnoreCase(fieldType);
     }
     
+    @Override
+    public Collection<String> supportedTypes() {
+        return Arrays.asList(TYPE, "VARCHAR", "CHAR", "TEXT");
+    }
+    
     @Override
     protected Object doGenerate(String fieldName, FieldConfig fieldConfig) {
         // 如果有枚举值，从枚举值中随机选择
@@ -36,7 +44,10 @@ public class StringDataGenerator extends AbstractDataGenerator {
             try {
                 // 这里简化处理，实际应该使用专门的正则表达式数据生成库
                 // 例如 Xeger 或 Generex
-                log.warn("Regex pattern generation is not fully implemented yet, using random string instead");
+                // 每个值都会经过这里，只提示一次
+                if (PATTERN_WARNED.compareAndSet(false, true)) {
+                    log.warn("Regex pattern generation is not fully implemented yet, using random string instead");
+                }
                 return generateRandomString(fieldConfig);
             } catch (Exception e) {
                 log.error("Failed to generate string with pattern: {}", fieldConfig.getPattern(), e);
@@ -0,0 +1,61 @@
+package com.oceanbase.datamocker.generator;
+
+/**
+ * 逐字符的UTF-8编码，供直接向字节缓冲区写出文本的输出端共用，ASCII字符的转义由各输出端自行处理
+ */
+public final class Utf8Encoder {
+    
+    /**
+     * 一个码点编码后的最大字节数
+     */
+    public static final int MAX_BYTES = 4;
+    
+    private Utf8Encoder() {
+    }
+    
+    /**
+     * 读取下标处的码点：成对的代理字符合并为一个码点，不成对的代理字符按替换字符 '?' 处理
+     * 调用方按 Character.charCount 的结果前进
+     *
+     * @param text 文本
+     * @param index 下标
+     * @return 码点
+     */
+    public static int codePointAt(CharSequence text, int index) {
+        char c = text.charAt(index);
+        if (!Character.isSurrogate(c)) {
+            return c;
+        }
+        if (Character.isHighSurrogate(c) && index + 1 < text.length() && Character.isLowSurrogate(text.charAt(index + 1))) {
+            return Character.toCodePoint(c, text.charAt(index + 1));
+        }
+        return '?';
+    }
+    
+    /**
+     * 把码点编码写入缓冲区，调用方需保证缓冲区至少还有 MAX_BYTES 个字节的空间
+     *
+     * @param codePoint 码点
+     * @param buffer 缓冲区
+     * @param position 写入位置
+     * @return 写入后的位置
+     */
+    public static int encode(int codePoint, byte[] buffer, int position) {
+        if (codePoint < 0x80) {
+            buffer[position++] = (byte) codePoint;
+        } else if (codePoint < 0x800) {
+            buffer[position++] = (byte) (0xC0 | (codePoint >> 6));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else if (codePoint < 0x10000) {
+            buffer[position++] = (byte) (0xE0 | (codePoint >> 12));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        } else {
+            buffer[position++] = (byte) (0xF0 | (codePoint >> 18));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+            buffer[position++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+            buffer[position++] = (byte) (0x80 | (codePoint & 0x3F));
+        }
+        return position;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,43 @@
+package com.oceanbase.datamocker.generator;
+
+/**
+ * 已经编码为UTF-8字节的文本值，输出端直接写出字节而无需再次编码
+ */
+public interface Utf8Text extends CharSequence {
+    
+    /**
+     * 获取UTF-8编码后的字节，调用方不得修改返回的数组
+     *
+     * @return UTF-8字节，有效内容为前byteLength()个字节
+     */
+    byte[] getBytes();
+    
+    /**
+     * 获取UTF-8编码后的字节长度
+     *
+     * @return 字节长度
+     */
+    int byteLength();
+    
+    /**
+     * 获取第index个UTF-8字节，堆外的值直接从缓冲区读取，不复制整个值
+     *
+     * @param index 字节下标
+     * @return 字节
+     */
+    default byte byteAt(int index) {
+        return getBytes()[index];
+    }
+    
+    /**
+     * 将UTF-8字节批量复制到数组中，堆外的值直接从缓冲区读取，不经过 {@link #getBytes()} 的临时数组
+     *
+     * @param srcIndex 起始字节下标
+     * @param dst 目标数组
+     * @param dstIndex 目标数组的起始下标
+     * @param length 复制的字节数
+     */
+    default void copyBytes(int srcIndex, byte[] dst, int dstIndex, int length) {
+        System.arraycopy(getBytes(), srcIndex, dst, dstIndex, length);
+    }
+} 
\ No newline at end of file
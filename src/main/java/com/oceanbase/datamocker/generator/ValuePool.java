@@ -0,0 +1,231 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * 字段值池
+ * 预先为字段生成K个不同的值，之后按配置的分布从池中采样，
+ * 使地址等生成代价较高的字段的单值成本接近整数字段，并且内存占用有界、可调。
+ */
+@Slf4j
+public class ValuePool {
+    
+    /**
+     * 去重后值不足时最多追加生成的轮数
+     */
+    private static final int MAX_ROUNDS = 4;
+    
+    private final String fieldName;
+    private final Object[] values;
+    private final FieldConfig.DistributionType distribution;
+    private final long memoryFootprint;
+    
+    private ValuePool(String fieldName, Object[] values, FieldConfig.DistributionType distribution, long memoryFootprint) {
+        this.fieldName = fieldName;
+        this.values = values;
+        this.distribution = distribution;
+        this.memoryFootprint = memoryFootprint;
+    }
+    
+    /**
+     * 构建值池
+     *
+     * @param fieldName 字段名
+     * @param fieldConfig 字段配置
+     * @param generator 用于生成池中值的生成器
+     * @param seed 种子，为null时池中的值不可复现
+     * @return 值池
+     */
+    public static ValuePool build(String fieldName, FieldConfig fieldConfig, DataGenerator generator, Long seed) {
+        FieldConfig.ValuePoolConfig poolConfig = fieldConfig.getValuePool();
+        int size = Math.max(1, poolConfig.getSize());
+        int parallelism = poolConfig.getParallelism() > 0 ? poolConfig.getParallelism() : Runtime.getRuntime().availableProcessors();
+        long start = System.nanoTime();
+        
+        // 生成的null值会被丢弃，空值由字段的nullRate在采样时控制
+        Set<Object> distinct = new LinkedHashSet<>(size * 2);
+        ForkJoinPool pool = parallelism > 1 ? new ForkJoinPool(parallelism) : null;
+        try {
+            long generated = 0;
+            for (int round = 0; round < MAX_ROUNDS && distinct.size() < size; round++) {
+                int missing = size - distinct.size();
+                List<Object> batch = generateBatch(fieldName, fieldConfig, generator, seed, generated, missing, parallelism, pool);
+                generated += missing;
+                for (Object value : batch) {
+                    if (value != null && distinct.size() < size) {
+                        distinct.add(value);
+                    }
+                }
+            }
+        } finally {
+            if (pool != null) {
+                pool.shutdown();
+            }
+        }
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("Failed to generate any value for the value pool of field " + fieldName);
+        }
+        if (distinct.size() < size) {
+            log.warn("Value pool of field {} has only {} distinct values out of {} requested", fieldName, distinct.size(), size);
+        }
+        
+        Object[] values = distinct.toArray();
+        long footprint = poolConfig.isOffHeap() ? encodeOffHeap(fieldName, values) : encodeOnHeap(values);
+        ValuePool result = new ValuePool(fieldName, values, poolConfig.getDistribution(), footprint);
+        log.info("Built value pool for field {}: {} values, ~{} KB{}, in {} ms", fieldName, values.length,
+                footprint / 1024, poolConfig.isOffHeap() ? " off-heap" : "", (System.nanoTime() - start) / 1_000_000);
+        return result;
+    }
+    
+    /**
+     * 从池中采样一个值
+     *
+     * @param random 随机数生成器
+     * @return 采样的值
+     */
+    public Object sample(Random random) {
+        return values[sampleIndex(random)];
+    }
+    
+    /**
+     * 按配置的分布采样池中的下标
+     *
+     * @param random 随机数生成器
+     * @return 池中的下标
+     */
+    public int sampleIndex(Random random) {
+        int size = values.length;
+        switch (distribution) {
+            case NORMAL: {
+                double index = random.nextGaussian() * size / 6.0 + size / 2.0;
+                return (int) Math.max(0, Math.min(size - 1, index));
+            }
+            case EXPONENTIAL: {
+                // 靠前的值被采样的概率更高，约99%的采样落在池的前部
+                double index = -Math.log(1 - random.nextDouble()) * size / 5.0;
+                return (int) Math.min(size - 1, index);
+            }
+            case UNIFORM:
+            default:
+                return random.nextInt(size);
+        }
+    }
+    
+    public String getFieldName() {
+        return fieldName;
+    }
+    
+    public int size() {
+        return values.length;
+    }
+    
+    /**
+     * 获取值池占用内存的估算值（字节）
+     *
+     * @return 估算的内存占用
+     */
+    public long getMemoryFootprint() {
+        return memoryFootprint;
+    }
+    
+    /**
+     * 生成一批候选值，设置了种子时第i个值使用由(种子, first + i)派生的随机流，结果与并行度无关
+     */
+    private static List<Object> generateBatch(String fieldName, FieldConfig config, DataGenerator generator, Long seed,
+                                              long first, int count, int parallelism, ForkJoinPool pool) {
+        List<Object> result = new ArrayList<>(count);
+        if (pool == null || count < parallelism * 64) {
+            for (int i = 0; i < count; i++) {
+                result.add(generateValue(fieldName, config, generator, seed, first + i));
+            }
+            return result;
+        }
+        
+        int chunk = (count + parallelism - 1) / parallelism;
+        List<Future<List<Object>>> futures = new ArrayList<>(parallelism);
+        for (int from = 0; from < count; from += chunk) {
+            int n = Math.min(chunk, count - from);
+            long offset = first + from;
+            futures.add(pool.submit(() -> {
+                List<Object> part = new ArrayList<>(n);
+                for (int i = 0; i < n; i++) {
+                    part.add(generateValue(fieldName, config, generator, seed, offset + i));
+                }
+                return part;
+            }));
+        }
+        try {
+            for (Future<List<Object>> future : futures) {
+                result.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building value pool of field " + fieldName, e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Failed to build value pool of field " + fieldName, e.getCause());
+        }
+        return result;
+    }
+    
+    private static Object generateValue(String fieldName, FieldConfig config, DataGenerator generator, Long seed, long index) {
+        if (seed != null) {
+            RandomStreams.current().setSeed(RandomStreams.rowSeed(seed, index));
+        }
+        return generator.generate(fieldName, config);
+    }
+    
+    /**
+     * 将字符串值替换为带有预编码字节的PooledValue，返回估算的内存占用
+     */
+    private static long encodeOnHeap(Object[] values) {
+        long footprint = 16L + values.length * 8L;
+        for (int i = 0; i < values.length; i++) {
+            if (values[i] instanceof String) {
+                PooledValue value = new PooledValue((String) values[i]);
+                values[i] = value;
+                footprint += 64 + value.byteLength() + 2L * value.toString().length();
+            } else {
+                footprint += 32;
+            }
+        }
+        return footprint;
+    }
+    
+    /**
+     * 将字符串值的UTF-8字节存放到一块堆外内存中，堆上只保留轻量的引用对象，返回堆外内存的大小
+     */
+    private static long encodeOffHeap(String fieldName, Object[] values) {
+        long total = 0;
+        for (Object value : values) {
+            if (!(value instanceof CharSequence)) {
+                log.warn("Off-heap value pool of field {} only supports string values, keeping it on heap", fieldName);
+                return encodeOnHeap(values);
+            }
+            total += value.toString().getBytes(StandardCharsets.UTF_8).length;
+        }
+        if (total > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Value pool of field " + fieldName + " exceeds 2GB, reduce valuePool.size");
+        }
+        
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) total);
+        for (int i = 0; i < values.length; i++) {
+            byte[] bytes = values[i].toString().getBytes(StandardCharsets.UTF_8);
+            int offset = buffer.position();
+            buffer.put(bytes);
+            values[i] = new PooledValue(buffer, offset, bytes.length);
+        }
+        return total;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,66 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 值池缓存
+ * 同一字段配置的值池只构建一次，在多次编译生成计划之间复用
+ */
+public class ValuePoolCache {
+    
+    private final Map<String, Entry> pools = new ConcurrentHashMap<>();
+    
+    /**
+     * 获取字段的值池，不存在或字段配置已被替换时重新构建
+     *
+     * @param tableName 表名
+     * @param fieldName 字段名
+     * @param fieldConfig 字段配置
+     * @param generator 用于生成池中值的生成器
+     * @param seed 全局种子，为null时池中的值不可复现
+     * @return 值池
+     */
+    public ValuePool get(String tableName, String fieldName, FieldConfig fieldConfig, DataGenerator generator, Long seed) {
+        String key = tableName + "." + fieldName;
+        Entry entry = pools.get(key);
+        if (entry == null || entry.config != fieldConfig) {
+            entry = pools.compute(key, (k, existing) -> existing != null && existing.config == fieldConfig
+                    ? existing : new Entry(fieldConfig, ValuePool.build(fieldName, fieldConfig, generator,
+                    seed == null ? null : RandomStreams.derive(seed, key))));
+        }
+        return entry.pool;
+    }
+    
+    /**
+     * 获取所有值池的估算内存占用（字节）
+     *
+     * @return 估算的内存占用
+     */
+    public long getMemoryFootprint() {
+        long total = 0;
+        for (Entry entry : pools.values()) {
+            total += entry.pool.getMemoryFootprint();
+        }
+        return total;
+    }
+    
+    /**
+     * 清空缓存
+     */
+    public void clear() {
+        pools.clear();
+    }
+    
+    private static class Entry {
+        private final FieldConfig config;
+        private final ValuePool pool;
+        
+        Entry(FieldConfig config, ValuePool pool) {
+            this.config = config;
+            this.pool = pool;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,109 @@
+package com.oceanbase.datamocker.job;
+
+import lombok.Getter;
+
+import java.util.Locale;
+
+/**
+ * 按字节数生成时的目标大小
+ * 开始时按估算的行宽换算行数，之后每次记录实际写出的行数和字节数，用实际的平均行宽修正剩余的行数，
+ * 因此估算的误差和压缩率的变化都会在生成过程中被逐步消除
+ */
+@Getter
+public class ByteTarget {
+    
+    private final long targetBytes;
+    private volatile double bytesPerRow;
+    
+    /**
+     * 创建目标大小
+     *
+     * @param targetBytes 目标字节数
+     * @param estimatedBytesPerRow 估算的每行字节数
+     */
+    public ByteTarget(long targetBytes, double estimatedBytesPerRow) {
+        if (targetBytes <= 0 || !(estimatedBytesPerRow > 0)) {
+            throw new IllegalArgumentException("targetBytes and estimatedBytesPerRow must be positive");
+        }
+        this.targetBytes = targetBytes;
+        this.bytesPerRow = estimatedBytesPerRow;
+    }
+    
+    /**
+     * 按当前的平均行宽估算达到目标需要的总行数
+     *
+     * @return 行数，至少为1
+     */
+    public long estimatedRows() {
+        return Math.max(1, (long) Math.ceil(targetBytes / bytesPerRow));
+    }
+    
+    /**
+     * 记录实际写出的行数和字节数，之后按实际的平均行宽估算
+     *
+     * @param rows 累计写出的行数
+     * @param bytes 这些行累计占用的字节数
+     */
+    public void record(long rows, long bytes) {
+        if (rows > 0 && bytes > 0) {
+            bytesPerRow = bytes / (double) rows;
+        }
+    }
+    
+    /**
+     * 是否已达到目标大小
+     *
+     * @param bytes 已写出的字节数
+     * @return 达到时返回true
+     */
+    public boolean isReached(long bytes) {
+        return bytes >= targetBytes;
+    }
+    
+    /**
+     * 估算从已写出的字节数到达目标还需要的行数
+     *
+     * @param bytes 已写出的字节数
+     * @return 行数，已达到目标时为0，否则至少为1
+     */
+    public long remainingRows(long bytes) {
+        if (isReached(bytes)) {
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((targetBytes - bytes) / bytesPerRow));
+    }
+    
+    /**
+     * 解析字节数，支持K、M、G、T后缀（按1024进位，可带B或iB），如 "512M"、"1.5GB"、"10GiB"
+     *
+     * @param text 文本
+     * @return 字节数
+     */
+    public static long parseSize(String text) {
+        if (text == null || text.trim().isEmpty()) {
+            throw new IllegalArgumentException("Size must not be empty");
+        }
+        String value = text.trim().toUpperCase(Locale.ROOT);
+        if (value.endsWith("IB")) {
+            value = value.substring(0, value.length() - 2);
+        } else if (value.endsWith("B")) {
+            value = value.substring(0, value.length() - 1);
+        }
+        long unit = 1;
+        char suffix = value.isEmpty() ? ' ' : value.charAt(value.length() - 1);
+        int power = "KMGT".indexOf(suffix);
+        if (power >= 0) {
+            unit = 1L << (10 * (power + 1));
+            value = value.substring(0, value.length() - 1);
+        }
+        try {
+            double number = Double.parseDouble(value.trim());
+            if (!(number > 0)) {
+                throw new IllegalArgumentException("Size must be positive: " + text);
+            }
+            return (long) Math.ceil(number * unit);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid size: " + text);
+        }
+    }
+} 
\ No newline at end of file
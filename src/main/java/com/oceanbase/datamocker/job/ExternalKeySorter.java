@@ -0,0 +1,374 @@
+package com.oceanbase.datamocker.job;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * 内存受限的外部排序，按（分区，主键，行号）排序行的索引项
+ * 只排序主键和行号而不保存整行，输出时按行号重新生成行，因此排序占用的内存和磁盘与行宽、输出格式无关。
+ * 内存中的项超过上限时排序后溢写为一个有序的段，结束时多路归并各段，段数超过归并路数时先合并成更大的段
+ */
+@Slf4j
+final class ExternalKeySorter implements Closeable {
+    
+    /**
+     * 一次归并同时打开的段数上限
+     */
+    static final int MAX_FAN_IN = 64;
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    /**
+     * 估算内存占用时每一项的固定开销：对象头、数组和行号
+     */
+    private static final int ENTRY_OVERHEAD = 64;
+    
+    private static final byte NULL = 0;
+    private static final byte LONG = 1;
+    private static final byte DECIMAL = 2;
+    private static final byte DOUBLE = 3;
+    private static final byte STRING = 4;
+    
+    private static final Comparator<Entry> ORDER = (a, b) -> {
+        int result = Integer.compare(a.partition, b.partition);
+        for (int i = 0; result == 0 && i < a.key.length; i++) {
+            result = compareValues(a.key[i], b.key[i]);
+        }
+        return result != 0 ? result : Long.compare(a.rowIndex, b.rowIndex);
+    };
+    
+    private final long memoryLimit;
+    private final File tempDir;
+    private final List<Entry> buffer = new ArrayList<>();
+    private final List<File> runs = new ArrayList<>();
+    private final List<RunReader> readers = new ArrayList<>();
+    private long bufferedBytes;
+    
+    /**
+     * 创建外部排序
+     *
+     * @param memoryLimit 内存中保存的项最多占用的字节数
+     * @param tempDir 溢写段所在的目录
+     */
+    ExternalKeySorter(long memoryLimit, File tempDir) {
+        this.memoryLimit = memoryLimit;
+        this.tempDir = tempDir;
+    }
+    
+    /**
+     * 加入一项，内存占用达到上限时把已加入的项排序后溢写到磁盘
+     *
+     * @param partition 分区序号
+     * @param key 主键字段的值
+     * @param rowIndex 行号
+     * @throws IOException 溢写失败
+     */
+    void add(int partition, Object[] key, long rowIndex) throws IOException {
+        Entry entry = new Entry(partition, normalize(key), rowIndex);
+        buffer.add(entry);
+        bufferedBytes += sizeOf(entry);
+        if (bufferedBytes >= memoryLimit) {
+            spill();
+        }
+    }
+    
+    /**
+     * 结束加入，返回按顺序读取全部项的游标；全部项都在内存中时不写磁盘
+     *
+     * @return 有序的游标
+     * @throws IOException 溢写或归并失败
+     */
+    EntryCursor finish() throws IOException {
+        buffer.sort(ORDER);
+        if (runs.isEmpty()) {
+            List<Entry> sorted = new ArrayList<>(buffer);
+            buffer.clear();
+            return new EntryCursor() {
+                private int next;
+                
+                @Override
+                public Entry next() {
+                    return next < sorted.size() ? sorted.get(next++) : null;
+                }
+            };
+        }
+        spill();
+        while (runs.size() > MAX_FAN_IN) {
+            List<File> group = new ArrayList<>(runs.subList(0, MAX_FAN_IN));
+            runs.subList(0, MAX_FAN_IN).clear();
+            File merged = createRun();
+            try (DataOutputStream out = openRun(merged)) {
+                EntryCursor cursor = merge(group);
+                Entry entry;
+                while ((entry = cursor.next()) != null) {
+                    write(out, entry);
+                }
+                out.writeInt(-1);
+            } finally {
+                closeReaders();
+                for (File run : group) {
+                    delete(run);
+                }
+            }
+            runs.add(merged);
+        }
+        log.debug("Merging {} sorted run(s)", runs.size());
+        return merge(runs);
+    }
+    
+    @Override
+    public void close() {
+        closeReaders();
+        for (File run : runs) {
+            delete(run);
+        }
+        runs.clear();
+        buffer.clear();
+    }
+    
+    private void spill() throws IOException {
+        buffer.sort(ORDER);
+        File run = createRun();
+        runs.add(run);
+        try (DataOutputStream out = openRun(run)) {
+            for (Entry entry : buffer) {
+                write(out, entry);
+            }
+            out.writeInt(-1);
+        }
+        log.debug("Spilled {} keys ({} bytes in memory) to {}", buffer.size(), bufferedBytes, run.getName());
+        buffer.clear();
+        bufferedBytes = 0;
+    }
+    
+    private File createRun() throws IOException {
+        return File.createTempFile("sort-", ".run", tempDir);
+    }
+    
+    private static DataOutputStream openRun(File run) throws IOException {
+        return new DataOutputStream(new BufferedOutputStream(new FileOutputStream(run), BUFFER_SIZE));
+    }
+    
+    private EntryCursor merge(List<File> group) throws IOException {
+        PriorityQueue<RunReader> queue = new PriorityQueue<>(group.size(), (a, b) -> ORDER.compare(a.current, b.current));
+        for (File run : group) {
+            RunReader reader = new RunReader(run);
+            readers.add(reader);
+            if (reader.advance()) {
+                queue.add(reader);
+            }
+        }
+        return () -> {
+            RunReader reader = queue.poll();
+            if (reader == null) {
+                return null;
+            }
+            Entry entry = reader.current;
+            if (reader.advance()) {
+                queue.add(reader);
+            }
+            return entry;
+        };
+    }
+    
+    private void closeReaders() {
+        for (RunReader reader : readers) {
+            try {
+                reader.in.close();
+            } catch (IOException e) {
+                log.debug("Failed to close sorted run: {}", e.getMessage());
+            }
+        }
+        readers.clear();
+    }
+    
+    private static void delete(File run) {
+        if (!run.delete() && run.exists()) {
+            log.warn("Failed to delete temporary file {}", run.getAbsolutePath());
+        }
+    }
+    
+    private static void write(DataOutputStream out, Entry entry) throws IOException {
+        out.writeInt(entry.partition);
+        out.writeLong(entry.rowIndex);
+        out.writeByte(entry.key.length);
+        for (Object value : entry.key) {
+            if (value == null) {
+                out.writeByte(NULL);
+            } else if (value instanceof Long) {
+                out.writeByte(LONG);
+                out.writeLong((Long) value);
+            } else if (value instanceof BigDecimal) {
+                out.writeByte(DECIMAL);
+                writeString(out, ((BigDecimal) value).toString());
+            } else if (value instanceof Double) {
+                out.writeByte(DOUBLE);
+                out.writeDouble((Double) value);
+            } else {
+                out.writeByte(STRING);
+                writeString(out, (String) value);
+            }
+        }
+    }
+    
+    private static void writeString(DataOutputStream out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+    
+    private static String readString(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readInt()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+    
+    /**
+     * 把主键的值归一化为可以序列化和比较的类型：整数为Long，定点数为BigDecimal，浮点数为Double，其余为字符串
+     */
+    private static Object[] normalize(Object[] key) {
+        Object[] values = new Object[key.length];
+        for (int i = 0; i < key.length; i++) {
+            Object value = key[i];
+            if (value == null || value instanceof Long || value instanceof BigDecimal || value instanceof Double) {
+                values[i] = value;
+            } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+                values[i] = ((Number) value).longValue();
+            } else if (value instanceof BigInteger) {
+                values[i] = new BigDecimal((BigInteger) value);
+            } else if (value instanceof Float) {
+                values[i] = ((Float) value).doubleValue();
+            } else {
+                values[i] = value.toString();
+            }
+        }
+        return values;
+    }
+    
+    /**
+     * 空值最小，数值之间按数值比较且小于字符串，字符串按UTF-16编码单元（对BMP内的字符即二进制排序规则）比较
+     */
+    @SuppressWarnings("unchecked")
+    private static int compareValues(Object a, Object b) {
+        if (a == null || b == null) {
+            return a == null ? (b == null ? 0 : -1) : 1;
+        }
+        if (a.getClass() == b.getClass()) {
+            return ((Comparable<Object>) a).compareTo(b);
+        }
+        boolean aNumber = a instanceof Number;
+        boolean bNumber = b instanceof Number;
+        if (aNumber && bNumber) {
+            return toDecimal(a).compareTo(toDecimal(b));
+        }
+        return aNumber ? -1 : 1;
+    }
+    
+    private static BigDecimal toDecimal(Object value) {
+        return value instanceof BigDecimal ? (BigDecimal) value
+                : value instanceof Double ? BigDecimal.valueOf((Double) value) : BigDecimal.valueOf((Long) value);
+    }
+    
+    private static long sizeOf(Entry entry) {
+        long size = ENTRY_OVERHEAD + 8L * entry.key.length;
+        for (Object value : entry.key) {
+            if (value instanceof String) {
+                size += 40 + 2L * ((String) value).length();
+            } else if (value instanceof BigDecimal) {
+                size += 64;
+            } else if (value != null) {
+                size += 16;
+            }
+        }
+        return size;
+    }
+    
+    /**
+     * 排序的项
+     */
+    static final class Entry {
+        final int partition;
+        final Object[] key;
+        final long rowIndex;
+        
+        Entry(int partition, Object[] key, long rowIndex) {
+            this.partition = partition;
+            this.key = key;
+            this.rowIndex = rowIndex;
+        }
+    }
+    
+    /**
+     * 有序读取项的游标
+     */
+    interface EntryCursor {
+        /**
+         * 读取下一项
+         *
+         * @return 下一项，没有更多的项时返回null
+         * @throws IOException 读取溢写段失败
+         */
+        Entry next() throws IOException;
+    }
+    
+    /**
+     * 溢写段的读取器，current为当前项
+     */
+    private static final class RunReader {
+        private final DataInputStream in;
+        private Entry current;
+        
+        RunReader(File run) throws IOException {
+            this.in = new DataInputStream(new BufferedInputStream(new FileInputStream(run), BUFFER_SIZE));
+        }
+        
+        boolean advance() throws IOException {
+            int partition = in.readInt();
+            if (partition < 0) {
+                current = null;
+                return false;
+            }
+            long rowIndex = in.readLong();
+            Object[] key = new Object[in.readByte()];
+            for (int i = 0; i < key.length; i++) {
+                byte tag = in.readByte();
+                switch (tag) {
+                    case LONG:
+                        key[i] = in.readLong();
+                        break;
+                    case DECIMAL:
+                        key[i] = new BigDecimal(readString(in));
+                        break;
+                    case DOUBLE:
+                        key[i] = in.readDouble();
+                        break;
+                    case STRING:
+                        key[i] = readString(in);
+                        break;
+                    case NULL:
+                    default:
+                        key[i] = null;
+                        break;
+                }
+            }
+            current = new Entry(partition, key, rowIndex);
+            return true;
+        }
+    }
+} 
\ No newline at end of file
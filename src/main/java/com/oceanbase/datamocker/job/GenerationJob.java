@@ -0,0 +1,299 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 可从检查点恢复的生成作业
+ * 将一张表的行号范围划分为多个分区并行生成，每个分区写出到独立的文件，并定期将各分区的进度保存到检查点文件。
+ * 作业重启时读取检查点，将输出文件截断到已确认的长度后从下一行继续生成。
+ * 配置了目标字节数时，目标大小均分到各分区，每个分区按估算的行宽预留两倍的行号范围，写到自己的份额后结束
+ */
+@Slf4j
+public class GenerationJob {
+    
+    private final TablePlan plan;
+    private final long rowCount;
+    private final Long seed;
+    private final JobConfig config;
+    private final File outputDir;
+    private final File checkpointFile;
+    private volatile boolean stopped;
+    
+    /**
+     * 按字节数生成时为每个分区预留的行数与估算行数之比
+     */
+    private static final int RESERVED_ROWS_FACTOR = 2;
+    
+    /**
+     * 创建生成作业
+     *
+     * @param plan 表的生成计划
+     * @param rowCount 总行数，配置了目标字节数时忽略
+     * @param seed 随机种子，为null时随机选择一个并记录在检查点中
+     * @param config 作业配置
+     */
+    public GenerationJob(TablePlan plan, long rowCount, Long seed, JobConfig config) {
+        if (rowCount < 0 || config.getPartitions() <= 0 || config.getCheckpointIntervalRows() <= 0 || config.getChunkRows() <= 0) {
+            throw new IllegalArgumentException("rowCount must not be negative, partitions, chunkRows and checkpointIntervalRows must be positive");
+        }
+        if (config.getTargetBytes() < 0 || (config.getTargetBytes() > 0 && config.isSingleFile())) {
+            throw new IllegalArgumentException("targetBytes must not be negative and cannot be combined with singleFile, use partitions instead");
+        }
+        if ("json".equalsIgnoreCase(config.getFormat())) {
+            // JSON数组的括号和分隔符不能从检查点的偏移量处续写
+            throw new IllegalArgumentException("Format json cannot be resumed or written in parallel regions, use ndjson instead");
+        }
+        this.plan = plan;
+        this.rowCount = rowCount;
+        this.seed = seed;
+        this.config = config;
+        this.outputDir = new File(config.getOutputDir());
+        this.checkpointFile = config.getCheckpointFile() != null ? new File(config.getCheckpointFile())
+                : new File(outputDir, plan.getTableName() + ".checkpoint.json");
+    }
+    
+    /**
+     * 运行作业，存在未完成的检查点时从检查点继续
+     *
+     * @return 作业结束时的检查点
+     * @throws IOException 读写文件失败
+     */
+    public JobCheckpoint run() throws IOException {
+        if (!outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Failed to create output directory: " + outputDir.getAbsolutePath());
+        }
+        JobCheckpoint checkpoint = JobCheckpoint.load(checkpointFile);
+        if (checkpoint == null) {
+            checkpoint = newCheckpoint();
+            checkpoint.save(checkpointFile);
+        } else {
+            validate(checkpoint);
+            if (checkpoint.isComplete()) {
+                log.info("Table {} is already complete according to {}", plan.getTableName(), checkpointFile);
+                return checkpoint;
+            }
+            log.info("Resuming table {} from checkpoint {}", plan.getTableName(), checkpointFile);
+        }
+        
+        if (config.isSingleFile()) {
+            JobCheckpoint.PartitionCheckpoint partition = checkpoint.getPartitions().get(0);
+            new SingleFileWriter(plan, config, checkpointFile, () -> stopped)
+                    .run(checkpoint, partition, new File(outputDir, partition.getFile()));
+            log.info("Generated {} rows of table {} into {} with {} threads", checkpoint.getGeneratedRows(), plan.getTableName(), partition.getFile(), config.getPartitions());
+            return checkpoint;
+        }
+        
+        List<JobCheckpoint.PartitionCheckpoint> pending = new ArrayList<>();
+        for (JobCheckpoint.PartitionCheckpoint partition : checkpoint.getPartitions()) {
+            // 空分区也需要运行一次以写出表头
+            if (!partition.isComplete() || partition.getFileOffset() == 0) {
+                pending.add(partition);
+            }
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, pending.size()));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (JobCheckpoint.PartitionCheckpoint partition : pending) {
+                JobCheckpoint state = checkpoint;
+                futures.add(executor.submit(() -> {
+                    runPartition(state, partition);
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while generating table " + plan.getTableName(), e);
+        } catch (ExecutionException e) {
+            stopped = true;
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to generate table " + plan.getTableName(), e.getCause());
+        } finally {
+            stopped = true;
+            executor.shutdownNow();
+        }
+        log.info("Generated {} rows of table {} into {} file(s)", checkpoint.getGeneratedRows(), plan.getTableName(), checkpoint.getPartitions().size());
+        return checkpoint;
+    }
+    
+    /**
+     * 停止作业，各分区在保存下一个检查点后退出
+     */
+    public void stop() {
+        stopped = true;
+    }
+    
+    private void runPartition(JobCheckpoint checkpoint, JobCheckpoint.PartitionCheckpoint partition) throws IOException {
+        File file = new File(outputDir, partition.getFile());
+        long offset;
+        long nextRow;
+        synchronized (checkpoint) {
+            offset = partition.getFileOffset();
+            nextRow = partition.getNextRow();
+        }
+        truncate(file, offset);
+        
+        long tableSeed = RandomStreams.derive(checkpoint.getSeed(), plan.getTableName());
+        FileOutputStream out = new FileOutputStream(file, true);
+        try (RowSink sink = RowSinks.create(checkpoint.getFormat(),
+                CompressionCodecs.wrap(out, checkpoint.getCompression(), config.getCompressionLevel()), offset == 0,
+                SqlDialect.of(config.getSqlDialect()))) {
+            // 恢复时同样需要打开输出以初始化字段名和语句头，是否重复输出表头由创建时的参数决定
+            sink.open(plan.getTableName(), plan.getOutputColumns());
+            ByteTarget target = null;
+            if (partition.getTargetBytes() > 0) {
+                target = new ByteTarget(partition.getTargetBytes(), checkpoint.getEstimatedRowBytes());
+                target.record(nextRow - partition.getStartRow(), offset);
+            }
+            // 不压缩时文件大小就是写出的字节数，可以逐行判断是否达到目标；压缩时只能在每批落盘后按文件的实际长度判断
+            boolean exact = checkpoint.getCompression() == null;
+            long reported = 0;
+            long fileLength = offset;
+            while (nextRow < partition.getEndRow() && !stopped) {
+                long batchEnd = Math.min(partition.getEndRow(), nextRow + config.getCheckpointIntervalRows());
+                if (target != null) {
+                    batchEnd = Math.min(batchEnd, nextRow + target.remainingRows(fileLength));
+                }
+                while (nextRow < batchEnd) {
+                    plan.writeRow(sink, plan.generateRow(nextRow, tableSeed), nextRow);
+                    nextRow++;
+                    if (target != null && exact && target.isReached(offset + sink.getBytesWritten())) {
+                        break;
+                    }
+                }
+                // 先让输出落盘，再记录检查点，检查点中的偏移量之前的内容都是完整的
+                long flushStart = System.nanoTime();
+                sink.flush();
+                if (config.isSync()) {
+                    out.getChannel().force(false);
+                }
+                plan.getMetrics().addPhaseNanos(MockerMetrics.Phase.FLUSH, System.nanoTime() - flushStart);
+                long written = sink.getBytesWritten();
+                plan.getMetrics().addBytes(written - reported);
+                reported = written;
+                // 压缩输出在flush后停在压缩帧的边界上，按文件的实际长度记录偏移量
+                fileLength = out.getChannel().size();
+                boolean reached = false;
+                if (target != null) {
+                    target.record(nextRow - partition.getStartRow(), fileLength);
+                    reached = target.isReached(fileLength);
+                }
+                synchronized (checkpoint) {
+                    partition.setNextRow(nextRow);
+                    if (reached) {
+                        // 达到目标大小后分区到此结束，恢复时不再继续
+                        partition.setEndRow(nextRow);
+                    }
+                    partition.setFileOffset(fileLength);
+                    checkpoint.save(checkpointFile);
+                }
+            }
+            if (target != null && !target.isReached(fileLength) && nextRow >= partition.getEndRow()) {
+                log.warn("Partition {} of table {} used up its {} reserved rows at {} of {} bytes", partition.getIndex(),
+                        plan.getTableName(), partition.getEndRow() - partition.getStartRow(), fileLength, partition.getTargetBytes());
+            }
+        }
+    }
+    
+    /**
+     * 将输出文件截断到检查点记录的长度，丢弃上次中断时未确认的内容
+     */
+    static void truncate(File file, long offset) throws IOException {
+        if (offset == 0) {
+            new FileOutputStream(file).close();
+            return;
+        }
+        try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+            if (raf.length() < offset) {
+                throw new IOException("Output file " + file + " is shorter (" + raf.length()
+                        + " bytes) than its checkpoint (" + offset + " bytes)");
+            }
+            raf.setLength(offset);
+        }
+    }
+    
+    private JobCheckpoint newCheckpoint() throws IOException {
+        JobCheckpoint checkpoint = new JobCheckpoint();
+        checkpoint.setTableName(plan.getTableName());
+        checkpoint.setFormat(config.getFormat().toLowerCase());
+        checkpoint.setCompression(CompressionCodecs.isNone(config.getCompression()) ? null : config.getCompression().toLowerCase());
+        checkpoint.setSeed(seed != null ? seed : ThreadLocalRandom.current().nextLong());
+        checkpoint.setChunkRows(config.isSingleFile() ? config.getChunkRows() : 0);
+        
+        // 写单个文件时所有线程共享一个分区
+        int partitions = config.isSingleFile() ? 1 : config.getPartitions();
+        String extension = RowSinks.extension(config.getFormat()) + CompressionCodecs.suffix(config.getCompression());
+        long totalRows = rowCount;
+        long targetBytes = config.getTargetBytes();
+        if (targetBytes > 0) {
+            double rowBytes = RowSizeEstimator.estimate(plan, RandomStreams.derive(checkpoint.getSeed(), plan.getTableName()),
+                    config.getFormat(), SqlDialect.of(config.getSqlDialect()), CompressionCodecs.get(config.getCompression()),
+                    config.getCompressionLevel(), targetBytes);
+            checkpoint.setTargetBytes(targetBytes);
+            checkpoint.setEstimatedRowBytes(rowBytes);
+            long estimatedRows = new ByteTarget(targetBytes, rowBytes).estimatedRows();
+            totalRows = ((estimatedRows + partitions - 1) / partitions * RESERVED_ROWS_FACTOR + 1) * partitions;
+            log.info("Estimated {} bytes per row for table {}, about {} rows for {} bytes", String.format("%.1f", rowBytes),
+                    plan.getTableName(), estimatedRows, targetBytes);
+        }
+        checkpoint.setTotalRows(totalRows);
+        long rowsPerPartition = totalRows / partitions;
+        long remainder = totalRows % partitions;
+        long start = 0;
+        for (int i = 0; i < partitions; i++) {
+            JobCheckpoint.PartitionCheckpoint partition = new JobCheckpoint.PartitionCheckpoint();
+            partition.setIndex(i);
+            partition.setFile(partitions == 1 ? plan.getTableName() + "." + extension
+                    : String.format("%s.part-%05d.%s", plan.getTableName(), i, extension));
+            long end = start + rowsPerPartition + (i < remainder ? 1 : 0);
+            partition.setStartRow(start);
+            partition.setEndRow(end);
+            partition.setNextRow(start);
+            if (targetBytes > 0) {
+                partition.setTargetBytes(targetBytes / partitions + (i < targetBytes % partitions ? 1 : 0));
+            }
+            checkpoint.getPartitions().add(partition);
+            start = end;
+        }
+        return checkpoint;
+    }
+    
+    private void validate(JobCheckpoint checkpoint) {
+        boolean matches = plan.getTableName().equals(checkpoint.getTableName())
+                && (config.getTargetBytes() > 0 ? config.getTargetBytes() == checkpoint.getTargetBytes()
+                : checkpoint.getTargetBytes() == 0 && rowCount == checkpoint.getTotalRows())
+                && (config.isSingleFile() ? 1 : config.getPartitions()) == checkpoint.getPartitions().size()
+                && (config.isSingleFile() ? config.getChunkRows() : 0) == checkpoint.getChunkRows()
+                && config.getFormat().equalsIgnoreCase(checkpoint.getFormat())
+                && CompressionCodecs.isNone(config.getCompression()) == (checkpoint.getCompression() == null)
+                && (checkpoint.getCompression() == null || checkpoint.getCompression().equalsIgnoreCase(config.getCompression()))
+                && (seed == null || seed == checkpoint.getSeed());
+        if (!matches) {
+            throw new IllegalArgumentException("Checkpoint " + checkpointFile
+                    + " was written by a different job (table, rows or size, partitions, chunk size, format, compression or seed); delete it to start over");
+        }
+    }
+} 
\ No newline at end of file
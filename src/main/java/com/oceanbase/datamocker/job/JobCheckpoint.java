@@ -0,0 +1,137 @@
+package com.oceanbase.datamocker.job;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成作业的检查点
+ * 每一行的随机数流只由作业的种子和行号决定，因此分区的下一行行号就是其随机数流的位置，
+ * 加上输出文件已确认写出的长度，足以让重启的作业从中断处继续，并产生与不中断时逐字节相同的输出
+ */
+@Data
+public class JobCheckpoint {
+    
+    private String tableName;
+    private String format;
+    private String compression;
+    /**
+     * 总行数；按字节数生成时为各分区预留的行号范围之和，实际行数见getGeneratedRows
+     */
+    private long totalRows;
+    private long seed;
+    
+    /**
+     * 按字节数生成时的目标字节数，按行数生成时为0
+     */
+    private long targetBytes;
+    
+    /**
+     * 按字节数生成时作业开始前估算的每行字节数
+     */
+    private double estimatedRowBytes;
+    
+    /**
+     * 写单个文件时每块的行数，分区写多个文件时为0
+     */
+    private long chunkRows;
+    private List<PartitionCheckpoint> partitions = new ArrayList<>();
+    
+    /**
+     * 所有分区是否都已完成
+     */
+    @JsonIgnore
+    public boolean isComplete() {
+        for (PartitionCheckpoint partition : partitions) {
+            if (!partition.isComplete()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 已生成的行数
+     */
+    @JsonIgnore
+    public long getGeneratedRows() {
+        long rows = 0;
+        for (PartitionCheckpoint partition : partitions) {
+            rows += partition.getNextRow() - partition.getStartRow();
+        }
+        return rows;
+    }
+    
+    /**
+     * 读取检查点文件
+     *
+     * @param file 检查点文件
+     * @return 检查点，文件不存在时返回null
+     * @throws IOException 读取失败
+     */
+    public static JobCheckpoint load(File file) throws IOException {
+        if (!file.exists()) {
+            return null;
+        }
+        return new ObjectMapper().readValue(file, JobCheckpoint.class);
+    }
+    
+    /**
+     * 保存检查点，先写临时文件再原子替换，中途崩溃不会留下不完整的检查点
+     *
+     * @param file 检查点文件
+     * @throws IOException 写入失败
+     */
+    public void save(File file) throws IOException {
+        File temp = new File(file.getAbsoluteFile().getParentFile(), file.getName() + ".tmp");
+        new ObjectMapper().writeValue(temp, this);
+        Files.move(temp.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+    
+    /**
+     * 单个分区的进度
+     */
+    @Data
+    public static class PartitionCheckpoint {
+        
+        private int index;
+        
+        /**
+         * 输出文件名（相对于输出目录）
+         */
+        private String file;
+        
+        /**
+         * 分区的行号范围 [startRow, endRow)
+         */
+        private long startRow;
+        private long endRow;
+        
+        /**
+         * 下一行的行号
+         */
+        private long nextRow;
+        
+        /**
+         * 输出文件中已确认写出的字节数，之后的内容在恢复时会被截断
+         */
+        private long fileOffset;
+        
+        /**
+         * 按字节数生成时本分区的目标字节数，达到后endRow被设为nextRow，分区结束
+         */
+        private long targetBytes;
+        
+        @JsonIgnore
+        public boolean isComplete() {
+            return nextRow >= endRow;
+        }
+    }
+} 
\ No newline at end of file
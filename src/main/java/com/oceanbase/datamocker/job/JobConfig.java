@@ -0,0 +1,70 @@
+package com.oceanbase.datamocker.job;
+
+import lombok.Data;
+
+/**
+ * 生成作业的配置
+ */
+@Data
+public class JobConfig {
+    
+    /**
+     * 输出目录
+     */
+    private String outputDir = ".";
+    
+    /**
+     * 输出格式，csv、ndjson或sql
+     */
+    private String format = "csv";
+    
+    /**
+     * sql格式使用的SQL方言，mysql或oracle
+     */
+    private String sqlDialect = "mysql";
+    
+    /**
+     * 压缩方式，如gzip，为空或none时不压缩
+     */
+    private String compression;
+    
+    /**
+     * 压缩级别，-1表示默认级别
+     */
+    private int compressionLevel = -1;
+    
+    /**
+     * 分区数，每个分区由一个线程生成并写出到独立的文件；写单个文件时为工作线程数
+     */
+    private int partitions = 1;
+    
+    /**
+     * 是否由所有线程并行写同一个文件，各线程写入文件中按块的顺序预留的区域
+     */
+    private boolean singleFile;
+    
+    /**
+     * 写单个文件时每块的行数，每块在一个线程中序列化后一次写入
+     */
+    private long chunkRows = 10_000L;
+    
+    /**
+     * 目标字节数，大于0时按输出文件的大小（压缩时为压缩后的大小）而不是行数生成，均分到各分区，每个分区达到自己的份额后停止
+     */
+    private long targetBytes;
+    
+    /**
+     * 检查点文件，为空时使用输出目录下的 &lt;表名&gt;.checkpoint.json
+     */
+    private String checkpointFile;
+    
+    /**
+     * 每个分区每生成多少行保存一次检查点
+     */
+    private long checkpointIntervalRows = 100_000L;
+    
+    /**
+     * 保存检查点前是否将输出文件同步到磁盘，关闭后只能防止进程崩溃，不能防止机器掉电
+     */
+    private boolean sync = true;
+} 
\ No newline at end of file
@@ -0,0 +1,309 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.compress.ParallelCompressingOutputStream;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.plan.ColumnPlan;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.schema.Partitioning;
+import com.oceanbase.datamocker.sink.AbstractStreamRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按表的分区方式把行写入各分区各自的文件（<表名>.<分区名>.<扩展名>），每个文件内的行按主键排序，
+ * 导入分区表时服务器不必再按分区重分布和排序。
+ * 主键的第一个字段是数值序列时，按行号顺序生成的行已经按主键有序，直接写入各分区的文件，
+ * 同时打开的分区文件的缓冲区超出内存上限时分组进行，每组重新按行号生成一遍，只写出属于该组分区的行；
+ * 否则先抽取各行的分区和主键做内存受限的外部排序，再按排序结果逐行重新生成并写出，这时同一时刻只打开一个分区的文件
+ */
+@Slf4j
+final class PartitionedWriter implements Closeable {
+    
+    /**
+     * 报告进度的行数间隔，作业在报告时检查是否已停止并按行速率上限等待
+     */
+    static final int PROGRESS_ROWS = 10000;
+    
+    private static final int BUFFER_SIZE = 256 * 1024;
+    
+    /**
+     * 生成进度的回调
+     */
+    interface Progress {
+        /**
+         * 即将写出若干行，抽取主键的阶段以0行报告
+         *
+         * @param rows 行数
+         * @throws IOException 作业已停止或等待被中断
+         */
+        void advance(long rows) throws IOException;
+    }
+    
+    private final TablePlan plan;
+    private final long tableSeed;
+    private final long rows;
+    private final Partitioning partitioning;
+    private final int[] partitionColumns;
+    private final int[] keyColumns;
+    private final String format;
+    private final SqlDialect dialect;
+    private final String compression;
+    private final int compressionLevel;
+    private final File dir;
+    private final List<File> files = new ArrayList<>();
+    private final RowSink[] sinks;
+    
+    /**
+     * 创建分区输出
+     *
+     * @param plan 表的生成计划
+     * @param tableSeed 表的种子
+     * @param rows 行数
+     * @param partitioning 分区方式
+     * @param primaryKey 主键字段，为空时各分区内的行不排序
+     * @param format 输出格式
+     * @param dialect sql格式使用的SQL方言
+     * @param compression 压缩方式
+     * @param compressionLevel 压缩级别
+     * @param dir 输出目录，同时存放外部排序的临时文件
+     * @throws IllegalArgumentException 分区键或主键字段不在生成计划中
+     */
+    PartitionedWriter(TablePlan plan, long tableSeed, long rows, Partitioning partitioning, List<String> primaryKey,
+                      String format, SqlDialect dialect, String compression, int compressionLevel, File dir) {
+        this.plan = plan;
+        this.tableSeed = tableSeed;
+        this.rows = rows;
+        this.partitioning = partitioning;
+        this.partitionColumns = indexesOf(partitioning.getColumns());
+        this.keyColumns = indexesOf(primaryKey);
+        this.format = format;
+        this.dialect = dialect;
+        this.compression = compression;
+        this.compressionLevel = compressionLevel;
+        this.dir = dir;
+        String extension = RowSinks.extension(format) + CompressionCodecs.suffix(compression);
+        for (String name : partitioning.getPartitionNames()) {
+            files.add(new File(dir, plan.getTableName() + "." + name + "." + extension));
+        }
+        this.sinks = new RowSink[files.size()];
+    }
+    
+    /**
+     * 各分区的输出文件，按分区顺序排列
+     *
+     * @return 输出文件
+     */
+    List<File> getFiles() {
+        return files;
+    }
+    
+    /**
+     * 按行号顺序生成的行是否已经按主键有序：主键的第一个字段是没有条件规则的数值序列，或者表没有主键
+     *
+     * @return 是否可以一遍生成
+     */
+    boolean isKeyOrdered() {
+        if (keyColumns.length == 0) {
+            return true;
+        }
+        ColumnPlan first = columnAt(keyColumns[0]);
+        FieldConfig config = first.getFieldConfig();
+        if (first.getKind() != ColumnPlan.Kind.SEQUENCE || config.getConditions() != null && !config.getConditions().isEmpty()) {
+            return false;
+        }
+        // 字符串类型的序列按字典序与数值顺序不同
+        return rows == 0 || plan.previewRow(0, tableSeed)[keyColumns[0]] instanceof Number;
+    }
+    
+    /**
+     * 生成全部行并写入各分区的文件，没有行的分区也会写出只有表头的文件
+     *
+     * @param memory 同时打开的分区文件的缓冲区或外部排序在内存中最多占用的字节数
+     * @param progress 进度回调
+     * @return 各分区文件的总字节数
+     * @throws IOException 写出失败或作业已停止
+     * @throws IllegalArgumentException 生成的分区键不属于任何 RANGE 分区
+     */
+    long write(long memory, Progress progress) throws IOException {
+        long sinkMemory = sinkMemory();
+        if (isKeyOrdered()) {
+            writeInRowOrder((int) Math.max(1, Math.min(sinks.length, memory / sinkMemory)), progress);
+        } else {
+            // 排序结果逐个分区写出时只打开一个分区文件
+            writeSorted(Math.max(memory - sinkMemory, memory / 2), progress);
+        }
+        long bytes = 0;
+        for (File file : files) {
+            bytes += file.length();
+        }
+        return bytes;
+    }
+    
+    /**
+     * 一个打开的分区文件占用的内存：文件缓冲区、输出的编码缓冲区以及压缩块
+     */
+    private long sinkMemory() {
+        long bytes = BUFFER_SIZE + AbstractStreamRowSink.DEFAULT_BUFFER_SIZE;
+        return CompressionCodecs.isNone(compression) ? bytes : bytes + ParallelCompressingOutputStream.DEFAULT_BLOCK_SIZE;
+    }
+    
+    /**
+     * 按行号顺序写出，每次最多同时打开group个分区文件。分多组时先用不计入指标的预览行确定分区，
+     * 属于当前组的行再正式生成一次，生成结果与预览相同
+     */
+    private void writeInRowOrder(int group, Progress progress) throws IOException {
+        boolean single = group >= sinks.length;
+        long emitted = 0;
+        for (int first = 0; first < sinks.length; first += group) {
+            int end = Math.min(sinks.length, first + group);
+            for (int p = first; p < end; p++) {
+                open(p);
+            }
+            for (long i = 0; i < rows; i++) {
+                if (!single && i % PROGRESS_ROWS == 0) {
+                    progress.advance(0);
+                }
+                Object[] row = single ? plan.generateRow(i, tableSeed) : plan.previewRow(i, tableSeed);
+                int partition = partitionOf(row);
+                if (partition < first || partition >= end) {
+                    continue;
+                }
+                if (emitted % PROGRESS_ROWS == 0) {
+                    progress.advance(Math.min(PROGRESS_ROWS, rows - emitted));
+                }
+                emitted++;
+                if (!single) {
+                    row = plan.generateRow(i, tableSeed);
+                }
+                plan.writeRow(sinks[partition], row, i);
+            }
+            for (int p = first; p < end; p++) {
+                closeSink(p);
+            }
+        }
+    }
+    
+    private void writeSorted(long sortMemory, Progress progress) throws IOException {
+        try (ExternalKeySorter sorter = new ExternalKeySorter(sortMemory, dir)) {
+            for (long i = 0; i < rows; i++) {
+                if (i % PROGRESS_ROWS == 0) {
+                    progress.advance(0);
+                }
+                Object[] row = plan.previewRow(i, tableSeed);
+                Object[] key = new Object[keyColumns.length];
+                for (int k = 0; k < key.length; k++) {
+                    key[k] = row[keyColumns[k]];
+                }
+                sorter.add(partitionOf(row), key, i);
+            }
+            
+            ExternalKeySorter.EntryCursor cursor = sorter.finish();
+            int current = -1;
+            long emitted = 0;
+            ExternalKeySorter.Entry entry;
+            while ((entry = cursor.next()) != null) {
+                while (current < entry.partition) {
+                    closeSink(current);
+                    open(++current);
+                }
+                if (emitted % PROGRESS_ROWS == 0) {
+                    progress.advance(Math.min(PROGRESS_ROWS, rows - emitted));
+                }
+                emitted++;
+                plan.writeRow(sinks[current], plan.generateRow(entry.rowIndex, tableSeed), entry.rowIndex);
+            }
+            closeSink(current);
+            while (++current < sinks.length) {
+                open(current);
+                closeSink(current);
+            }
+        }
+    }
+    
+    private int partitionOf(Object[] row) {
+        Object[] values = new Object[partitionColumns.length];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = row[partitionColumns[i]];
+        }
+        int partition = partitioning.locate(values);
+        if (partition < 0) {
+            throw new IllegalArgumentException("Value " + Arrays.toString(values) + " of partition column " + partitioning.getColumns()
+                    + " in table " + plan.getTableName() + " is not covered by any RANGE partition, restrict the field range or add a MAXVALUE partition");
+        }
+        return partition;
+    }
+    
+    private void open(int partition) throws IOException {
+        OutputStream out = CompressionCodecs.wrap(new BufferedOutputStream(new FileOutputStream(files.get(partition)), BUFFER_SIZE),
+                compression, compressionLevel);
+        RowSink sink = RowSinks.create(format, out, true, dialect);
+        sinks[partition] = sink;
+        sink.open(plan.getTableName(), plan.getOutputColumns());
+    }
+    
+    private void closeSink(int partition) throws IOException {
+        if (partition < 0 || sinks[partition] == null) {
+            return;
+        }
+        RowSink sink = sinks[partition];
+        sinks[partition] = null;
+        plan.flush(sink);
+        sink.close();
+        plan.getMetrics().addBytes(sink.getBytesWritten());
+    }
+    
+    private int[] indexesOf(List<String> names) {
+        int[] indexes = new int[names.size()];
+        for (int i = 0; i < indexes.length; i++) {
+            indexes[i] = -1;
+            for (ColumnPlan column : plan.getColumns()) {
+                if (column.getName().equalsIgnoreCase(names.get(i))) {
+                    indexes[i] = column.getIndex();
+                }
+            }
+            if (indexes[i] < 0) {
+                throw new IllegalArgumentException("Column '" + names.get(i) + "' is not generated for table " + plan.getTableName());
+            }
+        }
+        return indexes;
+    }
+    
+    private ColumnPlan columnAt(int index) {
+        for (ColumnPlan column : plan.getColumns()) {
+            if (column.getIndex() == index) {
+                return column;
+            }
+        }
+        throw new IllegalStateException("No column at index " + index);
+    }
+    
+    /**
+     * 关闭仍然打开的分区文件，作业失败或停止时调用
+     */
+    @Override
+    public void close() {
+        for (int p = 0; p < sinks.length; p++) {
+            if (sinks[p] != null) {
+                try {
+                    sinks[p].close();
+                } catch (IOException e) {
+                    log.warn("Failed to close {}", files.get(p).getAbsolutePath(), e);
+                }
+                sinks[p] = null;
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,105 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.compress.CompressionCodec;
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+
+/**
+ * 按编译好的生成计划估算一行输出的平均字节数
+ * 在预计生成的行号范围内均匀抽取若干行，用实际的输出格式序列化到内存，字符串长度分布、数值宽度、空值比例和格式的开销都反映在结果中。
+ * 行号范围事先未知：先用开头的若干行估算出目标大小对应的行数，再在这些行中均匀抽样，序列号等随行号增长的字段宽度不会被高估。
+ * 大对象的内容不生成，按长度和格式的编码方式计算，二进制内容和文本大对象视为不可压缩
+ */
+public final class RowSizeEstimator {
+    
+    /**
+     * 抽样的行数
+     */
+    static final int SAMPLE_ROWS = 512;
+    
+    private RowSizeEstimator() {
+    }
+    
+    /**
+     * 估算按目标大小生成时一行输出的平均字节数
+     *
+     * @param plan 表的生成计划
+     * @param tableSeed 表的种子
+     * @param format 输出格式
+     * @param dialect sql格式使用的SQL方言
+     * @param codec 压缩编解码器，为null时不压缩
+     * @param compressionLevel 压缩级别
+     * @param targetBytes 目标字节数，用于确定抽样的行号范围
+     * @return 平均每行的字节数，至少为1
+     * @throws IOException 序列化失败
+     */
+    public static double estimate(TablePlan plan, long tableSeed, String format, SqlDialect dialect,
+                                  CompressionCodec codec, int compressionLevel, long targetBytes) throws IOException {
+        double leading = sample(plan, tableSeed, format, dialect, codec, compressionLevel, SAMPLE_ROWS);
+        long rows = new ByteTarget(targetBytes, leading).estimatedRows();
+        return rows > SAMPLE_ROWS ? sample(plan, tableSeed, format, dialect, codec, compressionLevel, rows) : leading;
+    }
+    
+    /**
+     * 在[0, rowRange)中等间隔抽取SAMPLE_ROWS行估算平均行宽，范围小于抽样行数时抽取开头的连续行
+     */
+    private static double sample(TablePlan plan, long tableSeed, String format, SqlDialect dialect,
+                                 CompressionCodec codec, int compressionLevel, long rowRange) throws IOException {
+        long stride = Math.max(1, rowRange / SAMPLE_ROWS);
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        double lobBytes = 0;
+        int opened;
+        int end;
+        try (RowSink sink = RowSinks.create(format, buffer, false, dialect)) {
+            sink.open(plan.getTableName(), plan.getOutputColumns());
+            // 只在开始时写出一次的内容不计入行宽
+            sink.flush();
+            opened = buffer.size();
+            for (int i = 0; i < SAMPLE_ROWS; i++) {
+                Object[] values = plan.toOutput(plan.previewRow(i * stride, tableSeed)).clone();
+                for (int j = 0; j < values.length; j++) {
+                    if (values[j] instanceof LobValue) {
+                        // 以null代替大对象序列化，再补上大对象编码后与null的长度差
+                        lobBytes += encodedLength((LobValue) values[j], format, dialect) - nullLength(format);
+                        values[j] = null;
+                    }
+                }
+                sink.write(values);
+            }
+            sink.flush();
+            end = buffer.size();
+        }
+        double rowBytes = end - opened;
+        if (codec != null && rowBytes > 0) {
+            rowBytes = codec.compress(buffer.toByteArray(), opened, end - opened, compressionLevel).length;
+        }
+        return Math.max(1, (rowBytes + lobBytes) / SAMPLE_ROWS);
+    }
+    
+    private static double nullLength(String format) {
+        return "csv".equalsIgnoreCase(format) ? 0 : 4;
+    }
+    
+    /**
+     * 大对象按输出格式编码后的字节数，与各行输出的写法一致
+     */
+    static double encodedLength(LobValue value, String format, SqlDialect dialect) {
+        long length = value.length();
+        switch (format.toLowerCase()) {
+            case "csv":
+                return value.isBinary() ? length * 2.0 : length;
+            case "sql":
+                return value.isBinary() ? length * 2.0 + dialect.binaryLiteralPrefix().length() + dialect.binaryLiteralSuffix().length()
+                        : length + 2.0;
+            default:
+                // JSON中二进制内容为Base64字符串
+                return value.isBinary() ? (length + 2) / 3 * 4 + 2.0 : length + 2.0;
+        }
+    }
+} 
\ No newline at end of file
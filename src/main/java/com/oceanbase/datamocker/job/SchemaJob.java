@@ -0,0 +1,781 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.compress.CompressionCodec;
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.schema.DdlParser;
+import com.oceanbase.datamocker.schema.Partitioning;
+import com.oceanbase.datamocker.schema.SchemaConfigBuilder;
+import com.oceanbase.datamocker.schema.TableSchema;
+import com.oceanbase.datamocker.sink.JdbcRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 多表生成作业
+ * 所有表共用一个工作窃取线程池：每张表按固定行数切成块，按行数从大到小提交，
+ * 工作线程领取块时如果自己的任务队列已空就再派生一个同表的任务供空闲线程窃取，因此大表会被所有空闲线程分担，
+ * 小表穿插在其间，整个作业直到最后都能占满全部核。块在各线程中并行序列化（以及压缩），
+ * 再按块的顺序追加到表的输出文件，输出与单线程顺序生成的结果相同。
+ * 全局的行速率上限和待写出数据的内存上限由所有表共享。
+ * 配置了jdbcUrl时各块改为通过JDBC批量插入，每块一个事务。
+ * 按目标大小生成的表不预先确定块数，按实际写出的平均行宽不断修正可以领取的块数，
+ * 使表达到目标大小的块只写出达到目标所需的前若干行，之后完成的块被丢弃。
+ * 按分区写出的表由一个任务生成，各分区写成单独的文件并按主键排序，见 {@link PartitionedWriter}
+ */
+@Slf4j
+public class SchemaJob {
+    
+    /**
+     * 按分区写出时外部排序或同时打开的分区文件至少可以使用的内存
+     */
+    private static final long MIN_PARTITION_MEMORY = 4L * 1024 * 1024;
+    
+    private final DataMocker dataMocker;
+    private final SchemaJobSpec spec;
+    private final File outputDir;
+    private final SqlDialect dialect;
+    private final MemoryBudget budget;
+    private final Throttle throttle;
+    private final AtomicReference<Throwable> failure = new AtomicReference<>();
+    
+    /**
+     * JDBC模式下空闲的数据库连接，写出文件时为null
+     */
+    private final Queue<Connection> connections;
+    private volatile boolean stopped;
+    
+    /**
+     * 创建多表生成作业
+     *
+     * @param dataMocker 提供字段配置和生成器的实例
+     * @param spec 作业描述
+     */
+    public SchemaJob(DataMocker dataMocker, SchemaJobSpec spec) {
+        if ((spec.getDdlFile() == null || spec.getDdlFile().isEmpty()) && (spec.getDdl() == null || spec.getDdl().isEmpty())) {
+            throw new IllegalArgumentException("Job spec requires ddlFile or ddl");
+        }
+        if (spec.getChunkRows() <= 0 || spec.getThreads() < 0 || spec.getMaxRowsPerSecond() < 0 || spec.getMaxBufferedBytes() <= 0
+                || spec.getBatchSize() <= 0) {
+            throw new IllegalArgumentException("chunkRows, maxBufferedBytes and batchSize must be positive, threads and maxRowsPerSecond must not be negative");
+        }
+        this.dataMocker = dataMocker;
+        this.spec = spec;
+        this.outputDir = new File(spec.getOutputDir());
+        this.dialect = SqlDialect.of(spec.getSqlDialect());
+        this.budget = new MemoryBudget(spec.getMaxBufferedBytes());
+        this.throttle = spec.getMaxRowsPerSecond() > 0 ? new Throttle(spec.getMaxRowsPerSecond()) : null;
+        this.connections = spec.getJdbcUrl() != null ? new ConcurrentLinkedQueue<>() : null;
+    }
+    
+    /**
+     * 运行作业，所有表写完后返回
+     *
+     * @return 表名到输出文件字节数的映射，按调度顺序排列
+     * @throws IOException 读取DDL或写出文件失败
+     */
+    public Map<String, Long> run() throws IOException {
+        if (connections == null && !outputDir.exists() && !outputDir.mkdirs()) {
+            throw new IOException("Failed to create output directory: " + outputDir.getAbsolutePath());
+        }
+        List<TableRun> runs = prepare();
+        runs.sort(Comparator.comparingLong((TableRun run) -> run.rows).reversed());
+        
+        int threads = spec.getThreads() > 0 ? spec.getThreads() : Runtime.getRuntime().availableProcessors();
+        log.info("Generating {} table(s) with {} thread(s), largest first: {}", runs.size(), threads,
+                runs.isEmpty() ? "-" : runs.get(0).name);
+        long start = System.nanoTime();
+        CountDownLatch done = new CountDownLatch(runs.size());
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            for (TableRun run : runs) {
+                run.open(done);
+            }
+            for (TableRun run : runs) {
+                if (run.partitioning != null) {
+                    pool.execute(new PartitionTask(run));
+                } else if (run.chunks > 0) {
+                    pool.execute(new ChunkTask(run));
+                }
+            }
+            while (!done.await(100, TimeUnit.MILLISECONDS)) {
+                if (failure.get() != null || stopped) {
+                    break;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while running schema job");
+        } finally {
+            stopped = true;
+            pool.shutdownNow();
+            for (TableRun run : runs) {
+                run.close();
+            }
+            closeConnections();
+        }
+        
+        Throwable error = failure.get();
+        if (error instanceof IOException) {
+            throw (IOException) error;
+        } else if (error != null) {
+            throw new IOException("Schema job failed", error);
+        }
+        
+        Map<String, Long> written = new LinkedHashMap<>();
+        long rows = 0;
+        for (TableRun run : runs) {
+            written.put(run.name, run.bytesWritten);
+            rows += run.rows;
+            if (run.plan.getVerifier() != null) {
+                run.plan.getVerifier().logReport();
+            }
+        }
+        log.info("Generated {} rows of {} table(s) in {} ms", rows, runs.size(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return written;
+    }
+    
+    /**
+     * 停止作业，正在生成的块完成后不再领取新的块
+     */
+    public void stop() {
+        stopped = true;
+    }
+    
+    /**
+     * 解析DDL并编译各表的生成计划，外键的取值范围按被引用表的实际行数确定
+     */
+    private List<TableRun> prepare() throws IOException {
+        String ddl = spec.getDdl() != null && !spec.getDdl().isEmpty() ? spec.getDdl()
+                : new String(Files.readAllBytes(new File(spec.getDdlFile()).toPath()), StandardCharsets.UTF_8);
+        List<TableSchema> tables = new DdlParser().parse(ddl);
+        Map<String, TableSchema> byName = new LinkedHashMap<>();
+        for (TableSchema table : tables) {
+            byName.put(table.getName(), table);
+        }
+        
+        List<SchemaJobSpec.TableSpec> specs = spec.getTables();
+        if (specs == null || specs.isEmpty()) {
+            specs = new ArrayList<>();
+            for (TableSchema table : tables) {
+                SchemaJobSpec.TableSpec tableSpec = new SchemaJobSpec.TableSpec();
+                tableSpec.setName(table.getName());
+                tableSpec.setRows(spec.getDefaultRows());
+                specs.add(tableSpec);
+            }
+        }
+        Map<String, Long> rowCounts = new HashMap<>();
+        for (SchemaJobSpec.TableSpec tableSpec : specs) {
+            if (!byName.containsKey(tableSpec.getName())) {
+                throw new IllegalArgumentException("Table '" + tableSpec.getName() + "' is not defined in the DDL");
+            }
+            if (tableSpec.getRows() < 0) {
+                throw new IllegalArgumentException("Row count of table '" + tableSpec.getName() + "' must not be negative");
+            }
+            if (rowCounts.put(tableSpec.getName(), tableSpec.getRows()) != null) {
+                throw new IllegalArgumentException("Table '" + tableSpec.getName() + "' is listed more than once");
+            }
+        }
+        SchemaConfigBuilder builder = new SchemaConfigBuilder();
+        Map<String, Map<String, FieldConfig>> fieldConfigs = builder.build(tables, name -> rowCounts.getOrDefault(name, spec.getDefaultRows()));
+        
+        Long configured = spec.getSeed() != null ? spec.getSeed() : dataMocker.getConfig().getSeed();
+        long seed = configured != null ? configured : ThreadLocalRandom.current().nextLong();
+        
+        // 按目标大小生成的表先估算行宽，换算出的行数代替配置的行数，再重新推导依赖行数的字段配置
+        Map<String, Double> rowBytes = new HashMap<>();
+        for (SchemaJobSpec.TableSpec tableSpec : specs) {
+            if (tableSpec.getTargetSize() == null) {
+                continue;
+            }
+            if (connections != null) {
+                throw new IllegalArgumentException("targetSize of table '" + tableSpec.getName() + "' cannot be used with jdbcUrl");
+            }
+            long targetBytes = ByteTarget.parseSize(tableSpec.getTargetSize());
+            TablePlan plan = compile(byName.get(tableSpec.getName()), fieldConfigs, tableSpec);
+            double estimate = RowSizeEstimator.estimate(plan, RandomStreams.derive(seed, plan.getTableName()), formatOf(tableSpec),
+                    dialect, CompressionCodecs.get(compressionOf(tableSpec)), spec.getCompressionLevel(), targetBytes);
+            rowBytes.put(tableSpec.getName(), estimate);
+            rowCounts.put(tableSpec.getName(), new ByteTarget(targetBytes, estimate).estimatedRows());
+        }
+        if (!rowBytes.isEmpty()) {
+            fieldConfigs = builder.build(tables, name -> rowCounts.getOrDefault(name, spec.getDefaultRows()));
+        }
+        
+        List<TableRun> runs = new ArrayList<>();
+        for (SchemaJobSpec.TableSpec tableSpec : specs) {
+            TableSchema table = byName.get(tableSpec.getName());
+            TablePlan plan = compile(table, fieldConfigs, tableSpec);
+            runs.add(new TableRun(tableSpec, plan, RandomStreams.derive(seed, plan.getTableName()),
+                    rowCounts.get(tableSpec.getName()), rowBytes.get(tableSpec.getName()), partitionedTable(table, tableSpec)));
+        }
+        return runs;
+    }
+    
+    /**
+     * 表按分区写出时返回表结构，否则返回null；作业默认按分区写出时未分区的表照常写出，单独要求按分区写出的表必须声明了受支持的分区方式
+     */
+    private TableSchema partitionedTable(TableSchema table, SchemaJobSpec.TableSpec tableSpec) {
+        boolean explicit = tableSpec.getPartitioned() != null;
+        if (explicit ? !tableSpec.getPartitioned() : !spec.isPartitionedOutput()) {
+            return null;
+        }
+        if (table.getPartitioning() == null) {
+            if (explicit) {
+                throw new IllegalArgumentException("Table '" + table.getName() + "' has no supported PARTITION BY clause");
+            }
+            return null;
+        }
+        if (connections != null || tableSpec.getTargetSize() != null || tableSpec.getOutput() != null) {
+            throw new IllegalArgumentException("Partitioned output of table '" + table.getName() + "' cannot be used with jdbcUrl, targetSize or output");
+        }
+        return table;
+    }
+    
+    /**
+     * 编译一张表的生成计划，作业描述中的字段配置覆盖从DDL推导的配置
+     */
+    private TablePlan compile(TableSchema table, Map<String, Map<String, FieldConfig>> fieldConfigs, SchemaJobSpec.TableSpec tableSpec) {
+        Map<String, FieldConfig> tableConfigs = new LinkedHashMap<>(fieldConfigs.get(tableSpec.getName()));
+        if (tableSpec.getFields() != null) {
+            tableConfigs.putAll(tableSpec.getFields());
+        }
+        return dataMocker.compilePlan(table, tableConfigs);
+    }
+    
+    private String formatOf(SchemaJobSpec.TableSpec tableSpec) {
+        return tableSpec.getFormat() != null ? tableSpec.getFormat() : spec.getFormat();
+    }
+    
+    private String compressionOf(SchemaJobSpec.TableSpec tableSpec) {
+        return tableSpec.getCompression() != null ? tableSpec.getCompression() : spec.getCompression();
+    }
+    
+    /**
+     * 取出一个空闲的数据库连接，没有时新建
+     */
+    private Connection borrowConnection() throws IOException {
+        Connection connection = connections.poll();
+        if (connection != null) {
+            return connection;
+        }
+        try {
+            return DriverManager.getConnection(spec.getJdbcUrl(), spec.getJdbcUser(), spec.getJdbcPassword());
+        } catch (SQLException e) {
+            throw new IOException("Failed to connect to " + spec.getJdbcUrl(), e);
+        }
+    }
+    
+    private void closeConnections() {
+        if (connections == null) {
+            return;
+        }
+        Connection connection;
+        while ((connection = connections.poll()) != null) {
+            try {
+                connection.close();
+            } catch (SQLException e) {
+                log.warn("Failed to close connection: {}", e.getMessage());
+            }
+        }
+    }
+    
+    private void fail(Throwable e) {
+        if (failure.compareAndSet(null, e)) {
+            log.error("Schema job failed: {}", e.getMessage());
+        }
+        stopped = true;
+    }
+    
+    /**
+     * 一张表的生成状态：块的领取计数器，以及按块的顺序追加写出时暂存的乱序完成的块
+     */
+    private class TableRun {
+        private final String name;
+        private final TablePlan plan;
+        private final long chunks;
+        private final long tableSeed;
+        private final String format;
+        private final CompressionCodec codec;
+        private final File file;
+        private final AtomicLong nextChunk = new AtomicLong();
+        
+        /**
+         * 按目标大小生成时的目标，按行数生成时为null
+         */
+        private final ByteTarget target;
+        
+        /**
+         * 按分区写出时的分区方式和主键，否则为null
+         */
+        private final Partitioning partitioning;
+        private final List<String> primaryKey;
+        private final String compression;
+        
+        /**
+         * 生成的行数，按目标大小生成时在完成前为估算值
+         */
+        private volatile long rows;
+        
+        /**
+         * 可以领取的块数上限，按目标大小生成时随实际的平均行宽调整
+         */
+        private volatile long chunkLimit;
+        
+        /**
+         * 已完成但前面还有块未写出的块，按目标大小生成时同时暂存各行在块中的结束位置
+         */
+        private final Map<Long, byte[]> parked = new HashMap<>();
+        private final Map<Long, long[]> parkedRowEnds = new HashMap<>();
+        private long nextWrite;
+        private long inserted;
+        private long bytesWritten;
+        private long headerBytes;
+        private boolean finished;
+        private OutputStream out;
+        private CountDownLatch done;
+        
+        /**
+         * 按最近完成的块估算下一块占用的内存
+         */
+        private volatile long estimate;
+        
+        TableRun(SchemaJobSpec.TableSpec tableSpec, TablePlan plan, long tableSeed, long rows, Double rowBytes, TableSchema partitionedTable) {
+            this.name = tableSpec.getName();
+            this.plan = plan;
+            this.rows = rows;
+            this.target = rowBytes != null ? new ByteTarget(ByteTarget.parseSize(tableSpec.getTargetSize()), rowBytes) : null;
+            this.chunks = (rows + spec.getChunkRows() - 1) / spec.getChunkRows();
+            this.chunkLimit = chunks;
+            this.tableSeed = tableSeed;
+            this.format = formatOf(tableSpec);
+            if (connections == null && "json".equalsIgnoreCase(format)) {
+                throw new IllegalArgumentException("Format json cannot be written in chunks, use ndjson for table " + name);
+            }
+            this.compression = compressionOf(tableSpec);
+            this.codec = CompressionCodecs.get(compression);
+            this.partitioning = partitionedTable != null ? partitionedTable.getPartitioning() : null;
+            this.primaryKey = partitionedTable != null ? partitionedTable.getPrimaryKey() : null;
+            this.file = connections != null || partitioning != null ? null : tableSpec.getOutput() != null ? new File(outputDir, tableSpec.getOutput())
+                    : new File(outputDir, name + "." + RowSinks.extension(format) + CompressionCodecs.suffix(compression));
+        }
+        
+        /**
+         * 创建输出文件并写出表头，没有数据的表直接完成
+         */
+        void open(CountDownLatch done) throws IOException {
+            this.done = done;
+            if (file != null) {
+                File parent = file.getAbsoluteFile().getParentFile();
+                if (!parent.exists() && !parent.mkdirs()) {
+                    throw new IOException("Failed to create directory: " + parent.getAbsolutePath());
+                }
+                out = new FileOutputStream(file);
+                write(serialize(0, 0, true, null));
+                headerBytes = bytesWritten;
+            }
+            if (chunks == 0 && partitioning == null) {
+                finish();
+            }
+        }
+        
+        /**
+         * 领取下一个块，没有剩余的块时返回-1
+         */
+        long claim() {
+            while (true) {
+                long chunk = nextChunk.get();
+                if (chunk >= chunkLimit) {
+                    return -1;
+                }
+                if (nextChunk.compareAndSet(chunk, chunk + 1)) {
+                    return chunk;
+                }
+            }
+        }
+        
+        boolean hasMore() {
+            return nextChunk.get() < chunkLimit;
+        }
+        
+        /**
+         * 块的行号上限，按目标大小生成时块数不固定，每块都是完整的
+         */
+        long endRow(long chunk) {
+            long end = (chunk + 1) * spec.getChunkRows();
+            return target != null ? end : Math.min(rows, end);
+        }
+        
+        /**
+         * 把一块的行序列化为字节，按目标大小生成时在rowEnds中记录各行在未压缩输出中的结束位置
+         */
+        byte[] serialize(long chunk, long[] rowEnds) throws IOException {
+            return serialize(chunk * spec.getChunkRows(), endRow(chunk), false, rowEnds);
+        }
+        
+        /**
+         * 把[first, end)的行序列化为字节，header为true时先输出表头
+         */
+        byte[] serialize(long first, long end, boolean header, long[] rowEnds) throws IOException {
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, Math.max(1024, estimate)));
+            try (RowSink sink = RowSinks.create(format, buffer, header, dialect)) {
+                sink.open(name, plan.getOutputColumns());
+                for (long i = first; i < end; i++) {
+                    plan.writeRow(sink, plan.generateRow(i, tableSeed), i);
+                    if (rowEnds != null) {
+                        rowEnds[(int) (i - first)] = sink.getBytesWritten();
+                    }
+                }
+                plan.flush(sink);
+                plan.getMetrics().addBytes(sink.getBytesWritten());
+            }
+            return codec == null || buffer.size() == 0 ? buffer.toByteArray() : codec.compress(buffer.toByteArray(), 0, buffer.size(), spec.getCompressionLevel());
+        }
+        
+        /**
+         * 通过JDBC插入一块的行，每块在一个事务中提交，块之间没有顺序要求
+         */
+        void insert(long chunk) throws IOException {
+            Connection connection = borrowConnection();
+            boolean healthy = false;
+            try {
+                RowSink sink = new JdbcRowSink(connection, dialect, spec.getBatchSize(), false, plan.getMetrics());
+                sink.open(name, plan.getOutputColumns());
+                long end = endRow(chunk);
+                for (long i = chunk * spec.getChunkRows(); i < end; i++) {
+                    sink.write(plan.toOutput(plan.generateRow(i, tableSeed)));
+                }
+                sink.close();
+                healthy = true;
+            } finally {
+                if (healthy) {
+                    connections.add(connection);
+                } else {
+                    try {
+                        connection.close();
+                    } catch (SQLException e) {
+                        log.debug("Failed to close connection: {}", e.getMessage());
+                    }
+                }
+            }
+            synchronized (this) {
+                if (++inserted == chunks) {
+                    finish();
+                }
+            }
+        }
+        
+        /**
+         * 把整张表按分区写出，外部排序或同时打开的分区文件占用的内存从共享的内存预算中取得
+         */
+        void writePartitioned() throws IOException, InterruptedException {
+            long memory = Math.max(MIN_PARTITION_MEMORY, spec.getMaxBufferedBytes() / 2);
+            budget.acquire(memory);
+            try (PartitionedWriter writer = new PartitionedWriter(plan, tableSeed, rows, partitioning, primaryKey, format, dialect,
+                    compression, spec.getCompressionLevel(), outputDir)) {
+                long written = writer.write(memory, count -> {
+                    if (stopped) {
+                        throw new InterruptedIOException("Schema job stopped while generating table " + name);
+                    }
+                    if (throttle != null && count > 0) {
+                        try {
+                            throttle.acquire(count);
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                            throw new InterruptedIOException("Interrupted while generating table " + name);
+                        }
+                    }
+                });
+                synchronized (this) {
+                    bytesWritten = written;
+                    finished = true;
+                }
+                log.info("Wrote {} rows of table {} to {} partition file(s) in {} ({} bytes)", rows, name, writer.getFiles().size(),
+                        outputDir.getAbsolutePath(), written);
+                done.countDown();
+            } finally {
+                budget.release(memory);
+            }
+        }
+        
+        /**
+         * 提交完成的块，轮到它时连同之后已完成的块一起追加写出
+         */
+        void commit(long chunk, byte[] data, long[] rowEnds) throws IOException {
+            synchronized (this) {
+                if (finished) {
+                    // 表已达到目标大小，之后完成的块被丢弃
+                    budget.release(data.length);
+                    return;
+                }
+                parked.put(chunk, data);
+                if (rowEnds != null) {
+                    parkedRowEnds.put(chunk, rowEnds);
+                }
+                byte[] next;
+                while (!finished && (next = parked.remove(nextWrite)) != null) {
+                    long[] ends = parkedRowEnds.remove(nextWrite);
+                    budget.release(next.length);
+                    if (target != null && target.isReached(bytesWritten + next.length)) {
+                        writeLastChunk(nextWrite, next.length, ends);
+                        break;
+                    }
+                    write(next);
+                    nextWrite++;
+                    if (target != null) {
+                        adjustChunkLimit();
+                    }
+                }
+                if (target == null && nextWrite == chunks) {
+                    finish();
+                }
+            }
+        }
+        
+        /**
+         * 按实际写出的平均行宽重新计算可以领取的块数；上限提高时派生任务，避免所有任务都已因上限退出
+         */
+        private void adjustChunkLimit() {
+            target.record(nextWrite * spec.getChunkRows(), bytesWritten - headerBytes);
+            long previous = chunkLimit;
+            chunkLimit = nextWrite + (target.remainingRows(bytesWritten) + spec.getChunkRows() - 1) / spec.getChunkRows();
+            if (chunkLimit > previous) {
+                new ChunkTask(this).fork();
+            }
+        }
+        
+        /**
+         * 写出使表达到目标大小的块：按各行的结束位置（压缩时按块的压缩率折算）找到达到目标的行，只重新生成并写出这之前的行
+         */
+        private void writeLastChunk(long chunk, int length, long[] rowEnds) throws IOException {
+            long needed = target.getTargetBytes() - bytesWritten;
+            double scale = length / (double) rowEnds[rowEnds.length - 1];
+            int count = 1;
+            while (count < rowEnds.length && rowEnds[count - 1] * scale < needed) {
+                count++;
+            }
+            long first = chunk * spec.getChunkRows();
+            write(serialize(first, first + count, false, null));
+            rows = first + count;
+            chunkLimit = 0;
+            for (byte[] discarded : parked.values()) {
+                budget.release(discarded.length);
+            }
+            parked.clear();
+            parkedRowEnds.clear();
+            finish();
+        }
+        
+        private void write(byte[] data) throws IOException {
+            out.write(data);
+            bytesWritten += data.length;
+        }
+        
+        private void finish() throws IOException {
+            finished = true;
+            if (out != null) {
+                out.close();
+                out = null;
+                log.info("Wrote {} rows of table {} to {} ({} bytes)", rows, name, file.getAbsolutePath(), bytesWritten);
+            } else {
+                log.info("Inserted {} rows into table {}", rows, name);
+            }
+            done.countDown();
+        }
+        
+        synchronized void close() {
+            if (out != null) {
+                try {
+                    out.close();
+                } catch (IOException e) {
+                    log.warn("Failed to close {}", file.getAbsolutePath(), e);
+                }
+                out = null;
+            }
+        }
+    }
+    
+    /**
+     * 领取并生成一张表的块，自己的任务队列为空且表还有剩余块时派生同表的任务供其他线程窃取
+     */
+    private class ChunkTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final TableRun run;
+        
+        ChunkTask(TableRun run) {
+            this.run = run;
+        }
+        
+        @Override
+        protected void compute() {
+            try {
+                while (!stopped && run.hasMore()) {
+                    // 先占用内存预算再领取块，已领取的块不会因为预算而等待，按顺序下一个要写出的块总能完成
+                    long reserved = run.estimate;
+                    budget.acquire(reserved);
+                    long chunk = run.claim();
+                    if (chunk < 0) {
+                        budget.adjust(-reserved);
+                        break;
+                    }
+                    if (run.hasMore() && getQueuedTaskCount() == 0) {
+                        new ChunkTask(run).fork();
+                    }
+                    if (throttle != null) {
+                        throttle.acquire(run.endRow(chunk) - chunk * spec.getChunkRows());
+                    }
+                    if (connections != null) {
+                        budget.adjust(-reserved);
+                        run.insert(chunk);
+                        continue;
+                    }
+                    long[] rowEnds = run.target != null ? new long[(int) spec.getChunkRows()] : null;
+                    byte[] data = run.serialize(chunk, rowEnds);
+                    budget.adjust(data.length - reserved);
+                    run.estimate = data.length;
+                    run.commit(chunk, data, rowEnds);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new InterruptedIOException("Interrupted while generating table " + run.name));
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    /**
+     * 生成一张按分区写出的表
+     */
+    private class PartitionTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+        
+        private final TableRun run;
+        
+        PartitionTask(TableRun run) {
+            this.run = run;
+        }
+        
+        @Override
+        protected void compute() {
+            try {
+                run.writePartitioned();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                fail(new InterruptedIOException("Interrupted while generating table " + run.name));
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+        }
+    }
+    
+    /**
+     * 已生成但还未写出的数据的内存预算，超出上限时领取新块之前等待先前的块写出，预算为空时总是允许领取
+     */
+    private static class MemoryBudget {
+        private final long limit;
+        private long used;
+        
+        MemoryBudget(long limit) {
+            this.limit = limit;
+        }
+        
+        void acquire(long bytes) throws InterruptedException {
+            ForkJoinPool.managedBlock(new ForkJoinPool.ManagedBlocker() {
+                @Override
+                public boolean block() throws InterruptedException {
+                    synchronized (MemoryBudget.this) {
+                        while (!tryAcquire(bytes)) {
+                            MemoryBudget.this.wait();
+                        }
+                    }
+                    return true;
+                }
+                
+                @Override
+                public boolean isReleasable() {
+                    return tryAcquire(bytes);
+                }
+            });
+        }
+        
+        private synchronized boolean tryAcquire(long bytes) {
+            if (used > 0 && used + bytes > limit) {
+                return false;
+            }
+            used += bytes;
+            return true;
+        }
+        
+        synchronized void adjust(long bytes) {
+            used += bytes;
+            if (bytes < 0) {
+                notifyAll();
+            }
+        }
+        
+        synchronized void release(long bytes) {
+            used -= bytes;
+            notifyAll();
+        }
+    }
+    
+    /**
+     * 全局行速率限制，按已领取的行数计算下一块最早的开始时间
+     */
+    private static class Throttle {
+        private final long rowsPerSecond;
+        private final long startNanos = System.nanoTime();
+        private final AtomicLong issued = new AtomicLong();
+        
+        Throttle(long rowsPerSecond) {
+            this.rowsPerSecond = rowsPerSecond;
+        }
+        
+        void acquire(long rows) throws InterruptedException {
+            long before = issued.getAndAdd(rows);
+            long due = startNanos + (long) (before * 1_000_000_000.0 / rowsPerSecond);
+            long remaining;
+            while ((remaining = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(remaining);
+                if (Thread.interrupted()) {
+                    throw new InterruptedException();
+                }
+            }
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,178 @@
+package com.oceanbase.datamocker.job;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.Data;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 多表生成作业的描述文件，列出DDL中要生成的表、各表的行数和输出方式
+ */
+@Data
+public class SchemaJobSpec {
+    
+    /**
+     * 包含CREATE TABLE语句的DDL文件
+     */
+    private String ddlFile;
+    
+    /**
+     * 直接写在作业描述中的DDL，设置后忽略ddlFile
+     */
+    private String ddl;
+    
+    /**
+     * 输出目录
+     */
+    private String outputDir = ".";
+    
+    /**
+     * 默认输出格式，csv、ndjson或sql
+     */
+    private String format = "csv";
+    
+    /**
+     * sql格式使用的SQL方言，mysql或oracle
+     */
+    private String sqlDialect = "mysql";
+    
+    /**
+     * 默认压缩方式，如gzip，为空或none时不压缩
+     */
+    private String compression;
+    
+    /**
+     * 压缩级别，-1表示默认级别
+     */
+    private int compressionLevel = -1;
+    
+    /**
+     * 未列出tables时每张表的行数
+     */
+    private long defaultRows = 1000;
+    
+    /**
+     * 工作线程数，0表示使用全部CPU核数
+     */
+    private int threads = 0;
+    
+    /**
+     * 每个调度单位的行数，大表被切成多个块由空闲线程窃取
+     */
+    private long chunkRows = 50000;
+    
+    /**
+     * 所有表合计每秒最多生成的行数，0表示不限制
+     */
+    private long maxRowsPerSecond = 0;
+    
+    /**
+     * 已生成但还未按顺序写出的数据最多占用的内存字节数
+     */
+    private long maxBufferedBytes = 256L * 1024 * 1024;
+    
+    /**
+     * 是否按DDL中的 PARTITION BY 把分区表的每个分区写成单独的文件，文件内按主键排序；未分区的表不受影响
+     */
+    private boolean partitionedOutput;
+    
+    /**
+     * 设置后通过JDBC插入到数据库，不再写出文件
+     */
+    private String jdbcUrl;
+    
+    /**
+     * 数据库用户名
+     */
+    private String jdbcUser;
+    
+    /**
+     * 数据库密码
+     */
+    private String jdbcPassword;
+    
+    /**
+     * JDBC插入时每个批次的行数
+     */
+    private int batchSize = 1000;
+    
+    /**
+     * 随机种子，为null时每次运行的数据不同
+     */
+    private Long seed;
+    
+    /**
+     * 要生成的表，为空时生成DDL中的全部表
+     */
+    private List<TableSpec> tables = new ArrayList<>();
+    
+    /**
+     * 单张表的生成配置
+     */
+    @Data
+    public static class TableSpec {
+        /**
+         * 表名
+         */
+        private String name;
+        
+        /**
+         * 生成行数
+         */
+        private long rows;
+        
+        /**
+         * 目标大小，如 "512M"、"10G"，设置后按输出文件的大小（压缩时为压缩后的大小）生成，忽略rows；
+         * 外键等依赖行数的配置使用按估算行宽换算的行数
+         */
+        private String targetSize;
+        
+        /**
+         * 输出格式，为空时使用作业的默认格式
+         */
+        private String format;
+        
+        /**
+         * 压缩方式，为空时使用作业的默认压缩方式
+         */
+        private String compression;
+        
+        /**
+         * 是否按分区写出，为空时使用作业的partitionedOutput；按分区写出时各文件为 <表名>.<分区名>.<格式>[.压缩后缀]
+         */
+        private Boolean partitioned;
+        
+        /**
+         * 输出文件，相对路径基于输出目录，为空时为 <表名>.<格式>[.压缩后缀]
+         */
+        private String output;
+        
+        /**
+         * 本表的字段配置，覆盖从DDL推导的配置
+         */
+        private Map<String, FieldConfig> fields = new LinkedHashMap<>();
+    }
+    
+    /**
+     * 从YAML或JSON文件加载作业描述，按扩展名区分格式
+     *
+     * @param specFile 作业描述文件
+     * @return 作业描述
+     * @throws IOException 读取或解析失败
+     */
+    public static SchemaJobSpec load(File specFile) throws IOException {
+        String name = specFile.getName().toLowerCase();
+        ObjectMapper mapper = name.endsWith(".yml") || name.endsWith(".yaml")
+                ? new ObjectMapper(new YAMLFactory()) : new ObjectMapper();
+        mapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+        return mapper.readValue(specFile, SchemaJobSpec.class);
+    }
+} 
\ No newline at end of file
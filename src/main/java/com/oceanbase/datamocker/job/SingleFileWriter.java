@@ -0,0 +1,242 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.compress.CompressionCodec;
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+/**
+ * 多线程写同一个文件
+ * 行号范围按固定行数切成块，工作线程各自领取块，把块内的行序列化（以及压缩）到线程自己的缓冲区，
+ * 然后按块的顺序预留文件中的区域，再用 FileChannel.write(buffer, position) 并行写入各自的区域。
+ * 序列化和写入都是并行的，只有预留偏移量这一步按块的顺序进行，因此块与块之间不会交错，
+ * 输出与单线程顺序写出的结果相同。已连续写完的块构成的前缀会被记录为检查点，中断后可以从中继续
+ */
+class SingleFileWriter {
+    
+    private final TablePlan plan;
+    private final JobConfig config;
+    private final File checkpointFile;
+    private final BooleanSupplier stopped;
+    private final CompressionCodec codec;
+    private final SqlDialect dialect;
+    
+    /**
+     * 按块的顺序预留区域：nextReservation为下一个可以预留的块，reservedOffset为已预留区域的末尾
+     */
+    private final Object reservationLock = new Object();
+    private long nextReservation;
+    private long reservedOffset;
+    private volatile boolean failed;
+    
+    /**
+     * 已写完但前面还有块未写完的块，key为块号，value为块的末尾偏移量
+     */
+    private final Map<Long, Long> completed = new HashMap<>();
+    private long watermark;
+    private long watermarkOffset;
+    private long checkpointedChunks;
+    
+    SingleFileWriter(TablePlan plan, JobConfig config, File checkpointFile, BooleanSupplier stopped) {
+        this.plan = plan;
+        this.config = config;
+        this.checkpointFile = checkpointFile;
+        this.stopped = stopped;
+        this.codec = CompressionCodecs.get(config.getCompression());
+        this.dialect = SqlDialect.of(config.getSqlDialect());
+    }
+    
+    void run(JobCheckpoint checkpoint, JobCheckpoint.PartitionCheckpoint partition, File file) throws IOException {
+        long offset = partition.getFileOffset();
+        long startRow = partition.getNextRow();
+        GenerationJob.truncate(file, offset);
+        
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.WRITE, StandardOpenOption.CREATE)) {
+            if (offset == 0) {
+                // 表头单独作为第一个区域写出
+                ByteArrayOutputStream header = new ByteArrayOutputStream();
+                try (RowSink sink = RowSinks.create(checkpoint.getFormat(), header, true, dialect)) {
+                    sink.open(plan.getTableName(), plan.getOutputColumns());
+                }
+                offset = writeAt(channel, frame(header.toByteArray(), header.size()), offset);
+            }
+            reservedOffset = offset;
+            watermarkOffset = offset;
+            
+            long chunkRows = config.getChunkRows();
+            long chunks = (partition.getEndRow() - startRow + chunkRows - 1) / chunkRows;
+            long tableSeed = RandomStreams.derive(checkpoint.getSeed(), plan.getTableName());
+            AtomicLong nextChunk = new AtomicLong();
+            int threads = (int) Math.max(1, Math.min(config.getPartitions(), chunks));
+            
+            ExecutorService executor = Executors.newFixedThreadPool(threads);
+            try {
+                List<Future<?>> futures = new ArrayList<>();
+                for (int t = 0; t < threads; t++) {
+                    futures.add(executor.submit(() -> {
+                        writeChunks(checkpoint, partition, channel, nextChunk, chunks, startRow, tableSeed);
+                        return null;
+                    }));
+                }
+                for (Future<?> future : futures) {
+                    future.get();
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while writing " + file);
+            } catch (ExecutionException e) {
+                if (e.getCause() instanceof IOException) {
+                    throw (IOException) e.getCause();
+                }
+                throw new IOException("Failed to write " + file, e.getCause());
+            } finally {
+                fail();
+                executor.shutdownNow();
+            }
+            saveCheckpoint(checkpoint, partition, channel, startRow);
+        }
+    }
+    
+    private void writeChunks(JobCheckpoint checkpoint, JobCheckpoint.PartitionCheckpoint partition, FileChannel channel,
+                             AtomicLong nextChunk, long chunks, long startRow, long tableSeed) throws IOException {
+        ReusableByteArrayOutputStream buffer = new ReusableByteArrayOutputStream();
+        try (RowSink sink = RowSinks.create(checkpoint.getFormat(), buffer, false, dialect)) {
+            sink.open(plan.getTableName(), plan.getOutputColumns());
+            long reported = 0;
+            long chunk;
+            while (!failed && !stopped.getAsBoolean() && (chunk = nextChunk.getAndIncrement()) < chunks) {
+                long first = startRow + chunk * config.getChunkRows();
+                long end = Math.min(partition.getEndRow(), first + config.getChunkRows());
+                buffer.reset();
+                for (long i = first; i < end; i++) {
+                    plan.writeRow(sink, plan.generateRow(i, tableSeed), i);
+                }
+                plan.flush(sink);
+                long written = sink.getBytesWritten();
+                plan.getMetrics().addBytes(written - reported);
+                reported = written;
+                
+                ByteBuffer region = frame(buffer.array(), buffer.size());
+                long position = reserve(chunk, region.remaining());
+                long regionEnd = writeAt(channel, region, position);
+                complete(checkpoint, partition, channel, startRow, chunk, regionEnd);
+            }
+        } catch (IOException | RuntimeException e) {
+            fail();
+            throw e;
+        }
+    }
+    
+    /**
+     * 按块的顺序预留文件区域，前一块还没有预留时等待
+     */
+    private long reserve(long chunk, int length) throws IOException {
+        synchronized (reservationLock) {
+            while (nextReservation != chunk) {
+                if (failed) {
+                    throw new IOException("Aborted because another writer failed");
+                }
+                try {
+                    reservationLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("Interrupted while reserving a file region");
+                }
+            }
+            long position = reservedOffset;
+            reservedOffset += length;
+            nextReservation++;
+            reservationLock.notifyAll();
+            return position;
+        }
+    }
+    
+    private void fail() {
+        synchronized (reservationLock) {
+            failed = true;
+            reservationLock.notifyAll();
+        }
+    }
+    
+    /**
+     * 记录写完的块，推进连续写完的前缀，前缀推进足够多时保存检查点
+     */
+    private void complete(JobCheckpoint checkpoint, JobCheckpoint.PartitionCheckpoint partition, FileChannel channel,
+                          long startRow, long chunk, long regionEnd) throws IOException {
+        synchronized (completed) {
+            completed.put(chunk, regionEnd);
+            Long end;
+            while ((end = completed.remove(watermark)) != null) {
+                watermark++;
+                watermarkOffset = end;
+            }
+            if ((watermark - checkpointedChunks) * config.getChunkRows() >= config.getCheckpointIntervalRows()) {
+                saveCheckpoint(checkpoint, partition, channel, startRow);
+            }
+        }
+    }
+    
+    private void saveCheckpoint(JobCheckpoint checkpoint, JobCheckpoint.PartitionCheckpoint partition, FileChannel channel,
+                                long startRow) throws IOException {
+        synchronized (completed) {
+            if (config.isSync()) {
+                channel.force(false);
+            }
+            synchronized (checkpoint) {
+                partition.setNextRow(Math.min(partition.getEndRow(), startRow + watermark * config.getChunkRows()));
+                partition.setFileOffset(watermarkOffset);
+                checkpoint.save(checkpointFile);
+            }
+            checkpointedChunks = watermark;
+        }
+    }
+    
+    private ByteBuffer frame(byte[] data, int length) throws IOException {
+        if (codec == null) {
+            return ByteBuffer.wrap(data, 0, length);
+        }
+        return ByteBuffer.wrap(codec.compress(data, 0, length, config.getCompressionLevel()));
+    }
+    
+    private static long writeAt(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+        while (buffer.hasRemaining()) {
+            position += channel.write(buffer, position);
+        }
+        return position;
+    }
+    
+    /**
+     * 可以直接访问内部数组的字节缓冲区，每个工作线程复用一个
+     */
+    private static class ReusableByteArrayOutputStream extends ByteArrayOutputStream {
+        
+        ReusableByteArrayOutputStream() {
+            super(1024 * 1024);
+        }
+        
+        byte[] array() {
+            return buf;
+        }
+    }
+} 
\ No newline at end of file
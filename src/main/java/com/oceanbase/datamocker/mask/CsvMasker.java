@@ -0,0 +1,267 @@
+package com.oceanbase.datamocker.mask;
+
+import com.oceanbase.datamocker.ai.FieldSemanticInferrer;
+import com.oceanbase.datamocker.ai.SemanticType;
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.profiler.CsvRecordReader;
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 流式的CSV脱敏
+ * 文件按固定字节数切成分片，分片边界由主线程按引号状态扫描得到，总是落在记录之间（字段中的换行不会被切开）；
+ * 各分片在工作线程中独立读取、替换个人信息字段并序列化，再按分片的顺序写出，
+ * 在途的分片数不超过线程数的两倍，内存占用与文件大小无关。要脱敏的字段按字段名的语义推断识别（姓名、手机号、
+ * 邮箱、地址、身份证号），可以按字段名覆盖；其余字段的内容原样保留，只有引号按输出约定重新添加
+ */
+@Slf4j
+public class CsvMasker {
+    
+    private final MaskingConfig config;
+    private final FieldSemanticInferrer inferrer;
+    private final ValueMasker masker;
+    
+    /**
+     * @param config 脱敏配置
+     * @param inferrer 按字段名识别个人信息字段的推断器
+     * @param masker 字段值脱敏
+     */
+    public CsvMasker(MaskingConfig config, FieldSemanticInferrer inferrer, ValueMasker masker) {
+        if (config.getChunkBytes() <= 0 || config.getThreads() < 0) {
+            throw new IllegalArgumentException("chunkBytes must be positive and threads must not be negative");
+        }
+        this.config = config;
+        this.inferrer = inferrer;
+        this.masker = masker;
+    }
+    
+    /**
+     * 脱敏CSV文件
+     *
+     * @param input 原始CSV文件
+     * @param output 脱敏后的CSV文件
+     * @return 处理的记录数
+     * @throws IOException 读写失败
+     */
+    public long mask(File input, File output) throws IOException {
+        if (!input.isFile()) {
+            throw new IllegalArgumentException("CSV file not found: " + input.getAbsolutePath());
+        }
+        char delimiter = config.getDelimiter();
+        List<String> names = new ArrayList<>();
+        long headerEnd = 0;
+        try (FileInputStream in = new FileInputStream(input)) {
+            CsvRecordReader reader = new CsvRecordReader(in, 0, delimiter);
+            if (reader.next(names)) {
+                if (config.isHeader()) {
+                    headerEnd = reader.position();
+                } else {
+                    for (int i = 0; i < names.size(); i++) {
+                        names.set(i, "c" + (i + 1));
+                    }
+                }
+            }
+        }
+        long dataStart = headerEnd;
+        Map<Integer, SemanticType> masked = resolveColumns(names);
+        log.info("Masking columns {} of {}", describe(names, masked), input);
+        
+        long length = input.length();
+        long start = System.nanoTime();
+        int threads = config.getThreads() > 0 ? config.getThreads() : Runtime.getRuntime().availableProcessors();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        ArrayDeque<Future<Chunk>> inFlight = new ArrayDeque<>();
+        long rows = 0;
+        try (RecordBoundaries boundaries = new RecordBoundaries(input, dataStart);
+             OutputStream out = CompressionCodecs.wrap(new FileOutputStream(output), config.getCompression(), config.getCompressionLevel())) {
+            if (config.isHeader()) {
+                ByteArrayOutputStream header = new ByteArrayOutputStream();
+                try (RowSink sink = new CsvRowSink(header, delimiter, true)) {
+                    sink.open(input.getName(), names);
+                }
+                header.writeTo(out);
+            }
+            long next = dataStart;
+            while (next < length || !inFlight.isEmpty()) {
+                while (next < length && inFlight.size() < threads * 2) {
+                    long chunkStart = next;
+                    long chunkEnd = boundaries.next(length - next > config.getChunkBytes() ? next + config.getChunkBytes() : length);
+                    inFlight.add(executor.submit(() -> maskChunk(input, chunkStart, chunkEnd, masked)));
+                    next = chunkEnd;
+                }
+                Chunk chunk = inFlight.poll().get();
+                chunk.data.writeTo(out);
+                rows += chunk.rows;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while masking " + input);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            } else if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IOException("Failed to mask " + input, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        log.info("Masked {} rows of {} into {} in {} ms", rows, input, output.getAbsolutePath(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return rows;
+    }
+    
+    /**
+     * 确定要脱敏的字段及其语义类型：配置中列出的字段按配置，其余按字段名推断，只脱敏个人信息类型
+     */
+    Map<Integer, SemanticType> resolveColumns(List<String> names) {
+        Map<String, String> overrides = new LinkedHashMap<>();
+        for (Map.Entry<String, String> entry : config.getColumns().entrySet()) {
+            overrides.put(entry.getKey().toLowerCase(Locale.ROOT), entry.getValue());
+        }
+        Map<Integer, SemanticType> masked = new LinkedHashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            String name = names.get(i) == null ? "" : names.get(i);
+            String override = overrides.remove(name.toLowerCase(Locale.ROOT));
+            if (override != null) {
+                if (!"none".equalsIgnoreCase(override)) {
+                    try {
+                        masked.put(i, SemanticType.valueOf(override.toUpperCase(Locale.ROOT)));
+                    } catch (IllegalArgumentException e) {
+                        throw new IllegalArgumentException("Unknown semantic type '" + override + "' for column " + name);
+                    }
+                }
+                continue;
+            }
+            SemanticType type = inferrer.inferSemanticType(name, null);
+            if (ValueMasker.PII_TYPES.contains(type)) {
+                masked.put(i, type);
+            }
+        }
+        if (!overrides.isEmpty()) {
+            log.warn("Masking columns {} are not in the CSV header and are ignored", overrides.keySet());
+        }
+        return masked;
+    }
+    
+    /**
+     * 处理一个分片：分片的起点和终点都是记录的边界，替换要脱敏的字段后序列化
+     */
+    private Chunk maskChunk(File input, long start, long end, Map<Integer, SemanticType> masked) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream((int) Math.min(Integer.MAX_VALUE - 8, end - start + 1024));
+        long rows = 0;
+        try (FileInputStream in = new FileInputStream(input);
+             RowSink sink = new CsvRowSink(buffer, config.getDelimiter(), false)) {
+            in.getChannel().position(start);
+            CsvRecordReader reader = new CsvRecordReader(in, start, config.getDelimiter());
+            List<String> fields = new ArrayList<>();
+            while (reader.position() < end && reader.next(fields)) {
+                for (Map.Entry<Integer, SemanticType> entry : masked.entrySet()) {
+                    int index = entry.getKey();
+                    if (index < fields.size()) {
+                        fields.set(index, masker.mask(entry.getValue(), fields.get(index)));
+                    }
+                }
+                sink.write(fields.toArray());
+                rows++;
+            }
+        }
+        return new Chunk(buffer, rows);
+    }
+    
+    private static String describe(List<String> names, Map<Integer, SemanticType> masked) {
+        List<String> columns = new ArrayList<>();
+        for (Map.Entry<Integer, SemanticType> entry : masked.entrySet()) {
+            columns.add(names.get(entry.getKey()) + ":" + entry.getValue());
+        }
+        return columns.toString();
+    }
+    
+    /**
+     * 顺序扫描文件，找出不早于给定位置的第一个记录边界：引号外的换行之后即为下一条记录的起点。
+     * 只统计引号的奇偶，不解析字段，扫描的开销远小于工作线程中的解析和脱敏
+     */
+    private static final class RecordBoundaries implements Closeable {
+        private final InputStream in;
+        private final byte[] buffer = new byte[64 * 1024];
+        private int limit;
+        private int offset;
+        private long position;
+        private boolean quoted;
+        
+        /**
+         * 当前位置是否为记录的起点，扫描从第一条数据记录的起点开始
+         */
+        private boolean atBoundary = true;
+        
+        RecordBoundaries(File input, long dataStart) throws IOException {
+            FileInputStream stream = new FileInputStream(input);
+            stream.getChannel().position(dataStart);
+            this.in = stream;
+            this.position = dataStart;
+        }
+        
+        /**
+         * @param target 期望的分片终点
+         * @return 不早于target的第一个记录起点，之后没有记录时为文件末尾
+         */
+        long next(long target) throws IOException {
+            while (position < target || !atBoundary) {
+                if (offset == limit) {
+                    limit = Math.max(0, in.read(buffer));
+                    offset = 0;
+                    if (limit == 0) {
+                        return position;
+                    }
+                }
+                byte b = buffer[offset++];
+                position++;
+                if (b == '"') {
+                    quoted = !quoted;
+                }
+                atBoundary = b == '\n' && !quoted;
+            }
+            return position;
+        }
+        
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+    
+    /**
+     * 脱敏后的一个分片
+     */
+    private static final class Chunk {
+        private final ByteArrayOutputStream data;
+        private final long rows;
+        
+        Chunk(ByteArrayOutputStream data, long rows) {
+            this.data = data;
+            this.rows = rows;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,53 @@
+package com.oceanbase.datamocker.mask;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 脱敏作业的配置
+ */
+@Data
+public class MaskingConfig {
+    
+    /**
+     * 密钥，同一密钥下相同的原值总是替换为相同的假值；不同密钥的结果互不相关，不知道密钥时无法通过穷举原值反推
+     */
+    private String secret;
+    
+    /**
+     * CSV分隔符
+     */
+    private char delimiter = ',';
+    
+    /**
+     * 第一行是否为字段名，否则字段依次命名为c1、c2…，只能通过columns指定要脱敏的字段
+     */
+    private boolean header = true;
+    
+    /**
+     * 工作线程数，0表示使用全部CPU核数
+     */
+    private int threads = 0;
+    
+    /**
+     * 每个分片的字节数，分片在各线程中并行读取、脱敏和序列化，再按分片的顺序写出
+     */
+    private long chunkBytes = 8L * 1024 * 1024;
+    
+    /**
+     * 按字段名指定的语义类型（如 PHONE），覆盖按字段名推断的结果；值为none时不脱敏该字段
+     */
+    private Map<String, String> columns = new LinkedHashMap<>();
+    
+    /**
+     * 输出的压缩方式，如gzip，为空或none时不压缩
+     */
+    private String compression;
+    
+    /**
+     * 压缩级别，-1表示默认级别
+     */
+    private int compressionLevel = -1;
+} 
\ No newline at end of file
@@ -0,0 +1,201 @@
+package com.oceanbase.datamocker.mask;
+
+import com.oceanbase.datamocker.ai.SemanticType;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.generator.FastRandom;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.generator.SemanticDataGenerator;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * 确定性的字段值脱敏
+ * 以密钥对（语义类型，原值）做带密钥的哈希（SipHash-2-4）作为当前线程随机流的种子，再调用该语义类型的生成器生成假值，
+ * 因此同一密钥下相同的原值在任何文件、任何字段中都替换为相同的假值，脱敏后的表之间仍然可以关联。
+ * 假值保持原值的格式：手机号、身份证号只在原值本身符合标准格式时使用生成器，姓名和地址保持中文或非中文；
+ * 不符合时逐字符替换，数字换成数字、字母换成同样大小写的字母、汉字换成汉字，其余字符和长度不变
+ */
+public class ValueMasker {
+    
+    /**
+     * 默认按字段名识别并脱敏的个人信息类型
+     */
+    public static final Set<SemanticType> PII_TYPES = Collections.unmodifiableSet(
+            EnumSet.of(SemanticType.NAME, SemanticType.PHONE, SemanticType.EMAIL, SemanticType.ADDRESS, SemanticType.ID_CARD));
+    
+    /**
+     * 生成的假值与原值格式不符或恰好相同时换一个种子重新生成的次数
+     */
+    private static final int MAX_ATTEMPTS = 8;
+    
+    private static final Pattern MOBILE = Pattern.compile("1\\d{10}");
+    private static final Pattern ID_CARD = Pattern.compile("\\d{17}[\\dXx]");
+    
+    private static final FieldConfig GENERATION_CONFIG = new FieldConfig();
+    
+    private final long k0;
+    private final long k1;
+    private final SemanticDataGenerator generators;
+    
+    /**
+     * @param secret 密钥
+     * @param generators 提供各语义类型生成器的语义生成器
+     * @throws IllegalArgumentException 密钥为空
+     */
+    public ValueMasker(String secret, SemanticDataGenerator generators) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("Masking requires a non-empty secret");
+        }
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        this.k0 = readLong(digest, 0);
+        this.k1 = readLong(digest, 8);
+        this.generators = generators;
+    }
+    
+    /**
+     * 脱敏一个字段值，只使用调用线程的随机流，可以在多个线程中同时调用
+     *
+     * @param type 字段的语义类型
+     * @param value 原值
+     * @return 假值，原值为null或空字符串时原样返回
+     */
+    public String mask(SemanticType type, String value) {
+        if (value == null || value.isEmpty()) {
+            return value;
+        }
+        byte[] input = (type.name() + '\u0000' + value).getBytes(StandardCharsets.UTF_8);
+        long seed = sipHash(input);
+        FastRandom random = RandomStreams.current();
+        DataGenerator generator = generators.getSemanticGenerator(type);
+        if (generator != null && conforms(type, value)) {
+            boolean cjk = containsCjk(value);
+            for (int attempt = 0; attempt < MAX_ATTEMPTS; attempt++) {
+                random.setSeed(seed + attempt);
+                Object fake = generator.generate(type.name().toLowerCase(Locale.ROOT), GENERATION_CONFIG);
+                if (fake != null && !value.equals(fake.toString()) && containsCjk(fake.toString()) == cjk) {
+                    return fake.toString();
+                }
+            }
+        }
+        random.setSeed(seed);
+        return scramble(value, random);
+    }
+    
+    /**
+     * 原值是否符合语义生成器输出的格式
+     */
+    private static boolean conforms(SemanticType type, String value) {
+        switch (type) {
+            case PHONE:
+                return MOBILE.matcher(value).matches();
+            case ID_CARD:
+                return ID_CARD.matcher(value).matches();
+            case EMAIL:
+                return value.indexOf('@') > 0;
+            default:
+                return true;
+        }
+    }
+    
+    /**
+     * 逐字符替换，保持字符类别和长度
+     */
+    private static String scramble(String value, FastRandom random) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                sb.append((char) ('0' + random.nextInt(10)));
+            } else if (c >= 'a' && c <= 'z') {
+                sb.append((char) ('a' + random.nextInt(26)));
+            } else if (c >= 'A' && c <= 'Z') {
+                sb.append((char) ('A' + random.nextInt(26)));
+            } else if (isCjk(c)) {
+                sb.append((char) (0x4E00 + random.nextInt(0x9FA5 - 0x4E00 + 1)));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+    
+    private static boolean containsCjk(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (isCjk(value.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    private static boolean isCjk(char c) {
+        return c >= 0x4E00 && c <= 0x9FA5;
+    }
+    
+    /**
+     * SipHash-2-4，以密钥派生出的128位作为哈希的键
+     */
+    private long sipHash(byte[] data) {
+        long[] v = {0x736f6d6570736575L ^ k0, 0x646f72616e646f6dL ^ k1, 0x6c7967656e657261L ^ k0, 0x7465646279746573L ^ k1};
+        int blocks = data.length / 8;
+        for (int i = 0; i < blocks; i++) {
+            long m = readLittleEndian(data, i * 8, 8);
+            v[3] ^= m;
+            sipRound(v);
+            sipRound(v);
+            v[0] ^= m;
+        }
+        long last = ((long) data.length << 56) | readLittleEndian(data, blocks * 8, data.length - blocks * 8);
+        v[3] ^= last;
+        sipRound(v);
+        sipRound(v);
+        v[0] ^= last;
+        v[2] ^= 0xff;
+        for (int i = 0; i < 4; i++) {
+            sipRound(v);
+        }
+        return v[0] ^ v[1] ^ v[2] ^ v[3];
+    }
+    
+    private static void sipRound(long[] v) {
+        v[0] += v[1];
+        v[1] = Long.rotateLeft(v[1], 13);
+        v[1] ^= v[0];
+        v[0] = Long.rotateLeft(v[0], 32);
+        v[2] += v[3];
+        v[3] = Long.rotateLeft(v[3], 16);
+        v[3] ^= v[2];
+        v[0] += v[3];
+        v[3] = Long.rotateLeft(v[3], 21);
+        v[3] ^= v[0];
+        v[2] += v[1];
+        v[1] = Long.rotateLeft(v[1], 17);
+        v[1] ^= v[2];
+        v[2] = Long.rotateLeft(v[2], 32);
+    }
+    
+    private static long readLittleEndian(byte[] data, int offset, int length) {
+        long value = 0;
+        for (int i = length - 1; i >= 0; i--) {
+            value = (value << 8) | (data[offset + i] & 0xFF);
+        }
+        return value;
+    }
+    
+    private static long readLong(byte[] data, int offset) {
+        return readLittleEndian(data, offset, 8);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,151 @@
+package com.oceanbase.datamocker.metrics;
+
+import com.oceanbase.datamocker.generator.FastRandom;
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.profiler.HeavyHitters;
+import com.oceanbase.datamocker.profiler.HyperLogLog;
+import com.oceanbase.datamocker.profiler.QuantileSketch;
+
+import java.math.BigDecimal;
+
+/**
+ * 单个线程上一个字段的生成结果统计，各线程的统计在生成报告时合并
+ */
+class ColumnSketch {
+    
+    long count;
+    long nulls;
+    
+    /**
+     * 计入分位数和取值次数的非空值个数
+     */
+    long sampled;
+    double min = Double.NaN;
+    double max = Double.NaN;
+    final HyperLogLog distinct = new HyperLogLog();
+    final QuantileSketch numbers = new QuantileSketch();
+    int minLength = Integer.MAX_VALUE;
+    int maxLength = -1;
+    String minText;
+    String maxText;
+    
+    /**
+     * 字段配置了枚举值时统计各个取值的次数，否则为null
+     */
+    final HeavyHitters values;
+    
+    /**
+     * 是否记录字典序最小、最大的文本，只用于日期时间字段的范围检查
+     */
+    private final boolean trackText;
+    private final int sampleMask;
+    
+    /**
+     * @param valueCapacity 统计取值次数时最多跟踪的值个数，为0时不统计
+     * @param trackText 是否记录字典序最小、最大的文本
+     * @param sampleInterval 分位数和取值次数的采样间隔，为2的幂
+     */
+    ColumnSketch(int valueCapacity, boolean trackText, int sampleInterval) {
+        this.values = valueCapacity > 0 ? new HeavyHitters(valueCapacity) : null;
+        this.trackText = trackText;
+        this.sampleMask = sampleInterval - 1;
+    }
+    
+    void add(Object value) {
+        count++;
+        if (value == null) {
+            nulls++;
+            return;
+        }
+        boolean sample = (count & sampleMask) == 0;
+        if (sample) {
+            sampled++;
+        }
+        if (value instanceof Number) {
+            double number = ((Number) value).doubleValue();
+            if (!(number >= min)) {
+                min = number;
+            }
+            if (!(number <= max)) {
+                max = number;
+            }
+            distinct.addHash(FastRandom.mix(Double.doubleToLongBits(number)));
+            if (sample) {
+                numbers.add(number);
+                if (values != null) {
+                    values.add(valueKey(value.toString()));
+                }
+            }
+            return;
+        }
+        if (value instanceof LobValue) {
+            // 大对象只统计长度，不生成内容
+            int length = (int) Math.min(Integer.MAX_VALUE, ((LobValue) value).length());
+            distinct.addHash(FastRandom.mix(value.hashCode()));
+            minLength = Math.min(minLength, length);
+            maxLength = Math.max(maxLength, length);
+            return;
+        }
+        String text = value.toString();
+        int length = text.length();
+        // String缓存了hashCode，枚举值、值池中的值不必每次重新计算；长度补足哈希的高32位
+        distinct.addHash(FastRandom.mix(((long) length << 32) ^ (text.hashCode() & 0xFFFFFFFFL)));
+        minLength = Math.min(minLength, length);
+        maxLength = Math.max(maxLength, length);
+        if (trackText) {
+            if (minText == null || text.compareTo(minText) < 0) {
+                minText = text;
+            }
+            if (maxText == null || text.compareTo(maxText) > 0) {
+                maxText = text;
+            }
+        }
+        if (values != null && sample) {
+            values.add(text);
+        }
+    }
+    
+    /**
+     * 是否出现过数值
+     */
+    boolean isNumeric() {
+        return !Double.isNaN(min);
+    }
+    
+    void merge(ColumnSketch other) {
+        count += other.count;
+        nulls += other.nulls;
+        sampled += other.sampled;
+        if (!isNumeric()) {
+            min = other.min;
+            max = other.max;
+        } else if (other.isNumeric()) {
+            min = Math.min(min, other.min);
+            max = Math.max(max, other.max);
+        }
+        distinct.merge(other.distinct);
+        numbers.merge(other.numbers);
+        minLength = Math.min(minLength, other.minLength);
+        maxLength = Math.max(maxLength, other.maxLength);
+        if (other.minText != null && (minText == null || other.minText.compareTo(minText) < 0)) {
+            minText = other.minText;
+        }
+        if (other.maxText != null && (maxText == null || other.maxText.compareTo(maxText) > 0)) {
+            maxText = other.maxText;
+        }
+        if (values != null && other.values != null) {
+            values.merge(other.values);
+        }
+    }
+    
+    /**
+     * 数值按去掉尾部零的十进制形式比较，使枚举值"1.50"与生成的1.5对应
+     */
+    static String valueKey(String text) {
+        try {
+            return new BigDecimal(text).stripTrailingZeros().toPlainString();
+        } catch (NumberFormatException e) {
+            return text;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,64 @@
+package com.oceanbase.datamocker.metrics;
+
+import lombok.Data;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 运行指标快照，以JSON格式写入进度文件
+ */
+@Data
+public class MetricsSnapshot {
+    
+    /**
+     * 快照时间（毫秒时间戳）
+     */
+    private long timestamp;
+    
+    /**
+     * 从开始统计到快照经过的毫秒数
+     */
+    private long elapsedMillis;
+    
+    private long rows;
+    private long bytes;
+    
+    /**
+     * 与上一次快照之间的行速率
+     */
+    private double rowsPerSecond;
+    
+    /**
+     * 与上一次快照之间的字节速率
+     */
+    private double bytesPerSecond;
+    
+    /**
+     * 各阶段的累计耗时（毫秒）
+     */
+    private Map<String, Long> phaseMillis = new LinkedHashMap<>();
+    
+    /**
+     * 与上一次快照之间各阶段耗时的占比，用于判断瓶颈在生成、序列化还是输出端
+     */
+    private Map<String, Double> phaseShare = new LinkedHashMap<>();
+    
+    /**
+     * 各字段采样得到的平均生成耗时（纳秒）
+     */
+    private Map<String, Long> columnAverageNanos = new LinkedHashMap<>();
+    
+    /**
+     * 各生成器的调用次数
+     */
+    private Map<String, Long> generatorCalls = new LinkedHashMap<>();
+    
+    private long inferenceCacheHits;
+    private long inferenceCacheMisses;
+    
+    /**
+     * 瞬时指标，如输出队列深度
+     */
+    private Map<String, Long> gauges = new LinkedHashMap<>();
+} 
\ No newline at end of file
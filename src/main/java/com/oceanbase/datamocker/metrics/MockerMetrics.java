@@ -0,0 +1,396 @@
+package com.oceanbase.datamocker.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.config.MockerConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * 运行指标
+ * 计数使用LongAdder分段累加，多个线程同时记录时没有竞争；字段耗时按行号采样。
+ * 未启用时所有记录方法只做一次布尔判断
+ */
+@Slf4j
+public class MockerMetrics implements MockerMetricsMXBean, Closeable {
+    
+    /**
+     * 未启用的指标实例
+     */
+    public static final MockerMetrics DISABLED = new MockerMetrics(false, 64);
+    
+    private static final AtomicInteger INSTANCE_IDS = new AtomicInteger();
+    
+    /**
+     * 耗时阶段
+     */
+    public enum Phase {
+        /**
+         * 生成行数据
+         */
+        GENERATE,
+        
+        /**
+         * 将行序列化写入输出缓冲区
+         */
+        WRITE,
+        
+        /**
+         * 输出端落盘、发送或执行（如数据库批量执行）
+         */
+        FLUSH
+    }
+    
+    private final boolean enabled;
+    private final int sampleMask;
+    private final long startNanos = System.nanoTime();
+    private final LongAdder rows = new LongAdder();
+    private final LongAdder bytes = new LongAdder();
+    private final LongAdder[] phaseNanos = new LongAdder[Phase.values().length];
+    private final Map<String, ColumnTimer> columns = new ConcurrentHashMap<>();
+    private final Map<String, LongAdder> generatorCalls = new ConcurrentHashMap<>();
+    private final LongAdder inferenceHits = new LongAdder();
+    private final LongAdder inferenceMisses = new LongAdder();
+    private final Map<String, LongSupplier> gauges = new ConcurrentHashMap<>();
+    
+    private ObjectName objectName;
+    private ScheduledExecutorService reporter;
+    private File progressFile;
+    
+    private long lastSnapshotNanos = startNanos;
+    private long lastRows;
+    private long lastBytes;
+    private final long[] lastPhaseNanos = new long[Phase.values().length];
+    private volatile double rowsPerSecond;
+    private volatile double bytesPerSecond;
+    
+    private MockerMetrics(boolean enabled, int sampleInterval) {
+        if (Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("columnSampleInterval must be a power of two: " + sampleInterval);
+        }
+        this.enabled = enabled;
+        this.sampleMask = sampleInterval - 1;
+        for (int i = 0; i < phaseNanos.length; i++) {
+            phaseNanos[i] = new LongAdder();
+        }
+    }
+    
+    /**
+     * 按配置创建运行指标，启用时注册JMX并启动进度文件的定期写出
+     *
+     * @param config 指标配置，为null或未启用时返回DISABLED
+     * @return 运行指标
+     */
+    public static MockerMetrics create(MockerConfig.MetricsConfig config) {
+        if (config == null || !config.isEnabled()) {
+            return DISABLED;
+        }
+        MockerMetrics metrics = new MockerMetrics(true, config.getColumnSampleInterval());
+        if (config.isJmx()) {
+            metrics.registerJmx();
+        }
+        if (config.getProgressFile() != null && !config.getProgressFile().isEmpty()) {
+            metrics.progressFile = new File(config.getProgressFile());
+        }
+        long interval = Math.max(100, config.getProgressIntervalMillis());
+        metrics.reporter = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "mocker-metrics");
+            thread.setDaemon(true);
+            return thread;
+        });
+        metrics.reporter.scheduleAtFixedRate(metrics::report, interval, interval, TimeUnit.MILLISECONDS);
+        return metrics;
+    }
+    
+    public boolean isEnabled() {
+        return enabled;
+    }
+    
+    /**
+     * 判断该行是否需要对各字段计时
+     *
+     * @param rowIndex 行号
+     * @return 是否采样
+     */
+    public boolean shouldSample(long rowIndex) {
+        return enabled && (rowIndex & sampleMask) == 0;
+    }
+    
+    /**
+     * 获取采样间隔
+     *
+     * @return 每隔多少行采样一次
+     */
+    public int getSampleInterval() {
+        return sampleMask + 1;
+    }
+    
+    public void addRows(long count) {
+        if (enabled) {
+            rows.add(count);
+        }
+    }
+    
+    public void addBytes(long count) {
+        if (enabled) {
+            bytes.add(count);
+        }
+    }
+    
+    public void addPhaseNanos(Phase phase, long nanos) {
+        if (enabled) {
+            phaseNanos[phase.ordinal()].add(nanos);
+        }
+    }
+    
+    /**
+     * 记录一次语义推断
+     *
+     * @param cacheHit 是否命中缓存
+     */
+    public void recordInference(boolean cacheHit) {
+        if (enabled) {
+            (cacheHit ? inferenceHits : inferenceMisses).increment();
+        }
+    }
+    
+    /**
+     * 获取字段的计时器，未启用时返回null
+     *
+     * @param tableName 表名
+     * @param columnName 字段名
+     * @return 计时器
+     */
+    public ColumnTimer columnTimer(String tableName, String columnName) {
+        return enabled ? columns.computeIfAbsent(tableName + "." + columnName, k -> new ColumnTimer()) : null;
+    }
+    
+    /**
+     * 获取生成器的调用计数器，未启用时返回null
+     *
+     * @param generatorName 生成器名称
+     * @return 调用计数器
+     */
+    public LongAdder generatorCounter(String generatorName) {
+        return enabled ? generatorCalls.computeIfAbsent(generatorName, k -> new LongAdder()) : null;
+    }
+    
+    /**
+     * 注册瞬时指标
+     *
+     * @param name 指标名
+     * @param supplier 取值函数，会在统计线程中调用
+     */
+    public void registerGauge(String name, LongSupplier supplier) {
+        if (enabled) {
+            gauges.put(name, supplier);
+        }
+    }
+    
+    public void unregisterGauge(String name) {
+        gauges.remove(name);
+    }
+    
+    @Override
+    public long getRowsGenerated() {
+        return rows.sum();
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return bytes.sum();
+    }
+    
+    @Override
+    public double getRowsPerSecond() {
+        return rowsPerSecond;
+    }
+    
+    @Override
+    public double getBytesPerSecond() {
+        return bytesPerSecond;
+    }
+    
+    @Override
+    public Map<String, Long> getPhaseMillis() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Phase phase : Phase.values()) {
+            result.put(phase.name(), phaseNanos[phase.ordinal()].sum() / 1_000_000);
+        }
+        return result;
+    }
+    
+    @Override
+    public Map<String, Long> getColumnAverageNanos() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, ColumnTimer> entry : columns.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getAverageNanos());
+        }
+        return result;
+    }
+    
+    @Override
+    public Map<String, Long> getGeneratorCalls() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongAdder> entry : generatorCalls.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().sum());
+        }
+        return result;
+    }
+    
+    @Override
+    public long getInferenceCacheHits() {
+        return inferenceHits.sum();
+    }
+    
+    @Override
+    public long getInferenceCacheMisses() {
+        return inferenceMisses.sum();
+    }
+    
+    @Override
+    public Map<String, Long> getGauges() {
+        Map<String, Long> result = new TreeMap<>();
+        for (Map.Entry<String, LongSupplier> entry : gauges.entrySet()) {
+            result.put(entry.getKey(), entry.getValue().getAsLong());
+        }
+        return result;
+    }
+    
+    /**
+     * 生成当前的指标快照，速率和阶段占比按与上一次快照之间的增量计算
+     *
+     * @return 指标快照
+     */
+    public synchronized MetricsSnapshot snapshot() {
+        long now = System.nanoTime();
+        MetricsSnapshot snapshot = new MetricsSnapshot();
+        snapshot.setTimestamp(System.currentTimeMillis());
+        snapshot.setElapsedMillis((now - startNanos) / 1_000_000);
+        
+        long currentRows = rows.sum();
+        long currentBytes = bytes.sum();
+        double seconds = Math.max(1, now - lastSnapshotNanos) / 1e9;
+        rowsPerSecond = (currentRows - lastRows) / seconds;
+        bytesPerSecond = (currentBytes - lastBytes) / seconds;
+        snapshot.setRows(currentRows);
+        snapshot.setBytes(currentBytes);
+        snapshot.setRowsPerSecond(rowsPerSecond);
+        snapshot.setBytesPerSecond(bytesPerSecond);
+        
+        long[] deltas = new long[phaseNanos.length];
+        long totalDelta = 0;
+        for (Phase phase : Phase.values()) {
+            long current = phaseNanos[phase.ordinal()].sum();
+            deltas[phase.ordinal()] = current - lastPhaseNanos[phase.ordinal()];
+            totalDelta += deltas[phase.ordinal()];
+            lastPhaseNanos[phase.ordinal()] = current;
+            snapshot.getPhaseMillis().put(phase.name(), current / 1_000_000);
+        }
+        for (Phase phase : Phase.values()) {
+            snapshot.getPhaseShare().put(phase.name(), totalDelta == 0 ? 0 : (double) deltas[phase.ordinal()] / totalDelta);
+        }
+        
+        snapshot.setColumnAverageNanos(getColumnAverageNanos());
+        snapshot.setGeneratorCalls(getGeneratorCalls());
+        snapshot.setInferenceCacheHits(getInferenceCacheHits());
+        snapshot.setInferenceCacheMisses(getInferenceCacheMisses());
+        snapshot.setGauges(getGauges());
+        
+        lastSnapshotNanos = now;
+        lastRows = currentRows;
+        lastBytes = currentBytes;
+        return snapshot;
+    }
+    
+    /**
+     * 停止定期写出并注销JMX，关闭前写出最后一次进度
+     */
+    @Override
+    public void close() {
+        if (!enabled) {
+            return;
+        }
+        if (reporter != null) {
+            reporter.shutdownNow();
+        }
+        report();
+        if (objectName != null) {
+            try {
+                ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+            } catch (JMException e) {
+                log.debug("Failed to unregister metrics MBean {}", objectName, e);
+            }
+            objectName = null;
+        }
+    }
+    
+    private void registerJmx() {
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            objectName = new ObjectName("com.oceanbase.datamocker:type=Metrics,id=" + INSTANCE_IDS.incrementAndGet());
+            server.registerMBean(this, objectName);
+            log.info("Registered metrics MBean {}", objectName);
+        } catch (JMException e) {
+            log.warn("Failed to register metrics MBean, JMX metrics disabled: {}", e.getMessage());
+            objectName = null;
+        }
+    }
+    
+    /**
+     * 生成快照并写入进度文件，先写临时文件再原子替换，读取方不会读到写了一半的文件
+     */
+    private void report() {
+        MetricsSnapshot snapshot = snapshot();
+        if (progressFile == null) {
+            return;
+        }
+        try {
+            File parent = progressFile.getAbsoluteFile().getParentFile();
+            File temp = new File(parent, progressFile.getName() + ".tmp");
+            new ObjectMapper().writeValue(temp, snapshot);
+            Files.move(temp.toPath(), progressFile.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Failed to write progress file {}: {}", progressFile, e.getMessage());
+        }
+    }
+    
+    /**
+     * 字段生成耗时的采样计时器
+     */
+    public static class ColumnTimer {
+        private final LongAdder samples = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        
+        public void record(long elapsedNanos) {
+            samples.increment();
+            nanos.add(elapsedNanos);
+        }
+        
+        public long getSamples() {
+            return samples.sum();
+        }
+        
+        public long getAverageNanos() {
+            long count = samples.sum();
+            return count == 0 ? 0 : nanos.sum() / count;
+        }
+    }
+} 
\ No newline at end of file
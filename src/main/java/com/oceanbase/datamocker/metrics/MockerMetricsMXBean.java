@@ -0,0 +1,59 @@
+package com.oceanbase.datamocker.metrics;
+
+import java.util.Map;
+
+/**
+ * 通过JMX暴露的运行指标
+ */
+public interface MockerMetricsMXBean {
+    
+    /**
+     * @return 已生成的行数
+     */
+    long getRowsGenerated();
+    
+    /**
+     * @return 已写出的字节数
+     */
+    long getBytesWritten();
+    
+    /**
+     * @return 最近一个统计间隔的行速率（行/秒）
+     */
+    double getRowsPerSecond();
+    
+    /**
+     * @return 最近一个统计间隔的字节速率（字节/秒）
+     */
+    double getBytesPerSecond();
+    
+    /**
+     * @return 各阶段的累计耗时（毫秒），GENERATE为生成、WRITE为序列化写出、FLUSH为输出端落盘或执行
+     */
+    Map<String, Long> getPhaseMillis();
+    
+    /**
+     * @return 各字段采样得到的平均生成耗时（纳秒），key为"表名.字段名"
+     */
+    Map<String, Long> getColumnAverageNanos();
+    
+    /**
+     * @return 各生成器的调用次数，key为生成器类名
+     */
+    Map<String, Long> getGeneratorCalls();
+    
+    /**
+     * @return 语义推断缓存的命中次数
+     */
+    long getInferenceCacheHits();
+    
+    /**
+     * @return 语义推断缓存的未命中次数
+     */
+    long getInferenceCacheMisses();
+    
+    /**
+     * @return 当前的瞬时指标，如输出队列深度
+     */
+    Map<String, Long> getGauges();
+} 
\ No newline at end of file
@@ -0,0 +1,406 @@
+package com.oceanbase.datamocker.metrics;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * 生成结果校验
+ * 每个线程为每个字段维护一组可合并的草图（计数、空值数、HyperLogLog、KLL分位数、最值和长度），
+ * 生成的每一行直接写入调用线程的草图，没有线程间同步；分位数和枚举值次数按采样间隔记录，其余统计覆盖每一行。
+ * 生成报告时合并各线程的草图，与字段配置中的空值率、取值范围、枚举值分布和数值分布形状对比。
+ * 报告应在生成结束后获取，生成过程中获取的报告可能不包含正在写入的行。
+ */
+@Slf4j
+public class OutputVerifier {
+    
+    /**
+     * 比例和分布检查允许的标准误差倍数
+     */
+    public static final double Z_LIMIT = 4.0;
+    
+    /**
+     * 采样的非空值少于该个数时不检查分布形状
+     */
+    public static final long MIN_SHAPE_ROWS = 500;
+    
+    /**
+     * 分位数与期望值的允许偏差，按取值范围的比例计算
+     */
+    public static final double SHAPE_TOLERANCE = 0.02;
+    
+    private static final double[] REPORT_POINTS = {0.1, 0.5, 0.9};
+    private static final double[] SHAPE_POINTS = {0.1, 0.25, 0.5, 0.75, 0.9};
+    
+    private final String tableName;
+    private final List<String> names;
+    private final int[] indexes;
+    private final List<FieldConfig> configs;
+    private final int[] valueCapacities;
+    private final boolean[] temporal;
+    private final int sampleInterval;
+    private final Queue<ColumnSketch[]> sketches = new ConcurrentLinkedQueue<>();
+    private final ThreadLocal<ColumnSketch[]> local;
+    
+    /**
+     * @param tableName 表名
+     * @param names 字段名
+     * @param indexes 字段在行数组中的下标
+     * @param configs 字段配置，不由配置直接决定取值的字段（如表达式字段）为null，只统计不检查
+     * @param sampleInterval 分位数和枚举值分布的采样间隔，必须为2的幂
+     */
+    public OutputVerifier(String tableName, List<String> names, int[] indexes, List<FieldConfig> configs, int sampleInterval) {
+        if (names.size() != indexes.length || names.size() != configs.size()) {
+            throw new IllegalArgumentException("Verifier columns, indexes and configs must have the same size");
+        }
+        if (Integer.bitCount(sampleInterval) != 1) {
+            throw new IllegalArgumentException("verifySampleInterval must be a power of two: " + sampleInterval);
+        }
+        this.sampleInterval = sampleInterval;
+        this.tableName = tableName;
+        this.names = names;
+        this.indexes = indexes;
+        this.configs = configs;
+        this.valueCapacities = new int[configs.size()];
+        this.temporal = new boolean[configs.size()];
+        for (int i = 0; i < configs.size(); i++) {
+            temporal[i] = configs.get(i) != null && configs.get(i).getType() != null
+                    && isTemporal(configs.get(i).getType().toUpperCase(Locale.ROOT));
+            String[] enumValues = configs.get(i) == null ? null : configs.get(i).getEnumValues();
+            // 多留一个位置，出现意外的值时也能精确计数
+            valueCapacities[i] = enumValues != null && enumValues.length > 0 ? enumValues.length + 1 : 0;
+        }
+        this.local = ThreadLocal.withInitial(this::newSketches);
+    }
+    
+    private ColumnSketch[] newSketches() {
+        ColumnSketch[] columns = new ColumnSketch[indexes.length];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = new ColumnSketch(valueCapacities[i], temporal[i], sampleInterval);
+        }
+        sketches.add(columns);
+        return columns;
+    }
+    
+    /**
+     * 统计生成的一行
+     *
+     * @param row 行数组
+     */
+    public void observe(Object[] row) {
+        ColumnSketch[] columns = local.get();
+        for (int i = 0; i < columns.length; i++) {
+            columns[i].add(row[indexes[i]]);
+        }
+    }
+    
+    /**
+     * 合并各线程的统计并与字段配置对比
+     *
+     * @return 校验报告
+     */
+    public VerificationReport report() {
+        ColumnSketch[] merged = new ColumnSketch[indexes.length];
+        for (int i = 0; i < merged.length; i++) {
+            merged[i] = new ColumnSketch(valueCapacities[i], temporal[i], sampleInterval);
+        }
+        for (ColumnSketch[] columns : sketches) {
+            for (int i = 0; i < merged.length; i++) {
+                merged[i].merge(columns[i]);
+            }
+        }
+        long rows = merged.length == 0 ? 0 : merged[0].count;
+        VerificationReport report = new VerificationReport(tableName, rows);
+        for (int i = 0; i < merged.length; i++) {
+            report.getColumns().add(verify(names.get(i), merged[i], configs.get(i)));
+        }
+        return report;
+    }
+    
+    /**
+     * 生成报告并写入日志，有检查未通过时按警告级别输出
+     *
+     * @return 校验报告
+     */
+    public VerificationReport logReport() {
+        VerificationReport report = report();
+        if (report.isPassed()) {
+            log.info("{}", report);
+        } else {
+            log.warn("{}", report);
+        }
+        return report;
+    }
+    
+    private static VerificationReport.ColumnReport verify(String name, ColumnSketch sketch, FieldConfig config) {
+        long nonNull = sketch.count - sketch.nulls;
+        boolean numeric = sketch.isNumeric();
+        double[] quantiles = sketch.numbers.getCount() > 0 ? sketch.numbers.quantiles(REPORT_POINTS) : null;
+        String min = numeric ? format(sketch.min) : sketch.minText;
+        String max = numeric ? format(sketch.max) : sketch.maxText;
+        if (min == null && sketch.maxLength >= 0) {
+            min = "length " + sketch.minLength;
+            max = "length " + sketch.maxLength;
+        }
+        VerificationReport.ColumnReport report = new VerificationReport.ColumnReport(name, sketch.count,
+                sketch.count == 0 ? 0 : (double) sketch.nulls / sketch.count,
+                Math.min(sketch.distinct.estimate(), nonNull), min, max, quantiles);
+        if (config == null || sketch.count == 0) {
+            return report;
+        }
+        List<VerificationReport.Check> checks = report.getChecks();
+        
+        double nullRate = config.isAllowNull() ? config.getNullRate() : 0;
+        checks.add(new VerificationReport.Check("nullRate", format(nullRate), format(report.getNullRate()),
+                withinProportion(report.getNullRate(), nullRate, sketch.count)));
+        
+        if (config.isSequence()) {
+            checks.add(new VerificationReport.Check("unique", String.valueOf(nonNull), String.valueOf(report.getDistinct()),
+                    report.getDistinct() >= nonNull * 0.95));
+        }
+        if (config.getValuePool() != null) {
+            int size = config.getValuePool().getSize();
+            checks.add(new VerificationReport.Check("distinct", "<= " + size, String.valueOf(report.getDistinct()),
+                    report.getDistinct() <= size * 1.05 + 1));
+        }
+        // 默认值不受取值范围和分布约束，按默认值比例混入后不再检查取值
+        if (nonNull == 0 || (config.getDefaultValue() != null && config.getDefaultRate() > 0)) {
+            return report;
+        }
+        
+        String[] enumValues = config.getEnumValues();
+        if (enumValues != null && enumValues.length > 0) {
+            checkEnum(sketch, enumValues, checks);
+            return report;
+        }
+        String type = config.getType() == null ? "" : config.getType().toUpperCase(Locale.ROOT);
+        if (numeric && !config.isSequence()) {
+            checkNumbers(sketch, config, type, nonNull, checks);
+        } else if (isTemporal(type)) {
+            checkDates(sketch, config, checks);
+        } else if (!numeric && (config.getMinLength() != null || config.getMaxLength() != null)) {
+            int minLength = config.getMinLength() == null ? 0 : config.getMinLength();
+            int maxLength = config.getMaxLength() == null ? Integer.MAX_VALUE : config.getMaxLength();
+            checks.add(new VerificationReport.Check("length", "[" + minLength + ", " + maxLength + "]",
+                    "[" + sketch.minLength + ", " + sketch.maxLength + "]",
+                    sketch.minLength >= minLength && sketch.maxLength <= maxLength));
+        }
+        return report;
+    }
+    
+    /**
+     * 枚举字段只能取配置中的值，各值的比例与其在枚举值中出现的次数成正比
+     */
+    private static void checkEnum(ColumnSketch sketch, String[] enumValues, List<VerificationReport.Check> checks) {
+        long nonNull = sketch.sampled;
+        if (nonNull == 0) {
+            return;
+        }
+        Map<String, Integer> multiplicity = new HashMap<>();
+        for (String value : enumValues) {
+            multiplicity.merge(ColumnSketch.valueKey(value), 1, Integer::sum);
+        }
+        Map<String, Long> observed = sketch.values.top(Integer.MAX_VALUE);
+        String unexpected = null;
+        for (String value : observed.keySet()) {
+            if (!multiplicity.containsKey(ColumnSketch.valueKey(value))) {
+                unexpected = value;
+                break;
+            }
+        }
+        boolean valid = sketch.values.isExact() && unexpected == null;
+        checks.add(new VerificationReport.Check("enumValues", multiplicity.size() + " values",
+                valid ? "all expected" : "unexpected value " + (unexpected != null ? "'" + unexpected + "'" : "(more than tracked)"), valid));
+        
+        Map<String, Long> counts = new HashMap<>();
+        for (Map.Entry<String, Long> entry : observed.entrySet()) {
+            counts.merge(ColumnSketch.valueKey(entry.getKey()), entry.getValue(), Long::sum);
+        }
+        // 报告偏离最大（按标准误差计）的值
+        String worst = null;
+        double worstScore = -1;
+        boolean passed = true;
+        for (Map.Entry<String, Integer> entry : multiplicity.entrySet()) {
+            double expected = (double) entry.getValue() / enumValues.length;
+            double actual = counts.getOrDefault(entry.getKey(), 0L) / (double) nonNull;
+            passed &= withinProportion(actual, expected, nonNull);
+            double score = Math.abs(actual - expected) / Math.sqrt(expected * (1 - expected) / nonNull + 1e-12);
+            if (score > worstScore) {
+                worstScore = score;
+                worst = "'" + entry.getKey() + "' " + format(expected) + " vs " + format(actual);
+            }
+        }
+        checks.add(new VerificationReport.Check("enumMix", "share proportional to occurrences", "worst " + worst, passed));
+    }
+    
+    private static void checkNumbers(ColumnSketch sketch, FieldConfig config, String type, long nonNull,
+                                     List<VerificationReport.Check> checks) {
+        Double min = parse(config.getMin());
+        Double max = parse(config.getMax());
+        if (min == null || max == null || min >= max) {
+            return;
+        }
+        double unit = unit(type, config);
+        double observedMin = sketch.min;
+        double observedMax = sketch.max;
+        checks.add(new VerificationReport.Check("range", "[" + config.getMin() + ", " + config.getMax() + "]",
+                "[" + format(observedMin) + ", " + format(observedMax) + "]",
+                observedMin >= min - unit && observedMax <= max + unit));
+        
+        FieldConfig.DistributionType distribution = config.getDistributionType() == null
+                ? FieldConfig.DistributionType.UNIFORM : config.getDistributionType();
+        // 值池按非均匀分布采样时，结果的分布不再是配置的分布
+        boolean skewedPool = config.getValuePool() != null
+                && config.getValuePool().getDistribution() != FieldConfig.DistributionType.UNIFORM;
+        if (sketch.numbers.getCount() < MIN_SHAPE_ROWS || skewedPool || distribution == FieldConfig.DistributionType.POISSON
+                || (distribution == FieldConfig.DistributionType.CUSTOM && customQuantiles(config) == null)) {
+            return;
+        }
+        double[] observed = sketch.numbers.quantiles(SHAPE_POINTS);
+        double tolerance = SHAPE_TOLERANCE * (max - min) + unit;
+        StringBuilder expectedText = new StringBuilder();
+        StringBuilder observedText = new StringBuilder();
+        boolean passed = true;
+        for (int i = 0; i < SHAPE_POINTS.length; i++) {
+            double expected = expectedQuantile(distribution, config, min, max, SHAPE_POINTS[i]);
+            passed &= Math.abs(observed[i] - expected) <= tolerance;
+            expectedText.append(i == 0 ? "" : "/").append(format(expected));
+            observedText.append(i == 0 ? "" : "/").append(format(observed[i]));
+        }
+        checks.add(new VerificationReport.Check(distribution.name() + " p10/p25/p50/p75/p90",
+                expectedText + " +/- " + format(tolerance), observedText.toString(), passed));
+    }
+    
+    /**
+     * 按NumberDataGenerator的采样方式计算期望的分位数
+     */
+    private static double expectedQuantile(FieldConfig.DistributionType distribution, FieldConfig config,
+                                           double min, double max, double q) {
+        switch (distribution) {
+            case NORMAL:
+                double mean = (min + max) / 2;
+                double stdDev = (max - min) / 6;
+                return Math.max(min, Math.min(max, mean + stdDev * inverseNormal(q)));
+            case EXPONENTIAL:
+                double lambda = 1.0 / ((max - min) / 5);
+                return Math.min(max, min - Math.log(1 - q) / lambda);
+            case CUSTOM:
+                List<?> quantiles = customQuantiles(config);
+                double position = q * (quantiles.size() - 1);
+                int lower = (int) position;
+                double from = Double.parseDouble(String.valueOf(quantiles.get(lower)));
+                double to = Double.parseDouble(String.valueOf(quantiles.get(Math.min(lower + 1, quantiles.size() - 1))));
+                return from + (to - from) * (position - lower);
+            case UNIFORM:
+            default:
+                return min + (max - min) * q;
+        }
+    }
+    
+    private static List<?> customQuantiles(FieldConfig config) {
+        Object quantiles = config.getDistributionParams() == null ? null : config.getDistributionParams().get("quantiles");
+        return quantiles instanceof List && ((List<?>) quantiles).size() >= 2 ? (List<?>) quantiles : null;
+    }
+    
+    private static void checkDates(ColumnSketch sketch, FieldConfig config, List<VerificationReport.Check> checks) {
+        if (config.getMin() == null || config.getMax() == null || sketch.minText == null
+                || sketch.minText.length() < 10 || sketch.maxText.length() < 10) {
+            return;
+        }
+        // ISO格式的日期按字典序比较即按先后比较，日期生成器的上界不包含在内
+        String observedMin = sketch.minText.substring(0, 10);
+        String observedMax = sketch.maxText.substring(0, 10);
+        checks.add(new VerificationReport.Check("range", "[" + config.getMin() + ", " + config.getMax() + "]",
+                "[" + observedMin + ", " + observedMax + "]",
+                observedMin.compareTo(config.getMin()) >= 0 && observedMax.compareTo(config.getMax()) <= 0));
+    }
+    
+    /**
+     * 观测比例与期望比例之差不超过Z_LIMIT倍标准误差，另留一行的余量
+     */
+    private static boolean withinProportion(double observed, double expected, long n) {
+        if (expected <= 0) {
+            return observed == 0;
+        }
+        return Math.abs(observed - expected) <= Z_LIMIT * Math.sqrt(expected * (1 - expected) / n) + 1.0 / n;
+    }
+    
+    /**
+     * 数值类型的最小间隔：整数为1，DECIMAL按小数位数，浮点数为0
+     */
+    private static double unit(String type, FieldConfig config) {
+        switch (type) {
+            case "INT":
+            case "INTEGER":
+            case "SMALLINT":
+            case "TINYINT":
+            case "BIGINT":
+                return 1;
+            case "DECIMAL":
+            case "NUMBER":
+            case "NUMERIC":
+                return Math.pow(10, -(config.getScale() != null ? config.getScale() : 2));
+            default:
+                return 0;
+        }
+    }
+    
+    private static boolean isTemporal(String type) {
+        return Arrays.asList("DATE", "DATETIME", "TIMESTAMP").contains(type);
+    }
+    
+    private static Double parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return null;
+        }
+        try {
+            return Double.parseDouble(value);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+    
+    private static String format(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return String.valueOf(value);
+        }
+        return BigDecimal.valueOf(value).round(new MathContext(6)).stripTrailingZeros().toPlainString();
+    }
+    
+    /**
+     * 标准正态分布的分位数函数，使用Acklam的有理函数近似，相对误差约1e-9
+     */
+    static double inverseNormal(double p) {
+        double[] a = {-3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+                1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00};
+        double[] b = {-5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+                6.680131188771972e+01, -1.328068155288572e+01};
+        double[] c = {-7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+                -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00};
+        double[] d = {7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00};
+        double low = 0.02425;
+        if (p < low) {
+            double q = Math.sqrt(-2 * Math.log(p));
+            return (((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        if (p > 1 - low) {
+            double q = Math.sqrt(-2 * Math.log(1 - p));
+            return -(((((c[0] * q + c[1]) * q + c[2]) * q + c[3]) * q + c[4]) * q + c[5])
+                    / ((((d[0] * q + d[1]) * q + d[2]) * q + d[3]) * q + 1);
+        }
+        double q = p - 0.5;
+        double r = q * q;
+        return (((((a[0] * r + a[1]) * r + a[2]) * r + a[3]) * r + a[4]) * r + a[5]) * q
+                / (((((b[0] * r + b[1]) * r + b[2]) * r + b[3]) * r + b[4]) * r + 1);
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,147 @@
+package com.oceanbase.datamocker.metrics;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 生成结果校验报告，列出每个字段的观测统计和与字段配置的对比结果
+ */
+@Getter
+public class VerificationReport {
+    
+    private final String tableName;
+    private final long rows;
+    private final List<ColumnReport> columns = new ArrayList<>();
+    
+    VerificationReport(String tableName, long rows) {
+        this.tableName = tableName;
+        this.rows = rows;
+    }
+    
+    /**
+     * 所有字段的所有检查是否都通过
+     */
+    public boolean isPassed() {
+        for (ColumnReport column : columns) {
+            if (!column.isPassed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * 按字段名查找字段报告
+     *
+     * @param name 字段名
+     * @return 字段报告，不存在时为null
+     */
+    public ColumnReport getColumn(String name) {
+        for (ColumnReport column : columns) {
+            if (column.getName().equals(name)) {
+                return column;
+            }
+        }
+        return null;
+    }
+    
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append("Verification of table ").append(tableName).append(" (").append(rows).append(" rows): ")
+                .append(isPassed() ? "PASSED" : "FAILED");
+        for (ColumnReport column : columns) {
+            sb.append("\n  ").append(column.getName()).append(": nulls ")
+                    .append(String.format("%.4f", column.getNullRate())).append(", distinct ~").append(column.getDistinct());
+            if (column.getMin() != null) {
+                sb.append(", min ").append(column.getMin()).append(", max ").append(column.getMax());
+            }
+            if (column.getQuantiles() != null) {
+                sb.append(String.format(", p10/p50/p90 %.4g/%.4g/%.4g",
+                        column.getQuantiles()[0], column.getQuantiles()[1], column.getQuantiles()[2]));
+            }
+            for (Check check : column.getChecks()) {
+                sb.append("\n    [").append(check.isPassed() ? "PASS" : "FAIL").append("] ").append(check.getName())
+                        .append(": expected ").append(check.getExpected()).append(", observed ").append(check.getObserved());
+            }
+        }
+        return sb.toString();
+    }
+    
+    /**
+     * 单个字段的观测统计和检查结果
+     */
+    @Getter
+    public static class ColumnReport {
+        private final String name;
+        private final long count;
+        private final double nullRate;
+        private final long distinct;
+        
+        /**
+         * 观测到的最小、最大值，数值字段为数值，其余为字典序最小、最大的文本
+         */
+        private final String min;
+        private final String max;
+        
+        /**
+         * 数值字段的10%、50%、90%分位数，非数值字段为null
+         */
+        private final double[] quantiles;
+        private final List<Check> checks = new ArrayList<>();
+        
+        ColumnReport(String name, long count, double nullRate, long distinct, String min, String max, double[] quantiles) {
+            this.name = name;
+            this.count = count;
+            this.nullRate = nullRate;
+            this.distinct = distinct;
+            this.min = min;
+            this.max = max;
+            this.quantiles = quantiles;
+        }
+        
+        public boolean isPassed() {
+            for (Check check : checks) {
+                if (!check.isPassed()) {
+                    return false;
+                }
+            }
+            return true;
+        }
+        
+        /**
+         * 按名称查找检查结果
+         *
+         * @param name 检查名称
+         * @return 检查结果，未进行该检查时为null
+         */
+        public Check getCheck(String name) {
+            for (Check check : checks) {
+                if (check.getName().equals(name)) {
+                    return check;
+                }
+            }
+            return null;
+        }
+    }
+    
+    /**
+     * 一项检查：期望值、观测值和是否通过
+     */
+    @Getter
+    public static class Check {
+        private final String name;
+        private final String expected;
+        private final String observed;
+        private final boolean passed;
+        
+        Check(String name, String expected, String observed, boolean passed) {
+            this.name = name;
+            this.expected = expected;
+            this.observed = observed;
+            this.passed = passed;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,254 @@
+package com.oceanbase.datamocker.plan;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.expression.CompiledExpression;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.generator.ValuePool;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 单个字段的编译后生成计划
+ */
+@Getter
+public class ColumnPlan {
+    
+    /**
+     * 字段生成方式
+     */
+    public enum Kind {
+        /**
+         * 由数据生成器独立生成
+         */
+        GENERATED,
+        
+        /**
+         * 由表达式基于同一行的其他字段计算
+         */
+        DERIVED,
+        
+        /**
+         * 根据源字段的取值从映射表中选择
+         */
+        CORRELATED,
+        
+        /**
+         * 按行号递增的序列
+         */
+        SEQUENCE
+    }
+    
+    private final int index;
+    private final String name;
+    private final FieldConfig fieldConfig;
+    private final Kind kind;
+    private final boolean output;
+    private final CompiledExpression expression;
+    private final int sourceIndex;
+    private final Map<String, String[]> valueMapping;
+    private final List<CompiledRule> conditions;
+    private final Set<String> dependencies;
+    private final DataGenerator generator;
+    private final long sequenceStart;
+    private final ValuePool valuePool;
+    
+    /**
+     * 空值位图，字段不生成空值或空值不由本计划决定时为null
+     */
+    private final NullMask nullMask;
+    
+    /**
+     * 调用字段生成器时使用的配置，空值由位图决定时不再让生成器逐个单元格抽取空值
+     */
+    private final FieldConfig generationConfig;
+    
+    /**
+     * 空值位图在线程缓存中的槽位，在计划发布前设置
+     */
+    private int nullSlot = -1;
+    
+    /**
+     * 运行指标，在计划发布前设置，未启用指标时为null
+     */
+    private MockerMetrics.ColumnTimer timer;
+    private LongAdder generatorCalls;
+    
+    ColumnPlan(int index, String name, FieldConfig fieldConfig, Kind kind, boolean output,
+               CompiledExpression expression, int sourceIndex, List<CompiledRule> conditions,
+               DataGenerator generator, ValuePool valuePool) {
+        this.index = index;
+        this.name = name;
+        this.fieldConfig = fieldConfig;
+        this.kind = kind;
+        this.output = output;
+        this.expression = expression;
+        this.sourceIndex = sourceIndex;
+        this.valueMapping = fieldConfig.getValueMapping();
+        this.conditions = conditions;
+        this.generator = generator;
+        this.valuePool = valuePool;
+        this.sequenceStart = kind == Kind.SEQUENCE ? parseSequenceStart(name, fieldConfig) : 0L;
+        this.nullMask = (kind == Kind.GENERATED || kind == Kind.CORRELATED)
+                && fieldConfig.isAllowNull() && fieldConfig.getNullRate() > 0
+                ? new NullMask(name, fieldConfig.getNullRate()) : null;
+        this.generationConfig = nullMask != null ? fieldConfig.withoutNulls() : fieldConfig;
+        
+        Set<String> deps = new LinkedHashSet<>();
+        if (expression != null) {
+            deps.addAll(expression.getReferences());
+        }
+        if (kind == Kind.CORRELATED) {
+            deps.add(fieldConfig.getCorrelatedWith());
+        }
+        for (CompiledRule rule : conditions) {
+            deps.addAll(rule.getWhen().getReferences());
+        }
+        deps.remove(name);
+        this.dependencies = Collections.unmodifiableSet(deps);
+    }
+    
+    /**
+     * 返回使用指定值池采样的字段计划
+     */
+    ColumnPlan withValuePool(ValuePool pool) {
+        return new ColumnPlan(index, name, fieldConfig, kind, output, expression, sourceIndex, conditions, generator, pool);
+    }
+    
+    /**
+     * 设置空值位图的缓存槽位
+     */
+    void assignNullSlot(int slot) {
+        this.nullSlot = slot;
+    }
+    
+    /**
+     * 为字段关联运行指标
+     */
+    void instrument(MockerMetrics metrics, String tableName) {
+        if (metrics.isEnabled()) {
+            timer = metrics.columnTimer(tableName, name);
+            generatorCalls = metrics.generatorCounter(generator.getClass().getName());
+        }
+    }
+    
+    /**
+     * 生成当前行中本字段的值，调用前本字段依赖的字段必须已经生成
+     *
+     * @param row 当前行
+     * @param rowIndex 行号
+     * @param random 随机数生成器
+     * @param nulls 当前线程缓存的空值位图，没有字段使用位图时为null
+     * @return 字段值
+     */
+    Object generate(Object[] row, long rowIndex, Random random, NullBlocks nulls) {
+        for (CompiledRule rule : conditions) {
+            if (rule.getWhen().test(row, rowIndex, random)) {
+                countGeneratorCall();
+                return rule.getGenerator().generate(name, rule.getConfig());
+            }
+        }
+        
+        switch (kind) {
+            case DERIVED:
+                return expression.evaluate(row, rowIndex, random);
+            case SEQUENCE:
+                return formatSequence(sequenceStart + rowIndex);
+            case CORRELATED:
+                if (nullMask != null && nulls.isNull(nullSlot, nullMask, rowIndex)) {
+                    return null;
+                }
+                Object source = row[sourceIndex];
+                String[] candidates = source == null || valueMapping == null ? null : valueMapping.get(source.toString());
+                if (candidates != null && candidates.length > 0) {
+                    return candidates[random.nextInt(candidates.length)];
+                }
+                // 源字段的取值没有对应的映射时，按本字段的配置独立生成
+                countGeneratorCall();
+                return generator.generate(name, generationConfig);
+            case GENERATED:
+            default:
+                if (fieldConfig.getDefaultValue() != null && fieldConfig.getDefaultRate() > 0
+                        && random.nextDouble() < fieldConfig.getDefaultRate()) {
+                    return fieldConfig.getDefaultValue();
+                }
+                if (nullMask != null && nulls.isNull(nullSlot, nullMask, rowIndex)) {
+                    return null;
+                }
+                if (valuePool != null) {
+                    return valuePool.sample(random);
+                }
+                countGeneratorCall();
+                return generator.generate(name, generationConfig);
+        }
+    }
+    
+    private void countGeneratorCall() {
+        if (generatorCalls != null) {
+            generatorCalls.increment();
+        }
+    }
+    
+    private static long parseSequenceStart(String name, FieldConfig fieldConfig) {
+        if (fieldConfig.getMin() == null || fieldConfig.getMin().isEmpty()) {
+            return 1L;
+        }
+        try {
+            return new BigDecimal(fieldConfig.getMin()).longValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid sequence start '" + fieldConfig.getMin() + "' for field " + name);
+        }
+    }
+    
+    /**
+     * 按字段类型转换序列值，与NumberDataGenerator输出的数值类型保持一致
+     */
+    private Object formatSequence(long value) {
+        String type = fieldConfig.getType() == null ? "" : fieldConfig.getType().toUpperCase();
+        switch (type) {
+            case "INT":
+            case "INTEGER":
+                return (int) value;
+            case "SMALLINT":
+                return (short) value;
+            case "TINYINT":
+                return (byte) value;
+            case "BIGINT":
+                return value;
+            case "FLOAT":
+                return (float) value;
+            case "DOUBLE":
+                return (double) value;
+            case "DECIMAL":
+            case "NUMBER":
+            case "NUMERIC":
+                return BigDecimal.valueOf(value);
+            default:
+                return String.valueOf(value);
+        }
+    }
+    
+    /**
+     * 编译后的条件规则
+     */
+    @Getter
+    static class CompiledRule {
+        private final CompiledExpression when;
+        private final FieldConfig config;
+        private final DataGenerator generator;
+        
+        CompiledRule(CompiledExpression when, FieldConfig config, DataGenerator generator) {
+            this.when = when;
+            this.config = config;
+            this.generator = generator;
+        }
+    }
+} 
\ No newline at end of file
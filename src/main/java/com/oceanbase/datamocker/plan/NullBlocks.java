@@ -0,0 +1,57 @@
+package com.oceanbase.datamocker.plan;
+
+import java.util.Arrays;
+
+/**
+ * 单个线程缓存的各字段当前块的空值位图，每行只获取一次，行内各字段按槽位直接访问。
+ * 只有按行号连续生成时才填充整块的位图；按随机行号生成（如按主键排序后重新生成、变更流选取已有的行）时
+ * 直接计算该行是否为空值，不会每行都重新填充整块
+ */
+final class NullBlocks {
+    
+    private final long[][] words;
+    private final long[] blocks;
+    private final long[] seeds;
+    private final long[] lastRows;
+    private long seed;
+    
+    /**
+     * 填充整块位图的次数，用于测试
+     */
+    long fills;
+    
+    NullBlocks(int slots) {
+        this.words = new long[slots][NullMask.BLOCK_WORDS];
+        this.blocks = new long[slots];
+        this.seeds = new long[slots];
+        this.lastRows = new long[slots];
+        Arrays.fill(blocks, -1L);
+        Arrays.fill(lastRows, -2L);
+    }
+    
+    /**
+     * 设置后续行使用的位图种子
+     */
+    void setSeed(long seed) {
+        this.seed = seed;
+    }
+    
+    /**
+     * 判断字段在某一行是否为空值，行号紧接着上一次访问的行并离开了缓存的块或种子变化时重新填充该字段的位图
+     */
+    boolean isNull(int slot, NullMask mask, long rowIndex) {
+        long block = rowIndex >>> NullMask.BLOCK_SHIFT;
+        boolean sequential = rowIndex == lastRows[slot] + 1;
+        lastRows[slot] = rowIndex;
+        if (blocks[slot] != block || seeds[slot] != seed) {
+            if (!sequential) {
+                return mask.isNull(seed, rowIndex);
+            }
+            mask.fill(seed, block, words[slot]);
+            blocks[slot] = block;
+            seeds[slot] = seed;
+            fills++;
+        }
+        return NullMask.isNull(words[slot], rowIndex);
+    }
+} 
\ No newline at end of file
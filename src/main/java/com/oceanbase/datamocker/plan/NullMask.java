@@ -0,0 +1,159 @@
+package com.oceanbase.datamocker.plan;
+
+import com.oceanbase.datamocker.generator.FastRandom;
+import com.oceanbase.datamocker.generator.RandomStreams;
+
+/**
+ * 字段的空值位图
+ * 以BLOCK_ROWS行为一块缓存空值位图，不再为每个单元格抽取随机数：块内每64行（一个long）使用独立的随机序列，
+ * 相邻两个空值之间的间隔服从几何分布，每个空值只消耗一次随机数；空值比例超过一半时改为对非空值采样后取反，
+ * 因此极稀疏的字段同样只需少量随机数。采样事件的比例较高时几何采样不再省事，改为每行计算一次哈希。
+ * 位图只由种子、字段名和行号决定，与生成线程和生成顺序无关，批量或列式输出可以直接按块获取位图，
+ * 按随机行号生成时也可以通过 {@link #isNull(long, long)} 只计算一行所在的64行，不必填充整块
+ */
+public final class NullMask {
+    
+    /**
+     * 每块行数的二进制位数
+     */
+    public static final int BLOCK_SHIFT = 12;
+    
+    /**
+     * 每块的行数
+     */
+    public static final int BLOCK_ROWS = 1 << BLOCK_SHIFT;
+    
+    /**
+     * 每块位图的long个数
+     */
+    public static final int BLOCK_WORDS = BLOCK_ROWS >>> 6;
+    
+    /**
+     * 采样事件的比例超过该值时每行计算一次哈希，随机访问一行的开销也因此不超过几次随机数
+     */
+    private static final double DENSE_RATE = 1.0 / 16;
+    
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+    
+    private final String fieldName;
+    private final double nullRate;
+    
+    /**
+     * 采样的是非空值，位图需要取反
+     */
+    private final boolean inverted;
+    
+    /**
+     * 每行计算一次哈希，不做几何采样
+     */
+    private final boolean dense;
+    
+    /**
+     * ln(1 - p)，p为采样事件（空值或非空值中较少的一方）的比例
+     */
+    private final double logComplement;
+    
+    /**
+     * 创建空值位图
+     *
+     * @param fieldName 字段名，用于区分同一张表中不同字段的位图
+     * @param nullRate 空值比例，取值范围0-1
+     */
+    public NullMask(String fieldName, double nullRate) {
+        this.fieldName = fieldName;
+        this.nullRate = Math.min(1.0, Math.max(0.0, nullRate));
+        this.inverted = this.nullRate > 0.5;
+        double rate = inverted ? 1.0 - this.nullRate : this.nullRate;
+        this.dense = rate > DENSE_RATE;
+        this.logComplement = Math.log1p(-rate);
+    }
+    
+    public double getNullRate() {
+        return nullRate;
+    }
+    
+    /**
+     * 填充一块的空值位图，第i位为1表示该块的第i行为空值
+     *
+     * @param seed 种子
+     * @param block 块号，即行号右移BLOCK_SHIFT位
+     * @param words 位图，长度至少为BLOCK_WORDS
+     * @return 填充后的位图
+     */
+    public long[] fill(long seed, long block, long[] words) {
+        long fieldSeed = RandomStreams.derive(seed, fieldName);
+        long firstWord = block * BLOCK_WORDS;
+        for (int i = 0; i < BLOCK_WORDS; i++) {
+            words[i] = word(fieldSeed, firstWord + i);
+        }
+        return words;
+    }
+    
+    /**
+     * 判断某一行是否为空值，结果与 {@link #fill(long, long, long[])} 得到的位图一致，只计算该行所在的64行
+     *
+     * @param seed 种子
+     * @param rowIndex 行号
+     * @return 是否为空值
+     */
+    public boolean isNull(long seed, long rowIndex) {
+        long fieldSeed = RandomStreams.derive(seed, fieldName);
+        if (dense) {
+            return denseNull(fieldSeed, rowIndex);
+        }
+        return (word(fieldSeed, rowIndex >>> 6) & (1L << rowIndex)) != 0;
+    }
+    
+    /**
+     * 判断位图中某一行是否为空值
+     *
+     * @param words 行所在块的位图
+     * @param rowIndex 行号
+     * @return 是否为空值
+     */
+    public static boolean isNull(long[] words, long rowIndex) {
+        int offset = (int) (rowIndex & (BLOCK_ROWS - 1));
+        return (words[offset >>> 6] & (1L << offset)) != 0;
+    }
+    
+    /**
+     * 生成第wordIndex个64行的位图
+     */
+    private long word(long fieldSeed, long wordIndex) {
+        long firstRow = wordIndex << 6;
+        long bits = 0;
+        if (dense) {
+            for (int i = 0; i < 64; i++) {
+                if (denseNull(fieldSeed, firstRow + i)) {
+                    bits |= 1L << i;
+                }
+            }
+            return bits;
+        }
+        if (logComplement != 0) {
+            long state = RandomStreams.rowSeed(fieldSeed, wordIndex);
+            long position = -1;
+            while (true) {
+                state += GOLDEN_GAMMA;
+                position += 1 + skip(FastRandom.mix(state));
+                if (position >= 64) {
+                    break;
+                }
+                bits |= 1L << position;
+            }
+        }
+        return inverted ? ~bits : bits;
+    }
+    
+    private boolean denseNull(long fieldSeed, long rowIndex) {
+        return (RandomStreams.rowSeed(fieldSeed, rowIndex) >>> 11) * 0x1.0p-53 < nullRate;
+    }
+    
+    /**
+     * 由一个随机数采样到下一个事件之前跳过的行数
+     */
+    private long skip(long random) {
+        double gap = Math.log(1.0 - (random >>> 11) * 0x1.0p-53) / logComplement;
+        return gap < 64 ? (long) gap : 64;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,538 @@
+package com.oceanbase.datamocker.plan;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.expression.CompiledExpression;
+import com.oceanbase.datamocker.expression.ExpressionCompiler;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.generator.DataGeneratorFactory;
+import com.oceanbase.datamocker.generator.FastRandom;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.generator.ValuePoolCache;
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import com.oceanbase.datamocker.metrics.OutputVerifier;
+import com.oceanbase.datamocker.sink.RowSink;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 表的编译后生成计划
+ * 在生成数据前一次性完成字段配置解析、表达式编译和字段依赖排序，逐行生成时按依赖顺序填充字段值
+ */
+@Slf4j
+@Getter
+public class TablePlan {
+    
+    private final String tableName;
+    
+    /**
+     * 参与生成的字段，按声明顺序排列
+     */
+    private final List<ColumnPlan> columns;
+    
+    /**
+     * 按依赖关系排序后的生成顺序
+     */
+    private final ColumnPlan[] generationOrder;
+    
+    /**
+     * 输出字段名，按声明顺序排列
+     */
+    private final List<String> outputColumns;
+    
+    /**
+     * 输出字段在行数组中的下标
+     */
+    private final int[] outputIndexes;
+    
+    /**
+     * 行数组的宽度（等于声明的字段数）
+     */
+    private final int width;
+    
+    /**
+     * 输出字段是否恰好为全部字段
+     */
+    private final boolean identityOutput;
+    
+    /**
+     * 运行指标
+     */
+    private final MockerMetrics metrics;
+    
+    /**
+     * 生成结果校验，未启用时为null
+     */
+    private final OutputVerifier verifier;
+    
+    /**
+     * 使用空值位图的字段数
+     */
+    private final int nullSlots;
+    
+    /**
+     * 未指定种子时空值位图使用的种子，编译时随机选择
+     */
+    private final long nullSeed;
+    
+    /**
+     * 各线程缓存的空值位图
+     */
+    @Getter(AccessLevel.NONE)
+    private final ThreadLocal<NullBlocks> nullBlocks;
+    
+    private TablePlan(String tableName, List<ColumnPlan> columns, ColumnPlan[] generationOrder, int width,
+                      MockerMetrics metrics, Integer verifySampleInterval) {
+        this.tableName = tableName;
+        this.metrics = metrics;
+        this.columns = Collections.unmodifiableList(columns);
+        this.generationOrder = generationOrder;
+        this.width = width;
+        
+        List<String> names = new ArrayList<>();
+        List<Integer> indexes = new ArrayList<>();
+        for (ColumnPlan column : columns) {
+            if (column.isOutput()) {
+                names.add(column.getName());
+                indexes.add(column.getIndex());
+            }
+        }
+        this.outputColumns = Collections.unmodifiableList(names);
+        this.outputIndexes = indexes.stream().mapToInt(Integer::intValue).toArray();
+        this.identityOutput = outputIndexes.length == width;
+        
+        int slots = 0;
+        for (ColumnPlan column : columns) {
+            if (column.getNullMask() != null) {
+                column.assignNullSlot(slots++);
+            }
+        }
+        this.verifier = verifySampleInterval != null ? createVerifier(tableName, columns, verifySampleInterval) : null;
+        
+        int slotCount = slots;
+        this.nullSlots = slotCount;
+        this.nullSeed = ThreadLocalRandom.current().nextLong();
+        this.nullBlocks = ThreadLocal.withInitial(() -> new NullBlocks(slotCount));
+    }
+    
+    /**
+     * 编译表的生成计划
+     *
+     * @param tableName 表名
+     * @param fieldNames 字段名列表
+     * @param fieldTypes 字段类型列表
+     * @param config 配置
+     * @param generator 字段值生成器
+     * @return 生成计划
+     * @throws IllegalArgumentException 字段定义不合法、表达式错误或字段之间存在循环依赖
+     */
+    public static TablePlan compile(String tableName, List<String> fieldNames, List<String> fieldTypes,
+                                    MockerConfig config, DataGenerator generator) {
+        return compile(tableName, fieldNames, fieldTypes, config, generator, new ValuePoolCache(), MockerMetrics.DISABLED);
+    }
+    
+    /**
+     * 编译表的生成计划，配置了值池的字段从缓存中获取值池
+     *
+     * @param tableName 表名
+     * @param fieldNames 字段名列表
+     * @param fieldTypes 字段类型列表
+     * @param config 配置
+     * @param generator 字段值生成器
+     * @param valuePools 值池缓存
+     * @param metrics 运行指标
+     * @return 生成计划
+     * @throws IllegalArgumentException 字段定义不合法、表达式错误或字段之间存在循环依赖
+     */
+    public static TablePlan compile(String tableName, List<String> fieldNames, List<String> fieldTypes,
+                                    MockerConfig config, DataGenerator generator, ValuePoolCache valuePools,
+                                    MockerMetrics metrics) {
+        if (fieldNames.size() != fieldTypes.size()) {
+            throw new IllegalArgumentException("Field names and types must have the same size");
+        }
+        
+        Map<String, Integer> columnIndexes = new HashMap<>();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            if (columnIndexes.put(fieldNames.get(i), i) != null) {
+                throw new IllegalArgumentException("Duplicate field name: " + fieldNames.get(i));
+            }
+        }
+        
+        Set<String> excludeFields = new HashSet<>(Arrays.asList(config.getExcludeFields()));
+        ExpressionCompiler compiler = new ExpressionCompiler(columnIndexes);
+        
+        // 编译全部字段，被排除的字段只有在被其他字段引用时才会参与生成
+        Map<String, ColumnPlan> plans = new LinkedHashMap<>();
+        for (int i = 0; i < fieldNames.size(); i++) {
+            String fieldName = fieldNames.get(i);
+            FieldConfig fieldConfig = getFieldConfig(config, fieldName, fieldTypes.get(i));
+            plans.put(fieldName, compileColumn(i, fieldName, fieldConfig, !excludeFields.contains(fieldName),
+                    compiler, columnIndexes, generator));
+        }
+        
+        Set<String> required = new HashSet<>();
+        Deque<String> pending = new ArrayDeque<>();
+        for (ColumnPlan plan : plans.values()) {
+            if (plan.isOutput()) {
+                pending.add(plan.getName());
+            }
+        }
+        while (!pending.isEmpty()) {
+            String name = pending.poll();
+            if (required.add(name)) {
+                pending.addAll(plans.get(name).getDependencies());
+            }
+        }
+        
+        List<ColumnPlan> columns = new ArrayList<>();
+        for (ColumnPlan plan : plans.values()) {
+            if (required.contains(plan.getName())) {
+                columns.add(plan.getKind() == ColumnPlan.Kind.GENERATED && plan.getFieldConfig().getValuePool() != null
+                        ? plan.withValuePool(valuePools.get(tableName, plan.getName(), plan.getFieldConfig(), plan.getGenerator(), config.getSeed()))
+                        : plan);
+            }
+        }
+        
+        ColumnPlan[] order = sortByDependency(tableName, columns);
+        for (ColumnPlan column : columns) {
+            column.instrument(metrics, tableName);
+        }
+        log.debug("Compiled plan for table {}: generation order {}", tableName, describe(order));
+        return new TablePlan(tableName, columns, order, fieldNames.size(), metrics,
+                config.getMetrics() != null && config.getMetrics().isVerify() ? config.getMetrics().getVerifySampleInterval() : null);
+    }
+    
+    /**
+     * 为参与生成的字段创建校验器，只有独立生成或按序列生成的字段与字段配置对比，其余字段只统计
+     */
+    private static OutputVerifier createVerifier(String tableName, List<ColumnPlan> columns, int sampleInterval) {
+        List<String> names = new ArrayList<>();
+        int[] indexes = new int[columns.size()];
+        List<FieldConfig> configs = new ArrayList<>();
+        for (int i = 0; i < columns.size(); i++) {
+            ColumnPlan column = columns.get(i);
+            names.add(column.getName());
+            indexes[i] = column.getIndex();
+            boolean checked = (column.getKind() == ColumnPlan.Kind.GENERATED && column.getConditions().isEmpty())
+                    || column.getKind() == ColumnPlan.Kind.SEQUENCE;
+            configs.add(checked ? column.getFieldConfig() : null);
+        }
+        return new OutputVerifier(tableName, names, indexes, configs, sampleInterval);
+    }
+    
+    /**
+     * 生成一行数据，字段生成器使用调用线程的随机流，计划本身可以被多个线程同时使用
+     * 空值位图使用编译时随机选择的种子，同一计划下相同行号的空值位置相同
+     *
+     * @param rowIndex 行号
+     * @param random 随机数生成器
+     * @return 行数组，下标为字段的声明位置，未参与生成的字段为null
+     */
+    public Object[] generateRow(long rowIndex, Random random) {
+        return generateRow(rowIndex, random, nullSeed);
+    }
+    
+    /**
+     * 生成一行数据，空值位置由空值位图的种子和行号决定，与随机数生成器无关
+     *
+     * @param rowIndex 行号
+     * @param random 随机数生成器
+     * @param nullSeed 空值位图的种子，连续生成的行应使用同一个种子以复用缓存的位图
+     * @return 行数组，下标为字段的声明位置，未参与生成的字段为null
+     */
+    public Object[] generateRow(long rowIndex, Random random, long nullSeed) {
+        Object[] row = new Object[width];
+        NullBlocks nulls = null;
+        if (nullSlots > 0) {
+            nulls = nullBlocks.get();
+            nulls.setSeed(nullSeed);
+        }
+        if (metrics.isEnabled()) {
+            metrics.addRows(1);
+            if (metrics.shouldSample(rowIndex)) {
+                generateSampled(row, rowIndex, random, nulls);
+                return observe(row);
+            }
+        }
+        for (ColumnPlan column : generationOrder) {
+            row[column.getIndex()] = column.generate(row, rowIndex, random, nulls);
+        }
+        return observe(row);
+    }
+    
+    private Object[] observe(Object[] row) {
+        if (verifier != null) {
+            verifier.observe(row);
+        }
+        return row;
+    }
+    
+    /**
+     * 生成采样行并记录各字段的耗时，生成阶段的总耗时按采样间隔放大估算
+     */
+    private void generateSampled(Object[] row, long rowIndex, Random random, NullBlocks nulls) {
+        long rowStart = System.nanoTime();
+        long start = rowStart;
+        for (ColumnPlan column : generationOrder) {
+            row[column.getIndex()] = column.generate(row, rowIndex, random, nulls);
+            long end = System.nanoTime();
+            column.getTimer().record(end - start);
+            start = end;
+        }
+        metrics.addPhaseNanos(MockerMetrics.Phase.GENERATE, (start - rowStart) * metrics.getSampleInterval());
+    }
+    
+    /**
+     * 使用由种子和行号派生的随机流生成一行数据，同一种子下每行的结果与调用线程和生成顺序无关
+     *
+     * @param rowIndex 行号
+     * @param seed 表的种子
+     * @return 行数组
+     */
+    public Object[] generateRow(long rowIndex, long seed) {
+        FastRandom random = RandomStreams.current();
+        random.setSeed(RandomStreams.rowSeed(seed, rowIndex));
+        return generateRow(rowIndex, random, seed);
+    }
+    
+    /**
+     * 生成一行数据但不计入运行指标和校验统计，结果与generateRow(rowIndex, seed)相同，用于估算行宽等预览场景
+     *
+     * @param rowIndex 行号
+     * @param seed 表的种子
+     * @return 行数组
+     */
+    public Object[] previewRow(long rowIndex, long seed) {
+        FastRandom random = RandomStreams.current();
+        random.setSeed(RandomStreams.rowSeed(seed, rowIndex));
+        Object[] row = new Object[width];
+        NullBlocks nulls = null;
+        if (nullSlots > 0) {
+            nulls = nullBlocks.get();
+            nulls.setSeed(seed);
+        }
+        for (ColumnPlan column : generationOrder) {
+            row[column.getIndex()] = column.generate(row, rowIndex, random, nulls);
+        }
+        return row;
+    }
+    
+    /**
+     * 提取行数组中的输出字段值，按输出字段顺序排列；没有隐藏字段时直接返回原数组
+     *
+     * @param row 行数组
+     * @return 输出字段值
+     */
+    public Object[] toOutput(Object[] row) {
+        if (identityOutput) {
+            return row;
+        }
+        Object[] values = new Object[outputIndexes.length];
+        for (int i = 0; i < outputIndexes.length; i++) {
+            values[i] = row[outputIndexes[i]];
+        }
+        return values;
+    }
+    
+    /**
+     * 将行的输出字段写入输出端，采样行记录写出的耗时，写出阶段的总耗时按采样间隔放大估算
+     *
+     * @param sink 输出端
+     * @param row 行数组
+     * @param rowIndex 行号
+     * @throws IOException 写出失败
+     */
+    public void writeRow(RowSink sink, Object[] row, long rowIndex) throws IOException {
+        if (!metrics.shouldSample(rowIndex)) {
+            sink.write(toOutput(row));
+            return;
+        }
+        long start = System.nanoTime();
+        sink.write(toOutput(row));
+        metrics.addPhaseNanos(MockerMetrics.Phase.WRITE, (System.nanoTime() - start) * metrics.getSampleInterval());
+    }
+    
+    /**
+     * 刷新输出端并记录刷新阶段的耗时
+     *
+     * @param sink 输出端
+     * @throws IOException 写出失败
+     */
+    public void flush(RowSink sink) throws IOException {
+        long start = System.nanoTime();
+        sink.flush();
+        metrics.addPhaseNanos(MockerMetrics.Phase.FLUSH, System.nanoTime() - start);
+    }
+    
+    /**
+     * 将行数组转换为按声明顺序排列的输出Map
+     *
+     * @param row 行数组
+     * @return 输出行，key为字段名
+     */
+    public Map<String, Object> toMap(Object[] row) {
+        return toMap(row, false);
+    }
+    
+    /**
+     * 将行数组转换为按声明顺序排列的输出Map，稀疏的宽表可以省略空值字段以减少内存占用
+     *
+     * @param row 行数组
+     * @param omitNulls 是否省略值为null的字段
+     * @return 输出行，key为字段名
+     */
+    public Map<String, Object> toMap(Object[] row, boolean omitNulls) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        for (int i = 0; i < outputIndexes.length; i++) {
+            Object value = row[outputIndexes[i]];
+            if (value != null || !omitNulls) {
+                result.put(outputColumns.get(i), value);
+            }
+        }
+        return result;
+    }
+    
+    private static ColumnPlan compileColumn(int index, String fieldName, FieldConfig fieldConfig, boolean output,
+                                            ExpressionCompiler compiler, Map<String, Integer> columnIndexes,
+                                            DataGenerator generator) {
+        List<ColumnPlan.CompiledRule> rules = new ArrayList<>();
+        if (fieldConfig.getConditions() != null) {
+            for (FieldConfig.ConditionalRule rule : fieldConfig.getConditions()) {
+                if (rule.getWhen() == null || rule.getThen() == null) {
+                    throw new IllegalArgumentException("Conditional rule of field '" + fieldName + "' requires both 'when' and 'then'");
+                }
+                FieldConfig then = rule.getThen();
+                if (then.getType() == null || then.getType().isEmpty()) {
+                    then.setType(fieldConfig.getType());
+                }
+                rules.add(new ColumnPlan.CompiledRule(compiler.compile(rule.getWhen()), then, resolveGenerator(fieldName, then, generator)));
+            }
+        }
+        
+        // 生成器在编译时解析一次，逐行生成时不再进行类型分发和语义推断
+        boolean derived = fieldConfig.getExpression() != null && !fieldConfig.getExpression().trim().isEmpty();
+        boolean correlated = fieldConfig.getCorrelatedWith() != null && !fieldConfig.getCorrelatedWith().isEmpty();
+        DataGenerator columnGenerator = derived || (!correlated && fieldConfig.isSequence())
+                ? generator : resolveGenerator(fieldName, fieldConfig, generator);
+        
+        if (derived) {
+            CompiledExpression expression = compiler.compile(fieldConfig.getExpression());
+            return new ColumnPlan(index, fieldName, fieldConfig, ColumnPlan.Kind.DERIVED, output, expression, -1, rules, columnGenerator, null);
+        }
+        
+        String source = fieldConfig.getCorrelatedWith();
+        if (correlated) {
+            Integer sourceIndex = columnIndexes.get(source);
+            if (sourceIndex == null) {
+                throw new IllegalArgumentException("Field '" + fieldName + "' is correlated with unknown field '" + source + "'");
+            }
+            return new ColumnPlan(index, fieldName, fieldConfig, ColumnPlan.Kind.CORRELATED, output, null, sourceIndex, rules, columnGenerator, null);
+        }
+        
+        if (fieldConfig.isSequence()) {
+            return new ColumnPlan(index, fieldName, fieldConfig, ColumnPlan.Kind.SEQUENCE, output, null, -1, rules, columnGenerator, null);
+        }
+        
+        return new ColumnPlan(index, fieldName, fieldConfig, ColumnPlan.Kind.GENERATED, output, null, -1, rules, columnGenerator, null);
+    }
+    
+    /**
+     * 解析字段实际使用的生成器，配置了自定义生成器类时为该字段创建一个实例
+     */
+    private static DataGenerator resolveGenerator(String fieldName, FieldConfig fieldConfig, DataGenerator generator) {
+        String className = fieldConfig.getCustomGeneratorClass();
+        if (className != null && !className.trim().isEmpty()) {
+            return DataGeneratorFactory.createCustomGenerator(className.trim(), fieldConfig.getCustomGeneratorParams());
+        }
+        return generator.resolve(fieldName, fieldConfig);
+    }
+    
+    /**
+     * 按字段依赖关系进行拓扑排序，无依赖关系的字段保持声明顺序
+     */
+    private static ColumnPlan[] sortByDependency(String tableName, List<ColumnPlan> columns) {
+        Map<String, Integer> inDegree = new HashMap<>();
+        Map<String, List<ColumnPlan>> dependents = new HashMap<>();
+        for (ColumnPlan column : columns) {
+            inDegree.put(column.getName(), column.getDependencies().size());
+            for (String dependency : column.getDependencies()) {
+                dependents.computeIfAbsent(dependency, k -> new ArrayList<>()).add(column);
+            }
+        }
+        
+        List<ColumnPlan> ordered = new ArrayList<>(columns.size());
+        List<ColumnPlan> remaining = new ArrayList<>(columns);
+        while (!remaining.isEmpty()) {
+            ColumnPlan next = null;
+            for (ColumnPlan column : remaining) {
+                if (inDegree.get(column.getName()) == 0) {
+                    next = column;
+                    break;
+                }
+            }
+            if (next == null) {
+                List<String> cycle = new ArrayList<>();
+                for (ColumnPlan column : remaining) {
+                    cycle.add(column.getName());
+                }
+                throw new IllegalArgumentException("Circular dependency among fields of table " + tableName + ": " + cycle);
+            }
+            remaining.remove(next);
+            ordered.add(next);
+            for (ColumnPlan dependent : dependents.getOrDefault(next.getName(), Collections.emptyList())) {
+                inDegree.merge(dependent.getName(), -1, Integer::sum);
+            }
+        }
+        return ordered.toArray(new ColumnPlan[0]);
+    }
+    
+    /**
+     * 获取字段配置
+     *
+     * @param config 配置
+     * @param fieldName 字段名
+     * @param fieldType 字段类型
+     * @return 字段配置
+     */
+    private static FieldConfig getFieldConfig(MockerConfig config, String fieldName, String fieldType) {
+        // 如果配置中有该字段的配置，使用配置中的
+        FieldConfig fieldConfig = config.getFieldConfigs().get(fieldName);
+        if (fieldConfig != null) {
+            // 确保类型已设置
+            if (fieldConfig.getType() == null || fieldConfig.getType().isEmpty()) {
+                fieldConfig.setType(fieldType);
+            }
+            return fieldConfig;
+        }
+        
+        // 否则创建一个新的配置
+        fieldConfig = new FieldConfig();
+        fieldConfig.setType(fieldType);
+        
+        return fieldConfig;
+    }
+    
+    private static List<String> describe(ColumnPlan[] order) {
+        List<String> names = new ArrayList<>(order.length);
+        for (ColumnPlan column : order) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,194 @@
+package com.oceanbase.datamocker.profile;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.yaml.YAMLFactory;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.job.SchemaJobSpec;
+import lombok.Data;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * 内置的基准测试表结构模板
+ * 模板包含DDL、各表在规模因子为1时的行数以及字段配置，按规模因子展开为多表生成作业。
+ * 字段配置的表达式和取值范围中可以使用 ${scale} 和 ${rows.表名} 引用规模因子和展开后的行数
+ */
+@Data
+public class SchemaProfile {
+    
+    /**
+     * 内置模板的名称，对应类路径下的 profiles/<名称>.yaml
+     */
+    public static final List<String> BUILT_IN = Collections.unmodifiableList(Arrays.asList("tpcc", "tpch"));
+    
+    private static final Pattern PLACEHOLDER = Pattern.compile("\\$\\{(scale|rows\\.([A-Za-z0-9_]+))}");
+    
+    /**
+     * 模板名称
+     */
+    private String name;
+    
+    /**
+     * 模板说明，包括规模因子的含义以及与标准规范的差异
+     */
+    private String description;
+    
+    /**
+     * 规模因子是否必须为整数，如TPC-C的仓库数
+     */
+    private boolean integralScale = false;
+    
+    /**
+     * 建表语句
+     */
+    private String ddl;
+    
+    /**
+     * 各表的行数和字段配置，被per引用的表需要排在前面
+     */
+    private List<ProfileTable> tables = new ArrayList<>();
+    
+    /**
+     * 模板中的一张表
+     */
+    @Data
+    public static class ProfileTable {
+        /**
+         * 表名
+         */
+        private String name;
+        
+        /**
+         * 规模因子为1时的行数；设置了per时为每行被引用表对应的行数
+         */
+        private double rows;
+        
+        /**
+         * 行数是否随规模因子线性增长，为false时固定为rows
+         */
+        private boolean scaled = true;
+        
+        /**
+         * 行数按另一张表的行数倍增，如每个订单4个明细
+         */
+        private String per;
+        
+        /**
+         * 字段配置，覆盖从DDL推导的配置
+         */
+        private Map<String, FieldConfig> fields = new LinkedHashMap<>();
+    }
+    
+    /**
+     * 加载内置模板
+     *
+     * @param name 模板名称，忽略大小写
+     * @return 模板
+     * @throws IllegalArgumentException 模板不存在
+     */
+    public static SchemaProfile load(String name) {
+        String resource = "profiles/" + name.toLowerCase() + ".yaml";
+        try (InputStream in = SchemaProfile.class.getClassLoader().getResourceAsStream(resource)) {
+            if (in == null) {
+                throw new IllegalArgumentException("Unknown schema profile: " + name + ", expected one of " + BUILT_IN);
+            }
+            ObjectMapper mapper = new ObjectMapper(new YAMLFactory())
+                    .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, true);
+            return mapper.readValue(in, SchemaProfile.class);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load schema profile " + resource, e);
+        }
+    }
+    
+    /**
+     * 计算各表在指定规模因子下的行数
+     *
+     * @param scaleFactor 规模因子
+     * @return 表名到行数的映射，按模板中的顺序排列
+     */
+    public Map<String, Long> rowCounts(double scaleFactor) {
+        if (!(scaleFactor > 0) || (integralScale && scaleFactor != Math.rint(scaleFactor))) {
+            throw new IllegalArgumentException("Scale factor of profile " + name + " must be a positive "
+                    + (integralScale ? "integer" : "number") + ": " + scaleFactor);
+        }
+        Map<String, Long> rows = new LinkedHashMap<>();
+        for (ProfileTable table : tables) {
+            double count;
+            if (table.getPer() != null) {
+                Long base = rows.get(table.getPer());
+                if (base == null) {
+                    throw new IllegalStateException("Table " + table.getName() + " of profile " + name
+                            + " is defined before the table it depends on: " + table.getPer());
+                }
+                count = table.getRows() * base;
+            } else {
+                count = table.isScaled() ? table.getRows() * scaleFactor : table.getRows();
+            }
+            rows.put(table.getName(), Math.max(1L, Math.round(count)));
+        }
+        return rows;
+    }
+    
+    /**
+     * 按规模因子展开为多表生成作业，输出目录、格式等由调用方继续设置
+     *
+     * @param scaleFactor 规模因子
+     * @return 作业描述
+     */
+    public SchemaJobSpec toJobSpec(double scaleFactor) {
+        Map<String, Long> rows = rowCounts(scaleFactor);
+        Map<String, String> values = new HashMap<>();
+        values.put("scale", BigDecimal.valueOf(scaleFactor).stripTrailingZeros().toPlainString());
+        for (Map.Entry<String, Long> entry : rows.entrySet()) {
+            values.put("rows." + entry.getKey(), String.valueOf(entry.getValue()));
+        }
+        
+        ObjectMapper mapper = new ObjectMapper();
+        SchemaJobSpec spec = new SchemaJobSpec();
+        spec.setDdl(ddl);
+        for (ProfileTable table : tables) {
+            SchemaJobSpec.TableSpec tableSpec = new SchemaJobSpec.TableSpec();
+            tableSpec.setName(table.getName());
+            tableSpec.setRows(rows.get(table.getName()));
+            for (Map.Entry<String, FieldConfig> entry : table.getFields().entrySet()) {
+                // 复制一份再替换占位符，同一个模板可以按不同的规模因子多次展开
+                FieldConfig field = mapper.convertValue(entry.getValue(), FieldConfig.class);
+                field.setExpression(substitute(field.getExpression(), values));
+                field.setMin(substitute(field.getMin(), values));
+                field.setMax(substitute(field.getMax(), values));
+                tableSpec.getFields().put(entry.getKey(), field);
+            }
+            spec.getTables().add(tableSpec);
+        }
+        return spec;
+    }
+    
+    private String substitute(String text, Map<String, String> values) {
+        if (text == null || text.indexOf('$') < 0) {
+            return text;
+        }
+        Matcher matcher = PLACEHOLDER.matcher(text);
+        StringBuffer sb = new StringBuffer();
+        while (matcher.find()) {
+            String value = values.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException("Unknown placeholder " + matcher.group() + " in profile " + name);
+            }
+            matcher.appendReplacement(sb, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(sb);
+        return sb.toString();
+    }
+} 
\ No newline at end of file
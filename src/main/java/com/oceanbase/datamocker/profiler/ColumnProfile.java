@@ -0,0 +1,237 @@
+package com.oceanbase.datamocker.profiler;
+
+import lombok.Getter;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+
+/**
+ * 单个字段的统计草图
+ * 计数、空值率、不同值个数、数值分位数、高频值、长度分布和类型推断都在一次扫描中完成，
+ * 内存占用与数据量无关；同一字段在不同分片上的统计可以合并。
+ */
+@Getter
+public class ColumnProfile {
+    
+    /**
+     * 长度直方图精确记录的最大长度，更长的值计入最后一个桶
+     */
+    public static final int MAX_TRACKED_LENGTH = 256;
+    
+    private final String name;
+    private long count;
+    private long nulls;
+    private final HyperLogLog distinct = new HyperLogLog();
+    private final QuantileSketch numbers = new QuantileSketch();
+    private final HeavyHitters heavyHitters = new HeavyHitters();
+    private final long[] lengths = new long[MAX_TRACKED_LENGTH + 1];
+    private int minLength = Integer.MAX_VALUE;
+    private int maxLength;
+    
+    /**
+     * 类型推断计数，分别为整数、小数、日期和日期时间值的个数
+     */
+    private long integers;
+    private long decimals;
+    private long dates;
+    private long dateTimes;
+    private int maxScale;
+    private String minTemporal;
+    private String maxTemporal;
+    
+    public ColumnProfile(String name) {
+        this.name = name;
+    }
+    
+    /**
+     * 加入一个值
+     *
+     * @param value 字段值的文本形式，null表示空值
+     */
+    public void add(String value) {
+        count++;
+        if (value == null) {
+            nulls++;
+            return;
+        }
+        distinct.add(value);
+        heavyHitters.add(value);
+        int length = value.length();
+        lengths[Math.min(length, MAX_TRACKED_LENGTH)]++;
+        minLength = Math.min(minLength, length);
+        maxLength = Math.max(maxLength, length);
+        classify(value);
+    }
+    
+    /**
+     * 合并同一字段在另一分片上的统计
+     *
+     * @param other 另一分片的统计
+     */
+    public void merge(ColumnProfile other) {
+        count += other.count;
+        nulls += other.nulls;
+        distinct.merge(other.distinct);
+        numbers.merge(other.numbers);
+        heavyHitters.merge(other.heavyHitters);
+        for (int i = 0; i < lengths.length; i++) {
+            lengths[i] += other.lengths[i];
+        }
+        minLength = Math.min(minLength, other.minLength);
+        maxLength = Math.max(maxLength, other.maxLength);
+        integers += other.integers;
+        decimals += other.decimals;
+        dates += other.dates;
+        dateTimes += other.dateTimes;
+        maxScale = Math.max(maxScale, other.maxScale);
+        minTemporal = lesser(minTemporal, other.minTemporal);
+        maxTemporal = greater(maxTemporal, other.maxTemporal);
+    }
+    
+    /**
+     * 非空值个数
+     */
+    public long getNonNullCount() {
+        return count - nulls;
+    }
+    
+    /**
+     * 空值比例
+     */
+    public double getNullRate() {
+        return count == 0 ? 0 : (double) nulls / count;
+    }
+    
+    /**
+     * 不同值个数的估计，不超过非空值个数
+     */
+    public long getDistinctCount() {
+        return Math.min(distinct.estimate(), getNonNullCount());
+    }
+    
+    /**
+     * 推断字段类型，所有非空值都符合的最窄类型；没有非空值时为VARCHAR
+     *
+     * @return 字段类型
+     */
+    public String inferType() {
+        long nonNull = getNonNullCount();
+        if (nonNull == 0) {
+            return "VARCHAR";
+        }
+        if (integers == nonNull) {
+            return numbers.getMin() >= Integer.MIN_VALUE && numbers.getMax() <= Integer.MAX_VALUE ? "INT" : "BIGINT";
+        }
+        if (integers + decimals == nonNull) {
+            return "DECIMAL";
+        }
+        if (dates == nonNull) {
+            return "DATE";
+        }
+        if (dates + dateTimes == nonNull) {
+            return "DATETIME";
+        }
+        return "VARCHAR";
+    }
+    
+    private void classify(String value) {
+        int scale = decimalScale(value);
+        if (scale >= 0) {
+            double number = Double.parseDouble(value);
+            numbers.add(number);
+            if (scale == 0) {
+                integers++;
+            } else {
+                decimals++;
+                maxScale = Math.max(maxScale, scale);
+            }
+            return;
+        }
+        if (isDate(value)) {
+            dates++;
+            numbers.add(LocalDate.parse(value).toEpochDay() * 86400L);
+        } else if (value.length() >= 19 && isDate(value.substring(0, 10)) && isTime(value, 11)
+                && (value.charAt(10) == ' ' || value.charAt(10) == 'T')) {
+            dateTimes++;
+            numbers.add(LocalDateTime.parse(value.substring(0, 10) + 'T' + value.substring(11, 19))
+                    .toEpochSecond(ZoneOffset.UTC));
+        } else {
+            return;
+        }
+        // ISO格式的日期时间按字典序比较即按时间先后比较
+        minTemporal = lesser(minTemporal, value);
+        maxTemporal = greater(maxTemporal, value);
+    }
+    
+    /**
+     * 返回十进制数的小数位数，不是十进制数时返回-1；超过18位有效数字的整数按字符串处理
+     */
+    private static int decimalScale(String value) {
+        int length = value.length();
+        int i = 0;
+        if (i < length && (value.charAt(i) == '-' || value.charAt(i) == '+')) {
+            i++;
+        }
+        int digits = 0;
+        int scale = -1;
+        for (; i < length; i++) {
+            char c = value.charAt(i);
+            if (c >= '0' && c <= '9') {
+                digits++;
+                if (scale >= 0) {
+                    scale++;
+                }
+            } else if (c == '.' && scale < 0) {
+                scale = 0;
+            } else {
+                return -1;
+            }
+        }
+        if (digits == 0 || digits > 18 || scale == 0) {
+            return -1;
+        }
+        return Math.max(scale, 0);
+    }
+    
+    private static boolean isDate(String value) {
+        if (value.length() != 10 || value.charAt(4) != '-' || value.charAt(7) != '-') {
+            return false;
+        }
+        if (!digits(value, 0, 4) || !digits(value, 5, 7) || !digits(value, 8, 10)) {
+            return false;
+        }
+        try {
+            LocalDate.parse(value);
+            return true;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+    
+    private static boolean isTime(String value, int start) {
+        return value.length() >= start + 8 && value.charAt(start + 2) == ':' && value.charAt(start + 5) == ':'
+                && digits(value, start, start + 2) && digits(value, start + 3, start + 5) && digits(value, start + 6, start + 8)
+                && Integer.parseInt(value.substring(start, start + 2)) < 24
+                && Integer.parseInt(value.substring(start + 3, start + 5)) < 60
+                && Integer.parseInt(value.substring(start + 6, start + 8)) < 60;
+    }
+    
+    private static boolean digits(String value, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = value.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String lesser(String a, String b) {
+        return a == null ? b : b == null || a.compareTo(b) <= 0 ? a : b;
+    }
+    
+    private static String greater(String a, String b) {
+        return a == null ? b : b == null || a.compareTo(b) >= 0 ? a : b;
+    }
+} 
\ No newline at end of file
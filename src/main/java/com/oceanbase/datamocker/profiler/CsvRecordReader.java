@@ -0,0 +1,134 @@
+package com.oceanbase.datamocker.profiler;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 按RFC 4180读取CSV记录，与CsvRowSink的输出约定一致：未加引号的空字段为null，""为空字符串
+ * 记录读取器自行缓冲并统计已读取的字节数，用于判断记录是否超出文件分片的范围。
+ */
+public class CsvRecordReader {
+    
+    private static final int BUFFER_SIZE = 64 * 1024;
+    
+    private final InputStream in;
+    private final char delimiter;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int limit;
+    private int offset;
+    private long position;
+    private byte[] field = new byte[256];
+    
+    /**
+     * @param in 输入流
+     * @param position 输入流当前位置在文件中的偏移
+     * @param delimiter 分隔符
+     */
+    public CsvRecordReader(InputStream in, long position, char delimiter) {
+        this.in = in;
+        this.position = position;
+        this.delimiter = delimiter;
+    }
+    
+    /**
+     * 下一条记录在文件中的起始位置
+     *
+     * @return 文件偏移
+     */
+    public long position() {
+        return position;
+    }
+    
+    /**
+     * 跳过当前位置所在行的剩余部分，用于从分片边界之后的第一条完整记录开始读取
+     *
+     * @throws IOException 读取失败
+     */
+    void skipLine() throws IOException {
+        int b;
+        while ((b = read()) >= 0 && b != '\n') {
+            // 跳到换行之后
+        }
+    }
+    
+    /**
+     * 读取下一条记录
+     *
+     * @param fields 用于存放字段值的列表，调用时清空
+     * @return 已到达文件末尾时返回false
+     * @throws IOException 读取失败
+     */
+    public boolean next(List<String> fields) throws IOException {
+        fields.clear();
+        int b = read();
+        if (b < 0) {
+            return false;
+        }
+        while (true) {
+            int length = 0;
+            boolean quoted = b == '"';
+            if (quoted) {
+                while (true) {
+                    b = read();
+                    if (b < 0) {
+                        break;
+                    }
+                    if (b == '"') {
+                        b = read();
+                        if (b != '"') {
+                            break;
+                        }
+                    }
+                    length = append(length, b);
+                }
+                // 闭合引号之后直到分隔符的内容按原样保留
+                while (b >= 0 && b != delimiter && b != '\n') {
+                    length = append(length, b);
+                    b = read();
+                }
+            } else {
+                while (b >= 0 && b != delimiter && b != '\n') {
+                    length = append(length, b);
+                    b = read();
+                }
+            }
+            if (b != delimiter && length > 0 && field[length - 1] == '\r') {
+                length--;
+            }
+            fields.add(length == 0 && !quoted ? null : new String(field, 0, length, StandardCharsets.UTF_8));
+            if (b != delimiter) {
+                return true;
+            }
+            b = read();
+            if (b < 0 || b == '\n') {
+                // 记录以分隔符结尾时最后一个字段为空
+                fields.add(null);
+                return true;
+            }
+        }
+    }
+    
+    private int append(int length, int b) {
+        if (length == field.length) {
+            field = Arrays.copyOf(field, length * 2);
+        }
+        field[length] = (byte) b;
+        return length + 1;
+    }
+    
+    private int read() throws IOException {
+        if (offset == limit) {
+            limit = in.read(buffer);
+            offset = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+        }
+        position++;
+        return buffer[offset++] & 0xFF;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,254 @@
+package com.oceanbase.datamocker.profiler;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import lombok.Getter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 一张表的统计结果，可以转换为复现这些统计特征的生成配置
+ */
+@Getter
+public class DataProfile {
+    
+    /**
+     * 输出的分位数个数，按0%、1%、…、100%等间隔取值
+     */
+    public static final int QUANTILE_POINTS = 101;
+    
+    /**
+     * 精确计数的不同值不超过该个数且每个值平均出现两次以上时，按频率输出为枚举值
+     */
+    public static final int MAX_ENUM_VALUES = 64;
+    
+    /**
+     * 枚举值按频率重复的总份数，出现过的值至少占一份
+     */
+    public static final int ENUM_RESOLUTION = 1000;
+    
+    /**
+     * 不同值个数的估计达到非空值个数的该比例时视为唯一，留出基数估计的误差
+     */
+    public static final double UNIQUE_RATIO = 0.95;
+    
+    /**
+     * 值池的最大容量，不同值更多时按该容量复现
+     */
+    public static final int MAX_POOL_SIZE = 1_000_000;
+    
+    private long rowCount;
+    private final List<ColumnProfile> columns = new ArrayList<>();
+    
+    /**
+     * 按序号取得字段统计，不存在时追加
+     *
+     * @param index 字段序号
+     * @param name 新增字段的字段名，为null时命名为c加序号
+     * @return 字段统计
+     */
+    ColumnProfile column(int index, String name) {
+        while (columns.size() <= index) {
+            int next = columns.size();
+            columns.add(new ColumnProfile(next == index && name != null ? name : "c" + (next + 1)));
+        }
+        return columns.get(index);
+    }
+    
+    void addRows(long rows) {
+        rowCount += rows;
+    }
+    
+    /**
+     * 合并另一分片的统计，字段按序号对应
+     *
+     * @param other 另一分片的统计
+     */
+    public void merge(DataProfile other) {
+        rowCount += other.rowCount;
+        for (int i = 0; i < other.columns.size(); i++) {
+            column(i, other.columns.get(i).getName()).merge(other.columns.get(i));
+        }
+    }
+    
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>();
+        for (ColumnProfile column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+    
+    public List<String> getFieldTypes() {
+        List<String> types = new ArrayList<>();
+        for (ColumnProfile column : columns) {
+            types.add(column.inferType());
+        }
+        return types;
+    }
+    
+    /**
+     * 生成复现统计特征的配置，默认行数为样本行数
+     *
+     * @return 生成配置
+     */
+    public MockerConfig toMockerConfig() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setDefaultRowCount((int) Math.min(rowCount, Integer.MAX_VALUE));
+        config.setFieldConfigs(toFieldConfigs());
+        return config;
+    }
+    
+    /**
+     * 为每个字段生成配置：空值率、类型和取值范围；低基数字段按频率输出枚举值，唯一的整数字段按序列生成，
+     * 数值字段输出分位数作为自定义分布，有重复值的字段用值池复现按样本行数生成时的不同值个数
+     *
+     * @return 字段名到字段配置的映射
+     */
+    public Map<String, FieldConfig> toFieldConfigs() {
+        Map<String, FieldConfig> configs = new LinkedHashMap<>();
+        for (ColumnProfile column : columns) {
+            configs.put(column.getName(), toFieldConfig(column));
+        }
+        return configs;
+    }
+    
+    private static FieldConfig toFieldConfig(ColumnProfile column) {
+        FieldConfig config = new FieldConfig();
+        String type = column.inferType();
+        config.setType(type);
+        if (column.getNulls() > 0) {
+            config.setAllowNull(true);
+            config.setNullRate(column.getNullRate());
+        }
+        long nonNull = column.getNonNullCount();
+        if (nonNull == 0) {
+            return config;
+        }
+        
+        long distinct = column.getDistinctCount();
+        HeavyHitters heavyHitters = column.getHeavyHitters();
+        Map<String, Long> top = heavyHitters.top(MAX_ENUM_VALUES + 1);
+        if (heavyHitters.isExact() && top.size() <= MAX_ENUM_VALUES && top.size() * 2L <= nonNull) {
+            config.setEnumValues(weightedValues(top, nonNull));
+            return config;
+        }
+        
+        boolean integral = "INT".equals(type) || "BIGINT".equals(type);
+        if (integral && column.getNulls() == 0 && distinct >= nonNull * UNIQUE_RATIO) {
+            // 没有空值且取值基本不重复的整数字段视为键，按序列生成以保持唯一
+            config.setSequence(true);
+            config.setMin(format(column.getNumbers().getMin(), type));
+            return config;
+        }
+        
+        // 不使用值池时按样本行数生成预计得到的不同值个数
+        double natural = nonNull;
+        switch (type) {
+            case "INT":
+            case "BIGINT":
+            case "DECIMAL":
+                QuantileSketch numbers = column.getNumbers();
+                config.setMin(format(numbers.getMin(), type));
+                config.setMax(format(numbers.getMax(), type));
+                if ("DECIMAL".equals(type)) {
+                    config.setScale(column.getMaxScale());
+                }
+                double[] points = new double[QUANTILE_POINTS];
+                for (int i = 0; i < points.length; i++) {
+                    points[i] = (double) i / (points.length - 1);
+                }
+                double[] values = numbers.quantiles(points);
+                List<Double> quantiles = new ArrayList<>();
+                double unit = Math.pow(10, -("DECIMAL".equals(type) ? column.getMaxScale() : 0));
+                natural = 0;
+                for (int i = 0; i < values.length; i++) {
+                    quantiles.add(values[i]);
+                    if (i > 0) {
+                        // 相邻分位数之间按均匀分布计算可取到的不同值
+                        natural += expectedDistinct(Math.floor((values[i] - values[i - 1]) / unit) + 1,
+                                (double) nonNull / (values.length - 1));
+                    }
+                }
+                config.setDistributionType(FieldConfig.DistributionType.CUSTOM);
+                config.getDistributionParams().put("quantiles", quantiles);
+                break;
+            case "DATE":
+            case "DATETIME":
+                // 日期生成器在[min, max)内按天取值，上界取最大日期的次日
+                LocalDate first = LocalDate.parse(column.getMinTemporal().substring(0, 10));
+                LocalDate last = LocalDate.parse(column.getMaxTemporal().substring(0, 10)).plusDays(1);
+                config.setMin(first.toString());
+                config.setMax(last.toString());
+                if ("DATE".equals(type)) {
+                    natural = expectedDistinct(last.toEpochDay() - first.toEpochDay(), nonNull);
+                }
+                break;
+            default:
+                config.setMinLength(column.getMinLength());
+                config.setMaxLength(column.getMaxLength());
+                break;
+        }
+        
+        // 重复值明显多于取值分布本身造成的重复时，用值池限制不同值的个数
+        int poolSize = poolSize(distinct, nonNull);
+        if (poolSize > 0 && distinct < natural * 0.9) {
+            FieldConfig.ValuePoolConfig pool = new FieldConfig.ValuePoolConfig();
+            pool.setSize(poolSize);
+            config.setValuePool(pool);
+        }
+        return config;
+    }
+    
+    /**
+     * 计算值池大小K，使从K个值中均匀抽取n次得到的不同值个数的期望K(1-e^(-n/K))等于样本的不同值个数；
+     * 不同值接近样本行数、不需要值池时返回0
+     */
+    static int poolSize(long distinct, long samples) {
+        if (distinct >= samples * 0.9) {
+            return 0;
+        }
+        double low = Math.max(1, distinct);
+        double high = MAX_POOL_SIZE;
+        if (expectedDistinct(high, samples) <= distinct) {
+            return MAX_POOL_SIZE;
+        }
+        while (high - low > 0.5) {
+            double mid = (low + high) / 2;
+            if (expectedDistinct(mid, samples) < distinct) {
+                low = mid;
+            } else {
+                high = mid;
+            }
+        }
+        return (int) Math.round(high);
+    }
+    
+    private static double expectedDistinct(double poolSize, double samples) {
+        return poolSize * -Math.expm1(-samples / poolSize);
+    }
+    
+    /**
+     * 按出现频率重复各个值，使均匀抽取枚举值时得到相同的频率分布
+     */
+    private static String[] weightedValues(Map<String, Long> counts, long total) {
+        List<String> values = new ArrayList<>();
+        for (Map.Entry<String, Long> entry : counts.entrySet()) {
+            long copies = Math.max(1, Math.round((double) entry.getValue() * ENUM_RESOLUTION / total));
+            for (long i = 0; i < copies; i++) {
+                values.add(entry.getKey());
+            }
+        }
+        return values.toArray(new String[0]);
+    }
+    
+    private static String format(double value, String type) {
+        return "DECIMAL".equals(type) ? BigDecimal.valueOf(value).toPlainString() : String.valueOf((long) value);
+    }
+} 
\ No newline at end of file
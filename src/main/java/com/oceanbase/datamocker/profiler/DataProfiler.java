@@ -0,0 +1,202 @@
+package com.oceanbase.datamocker.profiler;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * 数据采样统计
+ * 一次扫描CSV文件或JDBC查询结果，为每个字段构建内存有界的草图（HyperLogLog、KLL分位数、高频值、长度分布），
+ * 内存占用与输入大小无关。CSV文件按字节范围切分为分片并行统计后合并，分片边界对齐到换行，
+ * 因此并行读取时要求字段值中不包含换行。
+ */
+@Slf4j
+public class DataProfiler {
+    
+    /**
+     * 每个分片的最小字节数，较小的文件不切分
+     */
+    public static final long DEFAULT_MIN_SPLIT_BYTES = 8L * 1024 * 1024;
+    
+    private final char delimiter;
+    private final boolean header;
+    private final int threads;
+    private long minSplitBytes = DEFAULT_MIN_SPLIT_BYTES;
+    
+    public DataProfiler() {
+        this(',', true, Runtime.getRuntime().availableProcessors());
+    }
+    
+    /**
+     * @param delimiter CSV分隔符
+     * @param header CSV文件第一行是否为字段名，否则字段依次命名为c1、c2…
+     * @param threads 并行统计的线程数
+     */
+    public DataProfiler(char delimiter, boolean header, int threads) {
+        if (delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid CSV delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        this.header = header;
+        this.threads = Math.max(1, threads);
+    }
+    
+    void setMinSplitBytes(long minSplitBytes) {
+        this.minSplitBytes = minSplitBytes;
+    }
+    
+    /**
+     * 统计CSV文件
+     *
+     * @param file CSV文件
+     * @return 统计结果
+     * @throws IOException 读取失败
+     */
+    public DataProfile profileCsv(File file) throws IOException {
+        if (!file.isFile()) {
+            throw new IllegalArgumentException("CSV file not found: " + file.getAbsolutePath());
+        }
+        List<String> names = new ArrayList<>();
+        long dataStart = 0;
+        if (header) {
+            try (FileInputStream in = new FileInputStream(file)) {
+                CsvRecordReader reader = new CsvRecordReader(in, 0, delimiter);
+                reader.next(names);
+                dataStart = reader.position();
+            }
+        }
+        
+        long length = file.length();
+        int splits = (int) Math.max(1, Math.min(threads, (length - dataStart) / Math.max(1, minSplitBytes)));
+        long splitSize = (length - dataStart + splits - 1) / splits;
+        List<long[]> ranges = new ArrayList<>();
+        for (int i = 0; i < splits; i++) {
+            long start = dataStart + i * splitSize;
+            ranges.add(new long[]{start, Math.min(length, start + splitSize)});
+        }
+        
+        DataProfile result = newProfile(names);
+        if (splits == 1) {
+            result.merge(profileSplit(file, names, dataStart, dataStart, length));
+        } else {
+            mergeSplits(result, file, names, dataStart, ranges);
+        }
+        log.info("Profiled {} rows of {} in {} splits", result.getRowCount(), file, splits);
+        return result;
+    }
+    
+    private void mergeSplits(DataProfile result, File file, List<String> names, long dataStart,
+                             List<long[]> ranges) throws IOException {
+        ExecutorService executor = Executors.newFixedThreadPool(ranges.size());
+        try {
+            List<Future<DataProfile>> futures = new ArrayList<>();
+            for (long[] range : ranges) {
+                futures.add(executor.submit(() -> profileSplit(file, names, dataStart, range[0], range[1])));
+            }
+            // 按分片顺序合并，结果与分片的完成顺序无关
+            for (Future<DataProfile> future : futures) {
+                result.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while profiling " + file);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException) {
+                throw (IOException) e.getCause();
+            }
+            throw new IOException("Failed to profile " + file, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    /**
+     * 统计一个分片：从分片起点之后的第一条完整记录开始，读到起点不小于分片终点的记录为止
+     */
+    private DataProfile profileSplit(File file, List<String> names, long dataStart, long start, long end) throws IOException {
+        DataProfile profile = newProfile(names);
+        try (FileInputStream in = new FileInputStream(file)) {
+            long position = start > dataStart ? start - 1 : start;
+            in.getChannel().position(position);
+            CsvRecordReader reader = new CsvRecordReader(in, position, delimiter);
+            if (start > dataStart) {
+                reader.skipLine();
+            }
+            List<String> fields = new ArrayList<>();
+            long rows = 0;
+            while (reader.position() < end && reader.next(fields)) {
+                addRow(profile, fields, names.size());
+                rows++;
+            }
+            profile.addRows(rows);
+        }
+        return profile;
+    }
+    
+    /**
+     * 统计JDBC查询结果，字段值按文本形式统计
+     *
+     * @param connection 数据库连接
+     * @param sql 查询语句
+     * @return 统计结果
+     * @throws SQLException 查询失败
+     */
+    public DataProfile profileJdbc(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement(ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY)) {
+            // 让驱动分批读取结果而不是一次载入内存
+            statement.setFetchSize(10000);
+            try (ResultSet resultSet = statement.executeQuery(sql)) {
+                ResultSetMetaData metaData = resultSet.getMetaData();
+                List<String> names = new ArrayList<>();
+                for (int i = 1; i <= metaData.getColumnCount(); i++) {
+                    names.add(metaData.getColumnLabel(i));
+                }
+                DataProfile profile = newProfile(names);
+                List<String> fields = new ArrayList<>();
+                long rows = 0;
+                while (resultSet.next()) {
+                    fields.clear();
+                    for (int i = 1; i <= names.size(); i++) {
+                        fields.add(resultSet.getString(i));
+                    }
+                    addRow(profile, fields, names.size());
+                    rows++;
+                }
+                profile.addRows(rows);
+                return profile;
+            }
+        }
+    }
+    
+    private static DataProfile newProfile(List<String> names) {
+        DataProfile profile = new DataProfile();
+        for (int i = 0; i < names.size(); i++) {
+            profile.column(i, names.get(i));
+        }
+        return profile;
+    }
+    
+    private static void addRow(DataProfile profile, List<String> fields, int declared) {
+        for (int i = 0; i < fields.size(); i++) {
+            profile.column(i, null).add(fields.get(i));
+        }
+        // 缺少的尾部字段按空值统计
+        for (int i = fields.size(); i < declared; i++) {
+            profile.column(i, null).add(null);
+        }
+    }
+} 
\ No newline at end of file
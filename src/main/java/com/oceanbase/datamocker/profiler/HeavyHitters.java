@@ -0,0 +1,114 @@
+package com.oceanbase.datamocker.profiler;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 基于Misra-Gries算法的高频值统计
+ * 最多跟踪capacity个值，计数是实际次数的下界，误差不超过n/(capacity+1)；
+ * 从未淘汰过任何值时计数是精确的，此时可以直接用作字段的取值分布。
+ */
+public class HeavyHitters {
+    
+    public static final int DEFAULT_CAPACITY = 256;
+    
+    private final int capacity;
+    /**
+     * 值到计数的映射，计数放在单元素数组中以便原地累加
+     */
+    private final Map<String, long[]> counters;
+    private boolean exact = true;
+    
+    public HeavyHitters() {
+        this(DEFAULT_CAPACITY);
+    }
+    
+    public HeavyHitters(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Heavy hitter capacity must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+        this.counters = new HashMap<>(capacity * 2);
+    }
+    
+    public void add(String value) {
+        long[] current = counters.get(value);
+        if (current != null) {
+            current[0]++;
+        } else if (counters.size() < capacity) {
+            counters.put(value, new long[]{1});
+        } else {
+            // 表已满时所有计数减一，新值同样被抵消
+            exact = false;
+            decrementAll(1);
+        }
+    }
+    
+    /**
+     * 合并另一个统计
+     *
+     * @param other 另一个统计
+     */
+    public void merge(HeavyHitters other) {
+        exact &= other.exact;
+        for (Map.Entry<String, long[]> entry : other.counters.entrySet()) {
+            long[] current = counters.get(entry.getKey());
+            if (current != null) {
+                current[0] += entry.getValue()[0];
+            } else {
+                counters.put(entry.getKey(), new long[]{entry.getValue()[0]});
+            }
+        }
+        if (counters.size() > capacity) {
+            exact = false;
+            List<Long> counts = new ArrayList<>();
+            for (long[] count : counters.values()) {
+                counts.add(count[0]);
+            }
+            Collections.sort(counts, Collections.reverseOrder());
+            decrementAll(counts.get(capacity));
+        }
+    }
+    
+    /**
+     * 是否所有值都被精确计数
+     */
+    public boolean isExact() {
+        return exact;
+    }
+    
+    /**
+     * 按计数从高到低返回跟踪的值
+     *
+     * @param limit 最多返回的个数
+     * @return 值到计数的有序映射
+     */
+    public Map<String, Long> top(int limit) {
+        List<Map.Entry<String, long[]>> entries = new ArrayList<>(counters.entrySet());
+        entries.sort((a, b) -> {
+            int byCount = Long.compare(b.getValue()[0], a.getValue()[0]);
+            return byCount != 0 ? byCount : a.getKey().compareTo(b.getKey());
+        });
+        Map<String, Long> result = new LinkedHashMap<>();
+        for (int i = 0; i < entries.size() && i < limit; i++) {
+            result.put(entries.get(i).getKey(), entries.get(i).getValue()[0]);
+        }
+        return result;
+    }
+    
+    private void decrementAll(long amount) {
+        Iterator<long[]> iterator = counters.values().iterator();
+        while (iterator.hasNext()) {
+            long[] count = iterator.next();
+            count[0] -= amount;
+            if (count[0] <= 0) {
+                iterator.remove();
+            }
+        }
+    }
+} 
\ No newline at end of file
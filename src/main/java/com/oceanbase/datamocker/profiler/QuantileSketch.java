@@ -0,0 +1,188 @@
+package com.oceanbase.datamocker.profiler;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * KLL分位数草图
+ * 每层最多保留k个样本，层满时排序后隔一个保留一半并提升到上一层，样本权重随层数翻倍；
+ * 内存随数据量对数增长，k=200时秩误差约为1%。草图可以合并，用于按文件分片并行统计。
+ */
+public class QuantileSketch {
+    
+    public static final int DEFAULT_K = 200;
+    
+    private final int k;
+    private final List<double[]> levels = new ArrayList<>();
+    private int[] sizes = new int[0];
+    private long count;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+    
+    /**
+     * 每层压缩时交替保留奇数位或偶数位的样本，避免固定方向的偏差
+     */
+    private int compactions;
+    
+    public QuantileSketch() {
+        this(DEFAULT_K);
+    }
+    
+    public QuantileSketch(int k) {
+        if (k < 8) {
+            throw new IllegalArgumentException("Quantile sketch size must be at least 8: " + k);
+        }
+        this.k = k;
+    }
+    
+    public void add(double value) {
+        if (Double.isNaN(value)) {
+            return;
+        }
+        count++;
+        min = count == 1 || value < min ? value : min;
+        max = count == 1 || value > max ? value : max;
+        append(0, value);
+        if (sizes[0] >= k) {
+            compact(0);
+        }
+    }
+    
+    /**
+     * 合并另一个草图
+     *
+     * @param other 另一个草图
+     */
+    public void merge(QuantileSketch other) {
+        if (other.count == 0) {
+            return;
+        }
+        min = count == 0 || other.min < min ? other.min : min;
+        max = count == 0 || other.max > max ? other.max : max;
+        count += other.count;
+        for (int level = 0; level < other.levels.size(); level++) {
+            double[] items = other.levels.get(level);
+            for (int i = 0; i < other.sizes[level]; i++) {
+                append(level, items[i]);
+            }
+        }
+        for (int level = 0; level < levels.size(); level++) {
+            if (sizes[level] >= k) {
+                compact(level);
+            }
+        }
+    }
+    
+    public long getCount() {
+        return count;
+    }
+    
+    public double getMin() {
+        return min;
+    }
+    
+    public double getMax() {
+        return max;
+    }
+    
+    /**
+     * 估计分位数
+     *
+     * @param q 分位，取值范围0-1
+     * @return 分位数，没有样本时为NaN
+     */
+    public double quantile(double q) {
+        return quantiles(new double[]{q})[0];
+    }
+    
+    /**
+     * 一次估计多个分位数
+     *
+     * @param qs 升序的分位
+     * @return 对应的分位数
+     */
+    public double[] quantiles(double[] qs) {
+        double[] result = new double[qs.length];
+        if (count == 0) {
+            Arrays.fill(result, Double.NaN);
+            return result;
+        }
+        int total = 0;
+        for (int size : sizes) {
+            total += size;
+        }
+        double[] values = new double[total];
+        long[] weights = new long[total];
+        Integer[] order = new Integer[total];
+        int n = 0;
+        for (int level = 0; level < levels.size(); level++) {
+            double[] items = levels.get(level);
+            for (int i = 0; i < sizes[level]; i++) {
+                values[n] = items[i];
+                weights[n] = 1L << level;
+                order[n] = n;
+                n++;
+            }
+        }
+        Arrays.sort(order, (a, b) -> Double.compare(values[a], values[b]));
+        long weightSum = 0;
+        for (long weight : weights) {
+            weightSum += weight;
+        }
+        int next = 0;
+        long cumulative = 0;
+        for (int i = 0; i < total && next < qs.length; i++) {
+            cumulative += weights[order[i]];
+            while (next < qs.length && cumulative >= qs[next] * weightSum) {
+                result[next++] = values[order[i]];
+            }
+        }
+        while (next < qs.length) {
+            result[next++] = max;
+        }
+        // 两端使用精确的最小、最大值
+        for (int i = 0; i < qs.length; i++) {
+            if (qs[i] <= 0) {
+                result[i] = min;
+            } else if (qs[i] >= 1) {
+                result[i] = max;
+            }
+        }
+        return result;
+    }
+    
+    private void append(int level, double value) {
+        while (levels.size() <= level) {
+            levels.add(new double[2 * k]);
+            sizes = Arrays.copyOf(sizes, levels.size());
+        }
+        double[] items = levels.get(level);
+        int size = sizes[level];
+        if (size == items.length) {
+            items = Arrays.copyOf(items, items.length * 2);
+            levels.set(level, items);
+        }
+        items[size] = value;
+        sizes[level] = size + 1;
+    }
+    
+    private void compact(int level) {
+        double[] items = levels.get(level);
+        int size = sizes[level];
+        Arrays.sort(items, 0, size);
+        // 奇数个样本时保留最大的一个在本层
+        int pairs = size & ~1;
+        int offset = (compactions++) & 1;
+        for (int i = offset; i < pairs; i += 2) {
+            append(level + 1, items[i]);
+        }
+        if (pairs < size) {
+            items[0] = items[size - 1];
+        }
+        sizes[level] = size - pairs;
+        if (sizes[level + 1] >= k) {
+            compact(level + 1);
+        }
+    }
+} 
\ No newline at end of file
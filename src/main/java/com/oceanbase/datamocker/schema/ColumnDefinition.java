@@ -0,0 +1,88 @@
+package com.oceanbase.datamocker.schema;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从DDL中解析出的字段定义
+ */
+@Data
+public class ColumnDefinition {
+    
+    /**
+     * 字段名
+     */
+    private String name;
+    
+    /**
+     * 归一化后的SQL类型（大写，不含长度和精度，如 VARCHAR、DECIMAL）
+     */
+    private String type;
+    
+    /**
+     * DDL中声明的原始类型（如 varchar(64)、bigint(20) unsigned）
+     */
+    private String declaredType;
+    
+    /**
+     * 长度（如 VARCHAR(64) 中的 64）
+     */
+    private Integer length;
+    
+    /**
+     * 精度（如 DECIMAL(10,2) 中的 10）
+     */
+    private Integer precision;
+    
+    /**
+     * 小数位数（如 DECIMAL(10,2) 中的 2）
+     */
+    private Integer scale;
+    
+    /**
+     * 是否为无符号类型
+     */
+    private boolean unsigned;
+    
+    /**
+     * 是否声明了 NOT NULL
+     */
+    private boolean notNull;
+    
+    /**
+     * 是否为主键字段
+     */
+    private boolean primaryKey;
+    
+    /**
+     * 是否声明了唯一约束
+     */
+    private boolean unique;
+    
+    /**
+     * 是否为自增字段
+     */
+    private boolean autoIncrement;
+    
+    /**
+     * 默认值（字符串字面量已去除引号）
+     */
+    private String defaultValue;
+    
+    /**
+     * 外键引用的表名
+     */
+    private String referencedTable;
+    
+    /**
+     * 外键引用的字段名
+     */
+    private String referencedColumn;
+    
+    /**
+     * ENUM/SET 类型的可选值
+     */
+    private List<String> enumValues = new ArrayList<>();
+} 
\ No newline at end of file
@@ -0,0 +1,767 @@
+package com.oceanbase.datamocker.schema;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * CREATE TABLE 语句解析器
+ * 支持MySQL/Oracle模式下常见的建表语法：字段类型的长度与精度、NOT NULL、PRIMARY KEY、UNIQUE、
+ * FOREIGN KEY/REFERENCES、DEFAULT、AUTO_INCREMENT，以及按字段的 PARTITION BY HASH/KEY/RANGE，其余语句和无法识别的子句会被跳过
+ */
+@Slf4j
+public class DdlParser {
+    
+    private static final Map<String, String> TYPE_MAPPINGS = new HashMap<>();
+    private static final Set<String> TABLE_CONSTRAINT_KEYWORDS = new HashSet<>(Arrays.asList(
+            "PRIMARY", "UNIQUE", "KEY", "INDEX", "CONSTRAINT", "FOREIGN", "CHECK", "FULLTEXT", "SPATIAL"
+    ));
+    
+    static {
+        // 将各种SQL类型归一化为数据生成器支持的类型
+        TYPE_MAPPINGS.put("INT", "INT");
+        TYPE_MAPPINGS.put("INTEGER", "INT");
+        TYPE_MAPPINGS.put("MEDIUMINT", "INT");
+        TYPE_MAPPINGS.put("YEAR", "INT");
+        TYPE_MAPPINGS.put("SMALLINT", "SMALLINT");
+        TYPE_MAPPINGS.put("TINYINT", "TINYINT");
+        TYPE_MAPPINGS.put("BOOL", "TINYINT");
+        TYPE_MAPPINGS.put("BOOLEAN", "TINYINT");
+        TYPE_MAPPINGS.put("BIT", "TINYINT");
+        TYPE_MAPPINGS.put("BIGINT", "BIGINT");
+        TYPE_MAPPINGS.put("FLOAT", "FLOAT");
+        TYPE_MAPPINGS.put("BINARY_FLOAT", "FLOAT");
+        TYPE_MAPPINGS.put("DOUBLE", "DOUBLE");
+        TYPE_MAPPINGS.put("REAL", "DOUBLE");
+        TYPE_MAPPINGS.put("BINARY_DOUBLE", "DOUBLE");
+        TYPE_MAPPINGS.put("DECIMAL", "DECIMAL");
+        TYPE_MAPPINGS.put("DEC", "DECIMAL");
+        TYPE_MAPPINGS.put("NUMERIC", "DECIMAL");
+        TYPE_MAPPINGS.put("NUMBER", "DECIMAL");
+        TYPE_MAPPINGS.put("CHAR", "CHAR");
+        TYPE_MAPPINGS.put("NCHAR", "CHAR");
+        TYPE_MAPPINGS.put("VARCHAR", "VARCHAR");
+        TYPE_MAPPINGS.put("VARCHAR2", "VARCHAR");
+        TYPE_MAPPINGS.put("NVARCHAR", "VARCHAR");
+        TYPE_MAPPINGS.put("NVARCHAR2", "VARCHAR");
+        TYPE_MAPPINGS.put("BINARY", "VARCHAR");
+        TYPE_MAPPINGS.put("VARBINARY", "VARCHAR");
+        TYPE_MAPPINGS.put("RAW", "VARCHAR");
+        TYPE_MAPPINGS.put("ENUM", "VARCHAR");
+        TYPE_MAPPINGS.put("SET", "VARCHAR");
+        TYPE_MAPPINGS.put("TEXT", "TEXT");
+        TYPE_MAPPINGS.put("TINYTEXT", "TEXT");
+        // 大对象类型保留原类型，由LobDataGenerator按块流式生成
+        TYPE_MAPPINGS.put("MEDIUMTEXT", "MEDIUMTEXT");
+        TYPE_MAPPINGS.put("LONGTEXT", "LONGTEXT");
+        TYPE_MAPPINGS.put("CLOB", "CLOB");
+        TYPE_MAPPINGS.put("BLOB", "BLOB");
+        TYPE_MAPPINGS.put("TINYBLOB", "TINYBLOB");
+        TYPE_MAPPINGS.put("MEDIUMBLOB", "MEDIUMBLOB");
+        TYPE_MAPPINGS.put("LONGBLOB", "LONGBLOB");
+        TYPE_MAPPINGS.put("DATE", "DATE");
+        TYPE_MAPPINGS.put("TIME", "TIME");
+        TYPE_MAPPINGS.put("DATETIME", "DATETIME");
+        TYPE_MAPPINGS.put("TIMESTAMP", "TIMESTAMP");
+        TYPE_MAPPINGS.put("JSON", "JSON");
+    }
+    
+    /**
+     * 解析DDL文件
+     *
+     * @param ddlFile DDL文件
+     * @return 解析出的表结构，按声明顺序排列
+     * @throws IOException 读取文件失败
+     */
+    public List<TableSchema> parse(File ddlFile) throws IOException {
+        return parse(new String(Files.readAllBytes(ddlFile.toPath()), StandardCharsets.UTF_8));
+    }
+    
+    /**
+     * 解析DDL文本，文本中可以包含多条语句，非 CREATE TABLE 语句会被忽略
+     *
+     * @param ddl DDL文本
+     * @return 解析出的表结构，按声明顺序排列
+     * @throws IllegalArgumentException DDL语法错误
+     */
+    public List<TableSchema> parse(String ddl) {
+        List<Token> tokens = new Lexer(ddl).tokenize();
+        List<TableSchema> tables = new ArrayList<>();
+        int start = 0;
+        for (int i = 0; i <= tokens.size(); i++) {
+            if (i == tokens.size() || tokens.get(i).isSymbol(";")) {
+                if (i > start) {
+                    TableSchema table = parseStatement(tokens.subList(start, i));
+                    if (table != null) {
+                        tables.add(table);
+                    }
+                }
+                start = i + 1;
+            }
+        }
+        log.info("Parsed {} table(s) from DDL", tables.size());
+        return tables;
+    }
+    
+    private TableSchema parseStatement(List<Token> statement) {
+        Cursor cursor = new Cursor(statement);
+        if (!cursor.acceptKeyword("CREATE")) {
+            return null;
+        }
+        cursor.acceptKeyword("OR");
+        cursor.acceptKeyword("REPLACE");
+        cursor.acceptKeyword("GLOBAL");
+        cursor.acceptKeyword("TEMPORARY");
+        if (!cursor.acceptKeyword("TABLE")) {
+            return null;
+        }
+        if (cursor.acceptKeyword("IF")) {
+            cursor.expectKeyword("NOT");
+            cursor.expectKeyword("EXISTS");
+        }
+        
+        TableSchema table = new TableSchema();
+        table.setName(cursor.qualifiedName());
+        if (!cursor.peekSymbol("(")) {
+            log.warn("Skipping CREATE TABLE {} without column definitions", table.getName());
+            return null;
+        }
+        cursor.next();
+        
+        List<List<Token>> elements = new ArrayList<>();
+        List<Token> current = new ArrayList<>();
+        int depth = 0;
+        while (true) {
+            if (!cursor.hasNext()) {
+                throw new IllegalArgumentException("Unterminated column list in CREATE TABLE " + table.getName());
+            }
+            Token token = cursor.next();
+            if (token.isSymbol("(")) {
+                depth++;
+            } else if (token.isSymbol(")")) {
+                if (depth == 0) {
+                    break;
+                }
+                depth--;
+            } else if (token.isSymbol(",") && depth == 0) {
+                elements.add(current);
+                current = new ArrayList<>();
+                continue;
+            }
+            current.add(token);
+        }
+        if (!current.isEmpty()) {
+            elements.add(current);
+        }
+        
+        for (List<Token> element : elements) {
+            if (element.isEmpty()) {
+                continue;
+            }
+            Token first = element.get(0);
+            if (first.kind == TokenKind.WORD && TABLE_CONSTRAINT_KEYWORDS.contains(first.upper())) {
+                parseTableConstraint(table, new Cursor(element));
+            } else {
+                table.getColumns().add(parseColumn(table, new Cursor(element)));
+            }
+        }
+        
+        for (String key : table.getPrimaryKey()) {
+            ColumnDefinition column = table.getColumn(key);
+            if (column != null) {
+                column.setPrimaryKey(true);
+                column.setNotNull(true);
+            }
+        }
+        
+        while (cursor.hasNext()) {
+            // 表选项中只关心分区方式
+            if (cursor.next().isKeyword("PARTITION") && cursor.acceptKeyword("BY")) {
+                table.setPartitioning(parsePartitioning(table, cursor));
+                break;
+            }
+        }
+        return table;
+    }
+    
+    /**
+     * 解析 PARTITION BY 之后的分区方式，分区表达式不是字段或分区方式不受支持时返回null
+     */
+    private Partitioning parsePartitioning(TableSchema table, Cursor cursor) {
+        Partitioning partitioning = new Partitioning();
+        partitioning.setLinear(cursor.acceptKeyword("LINEAR"));
+        String method = cursor.next().upper();
+        boolean columnsForm = cursor.acceptKeyword("COLUMNS");
+        List<Token> expression = cursor.group();
+        try {
+            partitioning.setMethod(Partitioning.Method.valueOf(method));
+        } catch (IllegalArgumentException e) {
+            log.warn("Partitioning {} of table {} is not supported, the table is treated as unpartitioned", method, table.getName());
+            return null;
+        }
+        for (Token token : expression) {
+            if (token.kind == TokenKind.WORD || token.kind == TokenKind.QUOTED) {
+                partitioning.getColumns().add(token.text);
+            } else if (!token.isSymbol(",")) {
+                partitioning.getColumns().clear();
+                break;
+            }
+        }
+        if (partitioning.getMethod() == Partitioning.Method.KEY && expression.isEmpty()) {
+            partitioning.getColumns().addAll(table.getPrimaryKey());
+        }
+        if (partitioning.getColumns().isEmpty()
+                || partitioning.getMethod() != Partitioning.Method.KEY && partitioning.getColumns().size() > 1) {
+            log.warn("Partition expression {}({}) of table {} is not a plain column, the table is treated as unpartitioned",
+                    method + (columnsForm ? " COLUMNS" : ""), expression, table.getName());
+            return null;
+        }
+        for (String column : partitioning.getColumns()) {
+            if (table.getColumn(column) == null) {
+                throw new IllegalArgumentException("Partition column '" + column + "' is not defined in table " + table.getName());
+            }
+        }
+        
+        if (cursor.acceptKeyword("PARTITIONS")) {
+            partitioning.setPartitionCount(Integer.parseInt(cursor.next().text));
+        }
+        if (cursor.acceptKeyword("SUBPARTITION")) {
+            // 二级分区不影响一级分区的划分
+            cursor.acceptKeyword("BY");
+            cursor.acceptKeyword("LINEAR");
+            cursor.next();
+            cursor.acceptKeyword("COLUMNS");
+            cursor.group();
+            if (cursor.acceptKeyword("SUBPARTITIONS")) {
+                cursor.next();
+            }
+            if (cursor.acceptKeyword("SUBPARTITION") && cursor.acceptKeyword("TEMPLATE")) {
+                cursor.group();
+            }
+        }
+        if (cursor.peekSymbol("(")) {
+            for (List<Token> definition : splitList(cursor.group())) {
+                Cursor partition = new Cursor(definition);
+                partition.expectKeyword("PARTITION");
+                partitioning.getNames().add(partition.name());
+                if (partitioning.getMethod() == Partitioning.Method.RANGE) {
+                    partition.expectKeyword("VALUES");
+                    partition.expectKeyword("LESS");
+                    partition.expectKeyword("THAN");
+                    List<Token> bound = partition.acceptKeyword("MAXVALUE") ? Collections.emptyList() : partition.group();
+                    if (bound.size() == 1 && bound.get(0).isKeyword("MAXVALUE")) {
+                        bound = Collections.emptyList();
+                    }
+                    if (bound.size() > 2 || bound.size() == 2 && !bound.get(0).isSymbol("-")
+                            || bound.size() == 1 && bound.get(0).kind == TokenKind.WORD) {
+                        log.warn("Partition bound {} of table {} is not a literal, the table is treated as unpartitioned", bound, table.getName());
+                        return null;
+                    }
+                    partitioning.getBounds().add(bound.isEmpty() ? null : bound.size() == 2 ? "-" + bound.get(1).text : bound.get(0).text);
+                }
+            }
+        }
+        
+        if (partitioning.getMethod() == Partitioning.Method.RANGE) {
+            if (partitioning.getNames().isEmpty()) {
+                log.warn("RANGE partitioning of table {} declares no partitions, the table is treated as unpartitioned", table.getName());
+                return null;
+            }
+            partitioning.setPartitionCount(partitioning.getNames().size());
+        } else if (!partitioning.getNames().isEmpty()) {
+            partitioning.setPartitionCount(partitioning.getNames().size());
+        } else if (partitioning.getPartitionCount() <= 0) {
+            partitioning.setPartitionCount(1);
+        }
+        return partitioning;
+    }
+    
+    /**
+     * 按顶层的逗号切分括号内的元素
+     */
+    private static List<List<Token>> splitList(List<Token> tokens) {
+        List<List<Token>> elements = new ArrayList<>();
+        List<Token> current = new ArrayList<>();
+        int depth = 0;
+        for (Token token : tokens) {
+            if (token.isSymbol("(")) {
+                depth++;
+            } else if (token.isSymbol(")")) {
+                depth--;
+            } else if (token.isSymbol(",") && depth == 0) {
+                elements.add(current);
+                current = new ArrayList<>();
+                continue;
+            }
+            current.add(token);
+        }
+        if (!current.isEmpty()) {
+            elements.add(current);
+        }
+        return elements;
+    }
+    
+    private ColumnDefinition parseColumn(TableSchema table, Cursor cursor) {
+        ColumnDefinition column = new ColumnDefinition();
+        column.setName(cursor.name());
+        
+        StringBuilder declared = new StringBuilder();
+        String typeName = cursor.next().upper();
+        if ("DOUBLE".equals(typeName) && cursor.acceptKeyword("PRECISION")) {
+            typeName = "DOUBLE";
+        } else if (("CHARACTER".equals(typeName) || "CHAR".equals(typeName)) && cursor.acceptKeyword("VARYING")) {
+            typeName = "VARCHAR";
+        } else if ("CHARACTER".equals(typeName)) {
+            typeName = "CHAR";
+        }
+        declared.append(typeName.toLowerCase(Locale.ROOT));
+        
+        if (cursor.peekSymbol("(")) {
+            cursor.next();
+            List<String> args = new ArrayList<>();
+            while (!cursor.peekSymbol(")")) {
+                Token arg = cursor.next();
+                if (!arg.isSymbol(",")) {
+                    args.add(arg.text);
+                }
+            }
+            cursor.next();
+            declared.append('(').append(String.join(",", args)).append(')');
+            applyTypeArguments(column, typeName, args);
+        }
+        
+        while (cursor.peekKeyword("UNSIGNED") || cursor.peekKeyword("SIGNED") || cursor.peekKeyword("ZEROFILL")) {
+            String modifier = cursor.next().upper();
+            column.setUnsigned(column.isUnsigned() || "UNSIGNED".equals(modifier));
+            declared.append(' ').append(modifier.toLowerCase(Locale.ROOT));
+        }
+        column.setDeclaredType(declared.toString());
+        column.setType(normalizeType(typeName, column));
+        
+        while (cursor.hasNext()) {
+            Token token = cursor.next();
+            if (token.isSymbol("(")) {
+                // 跳过 CHECK (...)、GENERATED ALWAYS AS (...) 等括号内的表达式
+                cursor.skipGroup();
+                continue;
+            }
+            if (token.kind != TokenKind.WORD) {
+                continue;
+            }
+            switch (token.upper()) {
+                case "NOT":
+                    if (cursor.acceptKeyword("NULL")) {
+                        column.setNotNull(true);
+                    }
+                    break;
+                case "PRIMARY":
+                    cursor.acceptKeyword("KEY");
+                    column.setPrimaryKey(true);
+                    column.setNotNull(true);
+                    if (!table.getPrimaryKey().contains(column.getName())) {
+                        table.getPrimaryKey().add(column.getName());
+                    }
+                    break;
+                case "UNIQUE":
+                    cursor.acceptKeyword("KEY");
+                    column.setUnique(true);
+                    break;
+                case "AUTO_INCREMENT":
+                case "AUTOINCREMENT":
+                case "IDENTITY":
+                    column.setAutoIncrement(true);
+                    break;
+                case "DEFAULT":
+                    column.setDefaultValue(cursor.defaultValue());
+                    break;
+                case "COMMENT":
+                case "COLLATE":
+                    if (cursor.hasNext()) {
+                        cursor.next();
+                    }
+                    break;
+                case "REFERENCES":
+                    column.setReferencedTable(cursor.qualifiedName());
+                    List<String> referenced = cursor.nameList();
+                    column.setReferencedColumn(referenced.isEmpty() ? null : referenced.get(0));
+                    break;
+                default:
+                    // 忽略 CHARACTER SET、ON UPDATE、GENERATED 等不影响数据生成的子句
+                    break;
+            }
+        }
+        return column;
+    }
+    
+    private void applyTypeArguments(ColumnDefinition column, String typeName, List<String> args) {
+        if ("ENUM".equals(typeName) || "SET".equals(typeName)) {
+            column.getEnumValues().addAll(args);
+            return;
+        }
+        List<Integer> numbers = new ArrayList<>();
+        for (String arg : args) {
+            try {
+                numbers.add(Integer.parseInt(arg.trim()));
+            } catch (NumberFormatException e) {
+                // 忽略 VARCHAR2(20 CHAR) 中的 CHAR 等修饰
+            }
+        }
+        if (numbers.isEmpty()) {
+            return;
+        }
+        switch (typeName) {
+            case "DECIMAL":
+            case "DEC":
+            case "NUMERIC":
+            case "NUMBER":
+            case "FLOAT":
+            case "DOUBLE":
+            case "REAL":
+                column.setPrecision(numbers.get(0));
+                column.setScale(numbers.size() > 1 ? numbers.get(1) : 0);
+                break;
+            default:
+                column.setLength(numbers.get(0));
+                break;
+        }
+    }
+    
+    private String normalizeType(String typeName, ColumnDefinition column) {
+        String mapped = TYPE_MAPPINGS.get(typeName);
+        if (mapped == null) {
+            log.warn("Unknown SQL type {} for column {}, treating it as VARCHAR", typeName, column.getName());
+            return "VARCHAR";
+        }
+        // 整数部分的位数决定DECIMAL能容纳的范围，NUMBER(p,0)按整数处理
+        if ("DECIMAL".equals(mapped) && column.getPrecision() != null && column.getScale() != null && column.getScale() == 0
+                && "NUMBER".equals(typeName)) {
+            return column.getPrecision() > 9 ? "BIGINT" : "INT";
+        }
+        return mapped;
+    }
+    
+    private void parseTableConstraint(TableSchema table, Cursor cursor) {
+        if (cursor.acceptKeyword("CONSTRAINT")) {
+            if (!cursor.peekKeyword("PRIMARY") && !cursor.peekKeyword("UNIQUE")
+                    && !cursor.peekKeyword("FOREIGN") && !cursor.peekKeyword("CHECK")) {
+                cursor.name();
+            }
+        }
+        if (cursor.acceptKeyword("PRIMARY")) {
+            cursor.acceptKeyword("KEY");
+            skipIndexName(cursor);
+            for (String name : cursor.nameList()) {
+                if (!table.getPrimaryKey().contains(name)) {
+                    table.getPrimaryKey().add(name);
+                }
+            }
+        } else if (cursor.acceptKeyword("UNIQUE")) {
+            if (!cursor.acceptKeyword("KEY")) {
+                cursor.acceptKeyword("INDEX");
+            }
+            skipIndexName(cursor);
+            List<String> columns = cursor.nameList();
+            if (columns.size() == 1) {
+                ColumnDefinition column = table.getColumn(columns.get(0));
+                if (column != null) {
+                    column.setUnique(true);
+                }
+            } else {
+                log.debug("Composite unique key {} on table {} is not enforced", columns, table.getName());
+            }
+        } else if (cursor.acceptKeyword("FOREIGN")) {
+            cursor.acceptKeyword("KEY");
+            skipIndexName(cursor);
+            List<String> columns = cursor.nameList();
+            cursor.expectKeyword("REFERENCES");
+            String referencedTable = cursor.qualifiedName();
+            List<String> referencedColumns = cursor.nameList();
+            for (int i = 0; i < columns.size() && i < referencedColumns.size(); i++) {
+                ColumnDefinition column = table.getColumn(columns.get(i));
+                if (column != null) {
+                    column.setReferencedTable(referencedTable);
+                    column.setReferencedColumn(referencedColumns.get(i));
+                }
+            }
+        }
+        // KEY/INDEX/CHECK/FULLTEXT 等索引定义不影响数据生成
+    }
+    
+    private void skipIndexName(Cursor cursor) {
+        if (!cursor.peekSymbol("(")) {
+            cursor.name();
+        }
+        if (cursor.acceptKeyword("USING")) {
+            cursor.next();
+        }
+    }
+    
+    private enum TokenKind {
+        WORD, QUOTED, STRING, NUMBER, SYMBOL
+    }
+    
+    private static final class Token {
+        private final TokenKind kind;
+        private final String text;
+        
+        Token(TokenKind kind, String text) {
+            this.kind = kind;
+            this.text = text;
+        }
+        
+        boolean isSymbol(String symbol) {
+            return kind == TokenKind.SYMBOL && text.equals(symbol);
+        }
+        
+        boolean isKeyword(String keyword) {
+            return kind == TokenKind.WORD && text.equalsIgnoreCase(keyword);
+        }
+        
+        String upper() {
+            return text.toUpperCase(Locale.ROOT);
+        }
+        
+        @Override
+        public String toString() {
+            return text;
+        }
+    }
+    
+    /**
+     * 词法分析器，跳过注释并识别标识符、带引号的标识符、字符串、数字和符号
+     */
+    private static final class Lexer {
+        private final String source;
+        private int pos;
+        
+        Lexer(String source) {
+            this.source = source;
+        }
+        
+        List<Token> tokenize() {
+            List<Token> tokens = new ArrayList<>();
+            while (pos < source.length()) {
+                char c = source.charAt(pos);
+                if (Character.isWhitespace(c)) {
+                    pos++;
+                } else if (c == '-' && source.startsWith("--", pos) || c == '#') {
+                    int end = source.indexOf('\n', pos);
+                    pos = end < 0 ? source.length() : end + 1;
+                } else if (c == '/' && source.startsWith("/*", pos)) {
+                    int end = source.indexOf("*/", pos + 2);
+                    pos = end < 0 ? source.length() : end + 2;
+                } else if (c == '`' || c == '"') {
+                    int end = source.indexOf(c, pos + 1);
+                    if (end < 0) {
+                        throw new IllegalArgumentException("Unterminated quoted identifier at position " + pos);
+                    }
+                    tokens.add(new Token(TokenKind.QUOTED, source.substring(pos + 1, end)));
+                    pos = end + 1;
+                } else if (c == '\'') {
+                    tokens.add(new Token(TokenKind.STRING, readString()));
+                } else if (Character.isDigit(c) || (c == '.' && pos + 1 < source.length() && Character.isDigit(source.charAt(pos + 1)))) {
+                    int start = pos;
+                    while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos)) || source.charAt(pos) == '.')) {
+                        pos++;
+                    }
+                    tokens.add(new Token(TokenKind.NUMBER, source.substring(start, pos)));
+                } else if (Character.isLetter(c) || c == '_' || c == '$') {
+                    int start = pos;
+                    while (pos < source.length() && (Character.isLetterOrDigit(source.charAt(pos))
+                            || source.charAt(pos) == '_' || source.charAt(pos) == '$')) {
+                        pos++;
+                    }
+                    tokens.add(new Token(TokenKind.WORD, source.substring(start, pos)));
+                } else {
+                    tokens.add(new Token(TokenKind.SYMBOL, String.valueOf(c)));
+                    pos++;
+                }
+            }
+            return tokens;
+        }
+        
+        private String readString() {
+            StringBuilder sb = new StringBuilder();
+            pos++;
+            while (pos < source.length()) {
+                char c = source.charAt(pos++);
+                if (c == '\\' && pos < source.length()) {
+                    sb.append(source.charAt(pos++));
+                } else if (c == '\'') {
+                    if (pos < source.length() && source.charAt(pos) == '\'') {
+                        sb.append('\'');
+                        pos++;
+                    } else {
+                        return sb.toString();
+                    }
+                } else {
+                    sb.append(c);
+                }
+            }
+            throw new IllegalArgumentException("Unterminated string literal in DDL");
+        }
+    }
+    
+    /**
+     * 语句内的游标
+     */
+    private static final class Cursor {
+        private final List<Token> tokens;
+        private int pos;
+        
+        Cursor(List<Token> tokens) {
+            this.tokens = tokens;
+        }
+        
+        boolean hasNext() {
+            return pos < tokens.size();
+        }
+        
+        Token next() {
+            if (!hasNext()) {
+                throw new IllegalArgumentException("Unexpected end of statement: " + tokens);
+            }
+            return tokens.get(pos++);
+        }
+        
+        boolean peekSymbol(String symbol) {
+            return hasNext() && tokens.get(pos).isSymbol(symbol);
+        }
+        
+        boolean peekKeyword(String keyword) {
+            return hasNext() && tokens.get(pos).isKeyword(keyword);
+        }
+        
+        boolean acceptKeyword(String keyword) {
+            if (peekKeyword(keyword)) {
+                pos++;
+                return true;
+            }
+            return false;
+        }
+        
+        void expectKeyword(String keyword) {
+            if (!acceptKeyword(keyword)) {
+                throw new IllegalArgumentException("Expected " + keyword + " in statement: " + tokens);
+            }
+        }
+        
+        String name() {
+            Token token = next();
+            if (token.kind != TokenKind.WORD && token.kind != TokenKind.QUOTED) {
+                throw new IllegalArgumentException("Expected identifier but found '" + token + "' in statement: " + tokens);
+            }
+            return token.text;
+        }
+        
+        /**
+         * 读取可能带有库名前缀的名称，只保留最后一段
+         */
+        String qualifiedName() {
+            String name = name();
+            while (peekSymbol(".")) {
+                pos++;
+                name = name();
+            }
+            return name;
+        }
+        
+        /**
+         * 跳过已读入左括号之后的内容，直到与之匹配的右括号
+         */
+        void skipGroup() {
+            int depth = 0;
+            while (hasNext()) {
+                Token token = next();
+                if (token.isSymbol("(")) {
+                    depth++;
+                } else if (token.isSymbol(")")) {
+                    if (depth == 0) {
+                        return;
+                    }
+                    depth--;
+                }
+            }
+        }
+        
+        /**
+         * 读取一对括号内的记号，不包括括号本身，当前位置不是左括号时返回空列表
+         */
+        List<Token> group() {
+            if (!peekSymbol("(")) {
+                return Collections.emptyList();
+            }
+            int start = ++pos;
+            skipGroup();
+            return tokens.subList(start, pos - 1);
+        }
+        
+        List<String> nameList() {
+            List<String> names = new ArrayList<>();
+            if (!peekSymbol("(")) {
+                return names;
+            }
+            pos++;
+            int depth = 0;
+            while (hasNext()) {
+                Token token = next();
+                if (token.isSymbol("(")) {
+                    depth++;
+                } else if (token.isSymbol(")")) {
+                    if (depth == 0) {
+                        break;
+                    }
+                    depth--;
+                } else if (depth == 0 && (token.kind == TokenKind.WORD || token.kind == TokenKind.QUOTED)
+                        && !token.isKeyword("ASC") && !token.isKeyword("DESC")) {
+                    names.add(token.text);
+                }
+            }
+            return names;
+        }
+        
+        String defaultValue() {
+            Token token = next();
+            if (token.isSymbol("-") && hasNext()) {
+                return "-" + next().text;
+            }
+            if (token.isSymbol("(")) {
+                StringBuilder sb = new StringBuilder();
+                int depth = 0;
+                while (hasNext()) {
+                    Token inner = next();
+                    if (inner.isSymbol("(")) {
+                        depth++;
+                    } else if (inner.isSymbol(")")) {
+                        if (depth == 0) {
+                            break;
+                        }
+                        depth--;
+                    }
+                    sb.append(inner.text);
+                }
+                return sb.toString();
+            }
+            if (token.isKeyword("NULL")) {
+                return null;
+            }
+            if (token.kind == TokenKind.WORD && peekSymbol("(")) {
+                // 如 CURRENT_TIMESTAMP(6)
+                nameList();
+            }
+            return token.text;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,177 @@
+package com.oceanbase.datamocker.schema;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从 PARTITION BY 子句中解析出的一级分区方式，支持按字段的 HASH、KEY 和 RANGE 分区
+ * HASH 分区与MySQL/OceanBase的取模算法一致；KEY 分区的服务器内部哈希不公开，按稳定的哈希均衡分桶，
+ * 各桶的行数与服务器上的分区接近但不保证落在同一分区
+ */
+@Data
+public class Partitioning {
+    
+    /**
+     * 分区方式
+     */
+    public enum Method {
+        HASH, KEY, RANGE
+    }
+    
+    private Method method;
+    
+    /**
+     * 是否为 LINEAR HASH/KEY，按2的幂次折叠取模
+     */
+    private boolean linear;
+    
+    /**
+     * 分区键字段，KEY() 未列出字段时为主键字段
+     */
+    private List<String> columns = new ArrayList<>();
+    
+    /**
+     * HASH/KEY 分区的分区数
+     */
+    private int partitionCount;
+    
+    /**
+     * 显式声明的分区名，HASH/KEY 未声明时为空
+     */
+    private List<String> names = new ArrayList<>();
+    
+    /**
+     * RANGE 分区各分区的 VALUES LESS THAN 上界，与names一一对应，MAXVALUE 为null
+     */
+    private List<String> bounds = new ArrayList<>();
+    
+    /**
+     * 分区名列表，HASH/KEY 未声明分区名时为 p0、p1……
+     *
+     * @return 分区名，按分区顺序排列
+     */
+    @JsonIgnore
+    public List<String> getPartitionNames() {
+        if (method != Method.RANGE && names.size() != partitionCount) {
+            List<String> generated = new ArrayList<>(partitionCount);
+            for (int i = 0; i < partitionCount; i++) {
+                generated.add("p" + i);
+            }
+            return generated;
+        }
+        return names;
+    }
+    
+    /**
+     * 计算一行数据所在的分区
+     *
+     * @param keyValues 分区键字段的值，按columns的顺序排列
+     * @return 分区序号，RANGE 分区中没有分区能容纳该值时返回-1
+     * @throws IllegalArgumentException HASH 分区键的值不是整数
+     */
+    public int locate(Object[] keyValues) {
+        if (method != Method.RANGE && partitionCount <= 1) {
+            // 只有一个分区时无需计算，LINEAR 分区的掩码在这种情况下为0
+            return 0;
+        }
+        switch (method) {
+            case HASH:
+                return fold(Math.abs(integerOf(keyValues[0]) % partitionCount), integerOf(keyValues[0]));
+            case KEY:
+                long hash = 0;
+                for (Object value : keyValues) {
+                    hash = hash * 31 + hashOf(value);
+                }
+                hash = mix(hash);
+                return fold(Math.floorMod(hash, (long) partitionCount), hash);
+            case RANGE:
+            default:
+                for (int i = 0; i < bounds.size(); i++) {
+                    if (bounds.get(i) == null || compareToBound(keyValues[0], bounds.get(i)) < 0) {
+                        return i;
+                    }
+                }
+                return -1;
+        }
+    }
+    
+    /**
+     * LINEAR 分区按不小于分区数的2的幂次取掩码，超出分区数时折半重取
+     */
+    private int fold(long modulo, long value) {
+        if (!linear) {
+            return (int) modulo;
+        }
+        long mask = Long.highestOneBit(partitionCount - 1L) << 1;
+        long n = value & (mask - 1);
+        while (n >= partitionCount) {
+            mask >>= 1;
+            n &= mask - 1;
+        }
+        return (int) Math.abs(n);
+    }
+    
+    private static long integerOf(Object value) {
+        if (value == null) {
+            // NULL 按0放入第一个分区，与MySQL一致
+            return 0;
+        }
+        if (value instanceof Number) {
+            return ((Number) value).longValue();
+        }
+        try {
+            return new BigDecimal(value.toString()).longValue();
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("HASH partition key must be an integer, got '" + value + "'");
+        }
+    }
+    
+    private static long hashOf(Object value) {
+        if (value == null) {
+            return 0;
+        }
+        if (value instanceof Long || value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            return ((Number) value).longValue();
+        }
+        long hash = 1125899906842597L;
+        for (byte b : value.toString().getBytes(StandardCharsets.UTF_8)) {
+            hash = 31 * hash + b;
+        }
+        return hash;
+    }
+    
+    private static long mix(long hash) {
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        return hash ^ (hash >>> 33);
+    }
+    
+    /**
+     * 数值按数值比较，其余按字符串比较；日期时间中的T分隔符视为空格，使 2024-01-01T08:00 与 '2024-01-01 08:00:00' 可比
+     */
+    private static int compareToBound(Object value, String bound) {
+        if (value == null) {
+            // NULL 小于任何值，放入第一个分区
+            return -1;
+        }
+        if (value instanceof Number) {
+            try {
+                return new BigDecimal(value.toString()).compareTo(new BigDecimal(bound));
+            } catch (NumberFormatException e) {
+                // 上界不是数值时按字符串比较
+            }
+        }
+        String text = value.toString();
+        if (text.length() > 10 && text.charAt(10) == 'T') {
+            text = text.substring(0, 10) + ' ' + text.substring(11);
+        }
+        return text.compareTo(bound);
+    }
+} 
\ No newline at end of file
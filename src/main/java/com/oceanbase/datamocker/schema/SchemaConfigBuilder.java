@@ -0,0 +1,234 @@
+package com.oceanbase.datamocker.schema;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.extern.slf4j.Slf4j;
+
+import java.math.BigDecimal;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+import java.util.regex.Pattern;
+
+/**
+ * 根据DDL解析出的表结构构建字段配置
+ * <ul>
+ *     <li>VARCHAR(n)/CHAR(n) 映射为 maxLength（CHAR 同时设置 minLength）</li>
+ *     <li>DECIMAL(p,s) 映射为 scale，并按整数位数限制 max</li>
+ *     <li>NOT NULL 映射为 allowNull=false</li>
+ *     <li>PRIMARY KEY（联合主键只取第一个字段）、单列 UNIQUE 和 AUTO_INCREMENT 映射为序列</li>
+ *     <li>外键映射为被引用字段的取值范围，字符串类型的外键按序列的字符串形式取值</li>
+ *     <li>ENUM/SET 映射为枚举值，DEFAULT 映射为 defaultValue</li>
+ * </ul>
+ */
+@Slf4j
+public class SchemaConfigBuilder {
+    
+    private static final int DEFAULT_MIN_LENGTH = 5;
+    private static final double DEFAULT_MAX = 1000;
+    private static final Pattern NON_LITERAL_DEFAULT = Pattern.compile("(?i)^(CURRENT_|NOW|SYSDATE|SYSTIMESTAMP|LOCALTIME|UUID).*");
+    
+    /**
+     * 为多张表构建字段配置，并根据各表的行数解析外键的取值范围
+     *
+     * @param tables 表结构列表
+     * @param rowCounts 表名到生成行数的映射函数
+     * @return 表名到字段配置的映射
+     */
+    public Map<String, Map<String, FieldConfig>> build(List<TableSchema> tables, ToLongFunction<String> rowCounts) {
+        Map<String, Map<String, FieldConfig>> result = new LinkedHashMap<>();
+        Map<String, TableSchema> schemas = new LinkedHashMap<>();
+        for (TableSchema table : tables) {
+            result.put(table.getName(), build(table));
+            schemas.put(table.getName().toLowerCase(), table);
+        }
+        
+        for (TableSchema table : tables) {
+            for (ColumnDefinition column : table.getColumns()) {
+                if (column.getReferencedTable() == null) {
+                    continue;
+                }
+                TableSchema referenced = schemas.get(column.getReferencedTable().toLowerCase());
+                if (referenced == null) {
+                    log.warn("Table {} referenced by {}.{} is not defined in the DDL", column.getReferencedTable(),
+                            table.getName(), column.getName());
+                    continue;
+                }
+                String referencedColumn = column.getReferencedColumn() != null ? column.getReferencedColumn()
+                        : (referenced.getPrimaryKey().isEmpty() ? null : referenced.getPrimaryKey().get(0));
+                ColumnDefinition target = referencedColumn == null ? null : referenced.getColumn(referencedColumn);
+                if (target == null) {
+                    log.warn("Column {}.{} referenced by {}.{} is not defined in the DDL", referenced.getName(),
+                            referencedColumn, table.getName(), column.getName());
+                    continue;
+                }
+                FieldConfig targetConfig = result.get(referenced.getName()).get(target.getName());
+                FieldConfig fieldConfig = result.get(table.getName()).get(column.getName());
+                resolveReference(fieldConfig, targetConfig, rowCounts.applyAsLong(referenced.getName()));
+            }
+        }
+        return result;
+    }
+    
+    /**
+     * 为单张表构建字段配置，不解析外键的取值范围
+     *
+     * @param table 表结构
+     * @return 字段名到字段配置的映射，按字段声明顺序排列
+     */
+    public Map<String, FieldConfig> build(TableSchema table) {
+        Map<String, FieldConfig> configs = new LinkedHashMap<>();
+        for (ColumnDefinition column : table.getColumns()) {
+            configs.put(column.getName(), build(column));
+        }
+        // 联合主键只需第一个字段唯一即可保证整体唯一，其余字段都按序列生成时各字段的取值完全相同
+        List<String> primaryKey = table.getPrimaryKey();
+        for (int i = 1; i < primaryKey.size(); i++) {
+            ColumnDefinition column = table.getColumn(primaryKey.get(i));
+            FieldConfig config = column == null ? null : configs.get(column.getName());
+            if (config != null && config.isSequence() && !column.isUnique() && !column.isAutoIncrement()) {
+                config.setSequence(false);
+                config.setMin(null);
+            }
+        }
+        return configs;
+    }
+    
+    /**
+     * 为单个字段构建配置
+     *
+     * @param column 字段定义
+     * @return 字段配置
+     */
+    public FieldConfig build(ColumnDefinition column) {
+        FieldConfig config = new FieldConfig();
+        config.setType(column.getType());
+        config.setAllowNull(!column.isNotNull());
+        
+        String declared = column.getDeclaredType() == null ? "" : column.getDeclaredType();
+        if (declared.startsWith("bool") || declared.startsWith("bit")) {
+            config.setEnumValues(new String[]{"0", "1"});
+        } else if (declared.startsWith("year")) {
+            config.setMin("1970");
+            config.setMax("2030");
+        } else if (!column.getEnumValues().isEmpty()) {
+            config.setEnumValues(column.getEnumValues().toArray(new String[0]));
+        }
+        
+        switch (column.getType()) {
+            case "CHAR":
+                if (column.getLength() != null) {
+                    config.setMinLength(column.getLength());
+                    config.setMaxLength(column.getLength());
+                }
+                break;
+            case "VARCHAR":
+            case "TEXT":
+                if (column.getLength() != null) {
+                    config.setMinLength(Math.min(DEFAULT_MIN_LENGTH, column.getLength()));
+                    config.setMaxLength(column.getLength());
+                }
+                break;
+            case "BLOB":
+            case "CLOB":
+                // BLOB(n)的长度为字节数上限
+                if (column.getLength() != null) {
+                    config.setMaxLength(column.getLength());
+                }
+                break;
+            case "TINYINT":
+                // 默认取值范围超出了TINYINT的表示范围
+                if (config.getMax() == null) {
+                    config.setMax("127");
+                }
+                break;
+            case "DECIMAL":
+                if (column.getScale() != null) {
+                    config.setScale(column.getScale());
+                }
+                if (column.getPrecision() != null && column.getScale() != null) {
+                    // 整数位数不足以容纳默认取值范围时，按精度收紧最大值
+                    BigDecimal upper = BigDecimal.TEN.pow(column.getPrecision() - column.getScale())
+                            .subtract(BigDecimal.ONE.movePointLeft(column.getScale()));
+                    if (upper.doubleValue() < DEFAULT_MAX) {
+                        config.setMax(upper.toPlainString());
+                    }
+                }
+                break;
+            default:
+                break;
+        }
+        
+        if (column.isPrimaryKey() || column.isUnique() || column.isAutoIncrement()) {
+            if (isSequenceType(column.getType())) {
+                config.setSequence(true);
+                config.setMin("1");
+            } else {
+                log.debug("Unique column {} of type {} is generated randomly", column.getName(), column.getType());
+            }
+        }
+        
+        if (column.getDefaultValue() != null && !NON_LITERAL_DEFAULT.matcher(column.getDefaultValue()).matches()) {
+            config.setDefaultValue(column.getDefaultValue());
+        }
+        
+        if (column.getReferencedTable() != null) {
+            config.setReferences(column.getReferencedTable() + "." + column.getReferencedColumn());
+        }
+        return config;
+    }
+    
+    private void resolveReference(FieldConfig fieldConfig, FieldConfig targetConfig, long referencedRows) {
+        if (targetConfig.isSequence()) {
+            long start = targetConfig.getMin() == null ? 1L : Long.parseLong(targetConfig.getMin());
+            // 外键本身也是主键时（一对一关系）保持序列，否则在被引用表的序列范围内取值
+            if (!fieldConfig.isSequence()) {
+                long end = start + Math.max(referencedRows, 1) - 1;
+                fieldConfig.setEnumValues(null);
+                if (isNumericType(fieldConfig.getType())) {
+                    fieldConfig.setMin(String.valueOf(start));
+                    fieldConfig.setMax(String.valueOf(end));
+                } else {
+                    // 字符串生成器不使用数值范围，按序列输出的字符串形式取值才能与被引用的行对应
+                    fieldConfig.setExpression("str(randInt(" + start + ", " + end + "))");
+                }
+            }
+        } else if (targetConfig.getEnumValues() != null) {
+            fieldConfig.setEnumValues(targetConfig.getEnumValues());
+        } else {
+            fieldConfig.setMin(targetConfig.getMin());
+            fieldConfig.setMax(targetConfig.getMax());
+        }
+    }
+    
+    private static boolean isSequenceType(String type) {
+        switch (type) {
+            case "INT":
+            case "SMALLINT":
+            case "TINYINT":
+            case "BIGINT":
+            case "DECIMAL":
+            case "CHAR":
+            case "VARCHAR":
+            case "TEXT":
+                return true;
+            default:
+                return false;
+        }
+    }
+    
+    private static boolean isNumericType(String type) {
+        switch (type == null ? "" : type) {
+            case "INT":
+            case "SMALLINT":
+            case "TINYINT":
+            case "BIGINT":
+            case "DECIMAL":
+            case "FLOAT":
+            case "DOUBLE":
+                return true;
+            default:
+                return false;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,102 @@
+package com.oceanbase.datamocker.schema;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.config.FieldConfig;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 从DDL导入的表结构及其字段配置
+ * 解析结果可以缓存到文件中，DDL内容和行数不变时直接复用，避免重复解析大型DDL
+ */
+@Data
+@Slf4j
+public class SchemaPlan {
+    
+    /**
+     * DDL内容与生成行数的指纹，用于判断缓存是否有效
+     */
+    private String fingerprint;
+    
+    /**
+     * 表结构，按DDL中的声明顺序排列
+     */
+    private List<TableSchema> tables = new ArrayList<>();
+    
+    /**
+     * 表名到字段配置的映射
+     */
+    private Map<String, Map<String, FieldConfig>> fieldConfigs = new LinkedHashMap<>();
+    
+    /**
+     * 加载DDL文件对应的表结构及字段配置
+     *
+     * @param ddlFile DDL文件
+     * @param rowCount 每张表的生成行数，用于确定外键的取值范围
+     * @param cacheFile 缓存文件，为null时不使用缓存
+     * @return 表结构及字段配置
+     * @throws IOException 读取DDL文件失败
+     */
+    public static SchemaPlan load(File ddlFile, long rowCount, File cacheFile) throws IOException {
+        byte[] ddl = Files.readAllBytes(ddlFile.toPath());
+        String fingerprint = fingerprint(ddl, rowCount);
+        ObjectMapper mapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .setSerializationInclusion(JsonInclude.Include.NON_NULL);
+        
+        if (cacheFile != null && cacheFile.exists()) {
+            try {
+                SchemaPlan cached = mapper.readValue(cacheFile, SchemaPlan.class);
+                if (fingerprint.equals(cached.getFingerprint())) {
+                    log.info("Loaded schema plan of {} table(s) from cache: {}", cached.getTables().size(), cacheFile.getAbsolutePath());
+                    return cached;
+                }
+                log.info("Schema plan cache {} is stale, re-parsing DDL", cacheFile.getAbsolutePath());
+            } catch (IOException e) {
+                log.warn("Failed to read schema plan cache: {}, re-parsing DDL", cacheFile.getAbsolutePath(), e);
+            }
+        }
+        
+        SchemaPlan plan = new SchemaPlan();
+        plan.setFingerprint(fingerprint);
+        plan.setTables(new DdlParser().parse(new String(ddl, StandardCharsets.UTF_8)));
+        plan.setFieldConfigs(new SchemaConfigBuilder().build(plan.getTables(), table -> rowCount));
+        
+        if (cacheFile != null) {
+            File parent = cacheFile.getAbsoluteFile().getParentFile();
+            if (parent != null && !parent.exists() && !parent.mkdirs()) {
+                log.warn("Failed to create directory for schema plan cache: {}", parent.getAbsolutePath());
+            }
+            mapper.writerWithDefaultPrettyPrinter().writeValue(cacheFile, plan);
+            log.info("Saved schema plan cache: {}", cacheFile.getAbsolutePath());
+        }
+        return plan;
+    }
+    
+    private static String fingerprint(byte[] ddl, long rowCount) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(ddl);
+            StringBuilder sb = new StringBuilder();
+            for (byte b : digest.digest()) {
+                sb.append(String.format("%02x", b));
+            }
+            return sb.append(':').append(rowCount).toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+} 
\ No newline at end of file
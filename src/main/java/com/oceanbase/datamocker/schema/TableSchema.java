@@ -0,0 +1,77 @@
+package com.oceanbase.datamocker.schema;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 从DDL中解析出的表结构
+ */
+@Data
+public class TableSchema {
+    
+    /**
+     * 表名
+     */
+    private String name;
+    
+    /**
+     * 字段定义，按声明顺序排列
+     */
+    private List<ColumnDefinition> columns = new ArrayList<>();
+    
+    /**
+     * 主键字段名，按声明顺序排列
+     */
+    private List<String> primaryKey = new ArrayList<>();
+    
+    /**
+     * 分区方式，未分区或分区方式不受支持时为null
+     */
+    private Partitioning partitioning;
+    
+    /**
+     * 按名称查找字段定义
+     *
+     * @param columnName 字段名
+     * @return 字段定义，不存在时返回null
+     */
+    public ColumnDefinition getColumn(String columnName) {
+        for (ColumnDefinition column : columns) {
+            if (column.getName().equalsIgnoreCase(columnName)) {
+                return column;
+            }
+        }
+        return null;
+    }
+    
+    /**
+     * 获取字段名列表
+     *
+     * @return 字段名列表
+     */
+    @JsonIgnore
+    public List<String> getFieldNames() {
+        List<String> names = new ArrayList<>(columns.size());
+        for (ColumnDefinition column : columns) {
+            names.add(column.getName());
+        }
+        return names;
+    }
+    
+    /**
+     * 获取字段类型列表
+     *
+     * @return 字段类型列表
+     */
+    @JsonIgnore
+    public List<String> getFieldTypes() {
+        List<String> types = new ArrayList<>(columns.size());
+        for (ColumnDefinition column : columns) {
+            types.add(column.getType());
+        }
+        return types;
+    }
+} 
\ No newline at end of file
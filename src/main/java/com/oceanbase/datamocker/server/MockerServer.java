@@ -0,0 +1,371 @@
+package com.oceanbase.datamocker.server;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.compress.CompressionCodecs;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.generator.DataGeneratorFactory;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.schema.DdlParser;
+import com.oceanbase.datamocker.schema.SchemaConfigBuilder;
+import com.oceanbase.datamocker.schema.TableSchema;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 本地数据生成服务
+ * 常驻进程，保持已编译的表生成计划，通过HTTP接口按需生成数据并以分块传输的方式边生成边返回。
+ * 请求头带 Accept-Encoding: gzip 时响应按块并行压缩。
+ * 连接由JDK HttpServer基于NIO Selector的单个分发线程管理，请求在固定大小的工作线程池中处理。
+ * 响应体使用阻塞写出，每个生成请求在返回完所有数据之前一直占用一个工作线程，
+ * 因此同时进行的生成请求最多为workerThreads个，其余请求在队列中等待空闲的工作线程。
+ * 生成过程中出错时直接断开连接而不写出分块传输的结束标记，客户端不会把截断的数据当作完整的响应
+ *
+ * <ul>
+ *   <li>GET /generate?table=t&amp;rows=N[&amp;fields=a,b&amp;types=INT,STRING][&amp;format=csv|ndjson|sql[&amp;dialect=mysql|oracle]][&amp;seed=S]</li>
+ *   <li>POST /tables，请求体为CREATE TABLE语句，注册其中的表</li>
+ *   <li>GET /tables，列出已注册的表</li>
+ *   <li>GET /metrics，运行指标快照（需启用运行指标）</li>
+ *   <li>GET /health</li>
+ * </ul>
+ */
+@Slf4j
+public class MockerServer implements Closeable {
+    
+    /**
+     * 单次请求允许生成的最大行数
+     */
+    private static final long MAX_ROWS = 100_000_000L;
+    
+    /**
+     * 按请求参数即时编译的表计划最多缓存的个数，超过时淘汰最久未使用的计划
+     */
+    static final int MAX_AD_HOC_PLANS = 256;
+    
+    private final DataMocker dataMocker;
+    private final HttpServer httpServer;
+    private final ExecutorService executor;
+    private final int workerThreads;
+    private final ObjectMapper mapper = new ObjectMapper();
+    
+    /**
+     * 通过DDL注册的表，key为小写表名
+     */
+    private final Map<String, TablePlan> tables = new ConcurrentHashMap<>();
+    
+    /**
+     * 按请求参数即时编译的表计划，key为表名、字段名和字段类型。key来自客户端，按访问顺序淘汰以限制缓存大小
+     */
+    private final Map<String, TablePlan> adHocPlans = new LinkedHashMap<String, TablePlan>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, TablePlan> eldest) {
+            return size() > MAX_AD_HOC_PLANS;
+        }
+    };
+    
+    /**
+     * 创建生成服务
+     *
+     * @param dataMocker 数据模拟器，由服务负责关闭
+     * @param address 监听地址
+     * @param workerThreads 处理请求的线程数，也是同时进行的生成请求的上限
+     * @throws IOException 绑定端口失败
+     */
+    public MockerServer(DataMocker dataMocker, InetSocketAddress address, int workerThreads) throws IOException {
+        if (workerThreads <= 0) {
+            throw new IllegalArgumentException("workerThreads must be positive");
+        }
+        this.dataMocker = dataMocker;
+        this.workerThreads = workerThreads;
+        this.httpServer = HttpServer.create(address, 0);
+        AtomicInteger threadIds = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workerThreads, workerThreads, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "mocker-http-" + threadIds.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        httpServer.setExecutor(executor);
+        httpServer.createContext("/generate", this::handleGenerate);
+        httpServer.createContext("/tables", this::handleTables);
+        httpServer.createContext("/metrics", this::handleMetrics);
+        httpServer.createContext("/health", exchange -> respond(exchange, 200, "text/plain", "ok\n"));
+        
+        // 提前完成生成器的SPI扫描等初始化，避免第一个请求承担这部分开销
+        DataGeneratorFactory.getGenerator("STRING");
+    }
+    
+    /**
+     * 注册DDL中的表，同名的表会被替换
+     *
+     * @param ddl CREATE TABLE语句
+     * @return 注册的表名
+     */
+    public List<String> registerSchema(String ddl) {
+        List<TableSchema> schemas = new DdlParser().parse(ddl);
+        long rowCount = dataMocker.getConfig().getDefaultRowCount();
+        Map<String, Map<String, FieldConfig>> fieldConfigs = new SchemaConfigBuilder().build(schemas, table -> rowCount);
+        List<String> names = new ArrayList<>();
+        for (TableSchema schema : schemas) {
+            tables.put(schema.getName().toLowerCase(), dataMocker.compilePlan(schema, fieldConfigs.get(schema.getName())));
+            names.add(schema.getName());
+        }
+        log.info("Registered tables {}", names);
+        return names;
+    }
+    
+    public void start() {
+        httpServer.start();
+        log.info("Mock data server listening on {}", httpServer.getAddress());
+    }
+    
+    public int getPort() {
+        return httpServer.getAddress().getPort();
+    }
+    
+    /**
+     * 获取处理请求的线程数，即同时进行的生成请求的上限
+     *
+     * @return 线程数
+     */
+    public int getWorkerThreads() {
+        return workerThreads;
+    }
+    
+    @Override
+    public void close() {
+        httpServer.stop(1);
+        executor.shutdownNow();
+        dataMocker.close();
+    }
+    
+    private void handleGenerate(HttpExchange exchange) throws IOException {
+        boolean failed = false;
+        try {
+            if (!"GET".equals(exchange.getRequestMethod())) {
+                respond(exchange, 405, "text/plain", "Method not allowed\n");
+                return;
+            }
+            Map<String, String> params = parseQuery(exchange.getRequestURI().getRawQuery());
+            TablePlan plan;
+            long rows;
+            Long seed;
+            SqlDialect dialect;
+            String format = params.getOrDefault("format", "csv").toLowerCase();
+            try {
+                plan = resolvePlan(params);
+                rows = Long.parseLong(params.getOrDefault("rows", String.valueOf(dataMocker.getConfig().getDefaultRowCount())));
+                if (rows < 0 || rows > MAX_ROWS) {
+                    throw new IllegalArgumentException("rows must be between 0 and " + MAX_ROWS);
+                }
+                if (!"csv".equals(format) && !"ndjson".equals(format) && !"sql".equals(format)) {
+                    throw new IllegalArgumentException("Unsupported format: " + format);
+                }
+                dialect = SqlDialect.of(params.getOrDefault("dialect", "mysql"));
+                seed = params.containsKey("seed") ? Long.valueOf(params.get("seed")) : dataMocker.getConfig().getSeed();
+            } catch (IllegalArgumentException e) {
+                respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+                return;
+            }
+            
+            // 长度为0表示使用分块传输，数据边生成边返回
+            exchange.getResponseHeaders().set("Content-Type", contentType(format));
+            String acceptEncoding = exchange.getRequestHeaders().getFirst("Accept-Encoding");
+            boolean gzip = acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+            if (gzip) {
+                exchange.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            exchange.sendResponseHeaders(200, 0);
+            OutputStream body = exchange.getResponseBody();
+            if (gzip) {
+                // 按块并行压缩，多个gzip成员拼接的响应可以被客户端直接解压
+                body = CompressionCodecs.wrap(body, "gzip", 1);
+            }
+            RowSink sink = RowSinks.create(format, body, true, dialect);
+            try {
+                streamRows(plan, rows, seed, sink);
+            } catch (RuntimeException e) {
+                // 不关闭输出，关闭会写出分块传输的结束标记和gzip尾部，客户端会把截断的数据当作完整的响应；
+                // 异常抛出后由HttpServer直接关闭连接
+                failed = true;
+                log.error("Generation of table {} failed, aborting the response", plan.getTableName(), e);
+                throw e;
+            }
+            sink.close();
+        } catch (IOException e) {
+            // 客户端提前断开连接
+            log.debug("Generation request aborted: {}", e.getMessage());
+        } finally {
+            if (!failed) {
+                exchange.close();
+            }
+        }
+    }
+    
+    private static String contentType(String format) {
+        switch (format) {
+            case "csv":
+                return "text/csv; charset=utf-8";
+            case "sql":
+                return "application/sql; charset=utf-8";
+            default:
+                return "application/x-ndjson";
+        }
+    }
+    
+    private void streamRows(TablePlan plan, long rows, Long seed, RowSink sink) throws IOException {
+        sink.open(plan.getTableName(), plan.getOutputColumns());
+        long tableSeed = seed == null ? 0 : RandomStreams.derive(seed, plan.getTableName());
+        // 未指定种子时每个请求使用自己的空值位图种子，不同请求的空值位置互不相同
+        long nullSeed = seed == null ? RandomStreams.current().nextLong() : 0;
+        for (long i = 0; i < rows; i++) {
+            Object[] row = seed != null ? plan.generateRow(i, tableSeed) : plan.generateRow(i, RandomStreams.current(), nullSeed);
+            sink.write(plan.toOutput(row));
+        }
+        sink.flush();
+        plan.getMetrics().addBytes(sink.getBytesWritten());
+    }
+    
+    /**
+     * 获取缓存的即时编译计划个数，用于测试
+     */
+    int adHocPlanCount() {
+        synchronized (adHocPlans) {
+            return adHocPlans.size();
+        }
+    }
+    
+    /**
+     * 按请求参数获取已注册的表计划，或即时编译并缓存请求中给出的字段
+     *
+     * @param params 请求参数
+     * @return 表计划
+     */
+    TablePlan resolvePlan(Map<String, String> params) {
+        String table = params.get("table");
+        if (table == null || table.isEmpty()) {
+            throw new IllegalArgumentException("Missing parameter: table");
+        }
+        if (!params.containsKey("fields")) {
+            TablePlan plan = tables.get(table.toLowerCase());
+            if (plan == null) {
+                throw new IllegalArgumentException("Unknown table " + table + ", register it via POST /tables or pass fields and types");
+            }
+            return plan;
+        }
+        String fields = params.get("fields");
+        String types = params.get("types");
+        if (types == null) {
+            throw new IllegalArgumentException("Missing parameter: types");
+        }
+        String key = table + '|' + fields + '|' + types;
+        TablePlan plan;
+        synchronized (adHocPlans) {
+            plan = adHocPlans.get(key);
+        }
+        if (plan == null) {
+            // 编译在锁外进行，并发的相同请求可能各自编译一次，结果相同
+            plan = dataMocker.compilePlan(table, Arrays.asList(fields.split(",")), Arrays.asList(types.split(",")));
+            synchronized (adHocPlans) {
+                adHocPlans.put(key, plan);
+            }
+        }
+        return plan;
+    }
+    
+    private void handleTables(HttpExchange exchange) throws IOException {
+        try {
+            if ("POST".equals(exchange.getRequestMethod())) {
+                String ddl = new String(readAll(exchange.getRequestBody()), StandardCharsets.UTF_8);
+                List<String> names;
+                try {
+                    names = registerSchema(ddl);
+                } catch (IllegalArgumentException e) {
+                    respond(exchange, 400, "text/plain", e.getMessage() + "\n");
+                    return;
+                }
+                respond(exchange, 200, "application/json", mapper.writeValueAsString(names));
+            } else {
+                Map<String, List<String>> result = new TreeMap<>();
+                for (TablePlan plan : tables.values()) {
+                    result.put(plan.getTableName(), plan.getOutputColumns());
+                }
+                respond(exchange, 200, "application/json", mapper.writeValueAsString(result));
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private void handleMetrics(HttpExchange exchange) throws IOException {
+        try {
+            if (!dataMocker.getMetrics().isEnabled()) {
+                respond(exchange, 404, "text/plain", "Metrics are disabled\n");
+                return;
+            }
+            respond(exchange, 200, "application/json", mapper.writeValueAsString(dataMocker.getMetrics().snapshot()));
+        } finally {
+            exchange.close();
+        }
+    }
+    
+    private static void respond(HttpExchange exchange, int status, String contentType, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+    
+    private static Map<String, String> parseQuery(String query) throws UnsupportedEncodingException {
+        Map<String, String> params = new HashMap<>();
+        if (query == null || query.isEmpty()) {
+            return params;
+        }
+        for (String pair : query.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), "UTF-8");
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), "UTF-8");
+            params.put(name, value);
+        }
+        return params;
+    }
+    
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[8192];
+        int n;
+        while ((n = in.read(chunk)) > 0) {
+            buffer.write(chunk, 0, n);
+        }
+        return buffer.toByteArray();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,171 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.generator.Utf8Encoder;
+import com.oceanbase.datamocker.generator.Utf8Text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+/**
+ * 基于输出流的行输出基类
+ * 自行维护字节缓冲区并直接进行UTF-8编码，避免经过Writer和中间字符串
+ */
+public abstract class AbstractStreamRowSink implements RowSink {
+    
+    /**
+     * 默认缓冲区大小
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+    
+    private final OutputStream out;
+    private final byte[] buffer;
+    private int position;
+    private long flushedBytes;
+    
+    /**
+     * 将大对象的分块内容写入缓冲区的输出流
+     */
+    private final OutputStream chunkWriter = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            writeByte(b);
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            writeBytes(bytes, offset, length);
+        }
+    };
+    
+    protected AbstractStreamRowSink(OutputStream out, int bufferSize) {
+        this.out = out;
+        this.buffer = new byte[Math.max(bufferSize, 16)];
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        drain();
+        out.flush();
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return flushedBytes + position;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+    
+    /**
+     * 获取值的文本形式，数值按不带指数的形式输出
+     *
+     * @param value 值
+     * @return 文本
+     */
+    protected static CharSequence toText(Object value) {
+        if (value instanceof CharSequence) {
+            return (CharSequence) value;
+        }
+        if (value instanceof BigDecimal) {
+            return ((BigDecimal) value).toPlainString();
+        }
+        return String.valueOf(value);
+    }
+    
+    protected final void writeByte(int b) throws IOException {
+        if (position == buffer.length) {
+            drain();
+        }
+        buffer[position++] = (byte) b;
+    }
+    
+    protected final void writeBytes(byte[] bytes, int offset, int length) throws IOException {
+        if (length > buffer.length - position) {
+            drain();
+            if (length > buffer.length) {
+                out.write(bytes, offset, length);
+                flushedBytes += length;
+                return;
+            }
+        }
+        System.arraycopy(bytes, offset, buffer, position, length);
+        position += length;
+    }
+    
+    /**
+     * 写出只包含ASCII字符的文本
+     */
+    protected final void writeAscii(String text) throws IOException {
+        for (int i = 0; i < text.length(); i++) {
+            writeByte(text.charAt(i));
+        }
+    }
+    
+    /**
+     * 以UTF-8编码写出文本，值池中的值和JSON值直接把预编码的字节批量复制到缓冲区
+     */
+    protected final void writeUtf8(CharSequence text) throws IOException {
+        if (text instanceof Utf8Text) {
+            Utf8Text encoded = (Utf8Text) text;
+            int length = encoded.byteLength();
+            for (int copied = 0; copied < length; ) {
+                if (position == buffer.length) {
+                    drain();
+                }
+                int n = Math.min(length - copied, buffer.length - position);
+                encoded.copyBytes(copied, buffer, position, n);
+                position += n;
+                copied += n;
+            }
+            return;
+        }
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                writeByte(c);
+            } else {
+                i = writeUtf8Char(text, i);
+            }
+        }
+    }
+    
+    /**
+     * 按块写出大对象的内容，文本原样写出，二进制内容写出十六进制形式
+     */
+    protected final void writeLob(LobValue value) throws IOException {
+        if (value.isBinary()) {
+            value.writeHexTo(chunkWriter);
+        } else {
+            value.writeTo(chunkWriter);
+        }
+    }
+    
+    /**
+     * 以UTF-8编码写出一个非ASCII字符，返回最后处理的字符下标
+     */
+    protected final int writeUtf8Char(CharSequence text, int index) throws IOException {
+        int codePoint = Utf8Encoder.codePointAt(text, index);
+        if (buffer.length - position < Utf8Encoder.MAX_BYTES) {
+            drain();
+        }
+        position = Utf8Encoder.encode(codePoint, buffer, position);
+        return index + Character.charCount(codePoint) - 1;
+    }
+    
+    private void drain() throws IOException {
+        if (position > 0) {
+            out.write(buffer, 0, position);
+            flushedBytes += position;
+            position = 0;
+        }
+    }
+} 
\ No newline at end of file
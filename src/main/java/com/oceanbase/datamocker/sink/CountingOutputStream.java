@@ -0,0 +1,33 @@
+package com.oceanbase.datamocker.sink;
+
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 统计写出字节数的输出流
+ */
+class CountingOutputStream extends FilterOutputStream {
+    
+    private long count;
+    
+    CountingOutputStream(OutputStream out) {
+        super(out);
+    }
+    
+    @Override
+    public void write(int b) throws IOException {
+        out.write(b);
+        count++;
+    }
+    
+    @Override
+    public void write(byte[] b, int off, int len) throws IOException {
+        out.write(b, off, len);
+        count += len;
+    }
+    
+    long getCount() {
+        return count;
+    }
+} 
\ No newline at end of file
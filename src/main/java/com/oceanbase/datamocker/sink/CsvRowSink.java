@@ -0,0 +1,136 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.generator.Utf8Text;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * CSV格式的行输出
+ * 按RFC 4180转义：包含分隔符、引号或换行的值加双引号，空字符串输出为""，null输出为空
+ */
+public class CsvRowSink extends AbstractStreamRowSink {
+    
+    private final char delimiter;
+    private final boolean header;
+    
+    public CsvRowSink(OutputStream out) {
+        this(out, ',', true);
+    }
+    
+    public CsvRowSink(OutputStream out, char delimiter, boolean header) {
+        super(out, DEFAULT_BUFFER_SIZE);
+        if (delimiter >= 0x80 || delimiter == '"' || delimiter == '\n' || delimiter == '\r') {
+            throw new IllegalArgumentException("Invalid CSV delimiter: " + delimiter);
+        }
+        this.delimiter = delimiter;
+        this.header = header;
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns) throws IOException {
+        if (header) {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writeByte(delimiter);
+                }
+                writeField(columns.get(i));
+            }
+            writeByte('\n');
+        }
+    }
+    
+    @Override
+    public void write(Object[] values) throws IOException {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                writeByte(delimiter);
+            }
+            if (values[i] instanceof LobValue) {
+                writeLobField((LobValue) values[i]);
+            } else if (values[i] != null) {
+                writeField(toText(values[i]));
+            }
+        }
+        writeByte('\n');
+    }
+    
+    private void writeField(CharSequence text) throws IOException {
+        if (!isEmpty(text) && !needsQuoting(text)) {
+            writeUtf8(text);
+            return;
+        }
+        writeByte('"');
+        if (text instanceof Utf8Text) {
+            // 引号是ASCII字符，不会出现在UTF-8多字节序列中，可以直接按字节加倍
+            Utf8Text encoded = (Utf8Text) text;
+            int length = encoded.byteLength();
+            for (int i = 0; i < length; i++) {
+                byte b = encoded.byteAt(i);
+                if (b == '"') {
+                    writeByte('"');
+                }
+                writeByte(b);
+            }
+            writeByte('"');
+            return;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"') {
+                writeByte('"');
+                writeByte('"');
+            } else if (c < 0x80) {
+                writeByte(c);
+            } else {
+                i = writeUtf8Char(text, i);
+            }
+        }
+        writeByte('"');
+    }
+    
+    /**
+     * 大对象的内容不包含引号和换行，只在可能出现分隔符或为空时加引号，内容按块写出
+     */
+    private void writeLobField(LobValue value) throws IOException {
+        boolean quote = value.length() == 0 || value.mayContain(delimiter);
+        if (quote) {
+            writeByte('"');
+        }
+        writeLob(value);
+        if (quote) {
+            writeByte('"');
+        }
+    }
+    
+    /**
+     * 预编码的文本按字节长度判断，不必为了计算字符数而解码
+     */
+    private static boolean isEmpty(CharSequence text) {
+        return text instanceof Utf8Text ? ((Utf8Text) text).byteLength() == 0 : text.length() == 0;
+    }
+    
+    private boolean needsQuoting(CharSequence text) {
+        if (text instanceof Utf8Text) {
+            // 分隔符、引号和换行都是ASCII字符，不会出现在UTF-8多字节序列中
+            Utf8Text encoded = (Utf8Text) text;
+            int length = encoded.byteLength();
+            for (int i = 0; i < length; i++) {
+                byte b = encoded.byteAt(i);
+                if (b == delimiter || b == '"' || b == '\n' || b == '\r') {
+                    return true;
+                }
+            }
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == delimiter || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,167 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.metrics.MockerMetrics;
+import com.oceanbase.datamocker.sql.JdbcValues;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+
+/**
+ * 通过JDBC批量插入的行输出
+ * 每batchSize行执行一个JDBC批次，flush时执行剩余的行并提交事务。
+ * 绑定参数的耗时记入写出阶段，执行批次和提交的耗时记入刷新阶段
+ */
+@Slf4j
+public class JdbcRowSink implements RowSink {
+    
+    private final Connection connection;
+    private final SqlDialect dialect;
+    private final int batchSize;
+    private final boolean ownsConnection;
+    private final MockerMetrics metrics;
+    private PreparedStatement insert;
+    private int pending;
+    
+    /**
+     * 创建JDBC行输出
+     *
+     * @param connection 数据库连接
+     * @param dialect SQL方言，用于引用表名和字段名
+     * @param batchSize 每个JDBC批次的行数
+     * @param ownsConnection 关闭时是否同时关闭连接
+     * @throws IOException 设置连接失败
+     */
+    public JdbcRowSink(Connection connection, SqlDialect dialect, int batchSize, boolean ownsConnection) throws IOException {
+        this(connection, dialect, batchSize, ownsConnection, MockerMetrics.DISABLED);
+    }
+    
+    /**
+     * 创建JDBC行输出并记录写出和刷新阶段的耗时
+     *
+     * @param connection 数据库连接
+     * @param dialect SQL方言，用于引用表名和字段名
+     * @param batchSize 每个JDBC批次的行数
+     * @param ownsConnection 关闭时是否同时关闭连接
+     * @param metrics 运行指标
+     * @throws IOException 设置连接失败
+     */
+    public JdbcRowSink(Connection connection, SqlDialect dialect, int batchSize, boolean ownsConnection, MockerMetrics metrics)
+            throws IOException {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("batchSize must be positive");
+        }
+        this.connection = connection;
+        this.dialect = dialect;
+        this.batchSize = batchSize;
+        this.ownsConnection = ownsConnection;
+        this.metrics = metrics;
+        try {
+            connection.setAutoCommit(false);
+        } catch (SQLException e) {
+            throw new IOException("Failed to disable auto-commit", e);
+        }
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns) throws IOException {
+        StringBuilder sql = new StringBuilder("INSERT INTO ").append(dialect.quote(tableName)).append(" (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", " : "").append(dialect.quote(columns.get(i)));
+        }
+        sql.append(") VALUES (");
+        for (int i = 0; i < columns.size(); i++) {
+            sql.append(i > 0 ? ", ?" : "?");
+        }
+        sql.append(')');
+        closeStatement();
+        try {
+            insert = connection.prepareStatement(sql.toString());
+        } catch (SQLException e) {
+            throw new IOException("Failed to prepare insert statement for table " + tableName, e);
+        }
+    }
+    
+    @Override
+    public void write(Object[] values) throws IOException {
+        try {
+            long start = metrics.isEnabled() ? System.nanoTime() : 0;
+            for (int i = 0; i < values.length; i++) {
+                JdbcValues.bind(insert, i + 1, values[i]);
+            }
+            insert.addBatch();
+            if (metrics.isEnabled()) {
+                metrics.addPhaseNanos(MockerMetrics.Phase.WRITE, System.nanoTime() - start);
+            }
+            if (++pending >= batchSize) {
+                long executeStart = System.nanoTime();
+                insert.executeBatch();
+                pending = 0;
+                metrics.addPhaseNanos(MockerMetrics.Phase.FLUSH, System.nanoTime() - executeStart);
+            }
+        } catch (SQLException e) {
+            throw new IOException("Failed to insert row", e);
+        }
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        try {
+            long start = System.nanoTime();
+            if (pending > 0) {
+                insert.executeBatch();
+                pending = 0;
+            }
+            connection.commit();
+            metrics.addPhaseNanos(MockerMetrics.Phase.FLUSH, System.nanoTime() - start);
+        } catch (SQLException e) {
+            throw new IOException("Failed to commit inserted rows", e);
+        }
+    }
+    
+    /**
+     * JDBC输出不经过字节流，始终返回0
+     */
+    @Override
+    public long getBytesWritten() {
+        return 0;
+    }
+    
+    @Override
+    public boolean isCountingBytes() {
+        return false;
+    }
+    
+    @Override
+    public void close() throws IOException {
+        try {
+            if (insert != null) {
+                flush();
+            }
+        } finally {
+            closeStatement();
+            if (ownsConnection) {
+                try {
+                    connection.close();
+                } catch (SQLException e) {
+                    log.warn("Failed to close connection: {}", e.getMessage());
+                }
+            }
+        }
+    }
+    
+    private void closeStatement() {
+        if (insert != null) {
+            try {
+                insert.close();
+            } catch (SQLException e) {
+                log.debug("Failed to close statement: {}", e.getMessage());
+            }
+            insert = null;
+        }
+    }
+} 
\ No newline at end of file
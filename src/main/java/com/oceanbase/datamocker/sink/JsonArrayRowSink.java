@@ -0,0 +1,46 @@
+package com.oceanbase.datamocker.sink;
+
+import com.fasterxml.jackson.core.util.DefaultPrettyPrinter;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+
+/**
+ * JSON数组格式的行输出，所有行组成一个JSON数组，可以选择缩进格式
+ * 与先收集全部行再整体序列化的结果相同，但逐行写出，内存占用与行数无关
+ */
+public class JsonArrayRowSink extends NdjsonRowSink {
+    
+    private boolean started;
+    
+    public JsonArrayRowSink(OutputStream out, boolean pretty) throws IOException {
+        super(out, AbstractStreamRowSink.DEFAULT_BUFFER_SIZE);
+        if (pretty) {
+            generator.setPrettyPrinter(new DefaultPrettyPrinter());
+        }
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns) throws IOException {
+        super.open(tableName, columns);
+        if (!started) {
+            generator.writeStartArray();
+            started = true;
+        }
+    }
+    
+    @Override
+    public void write(Object[] values) throws IOException {
+        writeObject(values);
+    }
+    
+    @Override
+    public void close() throws IOException {
+        if (started) {
+            generator.writeEndArray();
+            generator.writeRaw('\n');
+        }
+        super.close();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,132 @@
+package com.oceanbase.datamocker.sink;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.oceanbase.datamocker.generator.JsonDocument;
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.generator.PooledValue;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.List;
+
+/**
+ * NDJSON格式的行输出，每行一个JSON对象，生成一行写出一行
+ * 基于Jackson的流式JsonGenerator，字段名预先编码为SerializedString复用，内存占用与行数无关
+ */
+public class NdjsonRowSink implements RowSink {
+    
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    
+    private final CountingOutputStream out;
+    protected final JsonGenerator generator;
+    private SerializedString[] columns;
+    
+    /**
+     * 复制值池中字节的复用数组，堆外的值不经过getBytes的临时数组
+     */
+    private byte[] scratch = new byte[256];
+    
+    public NdjsonRowSink(OutputStream out) throws IOException {
+        this(out, 0);
+    }
+    
+    /**
+     * 创建NDJSON输出
+     *
+     * @param out 输出流
+     * @param bufferSize 在JsonGenerator自身的缓冲区之外再增加的缓冲区大小，0表示不增加，
+     *                   写入文件或网络时较大的缓冲区可以减少系统调用次数
+     * @throws IOException 创建失败
+     */
+    public NdjsonRowSink(OutputStream out, int bufferSize) throws IOException {
+        this.out = new CountingOutputStream(bufferSize > 0 ? new BufferedOutputStream(out, bufferSize) : out);
+        this.generator = JSON_FACTORY.createGenerator(this.out, JsonEncoding.UTF8);
+        this.generator.setRootValueSeparator(null);
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns) throws IOException {
+        this.columns = new SerializedString[columns.size()];
+        for (int i = 0; i < columns.size(); i++) {
+            this.columns[i] = new SerializedString(columns.get(i));
+        }
+    }
+    
+    @Override
+    public void write(Object[] values) throws IOException {
+        writeObject(values);
+        generator.writeRaw('\n');
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        generator.flush();
+    }
+    
+    @Override
+    public long getBytesWritten() {
+        return out.getCount() + Math.max(0, generator.getOutputBuffered());
+    }
+    
+    @Override
+    public void close() throws IOException {
+        generator.close();
+    }
+    
+    /**
+     * 将一行写为JSON对象
+     */
+    protected final void writeObject(Object[] values) throws IOException {
+        generator.writeStartObject();
+        for (int i = 0; i < values.length; i++) {
+            generator.writeFieldName(columns[i]);
+            writeValue(values[i]);
+        }
+        generator.writeEndObject();
+    }
+    
+    private void writeValue(Object value) throws IOException {
+        if (value == null) {
+            generator.writeNull();
+        } else if (value instanceof String) {
+            generator.writeString((String) value);
+        } else if (value instanceof JsonDocument) {
+            // JSON字段作为嵌套的JSON值写出，而不是转义后的字符串
+            generator.writeRawValue(value.toString());
+        } else if (value instanceof LobValue) {
+            // 文本按块转义写出，二进制内容按块编码为Base64
+            ((LobValue) value).serialize(generator, null);
+        } else if (value instanceof PooledValue) {
+            // 值池中的值已经是UTF-8字节，由生成器直接转义写出
+            PooledValue pooled = (PooledValue) value;
+            int length = pooled.byteLength();
+            if (scratch.length < length) {
+                scratch = new byte[Math.max(length, scratch.length * 2)];
+            }
+            pooled.copyBytes(0, scratch, 0, length);
+            generator.writeUTF8String(scratch, 0, length);
+        } else if (value instanceof Integer || value instanceof Short || value instanceof Byte) {
+            generator.writeNumber(((Number) value).intValue());
+        } else if (value instanceof Long) {
+            generator.writeNumber((Long) value);
+        } else if (value instanceof BigDecimal) {
+            generator.writeNumber((BigDecimal) value);
+        } else if (value instanceof BigInteger) {
+            generator.writeNumber((BigInteger) value);
+        } else if (value instanceof Double) {
+            generator.writeNumber((Double) value);
+        } else if (value instanceof Float) {
+            generator.writeNumber((Float) value);
+        } else if (value instanceof Boolean) {
+            generator.writeBoolean((Boolean) value);
+        } else {
+            generator.writeString(value.toString());
+        }
+    }
+} 
\ No newline at end of file
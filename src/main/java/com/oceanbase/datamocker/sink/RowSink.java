@@ -0,0 +1,52 @@
+package com.oceanbase.datamocker.sink;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.List;
+
+/**
+ * 行输出接口
+ * 逐行接收生成的数据并写出，实现类不要求线程安全，同一时刻只由一个线程调用
+ */
+public interface RowSink extends Closeable {
+    
+    /**
+     * 开始输出一张表
+     *
+     * @param tableName 表名
+     * @param columns 输出字段名，与写入的值一一对应
+     * @throws IOException 写出失败
+     */
+    void open(String tableName, List<String> columns) throws IOException;
+    
+    /**
+     * 写出一行数据
+     *
+     * @param values 按输出字段顺序排列的值
+     * @throws IOException 写出失败
+     */
+    void write(Object[] values) throws IOException;
+    
+    /**
+     * 将缓冲的数据写出到底层输出
+     *
+     * @throws IOException 写出失败
+     */
+    void flush() throws IOException;
+    
+    /**
+     * 获取已写出的字节数（包含尚在缓冲区中的数据）
+     *
+     * @return 字节数
+     */
+    long getBytesWritten();
+    
+    /**
+     * 判断getBytesWritten是否统计写出的字节数，不经过字节流的输出（如JDBC）始终返回0，不能按大小生成
+     *
+     * @return 是否统计字节数
+     */
+    default boolean isCountingBytes() {
+        return true;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.sql.SqlDialect;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * 按格式名创建行输出
+ */
+public final class RowSinks {
+    
+    private RowSinks() {
+    }
+    
+    /**
+     * 创建行输出，sql格式使用MySQL模式
+     *
+     * @param format 输出格式，csv、ndjson、json或sql
+     * @param out 输出流，由行输出负责关闭
+     * @param header 是否输出表头（仅对带表头的格式有效）
+     * @return 行输出
+     * @throws IOException 创建失败
+     */
+    public static RowSink create(String format, OutputStream out, boolean header) throws IOException {
+        return create(format, out, header, SqlDialect.MYSQL);
+    }
+    
+    /**
+     * 创建行输出
+     *
+     * @param format 输出格式，csv、ndjson、json或sql
+     * @param out 输出流，由行输出负责关闭
+     * @param header 是否输出表头（仅对带表头的格式有效）
+     * @param dialect sql格式使用的SQL方言
+     * @return 行输出
+     * @throws IOException 创建失败
+     */
+    public static RowSink create(String format, OutputStream out, boolean header, SqlDialect dialect) throws IOException {
+        switch (format.toLowerCase()) {
+            case "csv":
+                return new CsvRowSink(out, ',', header);
+            case "ndjson":
+                return new NdjsonRowSink(out, AbstractStreamRowSink.DEFAULT_BUFFER_SIZE);
+            case "json":
+                return new JsonArrayRowSink(out, false);
+            case "sql":
+                return new SqlInsertRowSink(out, dialect);
+            default:
+                throw new IllegalArgumentException("Unsupported output format: " + format);
+        }
+    }
+    
+    /**
+     * 获取输出格式对应的文件扩展名
+     *
+     * @param format 输出格式
+     * @return 扩展名，不含点
+     */
+    public static String extension(String format) {
+        return format.toLowerCase();
+    }
+} 
\ No newline at end of file
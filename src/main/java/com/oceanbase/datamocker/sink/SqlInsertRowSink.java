@@ -0,0 +1,361 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.generator.Utf8Encoder;
+import com.oceanbase.datamocker.generator.Utf8Text;
+import com.oceanbase.datamocker.sql.SqlDialect;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * SQL脚本格式的行输出，生成多行INSERT语句
+ * 每条语句的行数和字节数都有上限，字节上限应不超过目标库的 max_allowed_packet。
+ * 每一行先编码到可复用的行缓冲区，确定加入后不会超出字节上限再写出，整个脚本不会在内存中累积。
+ * flush会结束当前语句，因此flush之后输出总是停在语句的边界上。
+ * 大对象的内容不进入行缓冲区，只记录位置和编码后的长度，写出时在对应位置按块生成。
+ * 超过方言字面量长度上限的字符串和文本大对象拆分为多段拼接，二进制值超过上限时无法写成字面量
+ */
+public class SqlInsertRowSink extends AbstractStreamRowSink {
+    
+    /**
+     * 默认每条语句的最大行数
+     */
+    public static final int DEFAULT_MAX_ROWS = 1000;
+    
+    /**
+     * 默认每条语句的最大字节数
+     */
+    public static final int DEFAULT_MAX_BYTES = 4 * 1024 * 1024;
+    
+    private static final byte[] NULL = "NULL".getBytes(StandardCharsets.US_ASCII);
+    
+    private final SqlDialect dialect;
+    private final int maxRows;
+    private final long maxBytes;
+    
+    /**
+     * 转义表，下标为ASCII字符，不需要转义的字符为null
+     */
+    private final byte[][] escapes = new byte[128][];
+    
+    private byte[] header;
+    private byte[] firstRowPrefix;
+    private byte[] rowPrefix;
+    private byte[] rowSuffix;
+    private byte[] footer;
+    
+    private byte[] row = new byte[1024];
+    private int rowLength;
+    
+    /**
+     * 当前行中的大对象及其内容在行缓冲区中的插入位置，以及内容编码后的总字节数
+     */
+    private LobValue[] lobs = new LobValue[4];
+    private int[] lobOffsets = new int[4];
+    private int lobCount;
+    private long lobBytes;
+    
+    private byte[] binaryPrefix;
+    private byte[] binarySuffix;
+    
+    private final int maxLiteralBytes;
+    private final byte[] splitPrefix;
+    private final byte[] splitSeparator;
+    private final byte[] splitSuffix;
+    
+    /**
+     * 当前段已写出的字节数
+     */
+    private int pieceBytes;
+    
+    /**
+     * 将长文本大对象按字面量长度上限分段写出的输出流
+     */
+    private final OutputStream pieceWriter = new OutputStream() {
+        @Override
+        public void write(int b) throws IOException {
+            startPiece();
+            writeByte(b);
+            pieceBytes++;
+        }
+        
+        @Override
+        public void write(byte[] bytes, int offset, int length) throws IOException {
+            while (length > 0) {
+                startPiece();
+                int count = Math.min(length, maxLiteralBytes - pieceBytes);
+                writeBytes(bytes, offset, count);
+                pieceBytes += count;
+                offset += count;
+                length -= count;
+            }
+        }
+        
+        private void startPiece() throws IOException {
+            if (pieceBytes == maxLiteralBytes) {
+                writeBytes(splitSeparator, 0, splitSeparator.length);
+                pieceBytes = 0;
+            }
+        }
+    };
+    
+    private int statementRows;
+    private long statementBytes;
+    
+    public SqlInsertRowSink(OutputStream out, SqlDialect dialect) {
+        this(out, dialect, DEFAULT_MAX_ROWS, DEFAULT_MAX_BYTES);
+    }
+    
+    /**
+     * 创建SQL脚本输出
+     *
+     * @param out 输出流
+     * @param dialect SQL方言
+     * @param maxRows 每条语句的最大行数
+     * @param maxBytes 每条语句的最大字节数，单行超过该值时单独成为一条语句
+     */
+    public SqlInsertRowSink(OutputStream out, SqlDialect dialect, int maxRows, long maxBytes) {
+        super(out, DEFAULT_BUFFER_SIZE);
+        if (maxRows <= 0 || maxBytes <= 0) {
+            throw new IllegalArgumentException("maxRows and maxBytes must be positive");
+        }
+        this.dialect = dialect;
+        this.maxRows = maxRows;
+        this.maxBytes = maxBytes;
+        this.binaryPrefix = dialect.binaryLiteralPrefix().getBytes(StandardCharsets.US_ASCII);
+        this.binarySuffix = dialect.binaryLiteralSuffix().getBytes(StandardCharsets.US_ASCII);
+        this.maxLiteralBytes = dialect.maxLiteralBytes();
+        this.splitPrefix = dialect.splitLiteralPrefix().getBytes(StandardCharsets.US_ASCII);
+        this.splitSeparator = dialect.splitLiteralSeparator().getBytes(StandardCharsets.US_ASCII);
+        this.splitSuffix = dialect.splitLiteralSuffix().getBytes(StandardCharsets.US_ASCII);
+        for (char c = 0; c < 128; c++) {
+            String escaped = dialect.escape(c);
+            if (escaped != null) {
+                escapes[c] = escaped.getBytes(StandardCharsets.US_ASCII);
+            }
+        }
+    }
+    
+    @Override
+    public void open(String tableName, List<String> columns) throws IOException {
+        endStatement();
+        header = dialect.insertHeader(tableName, columns).getBytes(StandardCharsets.UTF_8);
+        firstRowPrefix = dialect.insertRowPrefix(tableName, columns, true).getBytes(StandardCharsets.UTF_8);
+        rowPrefix = dialect.insertRowPrefix(tableName, columns, false).getBytes(StandardCharsets.UTF_8);
+        rowSuffix = dialect.insertRowSuffix().getBytes(StandardCharsets.UTF_8);
+        footer = dialect.insertFooter().getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @Override
+    public void write(Object[] values) throws IOException {
+        rowLength = 0;
+        lobCount = 0;
+        lobBytes = 0;
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                put(',');
+                put(' ');
+            }
+            putValue(values[i]);
+        }
+        
+        if (statementRows > 0) {
+            long size = statementBytes + rowPrefix.length + rowLength + lobBytes + rowSuffix.length + footer.length;
+            if (statementRows >= maxRows || size > maxBytes) {
+                endStatement();
+            }
+        }
+        byte[] prefix = statementRows == 0 ? firstRowPrefix : rowPrefix;
+        if (statementRows == 0) {
+            writeBytes(header, 0, header.length);
+            statementBytes = header.length;
+        }
+        writeBytes(prefix, 0, prefix.length);
+        int written = 0;
+        for (int i = 0; i < lobCount; i++) {
+            writeBytes(row, written, lobOffsets[i] - written);
+            if (isSplit(lobs[i])) {
+                pieceBytes = 0;
+                lobs[i].writeTo(pieceWriter);
+            } else {
+                writeLob(lobs[i]);
+            }
+            lobs[i] = null;
+            written = lobOffsets[i];
+        }
+        writeBytes(row, written, rowLength - written);
+        writeBytes(rowSuffix, 0, rowSuffix.length);
+        statementBytes += prefix.length + rowLength + lobBytes + rowSuffix.length;
+        statementRows++;
+    }
+    
+    @Override
+    public void flush() throws IOException {
+        endStatement();
+        super.flush();
+    }
+    
+    private void endStatement() throws IOException {
+        if (statementRows > 0) {
+            writeBytes(footer, 0, footer.length);
+            statementRows = 0;
+            statementBytes = 0;
+        }
+    }
+    
+    private void putValue(Object value) {
+        if (value == null) {
+            putBytes(NULL, 0, NULL.length);
+        } else if (value instanceof Utf8Text) {
+            // 需要转义的字符都是ASCII字符，不会出现在UTF-8多字节序列中，可以直接按字节转义
+            Utf8Text encoded = (Utf8Text) value;
+            int length = encoded.byteLength();
+            put('\'');
+            int start = rowLength;
+            for (int i = 0; i < length; i++) {
+                byte b = encoded.byteAt(i);
+                byte[] escaped = b >= 0 ? escapes[b] : null;
+                if (escaped != null) {
+                    putBytes(escaped, 0, escaped.length);
+                } else {
+                    put(b);
+                }
+            }
+            closeString(start);
+        } else if (value instanceof CharSequence) {
+            putString((CharSequence) value);
+        } else if (value instanceof LobValue) {
+            putLob((LobValue) value);
+        } else if (value instanceof BigDecimal) {
+            putAscii(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number || value instanceof Boolean) {
+            putAscii(dialect.literal(value));
+        } else {
+            putString(String.valueOf(value));
+        }
+    }
+    
+    /**
+     * 写入大对象字面量的前后缀并记录内容的位置，文本内容不包含需要转义的字符
+     */
+    private void putLob(LobValue value) {
+        boolean split = isSplit(value);
+        if (value.isBinary()) {
+            dialect.checkBinaryLiteral(value.length());
+            putBytes(binaryPrefix, 0, binaryPrefix.length);
+        } else if (split) {
+            putBytes(splitPrefix, 0, splitPrefix.length);
+        } else {
+            put('\'');
+        }
+        if (lobCount == lobs.length) {
+            lobs = Arrays.copyOf(lobs, lobCount * 2);
+            lobOffsets = Arrays.copyOf(lobOffsets, lobCount * 2);
+        }
+        lobs[lobCount] = value;
+        lobOffsets[lobCount++] = rowLength;
+        lobBytes += value.isBinary() ? value.length() * 2 : value.length();
+        if (value.isBinary()) {
+            putBytes(binarySuffix, 0, binarySuffix.length);
+        } else if (split) {
+            lobBytes += (value.length() - 1) / maxLiteralBytes * splitSeparator.length;
+            putBytes(splitSuffix, 0, splitSuffix.length);
+        } else {
+            put('\'');
+        }
+    }
+    
+    private boolean isSplit(LobValue value) {
+        return !value.isBinary() && value.length() > maxLiteralBytes;
+    }
+    
+    private void putString(CharSequence text) {
+        put('\'');
+        int start = rowLength;
+        int length = text.length();
+        for (int i = 0; i < length; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) {
+                byte[] escaped = escapes[c];
+                if (escaped != null) {
+                    putBytes(escaped, 0, escaped.length);
+                } else {
+                    put(c);
+                }
+            } else {
+                int codePoint = Utf8Encoder.codePointAt(text, i);
+                ensure(Utf8Encoder.MAX_BYTES);
+                rowLength = Utf8Encoder.encode(codePoint, row, rowLength);
+                i += Character.charCount(codePoint) - 1;
+            }
+        }
+        closeString(start);
+    }
+    
+    /**
+     * 结束从start开始的字符串内容，超过字面量长度上限时拆分为多段。
+     * 分段不会切开UTF-8多字节序列，也不会切开以需要转义的字符开头的两字节转义序列
+     */
+    private void closeString(int start) {
+        if (rowLength - start <= maxLiteralBytes) {
+            put('\'');
+            return;
+        }
+        byte[] content = Arrays.copyOfRange(row, start, rowLength);
+        rowLength = start - 1;
+        putBytes(splitPrefix, 0, splitPrefix.length);
+        int pieceStart = 0;
+        int i = 0;
+        while (i < content.length) {
+            int b = content[i] & 0xFF;
+            int unit;
+            if (b < 0x80) {
+                unit = escapes[b] != null ? 2 : 1;
+            } else if (b >= 0xF0) {
+                unit = 4;
+            } else if (b >= 0xE0) {
+                unit = 3;
+            } else {
+                unit = 2;
+            }
+            if (i + unit - pieceStart > maxLiteralBytes) {
+                putBytes(content, pieceStart, i - pieceStart);
+                putBytes(splitSeparator, 0, splitSeparator.length);
+                pieceStart = i;
+            }
+            i += unit;
+        }
+        putBytes(content, pieceStart, content.length - pieceStart);
+        putBytes(splitSuffix, 0, splitSuffix.length);
+    }
+    
+    private void putAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            put(text.charAt(i));
+        }
+    }
+    
+    private void put(int b) {
+        if (rowLength == row.length) {
+            row = Arrays.copyOf(row, row.length * 2);
+        }
+        row[rowLength++] = (byte) b;
+    }
+    
+    private void ensure(int extra) {
+        if (rowLength + extra > row.length) {
+            row = Arrays.copyOf(row, Math.max(row.length * 2, rowLength + extra));
+        }
+    }
+    
+    private void putBytes(byte[] bytes, int offset, int length) {
+        ensure(length);
+        System.arraycopy(bytes, offset, row, rowLength, length);
+        rowLength += length;
+    }
+} 
\ No newline at end of file
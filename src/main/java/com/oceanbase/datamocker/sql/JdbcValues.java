@@ -0,0 +1,38 @@
+package com.oceanbase.datamocker.sql;
+
+import com.oceanbase.datamocker.generator.LobValue;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+
+/**
+ * 把生成的字段值绑定到JDBC语句的参数
+ */
+public final class JdbcValues {
+    
+    private JdbcValues() {
+    }
+    
+    /**
+     * 绑定一个参数：大对象以流的形式绑定，由驱动按块读取内容；值池中的值、JSON文档等非String的字符序列按字符串绑定
+     *
+     * @param statement 语句
+     * @param index 参数下标，从1开始
+     * @param value 字段值
+     * @throws SQLException 绑定失败
+     */
+    public static void bind(PreparedStatement statement, int index, Object value) throws SQLException {
+        if (value instanceof LobValue) {
+            LobValue lob = (LobValue) value;
+            if (lob.isBinary()) {
+                statement.setBinaryStream(index, lob.openStream(), lob.length());
+            } else {
+                statement.setCharacterStream(index, lob.openReader(), lob.length());
+            }
+        } else if (value instanceof CharSequence && !(value instanceof String)) {
+            statement.setString(index, value.toString());
+        } else {
+            statement.setObject(index, value);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,514 @@
+package com.oceanbase.datamocker.sql;
+
+import com.oceanbase.datamocker.generator.LobValue;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * SQL方言，负责标识符引用、字面量转义以及与方言相关的语句形式
+ * 生成语句的方法接收已经渲染好的值文本：写入SQL文件时为字面量，通过JDBC执行时为占位符 "?"
+ */
+public enum SqlDialect {
+    
+    /**
+     * MySQL及OceanBase MySQL模式
+     */
+    MYSQL {
+        @Override
+        public String quote(String identifier) {
+            return '`' + identifier.replace("`", "``") + '`';
+        }
+        
+        @Override
+        public String escape(char c) {
+            switch (c) {
+                case '\'':
+                    return "''";
+                case '\\':
+                    return "\\\\";
+                case '\0':
+                    return "\\0";
+                default:
+                    return null;
+            }
+        }
+        
+        @Override
+        protected String booleanLiteral(boolean value) {
+            return value ? "TRUE" : "FALSE";
+        }
+        
+        @Override
+        public String binaryLiteralPrefix() {
+            return "X'";
+        }
+        
+        @Override
+        public String binaryLiteralSuffix() {
+            return "'";
+        }
+        
+        @Override
+        public String insertHeader(String table, List<String> columns) {
+            StringBuilder sb = new StringBuilder("INSERT INTO ").append(quote(table)).append(" (");
+            appendColumnList(sb, columns);
+            return sb.append(") VALUES\n").toString();
+        }
+        
+        @Override
+        public String insertRowPrefix(String table, List<String> columns, boolean first) {
+            return first ? "(" : ",\n(";
+        }
+        
+        @Override
+        public String insertRowSuffix() {
+            return ")";
+        }
+        
+        @Override
+        public String insertFooter() {
+            return ";\n";
+        }
+        
+        @Override
+        public String upsert(String table, List<String> columns, List<String> keyColumns, String[] values) {
+            StringBuilder sb = new StringBuilder("INSERT INTO ").append(quote(table)).append(" (");
+            appendColumnList(sb, columns);
+            sb.append(") VALUES (");
+            appendValueList(sb, values);
+            sb.append(") ON DUPLICATE KEY UPDATE ");
+            boolean first = true;
+            for (String column : columns) {
+                if (keyColumns.contains(column)) {
+                    continue;
+                }
+                if (!first) {
+                    sb.append(", ");
+                }
+                first = false;
+                sb.append(quote(column)).append(" = VALUES(").append(quote(column)).append(')');
+            }
+            if (first) {
+                // 只有主键字段时重复插入不做任何修改
+                String key = quote(keyColumns.get(0));
+                sb.append(key).append(" = ").append(key);
+            }
+            return sb.toString();
+        }
+    },
+    
+    /**
+     * Oracle及OceanBase Oracle模式
+     */
+    ORACLE {
+        @Override
+        public String quote(String identifier) {
+            return '"' + identifier.replace("\"", "\"\"") + '"';
+        }
+        
+        @Override
+        public String escape(char c) {
+            return c == '\'' ? "''" : null;
+        }
+        
+        @Override
+        protected String booleanLiteral(boolean value) {
+            return value ? "1" : "0";
+        }
+        
+        @Override
+        public String binaryLiteralPrefix() {
+            return "HEXTORAW('";
+        }
+        
+        @Override
+        public String binaryLiteralSuffix() {
+            return "')";
+        }
+        
+        @Override
+        public int maxLiteralBytes() {
+            return 4000;
+        }
+        
+        @Override
+        public int maxBinaryLiteralBytes() {
+            return 2000;
+        }
+        
+        @Override
+        public String splitLiteralPrefix() {
+            return "TO_CLOB('";
+        }
+        
+        @Override
+        public String splitLiteralSeparator() {
+            return "') || TO_CLOB('";
+        }
+        
+        @Override
+        public String splitLiteralSuffix() {
+            return "')";
+        }
+        
+        @Override
+        public String insertHeader(String table, List<String> columns) {
+            return "INSERT ALL\n";
+        }
+        
+        @Override
+        public String insertRowPrefix(String table, List<String> columns, boolean first) {
+            StringBuilder sb = new StringBuilder("  INTO ").append(quote(table)).append(" (");
+            appendColumnList(sb, columns);
+            return sb.append(") VALUES (").toString();
+        }
+        
+        @Override
+        public String insertRowSuffix() {
+            return ")\n";
+        }
+        
+        @Override
+        public String insertFooter() {
+            return "SELECT 1 FROM dual;\n";
+        }
+        
+        @Override
+        public String upsert(String table, List<String> columns, List<String> keyColumns, String[] values) {
+            StringBuilder sb = new StringBuilder("MERGE INTO ").append(quote(table)).append(" t USING (SELECT ");
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    sb.append(", ");
+                }
+                sb.append(values[i]).append(' ').append(quote(columns.get(i)));
+            }
+            sb.append(" FROM dual) s ON (");
+            for (int i = 0; i < keyColumns.size(); i++) {
+                if (i > 0) {
+                    sb.append(" AND ");
+                }
+                String key = quote(keyColumns.get(i));
+                sb.append("t.").append(key).append(" = s.").append(key);
+            }
+            sb.append(')');
+            StringBuilder set = new StringBuilder();
+            for (String column : columns) {
+                if (!keyColumns.contains(column)) {
+                    set.append(set.length() == 0 ? "" : ", ").append("t.").append(quote(column)).append(" = s.").append(quote(column));
+                }
+            }
+            if (set.length() > 0) {
+                sb.append(" WHEN MATCHED THEN UPDATE SET ").append(set);
+            }
+            sb.append(" WHEN NOT MATCHED THEN INSERT (");
+            appendColumnList(sb, columns);
+            sb.append(") VALUES (");
+            for (int i = 0; i < columns.size(); i++) {
+                sb.append(i > 0 ? ", " : "").append("s.").append(quote(columns.get(i)));
+            }
+            return sb.append(')').toString();
+        }
+    };
+    
+    /**
+     * 引用标识符
+     *
+     * @param identifier 表名或字段名
+     * @return 引用后的标识符
+     */
+    public abstract String quote(String identifier);
+    
+    /**
+     * 生成主键冲突时更新、否则插入的语句，值按columns的顺序排列
+     *
+     * @param table 表名
+     * @param columns 全部字段
+     * @param keyColumns 主键字段
+     * @param values 已渲染的值
+     * @return SQL语句
+     */
+    public abstract String upsert(String table, List<String> columns, List<String> keyColumns, String[] values);
+    
+    /**
+     * 多行插入语句的开头。MySQL模式为 INSERT INTO t (...) VALUES，Oracle模式不支持多行VALUES，使用 INSERT ALL
+     *
+     * @param table 表名
+     * @param columns 字段
+     * @return 语句开头
+     */
+    public abstract String insertHeader(String table, List<String> columns);
+    
+    /**
+     * 多行插入语句中每一行值之前的部分
+     *
+     * @param table 表名
+     * @param columns 字段
+     * @param first 是否为语句中的第一行
+     * @return 行前缀
+     */
+    public abstract String insertRowPrefix(String table, List<String> columns, boolean first);
+    
+    /**
+     * 多行插入语句中每一行值之后的部分
+     *
+     * @return 行后缀
+     */
+    public abstract String insertRowSuffix();
+    
+    /**
+     * 多行插入语句的结尾，包含语句结束符
+     *
+     * @return 语句结尾
+     */
+    public abstract String insertFooter();
+    
+    /**
+     * 获取字符串字面量中字符的转义形式，需要转义的字符都是ASCII字符
+     *
+     * @param c 字符
+     * @return 转义后的文本，不需要转义时返回null
+     */
+    public abstract String escape(char c);
+    
+    protected abstract String booleanLiteral(boolean value);
+    
+    /**
+     * 获取二进制字面量在十六进制内容之前的部分
+     *
+     * @return 字面量前缀
+     */
+    public abstract String binaryLiteralPrefix();
+    
+    /**
+     * 获取二进制字面量在十六进制内容之后的部分
+     *
+     * @return 字面量后缀
+     */
+    public abstract String binaryLiteralSuffix();
+    
+    /**
+     * 获取字符串字面量引号内的最大字节数，超过时拆分为多段后拼接
+     *
+     * @return 最大字节数
+     */
+    public int maxLiteralBytes() {
+        return Integer.MAX_VALUE;
+    }
+    
+    /**
+     * 获取二进制字面量能够表示的最大字节数，更长的二进制值只能通过JDBC绑定写入
+     *
+     * @return 最大字节数
+     */
+    public int maxBinaryLiteralBytes() {
+        return Integer.MAX_VALUE;
+    }
+    
+    /**
+     * 获取拆分后的字符串字面量在第一段内容之前的部分
+     *
+     * @return 前缀
+     */
+    public String splitLiteralPrefix() {
+        return "'";
+    }
+    
+    /**
+     * 获取拆分后的字符串字面量相邻两段内容之间的部分
+     *
+     * @return 分隔
+     */
+    public String splitLiteralSeparator() {
+        return "";
+    }
+    
+    /**
+     * 获取拆分后的字符串字面量在最后一段内容之后的部分
+     *
+     * @return 后缀
+     */
+    public String splitLiteralSuffix() {
+        return "'";
+    }
+    
+    /**
+     * 检查二进制值能否写成字面量
+     *
+     * @param length 二进制值的字节数
+     */
+    public void checkBinaryLiteral(long length) {
+        if (length > maxBinaryLiteralBytes()) {
+            throw new IllegalArgumentException("Binary value of " + length + " bytes exceeds the " + maxBinaryLiteralBytes()
+                    + " bytes literal limit of " + name() + ", write it through JDBC instead");
+        }
+    }
+    
+    /**
+     * 将值渲染为SQL字面量
+     *
+     * @param value 值
+     * @return 字面量
+     */
+    public String literal(Object value) {
+        StringBuilder sb = new StringBuilder();
+        appendLiteral(sb, value);
+        return sb.toString();
+    }
+    
+    /**
+     * 将值渲染为SQL字面量并追加到sb
+     *
+     * @param sb 输出
+     * @param value 值
+     */
+    public void appendLiteral(StringBuilder sb, Object value) {
+        if (value == null) {
+            sb.append("NULL");
+        } else if (value instanceof BigDecimal) {
+            sb.append(((BigDecimal) value).toPlainString());
+        } else if (value instanceof Number) {
+            sb.append(value);
+        } else if (value instanceof Boolean) {
+            sb.append(booleanLiteral((Boolean) value));
+        } else if (value instanceof CharSequence) {
+            appendString(sb, (CharSequence) value);
+        } else if (value instanceof LobValue && ((LobValue) value).isBinary()) {
+            checkBinaryLiteral(((LobValue) value).length());
+            sb.append(binaryLiteralPrefix()).append(value).append(binaryLiteralSuffix());
+        } else {
+            appendString(sb, String.valueOf(value));
+        }
+    }
+    
+    /**
+     * 生成按主键更新部分字段的语句
+     *
+     * @param table 表名
+     * @param setColumns 更新的字段
+     * @param keyColumns 主键字段
+     * @param setValues 已渲染的更新值
+     * @param keyValues 已渲染的主键值
+     * @return SQL语句
+     */
+    public String update(String table, List<String> setColumns, List<String> keyColumns, String[] setValues, String[] keyValues) {
+        StringBuilder sb = new StringBuilder("UPDATE ").append(quote(table)).append(" SET ");
+        for (int i = 0; i < setColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(quote(setColumns.get(i))).append(" = ").append(setValues[i]);
+        }
+        appendWhere(sb, keyColumns, keyValues);
+        return sb.toString();
+    }
+    
+    /**
+     * 生成按主键删除的语句
+     *
+     * @param table 表名
+     * @param keyColumns 主键字段
+     * @param keyValues 已渲染的主键值
+     * @return SQL语句
+     */
+    public String delete(String table, List<String> keyColumns, String[] keyValues) {
+        StringBuilder sb = new StringBuilder("DELETE FROM ").append(quote(table));
+        appendWhere(sb, keyColumns, keyValues);
+        return sb.toString();
+    }
+    
+    /**
+     * 按名称解析方言，忽略大小写
+     *
+     * @param name 方言名称
+     * @return 方言
+     */
+    public static SqlDialect of(String name) {
+        try {
+            return valueOf(name.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unsupported SQL dialect: " + name + ", expected mysql or oracle");
+        }
+    }
+    
+    private void appendString(StringBuilder sb, CharSequence text) {
+        int limit = maxLiteralBytes();
+        boolean split = encodedLength(text) > limit;
+        sb.append(split ? splitLiteralPrefix() : "'");
+        int pieceBytes = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String escaped = c < 0x80 ? escape(c) : null;
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1));
+            int bytes = encodedLength(c, escaped, pair);
+            if (split && pieceBytes + bytes > limit) {
+                sb.append(splitLiteralSeparator());
+                pieceBytes = 0;
+            }
+            pieceBytes += bytes;
+            if (escaped != null) {
+                sb.append(escaped);
+            } else if (pair) {
+                sb.append(c).append(text.charAt(++i));
+            } else {
+                sb.append(c);
+            }
+        }
+        sb.append(split ? splitLiteralSuffix() : "'");
+    }
+    
+    /**
+     * 计算文本转义并以UTF-8编码后的字节数
+     */
+    private long encodedLength(CharSequence text) {
+        long length = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            boolean pair = Character.isHighSurrogate(c) && i + 1 < text.length() && Character.isLowSurrogate(text.charAt(i + 1));
+            length += encodedLength(c, c < 0x80 ? escape(c) : null, pair);
+            if (pair) {
+                i++;
+            }
+        }
+        return length;
+    }
+    
+    private static int encodedLength(char c, String escaped, boolean pair) {
+        if (escaped != null) {
+            return escaped.length();
+        } else if (c < 0x80) {
+            return 1;
+        } else if (c < 0x800) {
+            return 2;
+        }
+        return pair ? 4 : 3;
+    }
+    
+    protected void appendColumnList(StringBuilder sb, List<String> columns) {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(quote(columns.get(i)));
+        }
+    }
+    
+    protected static void appendValueList(StringBuilder sb, String[] values) {
+        for (int i = 0; i < values.length; i++) {
+            if (i > 0) {
+                sb.append(", ");
+            }
+            sb.append(values[i]);
+        }
+    }
+    
+    private void appendWhere(StringBuilder sb, List<String> keyColumns, String[] keyValues) {
+        sb.append(" WHERE ");
+        for (int i = 0; i < keyColumns.size(); i++) {
+            if (i > 0) {
+                sb.append(" AND ");
+            }
+            sb.append(quote(keyColumns.get(i))).append(" = ").append(keyValues[i]);
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,115 @@
+package com.oceanbase.datamocker;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.TablePlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据模拟器并发测试类
+ */
+public class DataMockerConcurrencyTest {
+    
+    private static final int THREADS = 8;
+    private static final int ROWS_PER_THREAD = 5000;
+    private static final List<String> FIELD_NAMES = Arrays.asList("id", "name", "email", "age", "created_time", "amount");
+    private static final List<String> FIELD_TYPES = Arrays.asList("BIGINT", "STRING", "STRING", "INT", "DATETIME", "DECIMAL");
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testConcurrentGenerationSharesOneMocker() throws Exception {
+        dataMocker = new DataMocker(createConfig(null));
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<List<Map<String, Object>>>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    return dataMocker.generateData("orders", FIELD_NAMES, FIELD_TYPES, ROWS_PER_THREAD);
+                }));
+            }
+            start.countDown();
+            
+            for (Future<List<Map<String, Object>>> future : futures) {
+                List<Map<String, Object>> data = future.get(60, TimeUnit.SECONDS);
+                assertEquals(ROWS_PER_THREAD, data.size());
+                for (Map<String, Object> row : data) {
+                    int age = (Integer) row.get("age");
+                    assertTrue(age >= 18 && age <= 60);
+                    assertNotNull(row.get("name"));
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    @Test
+    public void testSeededRowsDoNotDependOnThreads() throws Exception {
+        dataMocker = new DataMocker(createConfig(42L));
+        TablePlan plan = dataMocker.compilePlan("orders", FIELD_NAMES, FIELD_TYPES);
+        long tableSeed = RandomStreams.derive(42L, "orders");
+        int rowCount = THREADS * ROWS_PER_THREAD;
+        
+        Object[][] expected = new Object[rowCount][];
+        for (int i = 0; i < rowCount; i++) {
+            expected[i] = plan.generateRow(i, tableSeed);
+        }
+        
+        // 多个线程交错生成各自的行，每行的结果应与单线程顺序生成时一致
+        Object[][] actual = new Object[rowCount][];
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                int offset = t;
+                futures.add(executor.submit(() -> {
+                    for (int i = offset; i < rowCount; i += THREADS) {
+                        actual[i] = plan.generateRow(i, tableSeed);
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        for (int i = 0; i < rowCount; i++) {
+            assertArrayEquals(expected[i], actual[i], "row " + i);
+        }
+        assertEquals(dataMocker.generateData(plan, 100), dataMocker.generateData(plan, 100));
+    }
+    
+    private static MockerConfig createConfig(Long seed) {
+        MockerConfig config = TestConfigs.config(seed);
+        config.getFieldConfigs().put("id", TestConfigs.sequence());
+        config.getFieldConfigs().put("age", TestConfigs.range("18", "60"));
+        config.getFieldConfigs().put("email", TestConfigs.nullable(new FieldConfig(), 0.1));
+        return config;
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,71 @@
+package com.oceanbase.datamocker;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+
+/**
+ * 测试用的配置构造方法
+ */
+public final class TestConfigs {
+    
+    private TestConfigs() {
+    }
+    
+    /**
+     * 创建不启用AI推断的配置
+     *
+     * @param seed 随机种子，为null时不固定种子
+     * @return 配置
+     */
+    public static MockerConfig config(Long seed) {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(seed);
+        return config;
+    }
+    
+    public static FieldConfig sequence() {
+        FieldConfig field = new FieldConfig();
+        field.setSequence(true);
+        return field;
+    }
+    
+    public static FieldConfig range(String min, String max) {
+        FieldConfig field = new FieldConfig();
+        field.setMin(min);
+        field.setMax(max);
+        return field;
+    }
+    
+    public static FieldConfig range(String min, String max, FieldConfig.DistributionType distribution) {
+        FieldConfig field = range(min, max);
+        field.setDistributionType(distribution);
+        return field;
+    }
+    
+    public static FieldConfig length(int min, int max) {
+        FieldConfig field = new FieldConfig();
+        field.setMinLength(min);
+        field.setMaxLength(max);
+        return field;
+    }
+    
+    public static FieldConfig enumOf(String... values) {
+        FieldConfig field = new FieldConfig();
+        field.setEnumValues(values);
+        return field;
+    }
+    
+    /**
+     * 允许字段为空
+     *
+     * @param field 字段配置
+     * @param nullRate 空值比例
+     * @return 传入的字段配置
+     */
+    public static FieldConfig nullable(FieldConfig field, double nullRate) {
+        field.setAllowNull(true);
+        field.setNullRate(nullRate);
+        return field;
+    }
+} 
\ No newline at end of file
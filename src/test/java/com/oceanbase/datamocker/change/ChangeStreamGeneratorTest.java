@@ -0,0 +1,163 @@
+package com.oceanbase.datamocker.change;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.LobDataGenerator;
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiFunction;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 变更流生成测试类
+ */
+public class ChangeStreamGeneratorTest {
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testChangesTargetExistingKeys() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(7L);
+        dataMocker = new DataMocker(config);
+        TablePlan plan = dataMocker.compilePlan("accounts", Arrays.asList("code", "owner", "balance"),
+                Arrays.asList("VARCHAR", "VARCHAR", "DECIMAL"));
+        
+        // 主键不是序列字段时，按种子重新生成目标行得到主键
+        Set<Object> codes = new HashSet<>();
+        for (Map<String, Object> row : dataMocker.generateData(plan, 200)) {
+            codes.add(row.get("code"));
+        }
+        ChangeStreamConfig changeConfig = new ChangeStreamConfig();
+        changeConfig.setOperations(500);
+        ChangeStreamGenerator generator = new ChangeStreamGenerator(plan, 200, 7L, changeConfig);
+        assertEquals(Arrays.asList("code"), generator.getKeyColumns());
+        assertEquals(Arrays.asList("owner", "balance"), generator.getUpdateColumns());
+        
+        int[] counts = new int[ChangeEvent.Operation.values().length];
+        for (long i = 0; i < 500; i++) {
+            ChangeEvent event = generator.next(i);
+            assertTrue(codes.contains(event.getKeyValues()[0]));
+            counts[event.getOperation().ordinal()]++;
+        }
+        assertTrue(counts[ChangeEvent.Operation.UPDATE.ordinal()] > counts[ChangeEvent.Operation.DELETE.ordinal()]);
+        assertTrue(counts[ChangeEvent.Operation.UPSERT.ordinal()] > 0);
+    }
+    
+    @Test
+    public void testHotspotSqlScriptIsReproducible() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        FieldConfig id = new FieldConfig();
+        id.setSequence(true);
+        config.getFieldConfigs().put("id", id);
+        dataMocker = new DataMocker(config);
+        TablePlan plan = dataMocker.compilePlan("orders", Arrays.asList("id", "status"), Arrays.asList("BIGINT", "VARCHAR"));
+        
+        ChangeStreamConfig changeConfig = new ChangeStreamConfig();
+        changeConfig.setOperations(1000);
+        changeConfig.setBatchSize(100);
+        changeConfig.setKeyDistribution(ChangeStreamConfig.KeyDistribution.HOTSPOT);
+        changeConfig.setHotspotKeyRatio(0.01);
+        changeConfig.setHotspotAccessRatio(0.9);
+        
+        String script = render(plan, changeConfig);
+        assertEquals(script, render(plan, changeConfig));
+        
+        List<String> lines = Arrays.asList(script.split("\n"));
+        assertEquals(10, lines.stream().filter("COMMIT;"::equals).count());
+        long hot = lines.stream().filter(line -> line.matches(".*`id` = ([1-9]|10)(;|\\)| AND.*)")
+                || line.matches(".*VALUES \\(([1-9]|10), .*")).count();
+        // 1%的热点行（id 1~10）承担约90%的变更
+        assertTrue(hot > 800, "hot changes: " + hot);
+        assertTrue(lines.stream().anyMatch(line -> line.startsWith("INSERT INTO `orders` (`id`, `status`) VALUES (")
+                && line.endsWith("ON DUPLICATE KEY UPDATE `status` = VALUES(`status`);")));
+    }
+    
+    @Test
+    public void testDialectLiterals() {
+        assertEquals("'it''s \\\\ ok'", SqlDialect.MYSQL.literal("it's \\ ok"));
+        assertEquals("'it''s \\ ok'", SqlDialect.ORACLE.literal("it's \\ ok"));
+        assertEquals("NULL", SqlDialect.ORACLE.literal(null));
+        assertEquals("1", SqlDialect.ORACLE.literal(true));
+        assertEquals("\"order\"", SqlDialect.ORACLE.quote("order"));
+    }
+    
+    @Test
+    public void testJdbcBindsCharSequencesAndLobs() throws IOException {
+        List<String> bindings = new ArrayList<>();
+        PreparedStatement statement = proxy(PreparedStatement.class, (method, args) -> {
+            if (method.getName().startsWith("set")) {
+                bindings.add(method.getName() + ":" + args[1].getClass().getSimpleName());
+            }
+            return null;
+        });
+        Connection connection = proxy(Connection.class, (method, args) -> method.getName().equals("prepareStatement") ? statement : null);
+        
+        FieldConfig lobConfig = new FieldConfig();
+        lobConfig.setType("BLOB");
+        lobConfig.setMaxLength(16);
+        Object lob = new LobDataGenerator().generate("payload", lobConfig);
+        try (JdbcChangeSink sink = new JdbcChangeSink(connection, SqlDialect.MYSQL, false)) {
+            sink.open("t", Arrays.asList("id", "name", "payload"), Arrays.asList("id"), Arrays.asList("name"));
+            sink.write(new ChangeEvent(1, ChangeEvent.Operation.UPSERT, 0, new Object[]{1L},
+                    new Object[]{1L, new StringBuilder("pooled"), lob}));
+        }
+        // 非String的字符序列按字符串绑定，大对象按流绑定，驱动不会收到无法识别的类型
+        assertEquals(Arrays.asList("setObject:Long", "setString:String", "setBinaryStream:" + ((LobValue) lob).openStream().getClass().getSimpleName()),
+                bindings);
+    }
+    
+    /**
+     * 创建只实现部分方法的JDBC接口代理，其余方法返回默认值
+     */
+    @SuppressWarnings("unchecked")
+    private static <T> T proxy(Class<T> type, BiFunction<Method, Object[], Object> handler) {
+        return (T) Proxy.newProxyInstance(type.getClassLoader(), new Class<?>[]{type}, (proxy, method, args) -> {
+            Object result = handler.apply(method, args);
+            Class<?> returnType = method.getReturnType();
+            if (result != null || returnType == void.class) {
+                return result;
+            } else if (returnType == int[].class) {
+                return new int[0];
+            } else if (returnType == boolean.class) {
+                return Boolean.FALSE;
+            }
+            return returnType.isPrimitive() ? 0 : null;
+        });
+    }
+    
+    private String render(TablePlan plan, ChangeStreamConfig changeConfig) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SqlFileChangeSink sink = new SqlFileChangeSink(out, SqlDialect.MYSQL)) {
+            dataMocker.generateChanges(plan, 1000, changeConfig, sink);
+        }
+        return out.toString("UTF-8");
+    }
+} 
\ No newline at end of file
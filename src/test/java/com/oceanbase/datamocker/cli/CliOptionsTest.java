@@ -0,0 +1,36 @@
+package com.oceanbase.datamocker.cli;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 命令行选项解析测试类
+ */
+public class CliOptionsTest {
+    
+    @Test
+    public void testFlagsNeverTakeValues() {
+        CliOptions options = CliOptions.parse(new String[]{"--verify", "users", "--rows", "20", "--no-header", "a.csv", "--format=csv"});
+        assertTrue(options.has("verify"));
+        assertEquals("true", options.get("verify", null));
+        assertEquals(20, options.getLong("rows", 0));
+        assertTrue(options.has("no-header"));
+        assertEquals("csv", options.get("format", null));
+        assertEquals(Arrays.asList("users", "a.csv"), options.getPositional());
+    }
+    
+    @Test
+    public void testPositionalArgumentsWithVerify() {
+        CliOptions options = CliOptions.parse(new String[]{"--verify", "users", "id,age", "INT,INT", "100"});
+        assertTrue(options.has("verify"));
+        assertEquals(Arrays.asList("users", "id,age", "INT,INT", "100"), options.getPositional());
+        
+        options = CliOptions.parse(new String[]{"users", "id,age", "INT,INT", "--verify", "--config", "c.yaml"});
+        assertTrue(options.has("verify"));
+        assertEquals("c.yaml", options.get("config", null));
+        assertEquals(Arrays.asList("users", "id,age", "INT,INT"), options.getPositional());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,40 @@
+package com.oceanbase.datamocker.cli;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 命令行入口测试类
+ */
+public class DataMockerCliTest {
+    
+    @TempDir
+    File tempDir;
+    
+    @Test
+    public void testPositionalRowCountFallsBackToDefault() throws IOException {
+        File configFile = new File(tempDir, "config.yaml");
+        Files.write(configFile.toPath(), "enableAiInference: false\ndefaultRowCount: 3\n".getBytes(StandardCharsets.UTF_8));
+        
+        for (String rows : new String[]{"0", "-5"}) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            DataMockerCli.generatePositional(CliOptions.parse(new String[]{"users", "id,age", "INT,INT", rows, configFile.getPath()}), out);
+            List<?> data = new ObjectMapper().readValue(out.toByteArray(), List.class);
+            assertEquals(3, data.size());
+        }
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        DataMockerCli.generatePositional(CliOptions.parse(new String[]{"users", "id,age", "INT,INT", "5", "--config", configFile.getPath()}), out);
+        assertEquals(5, new ObjectMapper().readValue(out.toByteArray(), List.class).size());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,77 @@
+package com.oceanbase.datamocker.compress;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 并行分块压缩测试类
+ */
+public class ParallelCompressingOutputStreamTest {
+    
+    @Test
+    public void testConcatenatedMembersDecompressToInput() throws IOException {
+        byte[] input = new byte[1_000_003];
+        Random random = new Random(1);
+        for (int i = 0; i < input.length; i++) {
+            // 一半可压缩的文本，一半随机字节
+            input[i] = i % 2 == 0 ? (byte) ('a' + i % 7) : (byte) random.nextInt();
+        }
+        
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+            try (ParallelCompressingOutputStream out = new ParallelCompressingOutputStream(
+                    compressed, new GzipCodec(), 1, 64 * 1024, executor, 3)) {
+                out.write(input, 0, 100);
+                out.flush();
+                for (int i = 100; i < input.length; i++) {
+                    out.write(input[i]);
+                    if (i % 300_000 == 0) {
+                        out.write(input, 0, 0);
+                    }
+                }
+                out.flush();
+                assertEquals(compressed.size(), out.getCompressedBytes());
+            }
+            assertArrayEquals(input, gunzip(compressed.toByteArray()));
+            
+            // 同样的写入序列产生同样的压缩结果
+            ByteArrayOutputStream again = new ByteArrayOutputStream();
+            try (ParallelCompressingOutputStream out = new ParallelCompressingOutputStream(
+                    again, new GzipCodec(), 1, 64 * 1024, executor, 3)) {
+                out.write(input, 0, 100);
+                out.flush();
+                out.write(input, 100, input.length - 100);
+            }
+            assertArrayEquals(compressed.toByteArray(), again.toByteArray());
+        } finally {
+            executor.shutdownNow();
+        }
+        
+        assertNull(CompressionCodecs.get("none"));
+        assertEquals(".gz", CompressionCodecs.suffix("GZIP"));
+        assertThrows(IllegalArgumentException.class, () -> CompressionCodecs.get("brotli"));
+    }
+    
+    static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                result.write(chunk, 0, n);
+            }
+        }
+        return result.toByteArray();
+    }
+} 
\ No newline at end of file
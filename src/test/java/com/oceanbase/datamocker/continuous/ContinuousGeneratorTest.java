@@ -0,0 +1,86 @@
+package com.oceanbase.datamocker.continuous;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 持续生成模式测试类
+ */
+public class ContinuousGeneratorTest {
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testScheduleIntegratesRamps() {
+        RateSchedule schedule = RateSchedule.parse("0->1k:2s,1k:1s,1k->0:2s");
+        
+        // 爬坡1000，稳定1000，降速1000
+        assertEquals(3000, schedule.getTotalUnits(), 1e-6);
+        assertEquals(5_000_000_000L, schedule.getTotalNanos());
+        assertEquals(500, schedule.rateAt(1_000_000_000L), 1e-6);
+        
+        // 从0线性爬坡时，累计量达到250的时刻为1秒
+        assertEquals(1_000_000_000L, schedule.timeForUnits(250), 1_000);
+        assertEquals(2_500_000_000L, schedule.timeForUnits(1500), 1_000);
+        // 降速阶段累计量达到2750（降速阶段的3/4）的时刻为降速开始后1秒
+        assertEquals(4_000_000_000L, schedule.timeForUnits(2750), 1_000);
+        assertEquals(-1, schedule.timeForUnits(3000));
+    }
+    
+    @Test
+    public void testHistogramPercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i * 1000L);
+        }
+        assertEquals(1000, histogram.getTotalCount());
+        assertEquals(500_000, histogram.getValueAtPercentile(50), 500_000 / 64.0);
+        assertEquals(990_000, histogram.getValueAtPercentile(99), 990_000 / 64.0);
+        assertEquals(1_000_000, histogram.getValueAtPercentile(100));
+    }
+    
+    @Test
+    public void testRunFollowsSchedule() throws Exception {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        dataMocker = new DataMocker(config);
+        TablePlan plan = dataMocker.compilePlan("events",
+                Arrays.asList("id", "name", "amount"), Arrays.asList("BIGINT", "STRING", "DECIMAL"));
+        
+        ContinuousConfig continuousConfig = new ContinuousConfig();
+        continuousConfig.setSchedule(RateSchedule.parse("2000:500ms"));
+        continuousConfig.setBatchSize(100);
+        continuousConfig.setProducerThreads(2);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long start = System.nanoTime();
+        ContinuousResult result = new ContinuousGenerator(plan, new CsvRowSink(out), continuousConfig).run();
+        long elapsed = System.nanoTime() - start;
+        
+        assertEquals(1000, result.getRowsWritten());
+        assertTrue(elapsed >= 450_000_000L, "run finished too early: " + elapsed);
+        assertTrue(result.getLatency().getTotalCount() > 0);
+        
+        String[] lines = new String(out.toByteArray(), StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,name,amount", lines[0]);
+        assertEquals(1001, lines.length);
+        assertEquals(out.size(), result.getBytesWritten() + "id,name,amount\n".length());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,155 @@
+package com.oceanbase.datamocker.generator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.TestConfigs;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import com.oceanbase.datamocker.sink.NdjsonRowSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON模板测试类
+ */
+public class JsonTemplateTest {
+    
+    private static final List<String> FIELD_NAMES = Arrays.asList("id", "attrs");
+    private static final List<String> FIELD_TYPES = Arrays.asList("BIGINT", "JSON");
+    
+    private final ObjectMapper mapper = new ObjectMapper();
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testTemplateShapeAndValues() throws Exception {
+        dataMocker = new DataMocker(templateConfig());
+        List<Map<String, Object>> rows = dataMocker.generateData("products", FIELD_NAMES, FIELD_TYPES, 200);
+        
+        boolean sawNullNote = false;
+        for (Map<String, Object> row : rows) {
+            Object value = row.get("attrs");
+            assertTrue(value instanceof JsonDocument);
+            JsonNode attrs = mapper.readTree(value.toString());
+            assertEquals(Arrays.asList("color", "price", "email", "size", "tags", "note"), fieldNames(attrs));
+            assertTrue(Arrays.asList("red", "blue").contains(attrs.get("color").asText()));
+            assertTrue(attrs.get("price").isNumber());
+            double price = attrs.get("price").asDouble();
+            assertTrue(price >= 1 && price <= 100, attrs.toString());
+            assertTrue(attrs.get("email").asText().contains("@"), attrs.toString());
+            assertTrue(attrs.get("size").get("w").asInt() >= 1 && attrs.get("size").get("w").asInt() <= 10);
+            assertTrue(attrs.get("tags").isArray() && attrs.get("tags").size() >= 1 && attrs.get("tags").size() <= 3);
+            for (JsonNode tag : attrs.get("tags")) {
+                assertTrue(tag.asText().length() >= 3 && tag.asText().length() <= 8);
+            }
+            sawNullNote |= attrs.get("note").isNull();
+        }
+        assertTrue(sawNullNote);
+        // 设置了种子时结果可以复现
+        assertEquals(rows, dataMocker.generateData("products", FIELD_NAMES, FIELD_TYPES, 200));
+    }
+    
+    @Test
+    public void testSinksWriteDocumentBytes() throws Exception {
+        dataMocker = new DataMocker(templateConfig());
+        TablePlan plan = dataMocker.compilePlan("products", FIELD_NAMES, FIELD_TYPES);
+        List<Map<String, Object>> rows = dataMocker.generateData(plan, 20);
+        
+        // NDJSON中作为嵌套对象写出
+        ByteArrayOutputStream json = new ByteArrayOutputStream();
+        try (NdjsonRowSink sink = new NdjsonRowSink(json)) {
+            dataMocker.generateData(plan, 20, sink);
+        }
+        String[] lines = json.toString("UTF-8").split("\n");
+        assertEquals(20, lines.length);
+        for (int i = 0; i < lines.length; i++) {
+            JsonNode row = mapper.readTree(lines[i]);
+            assertTrue(row.get("attrs").isObject());
+            assertEquals(mapper.readTree(rows.get(i).get("attrs").toString()), row.get("attrs"));
+        }
+        
+        // CSV中按字节加倍引号
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        try (CsvRowSink sink = new CsvRowSink(csv, ',', false)) {
+            dataMocker.generateData(plan, 1, sink);
+        }
+        String attrs = rows.get(0).get("attrs").toString();
+        assertEquals(rows.get(0).get("id") + ",\"" + attrs.replace("\"", "\"\"") + "\"\n", csv.toString("UTF-8"));
+    }
+    
+    @Test
+    public void testDefaultAndInvalidTemplates() throws Exception {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        dataMocker = new DataMocker(config);
+        Object value = dataMocker.generateData("t", FIELD_NAMES, FIELD_TYPES, 1).get(0).get("attrs");
+        assertEquals(Arrays.asList("id", "name", "tags"), fieldNames(mapper.readTree(value.toString())));
+        
+        FieldConfig tags = new FieldConfig();
+        tags.setItems(new FieldConfig());
+        tags.setMinItems(3);
+        tags.setMaxItems(1);
+        FieldConfig attrs = new FieldConfig();
+        attrs.setProperties(Collections.singletonMap("tags", tags));
+        config.getFieldConfigs().put("attrs", attrs);
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.compilePlan("t", FIELD_NAMES, FIELD_TYPES));
+    }
+    
+    private static MockerConfig templateConfig() {
+        MockerConfig config = TestConfigs.config(5L);
+        
+        Map<String, FieldConfig> properties = new LinkedHashMap<>();
+        properties.put("color", TestConfigs.enumOf("red", "blue"));
+        FieldConfig price = TestConfigs.range("1", "100", FieldConfig.DistributionType.NORMAL);
+        price.setType("DECIMAL");
+        price.setScale(2);
+        properties.put("price", price);
+        // 属性按属性名推断语义
+        properties.put("email", new FieldConfig());
+        
+        FieldConfig width = TestConfigs.range("1", "10");
+        width.setType("INT");
+        FieldConfig size = new FieldConfig();
+        size.setProperties(Collections.singletonMap("w", width));
+        properties.put("size", size);
+        
+        FieldConfig tag = TestConfigs.length(3, 8);
+        FieldConfig tags = new FieldConfig();
+        tags.setItems(tag);
+        tags.setMinItems(1);
+        tags.setMaxItems(3);
+        properties.put("tags", tags);
+        
+        properties.put("note", TestConfigs.nullable(TestConfigs.enumOf("a \"quoted\"\nline"), 0.5));
+        
+        FieldConfig attrs = new FieldConfig();
+        attrs.setProperties(properties);
+        config.getFieldConfigs().put("attrs", attrs);
+        return config;
+    }
+    
+    private static List<String> fieldNames(JsonNode node) {
+        List<String> names = new ArrayList<>();
+        node.fieldNames().forEachRemaining(names::add);
+        return names;
+    }
+} 
\ No newline at end of file
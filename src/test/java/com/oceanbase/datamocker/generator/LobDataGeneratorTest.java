@@ -0,0 +1,107 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 大对象数据生成器测试类
+ */
+public class LobDataGeneratorTest {
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testContentDoesNotDependOnReadSize() throws IOException {
+        for (boolean binary : new boolean[]{true, false}) {
+            LobValue value = new LobValue(42L, 100_003, binary);
+            ByteArrayOutputStream whole = new ByteArrayOutputStream();
+            value.writeTo(whole);
+            assertEquals(value.length(), whole.size());
+            
+            // 以不规则的大小逐段读取，结果与整块写出一致
+            ByteArrayOutputStream pieces = new ByteArrayOutputStream();
+            try (InputStream in = value.openStream()) {
+                byte[] buffer = new byte[13];
+                int read;
+                while ((read = in.read(buffer, 0, 1 + pieces.size() % 13)) > 0) {
+                    pieces.write(buffer, 0, read);
+                }
+            }
+            assertArrayEquals(whole.toByteArray(), pieces.toByteArray());
+            
+            if (!binary) {
+                for (byte b : whole.toByteArray()) {
+                    assertTrue(b == ' ' || (b >= 'a' && b <= 'z'));
+                }
+            }
+        }
+        LobValue small = new LobValue(7L, 3, true);
+        assertEquals(6, small.toString().length());
+        assertEquals(small.toString(), new LobValue(7L, 3, true).toString());
+    }
+    
+    @Test
+    public void testLengthsFollowTypeAndConfig() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(11L);
+        FieldConfig content = new FieldConfig();
+        content.setMinLength(100);
+        content.setMaxLength(5000);
+        content.setDistributionType(FieldConfig.DistributionType.EXPONENTIAL);
+        config.getFieldConfigs().put("description", content);
+        
+        dataMocker = new DataMocker(config);
+        List<String> fieldNames = Arrays.asList("id", "description", "thumbnail");
+        List<String> fieldTypes = Arrays.asList("BIGINT", "LONGTEXT", "TINYBLOB");
+        List<Map<String, Object>> data = dataMocker.generateData("t", fieldNames, fieldTypes, 500);
+        
+        long total = 0;
+        for (Map<String, Object> row : data) {
+            LobValue text = (LobValue) row.get("description");
+            LobValue image = (LobValue) row.get("thumbnail");
+            assertFalse(text.isBinary());
+            assertTrue(image.isBinary());
+            assertTrue(text.length() >= 100 && text.length() <= 5000);
+            assertTrue(image.length() <= 255);
+            total += text.length();
+        }
+        // 指数分布的均值约为 min + (max - min) / 5
+        assertEquals(100 + 4900 / 5.0, total / 500.0, 150);
+        
+        // 值由种子决定，CSV输出按块写出内容
+        assertEquals(data, dataMocker.generateData("t", fieldNames, fieldTypes, 500));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (CsvRowSink sink = new CsvRowSink(out)) {
+            sink.open("t", fieldNames);
+            Map<String, Object> row = data.get(0);
+            sink.write(new Object[]{row.get("id"), row.get("description"), row.get("thumbnail")});
+        }
+        String csv = out.toString("UTF-8");
+        assertTrue(csv.contains("," + row(data, "description") + "," + row(data, "thumbnail") + "\n"));
+    }
+    
+    private static String row(List<Map<String, Object>> data, String field) {
+        return data.get(0).get(field).toString();
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,122 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.ai.RuleBasedSemanticInferrer;
+import com.oceanbase.datamocker.ai.SemanticType;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 马尔可夫文本生成器测试类
+ */
+public class MarkovTextGeneratorTest {
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testGeneratedTextFollowsCorpusTransitions() throws Exception {
+        String corpus = "The quick brown fox jumps over the lazy dog.\nThe lazy dog sleeps in the sun, and the fox runs away.\n"
+                + "数据库的性能测试需要真实的数据。真实的数据可以让测试更加可靠！";
+        MarkovTextModel model = MarkovTextModel.build(new StringReader(corpus), 1);
+        
+        // 语料中出现过的相邻词元
+        Set<String> pairs = new HashSet<>();
+        for (String line : corpus.split("\n")) {
+            List<String> tokens = new ArrayList<>();
+            MarkovTextModel.tokenize(line, tokens);
+            for (int i = 1; i < tokens.size(); i++) {
+                pairs.add(tokens.get(i - 1) + " " + tokens.get(i));
+            }
+        }
+        
+        FastRandom random = new FastRandom(42L);
+        StringBuilder buffer = new StringBuilder();
+        for (int i = 0; i < 200; i++) {
+            String text = model.generate(random, 20, 80, buffer);
+            assertTrue(text.length() <= 80, text);
+            assertFalse(text.startsWith(" ") || text.contains("  ") || text.contains(" ,") || text.contains(" ."), text);
+            List<String> tokens = new ArrayList<>();
+            MarkovTextModel.tokenize(text, tokens);
+            for (int j = 1; j < tokens.size(); j++) {
+                String pair = tokens.get(j - 1) + " " + tokens.get(j);
+                // 句末标点之后开始新句子，不要求在语料中相邻
+                boolean sentenceStart = tokens.get(j - 1).matches("[.!?。！？]");
+                assertTrue(sentenceStart || pairs.contains(pair), "unexpected transition '" + pair + "' in: " + text);
+            }
+        }
+        
+        String title = model.generateTitle(random, 5, 20, buffer);
+        assertTrue(title.length() >= 5 && title.length() <= 20, title);
+        assertTrue(Character.isLetterOrDigit(title.charAt(title.length() - 1)), title);
+        assertThrows(IllegalArgumentException.class, () -> MarkovTextModel.build(new StringReader(" \n"), 2));
+        assertThrows(IllegalArgumentException.class, () -> MarkovTextModel.build(new StringReader(corpus), 4));
+    }
+    
+    @Test
+    public void testCustomGeneratorParams() {
+        MarkovTextGenerator generator = new MarkovTextGenerator();
+        Map<String, Object> params = new HashMap<>();
+        params.put("language", "en");
+        params.put("mode", "title");
+        generator.configure(params);
+        FieldConfig config = new FieldConfig();
+        config.setMaxLength(40);
+        for (int i = 0; i < 100; i++) {
+            String title = (String) generator.generate("headline", config);
+            assertTrue(title.length() <= 40 && title.matches("[A-Za-z0-9].*[A-Za-z0-9]"), title);
+        }
+        
+        params.put("language", "fr");
+        assertThrows(IllegalArgumentException.class, () -> new MarkovTextGenerator().configure(params));
+    }
+    
+    @Test
+    public void testDescriptionColumnsUseTextGenerator() {
+        RuleBasedSemanticInferrer inferrer = new RuleBasedSemanticInferrer();
+        assertEquals(SemanticType.DESCRIPTION, inferrer.inferSemanticType("description", "VARCHAR"));
+        assertEquals(SemanticType.TITLE, inferrer.inferSemanticType("title", "VARCHAR"));
+        assertEquals(SemanticType.JOB_TITLE, inferrer.inferSemanticType("job_title", "VARCHAR"));
+        
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(3L);
+        FieldConfig description = new FieldConfig();
+        description.setMinLength(30);
+        description.setMaxLength(120);
+        config.getFieldConfigs().put("description", description);
+        dataMocker = new DataMocker(config);
+        
+        List<String> fieldNames = Arrays.asList("title", "description");
+        List<String> fieldTypes = Arrays.asList("VARCHAR", "TEXT");
+        List<Map<String, Object>> data = dataMocker.generateData("article", fieldNames, fieldTypes, 100);
+        for (Map<String, Object> row : data) {
+            String text = (String) row.get("description");
+            assertTrue(text.length() >= 30 && text.length() <= 120, text);
+            // 中文或按空格分隔的英文单词，不是随机字母数字串
+            assertTrue(text.codePoints().anyMatch(c -> Character.UnicodeScript.of(c) == Character.UnicodeScript.HAN)
+                    || text.contains(" "), text);
+        }
+        // 设置了种子时结果可以复现
+        assertEquals(data, dataMocker.generateData("article", fieldNames, fieldTypes, 100));
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,90 @@
+package com.oceanbase.datamocker.generator;
+
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import com.oceanbase.datamocker.sink.NdjsonRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.SqlInsertRowSink;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 值池字符串值测试类
+ */
+public class PooledValueTest {
+    
+    private static final List<String> TEXTS = Arrays.asList("", "plain", "a,b", "say \"hi\"", "line\nbreak", "中文", "emoji😀x");
+    
+    @Test
+    public void testOffHeapValueMatchesString() throws Exception {
+        Field textField = PooledValue.class.getDeclaredField("text");
+        textField.setAccessible(true);
+        for (String text : TEXTS) {
+            PooledValue heap = new PooledValue(text);
+            PooledValue direct = offHeap(text);
+            assertEquals(text.length(), direct.length(), text);
+            assertEquals(text, direct.toString());
+            assertEquals(heap, direct);
+            assertEquals(heap.hashCode(), direct.hashCode());
+            assertArrayEquals(text.getBytes(StandardCharsets.UTF_8), direct.getBytes());
+            
+            byte[] copy = new byte[direct.byteLength() + 2];
+            direct.copyBytes(0, copy, 1, direct.byteLength());
+            for (int i = 0; i < direct.byteLength(); i++) {
+                assertEquals(copy[i + 1], direct.byteAt(i));
+            }
+            // 解码出的字符串不缓存，否则堆外的值会重新留在堆上
+            assertNull(textField.get(direct));
+        }
+        assertNotEquals(offHeap("ab"), offHeap("abc"));
+    }
+    
+    @Test
+    public void testSinksWriteOffHeapValuesWithoutDecoding() throws Exception {
+        Field textField = PooledValue.class.getDeclaredField("text");
+        textField.setAccessible(true);
+        Object[] heapRow = new Object[TEXTS.size()];
+        Object[] directRow = new Object[TEXTS.size()];
+        for (int i = 0; i < TEXTS.size(); i++) {
+            heapRow[i] = new PooledValue(TEXTS.get(i));
+            directRow[i] = offHeap(TEXTS.get(i));
+        }
+        for (int sink = 0; sink < 3; sink++) {
+            assertEquals(write(sink, heapRow), write(sink, directRow));
+        }
+        for (Object value : directRow) {
+            assertNull(textField.get(value));
+        }
+    }
+    
+    private static PooledValue offHeap(String text) {
+        byte[] bytes = text.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 3);
+        buffer.position(3);
+        buffer.put(bytes);
+        return new PooledValue(buffer, 3, bytes.length);
+    }
+    
+    private static String write(int type, Object[] row) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        RowSink sink = type == 0 ? new CsvRowSink(out) : type == 1 ? new NdjsonRowSink(out)
+                : new SqlInsertRowSink(out, SqlDialect.MYSQL);
+        String[] columns = new String[row.length];
+        for (int i = 0; i < row.length; i++) {
+            columns[i] = "c" + i;
+        }
+        sink.open("t", Arrays.asList(columns));
+        sink.write(row);
+        sink.flush();
+        return out.toString("UTF-8");
+    }
+} 
\ No newline at end of file
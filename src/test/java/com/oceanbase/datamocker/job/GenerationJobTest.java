@@ -0,0 +1,339 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.TestConfigs;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import com.oceanbase.datamocker.sink.RowSinks;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 可恢复生成作业测试类
+ */
+public class GenerationJobTest {
+    
+    @TempDir
+    File tempDir;
+    
+    private DataMocker dataMocker;
+    private TablePlan plan;
+    
+    @BeforeEach
+    public void setUp() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(42L);
+        dataMocker = new DataMocker(config);
+        plan = dataMocker.compilePlan("orders", Arrays.asList("id", "customer", "amount", "created"),
+                Arrays.asList("BIGINT", "VARCHAR", "DECIMAL", "DATETIME"));
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        dataMocker.close();
+    }
+    
+    @Test
+    public void testResumeProducesIdenticalOutput() throws IOException {
+        File expectedDir = new File(tempDir, "expected");
+        JobCheckpoint expected = dataMocker.runJob(plan, 1000, jobConfig(expectedDir));
+        assertTrue(expected.isComplete());
+        assertEquals(2, expected.getPartitions().size());
+        
+        // 模拟第一个分区在写出第300行之后中断：检查点停留在第200行，文件中还有未确认的内容
+        File resumedDir = new File(tempDir, "resumed");
+        JobConfig config = jobConfig(resumedDir);
+        JobCheckpoint full = dataMocker.runJob(plan, 1000, config);
+        File checkpointFile = new File(resumedDir, "orders.checkpoint.json");
+        JobCheckpoint.PartitionCheckpoint first = full.getPartitions().get(0);
+        File firstFile = new File(resumedDir, first.getFile());
+        byte[] content = Files.readAllBytes(firstFile.toPath());
+        first.setNextRow(200);
+        first.setFileOffset(offsetOfLine(content, 201));
+        full.save(checkpointFile);
+        try (FileOutputStream out = new FileOutputStream(firstFile, true)) {
+            out.write("garbage,from,a,crash\n".getBytes("UTF-8"));
+        }
+        
+        JobCheckpoint resumed = dataMocker.runJob(plan, 1000, config);
+        assertTrue(resumed.isComplete());
+        for (JobCheckpoint.PartitionCheckpoint partition : expected.getPartitions()) {
+            assertArrayEquals(Files.readAllBytes(new File(expectedDir, partition.getFile()).toPath()),
+                    Files.readAllBytes(new File(resumedDir, partition.getFile()).toPath()));
+        }
+        assertEquals(firstFile.length(), resumed.getPartitions().get(0).getFileOffset());
+    }
+    
+    @Test
+    public void testCompressedResume() throws IOException {
+        File plainDir = new File(tempDir, "plain");
+        JobCheckpoint plain = dataMocker.runJob(plan, 1000, jobConfig(plainDir));
+        
+        File gzipDir = new File(tempDir, "gzip");
+        JobConfig config = jobConfig(gzipDir);
+        config.setCompression("gzip");
+        JobCheckpoint full = dataMocker.runJob(plan, 1000, config);
+        JobCheckpoint.PartitionCheckpoint first = full.getPartitions().get(0);
+        assertTrue(first.getFile().endsWith(".csv.gz"));
+        File firstFile = new File(gzipDir, first.getFile());
+        byte[] expected = Files.readAllBytes(firstFile.toPath());
+        
+        // 每个检查点对应一个gzip成员，回退到第4个检查点（第200行）处
+        first.setNextRow(200);
+        first.setFileOffset(offsetOfMember(expected, 4));
+        full.save(new File(gzipDir, "orders.checkpoint.json"));
+        
+        dataMocker.runJob(plan, 1000, config);
+        assertArrayEquals(expected, Files.readAllBytes(firstFile.toPath()));
+        for (int i = 0; i < 2; i++) {
+            byte[] decompressed = gunzip(Files.readAllBytes(new File(gzipDir, full.getPartitions().get(i).getFile()).toPath()));
+            assertArrayEquals(Files.readAllBytes(new File(plainDir, plain.getPartitions().get(i).getFile()).toPath()), decompressed);
+        }
+    }
+    
+    @Test
+    public void testSingleFileParallelRegions() throws IOException {
+        File sequentialDir = new File(tempDir, "sequential");
+        JobConfig sequential = jobConfig(sequentialDir);
+        sequential.setPartitions(1);
+        dataMocker.runJob(plan, 1000, sequential);
+        byte[] expected = Files.readAllBytes(new File(sequentialDir, "orders.csv").toPath());
+        
+        // 4个线程写同一个文件，块之间不交错，结果与单线程顺序写出相同
+        File parallelDir = new File(tempDir, "parallel");
+        JobConfig parallel = jobConfig(parallelDir);
+        parallel.setPartitions(4);
+        parallel.setSingleFile(true);
+        parallel.setChunkRows(37);
+        JobCheckpoint checkpoint = dataMocker.runJob(plan, 1000, parallel);
+        assertEquals(1, checkpoint.getPartitions().size());
+        File file = new File(parallelDir, "orders.csv");
+        assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+        
+        // 回退到第5块之后并留下未确认的内容，续写后结果不变
+        JobCheckpoint.PartitionCheckpoint partition = checkpoint.getPartitions().get(0);
+        partition.setNextRow(5 * 37);
+        partition.setFileOffset(offsetOfLine(expected, 5 * 37 + 1));
+        checkpoint.save(new File(parallelDir, "orders.checkpoint.json"));
+        try (FileOutputStream out = new FileOutputStream(file, true)) {
+            out.write("garbage\n".getBytes("UTF-8"));
+        }
+        dataMocker.runJob(plan, 1000, parallel);
+        assertArrayEquals(expected, Files.readAllBytes(file.toPath()));
+        
+        File gzipDir = new File(tempDir, "parallel-gzip");
+        JobConfig gzip = jobConfig(gzipDir);
+        gzip.setPartitions(4);
+        gzip.setSingleFile(true);
+        gzip.setChunkRows(37);
+        gzip.setCompression("gzip");
+        dataMocker.runJob(plan, 1000, gzip);
+        assertArrayEquals(expected, gunzip(Files.readAllBytes(new File(gzipDir, "orders.csv.gz").toPath())));
+    }
+    
+    @Test
+    public void testTargetSizePerPartition() throws IOException {
+        File dir = new File(tempDir, "sized");
+        JobConfig config = jobConfig(dir);
+        config.setTargetBytes(100_001);
+        JobCheckpoint checkpoint = dataMocker.runJob(plan, 0, config);
+        assertTrue(checkpoint.isComplete());
+        for (JobCheckpoint.PartitionCheckpoint partition : checkpoint.getPartitions()) {
+            byte[] content = Files.readAllBytes(new File(dir, partition.getFile()).toPath());
+            // 不压缩时最后一行使文件刚好达到目标大小
+            assertTrue(content.length >= partition.getTargetBytes());
+            assertTrue(content.length - offsetOfLine(content, (int) (partition.getEndRow() - partition.getStartRow())) < 200);
+            assertEquals(partition.getNextRow(), partition.getEndRow());
+        }
+        assertEquals(100_001, checkpoint.getPartitions().get(0).getTargetBytes() + checkpoint.getPartitions().get(1).getTargetBytes());
+        // 已完成的作业再次运行时不再生成
+        assertEquals(checkpoint.getGeneratedRows(), dataMocker.runJob(plan, 0, config).getGeneratedRows());
+        
+        assertEquals(10L << 30, ByteTarget.parseSize("10G"));
+        assertEquals(1536, ByteTarget.parseSize("1.5KiB"));
+        assertThrows(IllegalArgumentException.class, () -> ByteTarget.parseSize("10X"));
+        
+        File gzipDir = new File(tempDir, "sized-gzip");
+        JobConfig gzip = jobConfig(gzipDir);
+        gzip.setCompression("gzip");
+        gzip.setTargetBytes(60_000);
+        for (JobCheckpoint.PartitionCheckpoint partition : dataMocker.runJob(plan, 0, gzip).getPartitions()) {
+            long length = new File(gzipDir, partition.getFile()).length();
+            assertTrue(length >= 30_000 && length < 30_000 * 1.05, "compressed size " + length);
+        }
+    }
+    
+    @Test
+    public void testRowSizeEstimateSamplesTargetRange() throws IOException {
+        // 序列主键的宽度随行号增长，小目标只应按开头的行估算
+        MockerConfig config = TestConfigs.config(42L);
+        config.getFieldConfigs().put("id", TestConfigs.sequence());
+        DataMocker sequenceMocker = new DataMocker(config);
+        try {
+            TablePlan sequencePlan = sequenceMocker.compilePlan("t", Arrays.asList("id"), Arrays.asList("BIGINT"));
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long rows;
+            try (RowSink sink = RowSinks.create("csv", out, false, null)) {
+                rows = sequenceMocker.generateDataToSize(sequencePlan, 20_000, sink);
+            }
+            double actual = (double) out.size() / rows;
+            double estimate = RowSizeEstimator.estimate(sequencePlan, 42L, "csv", null, null, -1, 20_000);
+            assertEquals(actual, estimate, actual * 0.1);
+            
+            RowSink uncounted = new CountingDisabledSink();
+            assertThrows(IllegalArgumentException.class, () -> sequenceMocker.generateDataToSize(sequencePlan, 1000, uncounted));
+        } finally {
+            sequenceMocker.close();
+        }
+    }
+    
+    /**
+     * 不统计字节数的行输出
+     */
+    private static class CountingDisabledSink implements RowSink {
+        @Override
+        public void open(String tableName, List<String> columns) {
+        }
+        
+        @Override
+        public void write(Object[] values) {
+        }
+        
+        @Override
+        public void flush() {
+        }
+        
+        @Override
+        public long getBytesWritten() {
+            return 0;
+        }
+        
+        @Override
+        public boolean isCountingBytes() {
+            return false;
+        }
+        
+        @Override
+        public void close() {
+        }
+    }
+    
+    @Test
+    public void testResumeNdjsonAndSql() throws IOException {
+        for (String format : new String[]{"ndjson", "sql"}) {
+            File expectedDir = new File(tempDir, format + "-expected");
+            JobConfig expectedConfig = jobConfig(expectedDir);
+            expectedConfig.setFormat(format);
+            JobCheckpoint expected = dataMocker.runJob(plan, 1000, expectedConfig);
+            
+            // 回退到第4个检查点（第200行）处，NDJSON每行一条记录，SQL每个检查点结束一条语句
+            File resumedDir = new File(tempDir, format + "-resumed");
+            JobConfig config = jobConfig(resumedDir);
+            config.setFormat(format);
+            JobCheckpoint full = dataMocker.runJob(plan, 1000, config);
+            JobCheckpoint.PartitionCheckpoint first = full.getPartitions().get(0);
+            File firstFile = new File(resumedDir, first.getFile());
+            byte[] content = Files.readAllBytes(firstFile.toPath());
+            first.setNextRow(200);
+            first.setFileOffset("sql".equals(format) ? offsetOf(content, ";\n", 4) : offsetOfLine(content, 200));
+            full.save(new File(resumedDir, "orders.checkpoint.json"));
+            
+            assertTrue(dataMocker.runJob(plan, 1000, config).isComplete());
+            for (JobCheckpoint.PartitionCheckpoint partition : expected.getPartitions()) {
+                assertArrayEquals(Files.readAllBytes(new File(expectedDir, partition.getFile()).toPath()),
+                        Files.readAllBytes(new File(resumedDir, partition.getFile()).toPath()), format);
+            }
+        }
+        
+        JobConfig json = jobConfig(new File(tempDir, "json"));
+        json.setFormat("json");
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.runJob(plan, 100, json));
+    }
+    
+    @Test
+    public void testMismatchedCheckpointIsRejected() throws IOException {
+        File dir = new File(tempDir, "out");
+        dataMocker.runJob(plan, 100, jobConfig(dir));
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.runJob(plan, 200, jobConfig(dir)));
+    }
+    
+    private static JobConfig jobConfig(File dir) {
+        JobConfig config = new JobConfig();
+        config.setOutputDir(dir.getPath());
+        config.setPartitions(2);
+        config.setCheckpointIntervalRows(50);
+        config.setSync(false);
+        return config;
+    }
+    
+    /**
+     * 返回第n个gzip成员（从0开始）的起始偏移量
+     */
+    private static long offsetOfMember(byte[] content, int member) {
+        int seen = -1;
+        for (int i = 0; i + 3 < content.length; i++) {
+            if (content[i] == 0x1f && content[i + 1] == (byte) 0x8b && content[i + 2] == 8 && content[i + 3] == 0 && ++seen == member) {
+                return i;
+            }
+        }
+        throw new IllegalStateException("File has fewer than " + member + " members");
+    }
+    
+    private static byte[] gunzip(byte[] data) throws IOException {
+        ByteArrayOutputStream result = new ByteArrayOutputStream();
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(data))) {
+            byte[] chunk = new byte[8192];
+            int n;
+            while ((n = in.read(chunk)) > 0) {
+                result.write(chunk, 0, n);
+            }
+        }
+        return result.toByteArray();
+    }
+    
+    /**
+     * 返回第n次出现的分隔内容之后的偏移量
+     */
+    private static long offsetOf(byte[] content, String delimiter, int occurrence) {
+        String text = new String(content, StandardCharsets.ISO_8859_1);
+        int index = -delimiter.length();
+        for (int i = 0; i < occurrence; i++) {
+            index = text.indexOf(delimiter, index + delimiter.length());
+            if (index < 0) {
+                throw new IllegalStateException("File has fewer than " + occurrence + " occurrences of the delimiter");
+            }
+        }
+        return index + delimiter.length();
+    }
+    
+    /**
+     * 返回第n行（从0开始，包含表头）的起始偏移量
+     */
+    private static long offsetOfLine(byte[] content, int line) {
+        int seen = 0;
+        for (int i = 0; i < content.length; i++) {
+            if (content[i] == '\n' && ++seen == line) {
+                return i + 1;
+            }
+        }
+        throw new IllegalStateException("File has fewer than " + line + " lines");
+    }
+} 
\ No newline at end of file
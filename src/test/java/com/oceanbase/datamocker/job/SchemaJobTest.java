@@ -0,0 +1,246 @@
+package com.oceanbase.datamocker.job;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.schema.DdlParser;
+import com.oceanbase.datamocker.schema.Partitioning;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.LineNumberReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 多表生成作业测试类
+ */
+public class SchemaJobTest {
+    
+    private static final String DDL = "CREATE TABLE customers (id BIGINT PRIMARY KEY, name VARCHAR(32), city VARCHAR(16));\n"
+            + "CREATE TABLE orders (id BIGINT PRIMARY KEY, customer_id BIGINT, amount DECIMAL(10,2), created DATETIME,\n"
+            + "  FOREIGN KEY (customer_id) REFERENCES customers(id));\n"
+            + "CREATE TABLE regions (code VARCHAR(8), name VARCHAR(32));\n";
+    
+    @TempDir
+    File tempDir;
+    
+    private DataMocker dataMocker;
+    private File ddlFile;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(42L);
+        dataMocker = new DataMocker(config);
+        ddlFile = new File(tempDir, "schema.sql");
+        Files.write(ddlFile.toPath(), DDL.getBytes(StandardCharsets.UTF_8));
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        dataMocker.close();
+    }
+    
+    @Test
+    public void testParallelOutputMatchesSingleThread() throws IOException {
+        File expectedDir = new File(tempDir, "expected");
+        Map<String, Long> expected = dataMocker.runSchemaJob(spec(expectedDir, 1, 256L * 1024 * 1024));
+        assertEquals(Arrays.asList("orders", "customers", "regions"), Arrays.asList(expected.keySet().toArray()));
+        
+        // 很小的内存上限下每次只能有一块等待写出，结果仍与单线程一致
+        File parallelDir = new File(tempDir, "parallel");
+        dataMocker.runSchemaJob(spec(parallelDir, 4, 1));
+        for (String table : expected.keySet()) {
+            File file = new File(parallelDir, table + ".csv.gz");
+            assertEquals(expected.get(table).longValue(), file.length());
+            assertArrayEquals(Files.readAllBytes(new File(expectedDir, table + ".csv.gz").toPath()), Files.readAllBytes(file.toPath()));
+        }
+        assertEquals(1 + 5000, countLines(new File(parallelDir, "orders.csv.gz")));
+        assertEquals(1 + 1200, countLines(new File(parallelDir, "customers.csv.gz")));
+        assertEquals(1, countLines(new File(parallelDir, "regions.csv.gz")));
+    }
+    
+    @Test
+    public void testTargetSizeStopsAtTableSize() throws IOException {
+        File outputDir = new File(tempDir, "sized");
+        SchemaJobSpec spec = spec(outputDir, 4, 256L * 1024 * 1024);
+        spec.setCompression(null);
+        spec.getTables().get(1).setTargetSize("200K");
+        dataMocker.runSchemaJob(spec);
+        
+        File orders = new File(outputDir, "orders.csv");
+        assertTrue(orders.length() >= 200 * 1024 && orders.length() < 200 * 1024 + 200, "size " + orders.length());
+        // 与按行数生成相同行号的结果一致：去掉最后一行后不足目标大小
+        byte[] content = Files.readAllBytes(orders.toPath());
+        int lastLine = content.length - 2;
+        while (content[lastLine] != '\n') {
+            lastLine--;
+        }
+        assertTrue(lastLine + 1 < 200 * 1024);
+        
+        spec.getTables().get(1).setTargetSize(null);
+        spec.getTables().get(1).setRows(countLines(orders) - 1);
+        spec.setOutputDir(new File(tempDir, "rows").getPath());
+        dataMocker.runSchemaJob(spec);
+        assertArrayEquals(content, Files.readAllBytes(new File(tempDir, "rows/orders.csv").toPath()));
+    }
+    
+    @Test
+    public void testPartitionedOutputIsSortedPerPartition() throws IOException {
+        File outputDir = new File(tempDir, "partitioned");
+        SchemaJobSpec spec = new SchemaJobSpec();
+        spec.setDdl("CREATE TABLE events (id BIGINT PRIMARY KEY, kind VARCHAR(8)) PARTITION BY HASH(id) PARTITIONS 4;\n"
+                + "CREATE TABLE accounts (code VARCHAR(12) PRIMARY KEY, region INT)\n"
+                + "  PARTITION BY KEY(code) PARTITIONS 3;");
+        spec.setOutputDir(outputDir.getPath());
+        spec.setPartitionedOutput(true);
+        spec.setThreads(2);
+        spec.getTables().add(table("events", 2000));
+        spec.getTables().add(table("accounts", 1500));
+        dataMocker.runSchemaJob(spec);
+        
+        // 序列主键按行号顺序生成，每个分区内自然有序
+        int events = 0;
+        for (int p = 0; p < 4; p++) {
+            List<String> ids = firstColumn(new File(outputDir, "events.p" + p + ".csv"));
+            for (int i = 0; i < ids.size(); i++) {
+                long id = Long.parseLong(ids.get(i));
+                assertEquals(p, id % 4);
+                assertTrue(i == 0 || id > Long.parseLong(ids.get(i - 1)));
+            }
+            events += ids.size();
+        }
+        assertEquals(2000, events);
+        
+        // 随机主键经外部排序后在每个分区内有序，每个值落在按分区方式计算的分区中
+        Partitioning partitioning = new DdlParser().parse(spec.getDdl()).get(1).getPartitioning();
+        List<String> all = new ArrayList<>();
+        for (int p = 0; p < 3; p++) {
+            List<String> codes = firstColumn(new File(outputDir, "accounts.p" + p + ".csv"));
+            for (int i = 0; i < codes.size(); i++) {
+                assertEquals(p, partitioning.locate(new Object[]{codes.get(i)}));
+                assertTrue(i == 0 || codes.get(i).compareTo(codes.get(i - 1)) >= 0);
+            }
+            all.addAll(codes);
+        }
+        assertEquals(1500, all.size());
+        
+        // 内存上限很小时每项都溢写成一段，段数超过归并路数时先合并再归并
+        try (ExternalKeySorter sorter = new ExternalKeySorter(1, tempDir)) {
+            for (int i = 0; i < 3 * ExternalKeySorter.MAX_FAN_IN; i++) {
+                sorter.add(i % 2, new Object[]{all.get(i)}, i);
+            }
+            ExternalKeySorter.EntryCursor cursor = sorter.finish();
+            ExternalKeySorter.Entry previous = null;
+            ExternalKeySorter.Entry entry;
+            int count = 0;
+            while ((entry = cursor.next()) != null) {
+                assertEquals(all.get((int) entry.rowIndex), entry.key[0]);
+                assertTrue(previous == null || previous.partition < entry.partition
+                        || previous.partition == entry.partition && ((String) previous.key[0]).compareTo((String) entry.key[0]) <= 0);
+                previous = entry;
+                count++;
+            }
+            assertEquals(3 * ExternalKeySorter.MAX_FAN_IN, count);
+        }
+    }
+    
+    @Test
+    public void testPartitionsAreWrittenInGroupsWithinMemoryBudget() throws IOException {
+        File outputDir = new File(tempDir, "grouped");
+        SchemaJobSpec spec = new SchemaJobSpec();
+        spec.setDdl("CREATE TABLE events (id BIGINT PRIMARY KEY, kind VARCHAR(8)) PARTITION BY HASH(id) PARTITIONS 16;");
+        spec.setOutputDir(outputDir.getPath());
+        spec.setPartitionedOutput(true);
+        spec.setCompression("gzip");
+        // 最小内存只够同时打开3个压缩的分区文件，16个分区分6组写出
+        spec.setMaxBufferedBytes(1024);
+        spec.getTables().add(table("events", 3000));
+        dataMocker.runSchemaJob(spec);
+        
+        int events = 0;
+        for (int p = 0; p < 16; p++) {
+            List<String> ids = firstColumn(new File(outputDir, "events.p" + p + ".csv.gz"));
+            for (int i = 0; i < ids.size(); i++) {
+                long id = Long.parseLong(ids.get(i));
+                assertEquals(p, id % 16);
+                assertTrue(i == 0 || id > Long.parseLong(ids.get(i - 1)));
+            }
+            events += ids.size();
+        }
+        assertEquals(3000, events);
+    }
+    
+    @Test
+    public void testUnknownTableIsRejected() throws IOException {
+        SchemaJobSpec spec = spec(new File(tempDir, "out"), 2, 1024);
+        spec.getTables().get(0).setName("missing");
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.runSchemaJob(spec));
+        
+        File specFile = new File(tempDir, "job.yaml");
+        Files.write(specFile.toPath(), ("ddlFile: " + ddlFile.getPath() + "\nchunkRows: 100\ntables:\n  - name: regions\n    rows: 10\n")
+                .getBytes(StandardCharsets.UTF_8));
+        SchemaJobSpec loaded = SchemaJobSpec.load(specFile);
+        assertEquals(100, loaded.getChunkRows());
+        assertEquals("regions", loaded.getTables().get(0).getName());
+    }
+    
+    private SchemaJobSpec spec(File outputDir, int threads, long maxBufferedBytes) {
+        SchemaJobSpec spec = new SchemaJobSpec();
+        spec.setDdlFile(ddlFile.getPath());
+        spec.setOutputDir(outputDir.getPath());
+        spec.setCompression("gzip");
+        spec.setThreads(threads);
+        spec.setChunkRows(300);
+        spec.setMaxBufferedBytes(maxBufferedBytes);
+        spec.getTables().add(table("customers", 1200));
+        spec.getTables().add(table("orders", 5000));
+        spec.getTables().add(table("regions", 0));
+        return spec;
+    }
+    
+    private static SchemaJobSpec.TableSpec table(String name, long rows) {
+        SchemaJobSpec.TableSpec table = new SchemaJobSpec.TableSpec();
+        table.setName(name);
+        table.setRows(rows);
+        return table;
+    }
+    
+    private static List<String> firstColumn(File file) throws IOException {
+        List<String> values = new ArrayList<>();
+        try (InputStream in = file.getName().endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file);
+             LineNumberReader reader = new LineNumberReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            reader.readLine();
+            String line;
+            while ((line = reader.readLine()) != null) {
+                values.add(line.substring(0, line.indexOf(',')));
+            }
+        }
+        return values;
+    }
+    
+    private static int countLines(File file) throws IOException {
+        try (InputStream in = file.getName().endsWith(".gz") ? new GZIPInputStream(new FileInputStream(file)) : new FileInputStream(file);
+             LineNumberReader reader = new LineNumberReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            while (reader.readLine() != null) {
+                // 只统计行数
+            }
+            return reader.getLineNumber();
+        }
+    }
+} 
\ No newline at end of file
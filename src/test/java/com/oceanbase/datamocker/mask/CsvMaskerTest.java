@@ -0,0 +1,177 @@
+package com.oceanbase.datamocker.mask;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.ai.RuleBasedSemanticInferrer;
+import com.oceanbase.datamocker.ai.SemanticType;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.SemanticDataGenerator;
+import com.oceanbase.datamocker.profiler.CsvRecordReader;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * CSV脱敏测试类
+ */
+public class CsvMaskerTest {
+    
+    private static final int ROWS = 3000;
+    private static final String[] NAMES = {"张三", "李四", "王五", "John Smith"};
+    
+    @TempDir
+    File tempDir;
+    
+    private DataMocker dataMocker;
+    
+    @BeforeEach
+    public void setUp() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        dataMocker = new DataMocker(config);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        dataMocker.close();
+    }
+    
+    @Test
+    public void testMaskingIsDeterministicAndFormatPreserving() throws IOException {
+        File input = writeExport();
+        File single = new File(tempDir, "single.csv");
+        File chunked = new File(tempDir, "chunked.csv");
+        
+        MaskingConfig config = maskingConfig("s3cret");
+        config.setThreads(1);
+        config.setChunkBytes(Long.MAX_VALUE / 2);
+        assertEquals(ROWS, dataMocker.maskCsv(input, single, config));
+        
+        // 小分片并行处理时分片边界落在引号内的换行附近，结果应与整文件处理一致
+        config.setThreads(4);
+        config.setChunkBytes(1024);
+        assertEquals(ROWS, dataMocker.maskCsv(input, chunked, config));
+        assertArrayEquals(Files.readAllBytes(single.toPath()), Files.readAllBytes(chunked.toPath()));
+        
+        List<List<String>> original = read(input);
+        List<List<String>> masked = read(single);
+        assertEquals(original.get(0), masked.get(0));
+        Map<String, String> names = new HashMap<>();
+        Map<String, String> phones = new HashMap<>();
+        for (int i = 1; i < original.size(); i++) {
+            List<String> before = original.get(i);
+            List<String> after = masked.get(i);
+            // 非个人信息字段原样保留，显式排除的字段也不变
+            assertEquals(before.get(0), after.get(0));
+            assertEquals(before.get(6), after.get(6));
+            assertEquals(before.get(7), after.get(7));
+            
+            // 相同的原值总是替换为相同的假值
+            assertNotEquals(before.get(1), after.get(1));
+            String previous = names.put(before.get(1), after.get(1));
+            assertTrue(previous == null || previous.equals(after.get(1)));
+            assertEquals(before.get(1).matches(".*[\\u4e00-\\u9fa5].*"), after.get(1).matches(".*[\\u4e00-\\u9fa5].*"));
+            
+            assertTrue(after.get(2).matches("1\\d{10}"), after.get(2));
+            assertNotEquals(before.get(2), after.get(2));
+            previous = phones.put(before.get(2), after.get(2));
+            assertTrue(previous == null || previous.equals(after.get(2)));
+            assertTrue(after.get(3).contains("@"));
+            assertNotEquals(before.get(3), after.get(3));
+            assertTrue(isValidIdCard(after.get(4)), after.get(4));
+            assertNotEquals(before.get(4), after.get(4));
+        }
+        
+        // 同一类型的不同字段中相同的值也替换为相同的假值，脱敏后仍可关联
+        for (int i = 1; i < original.size(); i++) {
+            assertEquals(phones.get(original.get(i).get(5)), masked.get(i).get(5));
+        }
+        
+        // 假值只由密钥和原值决定；不符合格式的值按字符类别替换，长度和其他字符不变
+        ValueMasker masker = new ValueMasker("s3cret", new SemanticDataGenerator(new RuleBasedSemanticInferrer()));
+        assertEquals(masked.get(2).get(2), masker.mask(SemanticType.PHONE, original.get(2).get(2)));
+        String scrambled = masker.mask(SemanticType.PHONE, "+86 (0571) 8888-1234");
+        assertTrue(scrambled.matches("\\+\\d\\d \\(\\d{4}\\) \\d{4}-\\d{4}"), scrambled);
+        assertNotEquals("+86 (0571) 8888-1234", scrambled);
+        assertNull(masker.mask(SemanticType.PHONE, null));
+        
+        // 换一个密钥得到不同的假值
+        File other = new File(tempDir, "other.csv");
+        dataMocker.maskCsv(input, other, maskingConfig("another"));
+        assertNotEquals(masked.get(1).get(2), read(other).get(1).get(2));
+    }
+    
+    @Test
+    public void testMaskingRequiresSecretAndKnownTypes() {
+        File output = new File(tempDir, "out.csv");
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.maskCsv(writeExport(), output, maskingConfig("")));
+        MaskingConfig config = maskingConfig("s3cret");
+        config.getColumns().put("remark", "NOT_A_TYPE");
+        assertThrows(IllegalArgumentException.class, () -> dataMocker.maskCsv(writeExport(), output, config));
+    }
+    
+    private static MaskingConfig maskingConfig(String secret) {
+        MaskingConfig config = new MaskingConfig();
+        config.setSecret(secret);
+        config.getColumns().put("contact", "phone");
+        config.getColumns().put("nickname", "none");
+        return config;
+    }
+    
+    /**
+     * 写出一份模拟的真实导出：姓名、手机号、邮箱、身份证号重复出现，备注中包含引号内的分隔符和换行
+     */
+    private File writeExport() throws IOException {
+        StringBuilder csv = new StringBuilder("id,name,phone,email,id_card,contact,nickname,remark\n");
+        for (int i = 0; i < ROWS; i++) {
+            String phone = String.format("138%08d", i % 50);
+            csv.append(i).append(',')
+                    .append(NAMES[i % NAMES.length]).append(',')
+                    .append(phone).append(',')
+                    .append("user").append(i % 30).append("@example.com").append(',')
+                    .append(String.format("3301061990%04d%03d", i % 1000, i % 7)).append(i % 2 == 0 ? "X" : "5").append(',')
+                    .append(String.format("138%08d", (i + 1) % 50)).append(',')
+                    .append(NAMES[(i + 1) % NAMES.length]).append(',')
+                    .append(i % 3 == 0 ? "\"line one,\nline \"\"two\"\"\"" : "plain").append('\n');
+        }
+        File file = new File(tempDir, "export.csv");
+        Files.write(file.toPath(), csv.toString().getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+    
+    private static List<List<String>> read(File file) throws IOException {
+        List<List<String>> records = new ArrayList<>();
+        try (FileInputStream in = new FileInputStream(file)) {
+            CsvRecordReader reader = new CsvRecordReader(in, 0, ',');
+            List<String> fields = new ArrayList<>();
+            while (reader.next(fields)) {
+                records.add(new ArrayList<>(fields));
+            }
+        }
+        return records;
+    }
+    
+    private static boolean isValidIdCard(String id) {
+        if (!id.matches("\\d{17}[\\dX]")) {
+            return false;
+        }
+        int[] weights = {7, 9, 10, 5, 8, 4, 2, 1, 6, 3, 7, 9, 10, 5, 8, 4, 2};
+        int sum = 0;
+        for (int i = 0; i < 17; i++) {
+            sum += (id.charAt(i) - '0') * weights[i];
+        }
+        return "10X98765432".charAt(sum % 11) == id.charAt(17);
+    }
+} 
\ No newline at end of file
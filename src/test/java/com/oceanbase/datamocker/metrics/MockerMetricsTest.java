@@ -0,0 +1,130 @@
+package com.oceanbase.datamocker.metrics;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.RowSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.io.File;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 运行指标测试类
+ */
+public class MockerMetricsTest {
+    
+    @TempDir
+    File tempDir;
+    
+    @Test
+    public void testMetricsAreCollectedAndReported() throws Exception {
+        File progressFile = new File(tempDir, "progress.json");
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.getMetrics().setEnabled(true);
+        config.getMetrics().setProgressFile(progressFile.getPath());
+        
+        List<String> fieldNames = Arrays.asList("id", "name", "age");
+        List<String> fieldTypes = Arrays.asList("BIGINT", "STRING", "INT");
+        DataMocker dataMocker = new DataMocker(config);
+        MockerMetrics metrics = dataMocker.getMetrics();
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            dataMocker.generateData("users", fieldNames, fieldTypes, 1000);
+            dataMocker.generateData("users", fieldNames, fieldTypes, 1000);
+            
+            assertEquals(2000, metrics.getRowsGenerated());
+            // 第二次编译计划时语义推断全部命中缓存
+            assertEquals(3, metrics.getInferenceCacheMisses());
+            assertEquals(3, metrics.getInferenceCacheHits());
+            long calls = 0;
+            for (long count : metrics.getGeneratorCalls().values()) {
+                calls += count;
+            }
+            assertEquals(6000, calls);
+            assertEquals(3, metrics.getColumnAverageNanos().size());
+            assertEquals(1, server.queryNames(new ObjectName("com.oceanbase.datamocker:type=Metrics,*"), null).size());
+        } finally {
+            dataMocker.close();
+        }
+        
+        // 关闭时写出最后一次进度并注销JMX
+        MetricsSnapshot snapshot = new ObjectMapper().readValue(progressFile, MetricsSnapshot.class);
+        assertEquals(2000, snapshot.getRows());
+        assertTrue(snapshot.getColumnAverageNanos().containsKey("users.name"));
+        assertTrue(server.queryNames(new ObjectName("com.oceanbase.datamocker:type=Metrics,*"), null).isEmpty());
+    }
+    
+    @Test
+    public void testWriteAndFlushPhasesAreTimed() throws Exception {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.getMetrics().setEnabled(true);
+        DataMocker dataMocker = new DataMocker(config);
+        try {
+            TablePlan plan = dataMocker.compilePlan("users", Arrays.asList("id"), Arrays.asList("INT"));
+            RowSink slow = new RowSink() {
+                @Override
+                public void open(String tableName, List<String> columns) {
+                }
+                
+                @Override
+                public void write(Object[] values) throws IOException {
+                    sleep(1);
+                }
+                
+                @Override
+                public void flush() throws IOException {
+                    sleep(20);
+                }
+                
+                @Override
+                public long getBytesWritten() {
+                    return 0;
+                }
+                
+                @Override
+                public void close() {
+                }
+            };
+            // 写出阶段只对采样行计时并按采样间隔放大
+            dataMocker.generateData(plan, 2L * dataMocker.getMetrics().getSampleInterval(), slow);
+            Map<String, Long> phases = dataMocker.getMetrics().getPhaseMillis();
+            assertTrue(phases.get("WRITE") >= 2L * dataMocker.getMetrics().getSampleInterval(), phases.toString());
+            assertTrue(phases.get("FLUSH") >= 20, phases.toString());
+        } finally {
+            dataMocker.close();
+        }
+    }
+    
+    private static void sleep(long millis) throws IOException {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException();
+        }
+    }
+    
+    @Test
+    public void testDisabledMetricsRecordNothing() {
+        MockerMetrics metrics = MockerMetrics.create(new MockerConfig.MetricsConfig());
+        assertSame(MockerMetrics.DISABLED, metrics);
+        metrics.addRows(10);
+        assertFalse(metrics.shouldSample(0));
+        assertNull(metrics.columnTimer("t", "c"));
+        assertEquals(0, metrics.getRowsGenerated());
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,133 @@
+package com.oceanbase.datamocker.metrics;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.TestConfigs;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import com.oceanbase.datamocker.plan.TablePlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 生成结果校验测试类
+ */
+public class OutputVerifierTest {
+    
+    private static final List<String> FIELD_NAMES = Arrays.asList("id", "status", "amount", "age", "note", "created");
+    private static final List<String> FIELD_TYPES = Arrays.asList("BIGINT", "VARCHAR", "DECIMAL", "INT", "VARCHAR", "DATE");
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testGeneratedOutputMatchesConfig() throws InterruptedException {
+        dataMocker = new DataMocker(verifiedConfig());
+        TablePlan plan = dataMocker.compilePlan("orders", FIELD_NAMES, FIELD_TYPES);
+        long seed = RandomStreams.derive(1L, "orders");
+        
+        // 各线程写入自己的草图，报告时合并
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 4; t++) {
+            int first = t * 10000;
+            threads.add(new Thread(() -> {
+                for (int i = first; i < first + 10000; i++) {
+                    plan.generateRow(i, seed);
+                }
+            }));
+        }
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        
+        VerificationReport report = plan.getVerifier().report();
+        assertTrue(report.isPassed(), report.toString());
+        assertEquals(40000, report.getRows());
+        assertNotNull(report.getColumn("id").getCheck("unique"));
+        assertNotNull(report.getColumn("status").getCheck("enumMix"));
+        assertNotNull(report.getColumn("amount").getCheck("NORMAL p10/p25/p50/p75/p90"));
+        assertNotNull(report.getColumn("age").getCheck("EXPONENTIAL p10/p25/p50/p75/p90"));
+        assertNotNull(report.getColumn("note").getCheck("length"));
+        assertNotNull(report.getColumn("created").getCheck("range"));
+        assertEquals(0.3, report.getColumn("note").getNullRate(), 0.01);
+        assertEquals(500, report.getColumn("amount").getQuantiles()[1], 15);
+    }
+    
+    @Test
+    public void testViolationsAreReported() {
+        MockerConfig config = verifiedConfig();
+        // 生成器不遵守配置的范围，且实际没有空值
+        FieldConfig amount = config.getFieldConfigs().get("amount");
+        amount.setCustomGeneratorClass(OutOfRangeGenerator.class.getName());
+        amount.setAllowNull(true);
+        amount.setNullRate(0.5);
+        amount.setConditions(new ArrayList<>());
+        // 行数较少时逐行记录分位数，保证分布检查有足够样本
+        config.getMetrics().setVerifySampleInterval(1);
+        dataMocker = new DataMocker(config);
+        TablePlan plan = dataMocker.compilePlan("orders", FIELD_NAMES, FIELD_TYPES);
+        dataMocker.generateData(plan, 5000);
+        
+        VerificationReport report = plan.getVerifier().report();
+        assertFalse(report.isPassed());
+        VerificationReport.ColumnReport column = report.getColumn("amount");
+        assertTrue(column.getCheck("nullRate").isPassed());
+        assertFalse(column.getCheck("range").isPassed());
+        assertFalse(column.getCheck("NORMAL p10/p25/p50/p75/p90").isPassed());
+        assertTrue(report.getColumn("status").isPassed());
+        assertTrue(report.toString().contains("[FAIL] range"));
+    }
+    
+    @Test
+    public void testVerifierIsDisabledByDefault() {
+        MockerConfig config = verifiedConfig();
+        config.getMetrics().setVerify(false);
+        dataMocker = new DataMocker(config);
+        assertNull(dataMocker.compilePlan("orders", FIELD_NAMES, FIELD_TYPES).getVerifier());
+    }
+    
+    private static MockerConfig verifiedConfig() {
+        MockerConfig config = TestConfigs.config(1L);
+        config.getMetrics().setVerify(true);
+        Map<String, FieldConfig> fields = config.getFieldConfigs();
+        fields.put("id", TestConfigs.sequence());
+        fields.put("status", TestConfigs.enumOf("PAID", "PAID", "NEW"));
+        fields.put("amount", TestConfigs.range("0", "1000", FieldConfig.DistributionType.NORMAL));
+        fields.put("age", TestConfigs.range("18", "80", FieldConfig.DistributionType.EXPONENTIAL));
+        fields.put("note", TestConfigs.nullable(TestConfigs.length(5, 10), 0.3));
+        fields.put("created", TestConfigs.range("2024-01-01", "2024-07-01"));
+        return config;
+    }
+    
+    /**
+     * 测试用的生成器，总是生成超出配置范围的值
+     */
+    public static class OutOfRangeGenerator implements DataGenerator {
+        @Override
+        public Object generate(String fieldName, FieldConfig fieldConfig) {
+            return 2000;
+        }
+        
+        @Override
+        public boolean supports(String fieldType) {
+            return true;
+        }
+    }
+} 
\ No newline at end of file
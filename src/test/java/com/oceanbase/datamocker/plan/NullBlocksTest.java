@@ -0,0 +1,65 @@
+package com.oceanbase.datamocker.plan;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 空值位图缓存测试类
+ */
+public class NullBlocksTest {
+    
+    private static final int ROWS = 5 * NullMask.BLOCK_ROWS;
+    
+    @Test
+    public void testShuffledAccessMatchesBlocks() {
+        long seed = 42L;
+        for (double rate : new double[]{0.0, 0.01, 0.05, 0.3, 0.5, 0.9, 0.995, 1.0}) {
+            NullMask mask = new NullMask("f", rate);
+            boolean[] expected = new boolean[ROWS];
+            long[] words = new long[NullMask.BLOCK_WORDS];
+            for (int block = 0; block < ROWS / NullMask.BLOCK_ROWS; block++) {
+                mask.fill(seed, block, words);
+                for (int i = 0; i < NullMask.BLOCK_ROWS; i++) {
+                    long row = (long) block * NullMask.BLOCK_ROWS + i;
+                    expected[(int) row] = NullMask.isNull(words, row);
+                    assertEquals(expected[(int) row], mask.isNull(seed, row), "rate " + rate + " row " + row);
+                }
+            }
+            
+            List<Integer> order = new ArrayList<>();
+            for (int i = 0; i < ROWS; i++) {
+                order.add(i);
+            }
+            Collections.shuffle(order, new Random(rate > 0.5 ? 1 : 2));
+            NullBlocks nulls = new NullBlocks(1);
+            nulls.setSeed(seed);
+            for (int row : order) {
+                assertEquals(expected[row], nulls.isNull(0, mask, row), "rate " + rate + " row " + row);
+            }
+            // 乱序访问逐行计算，几乎不会填充整块位图
+            assertTrue(nulls.fills < 100, "rate " + rate + " fills " + nulls.fills);
+        }
+    }
+    
+    @Test
+    public void testSequentialAccessFillsOncePerBlock() {
+        NullMask mask = new NullMask("f", 0.2);
+        NullBlocks nulls = new NullBlocks(1);
+        nulls.setSeed(7L);
+        long[] words = new long[NullMask.BLOCK_WORDS];
+        for (long row = 0; row < ROWS; row++) {
+            if ((row & (NullMask.BLOCK_ROWS - 1)) == 0) {
+                mask.fill(7L, row >>> NullMask.BLOCK_SHIFT, words);
+            }
+            assertEquals(NullMask.isNull(words, row), nulls.isNull(0, mask, row));
+        }
+        // 第0行之前没有访问记录，按随机访问处理，之后每块填充一次
+        assertEquals(ROWS / NullMask.BLOCK_ROWS, nulls.fills);
+    }
+} 
\ No newline at end of file
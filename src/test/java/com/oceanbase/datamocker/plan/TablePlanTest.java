@@ -0,0 +1,313 @@
+package com.oceanbase.datamocker.plan;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.generator.RandomStreams;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 表生成计划测试类
+ */
+public class TablePlanTest {
+    
+    private DataMocker dataMocker;
+    
+    @AfterEach
+    public void tearDown() {
+        if (dataMocker != null) {
+            dataMocker.close();
+        }
+    }
+    
+    @Test
+    public void testDerivedAndCorrelatedFields() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        
+        // update_time 声明在 create_time 之前，依赖排序后仍应先生成 create_time
+        FieldConfig updateTime = new FieldConfig();
+        updateTime.setExpression("plusSeconds(create_time, randInt(0, 86400))");
+        config.getFieldConfigs().put("update_time", updateTime);
+        
+        FieldConfig province = new FieldConfig();
+        province.setEnumValues(new String[]{"浙江省", "广东省"});
+        config.getFieldConfigs().put("province", province);
+        
+        Map<String, String[]> mapping = new HashMap<>();
+        mapping.put("浙江省", new String[]{"杭州", "宁波"});
+        mapping.put("广东省", new String[]{"广州", "深圳"});
+        FieldConfig city = new FieldConfig();
+        city.setCorrelatedWith("province");
+        city.setValueMapping(mapping);
+        config.getFieldConfigs().put("city", city);
+        
+        FieldConfig level = new FieldConfig();
+        level.setEnumValues(new String[]{"NORMAL"});
+        FieldConfig.ConditionalRule rule = new FieldConfig.ConditionalRule();
+        rule.setWhen("province == '浙江省'");
+        FieldConfig vip = new FieldConfig();
+        vip.setEnumValues(new String[]{"VIP"});
+        rule.setThen(vip);
+        level.setConditions(Collections.singletonList(rule));
+        config.getFieldConfigs().put("level", level);
+        
+        dataMocker = new DataMocker(config);
+        List<String> fieldNames = Arrays.asList("update_time", "city", "level", "province", "create_time");
+        List<String> fieldTypes = Arrays.asList("DATETIME", "STRING", "STRING", "STRING", "DATETIME");
+        List<Map<String, Object>> data = dataMocker.generateData("orders", fieldNames, fieldTypes, 50);
+        
+        assertEquals(50, data.size());
+        for (Map<String, Object> row : data) {
+            // 输出字段保持声明顺序
+            assertEquals(fieldNames, Arrays.asList(row.keySet().toArray(new String[0])));
+            
+            LocalDateTime created = LocalDateTime.parse((String) row.get("create_time"));
+            LocalDateTime updated = LocalDateTime.parse((String) row.get("update_time"));
+            assertFalse(updated.isBefore(created));
+            
+            String[] cities = mapping.get((String) row.get("province"));
+            assertTrue(Arrays.asList(cities).contains(row.get("city")));
+            
+            assertEquals("浙江省".equals(row.get("province")) ? "VIP" : "NORMAL", row.get("level"));
+        }
+    }
+    
+    @Test
+    public void testExcludedFieldUsedAsDependency() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setExcludeFields(new String[]{"base"});
+        
+        FieldConfig base = new FieldConfig();
+        base.setMin("1");
+        base.setMax("100");
+        config.getFieldConfigs().put("base", base);
+        
+        FieldConfig doubled = new FieldConfig();
+        doubled.setExpression("base * 2");
+        config.getFieldConfigs().put("doubled", doubled);
+        
+        dataMocker = new DataMocker(config);
+        List<Map<String, Object>> data = dataMocker.generateData("t",
+                Arrays.asList("base", "doubled"), Arrays.asList("BIGINT", "BIGINT"), 10);
+        
+        for (Map<String, Object> row : data) {
+            assertFalse(row.containsKey("base"));
+            long value = ((Number) row.get("doubled")).longValue();
+            assertTrue(value >= 2 && value <= 200 && value % 2 == 0);
+        }
+    }
+    
+    @Test
+    public void testValuePoolBoundsDistinctValues() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        
+        FieldConfig.ValuePoolConfig poolConfig = new FieldConfig.ValuePoolConfig();
+        poolConfig.setSize(20);
+        poolConfig.setOffHeap(true);
+        FieldConfig address = new FieldConfig();
+        address.setValuePool(poolConfig);
+        config.getFieldConfigs().put("address", address);
+        
+        dataMocker = new DataMocker(config);
+        TablePlan plan = dataMocker.compilePlan("t", Arrays.asList("address"), Arrays.asList("STRING"));
+        // 重复编译时复用已构建的值池
+        assertSame(plan.getColumns().get(0).getValuePool(),
+                dataMocker.compilePlan("t", Arrays.asList("address"), Arrays.asList("STRING")).getColumns().get(0).getValuePool());
+        
+        Set<String> distinct = new HashSet<>();
+        for (Map<String, Object> row : dataMocker.generateData(plan, 500)) {
+            Object value = row.get("address");
+            assertTrue(value instanceof CharSequence);
+            distinct.add(value.toString());
+        }
+        assertTrue(distinct.size() <= 20);
+    }
+    
+    @Test
+    public void testCustomGeneratorClass() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        
+        FieldConfig code = new FieldConfig();
+        code.setCustomGeneratorClass(SerialCodeGenerator.class.getName());
+        code.getCustomGeneratorParams().put("prefix", "SKU-");
+        config.getFieldConfigs().put("code", code);
+        
+        dataMocker = new DataMocker(config);
+        List<Map<String, Object>> data = dataMocker.generateData("t", Arrays.asList("code"), Arrays.asList("VARCHAR"), 3);
+        assertEquals("SKU-1", data.get(0).get("code"));
+        assertEquals("SKU-3", data.get(2).get("code"));
+        
+        code.setCustomGeneratorClass("com.example.MissingGenerator");
+        assertThrows(IllegalArgumentException.class,
+                () -> dataMocker.compilePlan("t", Arrays.asList("code"), Arrays.asList("VARCHAR")));
+    }
+    
+    @Test
+    public void testCircularDependencyIsRejected() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        
+        FieldConfig a = new FieldConfig();
+        a.setExpression("b + 1");
+        config.getFieldConfigs().put("a", a);
+        FieldConfig b = new FieldConfig();
+        b.setExpression("a + 1");
+        config.getFieldConfigs().put("b", b);
+        
+        dataMocker = new DataMocker(config);
+        assertThrows(IllegalArgumentException.class,
+                () -> dataMocker.compilePlan("t", Arrays.asList("a", "b"), Arrays.asList("INT", "INT")));
+    }
+    
+    @Test
+    public void testRandIntWithWideRange() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        FieldConfig wide = new FieldConfig();
+        wide.setExpression("randInt(-2147483648, 2147483647)");
+        config.getFieldConfigs().put("wide", wide);
+        FieldConfig full = new FieldConfig();
+        full.setExpression("randInt(-9223372036854775807 - 1, 9223372036854775807)");
+        config.getFieldConfigs().put("full", full);
+        
+        dataMocker = new DataMocker(config);
+        List<Map<String, Object>> data = dataMocker.generateData("t", Arrays.asList("wide", "full"), Arrays.asList("BIGINT", "BIGINT"), 200);
+        int negative = 0;
+        for (Map<String, Object> row : data) {
+            long value = ((Number) row.get("wide")).longValue();
+            assertTrue(value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE);
+            negative += value < 0 ? 1 : 0;
+        }
+        // 跨度超过int范围时取值仍然覆盖整个区间
+        assertTrue(negative > 50 && negative < 150);
+        
+        wide.setExpression("randInt(10, 1)");
+        assertThrows(IllegalArgumentException.class,
+                () -> dataMocker.compilePlan("t", Arrays.asList("wide"), Arrays.asList("BIGINT")));
+    }
+    
+    @Test
+    public void testNullMaskRateAndDeterminism() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(7L);
+        config.setOmitNullFields(true);
+        
+        FieldConfig sparse = new FieldConfig();
+        sparse.setAllowNull(true);
+        sparse.setNullRate(0.995);
+        config.getFieldConfigs().put("sparse", sparse);
+        FieldConfig half = new FieldConfig();
+        half.setAllowNull(true);
+        half.setNullRate(0.3);
+        config.getFieldConfigs().put("half", half);
+        
+        dataMocker = new DataMocker(config);
+        List<String> fieldNames = Arrays.asList("id", "sparse", "half");
+        List<String> fieldTypes = Arrays.asList("BIGINT", "STRING", "INT");
+        int rows = 20000;
+        List<Map<String, Object>> data = dataMocker.generateData("t", fieldNames, fieldTypes, rows);
+        
+        int sparseValues = 0;
+        int halfNulls = 0;
+        for (Map<String, Object> row : data) {
+            assertNotNull(row.get("id"));
+            sparseValues += row.containsKey("sparse") ? 1 : 0;
+            halfNulls += row.containsKey("half") ? 0 : 1;
+        }
+        assertEquals(0.005, sparseValues / (double) rows, 0.002);
+        assertEquals(0.3, halfNulls / (double) rows, 0.02);
+        
+        // 空值位置只由种子和行号决定，与生成顺序无关
+        TablePlan plan = dataMocker.compilePlan("t", fieldNames, fieldTypes);
+        long tableSeed = RandomStreams.derive(7L, "t");
+        for (int i : new int[]{rows - 1, 0, 12345, 4096}) {
+            assertEquals(data.get(i), plan.toMap(plan.generateRow(i, tableSeed), true));
+        }
+        
+        // 按块获取的位图与逐行生成的结果一致
+        long[] words = new NullMask("sparse", 0.995).fill(tableSeed, 0, new long[NullMask.BLOCK_WORDS]);
+        for (int i = 0; i < NullMask.BLOCK_ROWS; i++) {
+            assertEquals(NullMask.isNull(words, i), !data.get(i).containsKey("sparse"));
+        }
+    }
+    
+    @Test
+    public void testNullMaskShuffledRows() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(11L);
+        config.setOmitNullFields(true);
+        double[] rates = {0.01, 0.3, 0.5, 0.9, 0.995};
+        List<String> fieldNames = new ArrayList<>(Collections.singletonList("id"));
+        List<String> fieldTypes = new ArrayList<>(Collections.singletonList("BIGINT"));
+        for (int i = 0; i < rates.length; i++) {
+            FieldConfig field = new FieldConfig();
+            field.setAllowNull(true);
+            field.setNullRate(rates[i]);
+            config.getFieldConfigs().put("n" + i, field);
+            fieldNames.add("n" + i);
+            fieldTypes.add("INT");
+        }
+        
+        dataMocker = new DataMocker(config);
+        int rows = 3 * NullMask.BLOCK_ROWS;
+        List<Map<String, Object>> data = dataMocker.generateData("t", fieldNames, fieldTypes, rows);
+        TablePlan plan = dataMocker.compilePlan("t", fieldNames, fieldTypes);
+        long tableSeed = RandomStreams.derive(11L, "t");
+        
+        List<Integer> order = new ArrayList<>();
+        for (int i = 0; i < rows; i++) {
+            order.add(i);
+        }
+        Collections.shuffle(order, new Random(3));
+        long start = System.nanoTime();
+        for (int i : order) {
+            assertEquals(data.get(i), plan.toMap(plan.generateRow(i, tableSeed), true));
+        }
+        // 乱序生成不再每行填充整块位图，若退化为每行填充5个字段的4096行位图则会慢得多
+        assertTrue(System.nanoTime() - start < 5_000_000_000L);
+    }
+    
+    /**
+     * 测试用的自定义生成器，按参数中的前缀生成递增编号
+     */
+    public static class SerialCodeGenerator implements DataGenerator {
+        private String prefix = "";
+        private int next = 1;
+        
+        @Override
+        public void configure(Map<String, Object> params) {
+            prefix = String.valueOf(params.get("prefix"));
+        }
+        
+        @Override
+        public Object generate(String fieldName, FieldConfig fieldConfig) {
+            return prefix + next++;
+        }
+        
+        @Override
+        public boolean supports(String fieldType) {
+            return true;
+        }
+    }
+} 
\ No newline at end of file
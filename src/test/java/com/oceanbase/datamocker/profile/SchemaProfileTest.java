@@ -0,0 +1,108 @@
+package com.oceanbase.datamocker.profile;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.job.SchemaJobSpec;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 内置基准测试模板测试类
+ */
+public class SchemaProfileTest {
+    
+    @TempDir
+    File tempDir;
+    
+    private DataMocker dataMocker;
+    
+    @BeforeEach
+    public void setUp() {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(1L);
+        dataMocker = new DataMocker(config);
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        dataMocker.close();
+    }
+    
+    @Test
+    public void testTpchKeysAreConsistent() throws IOException {
+        SchemaProfile profile = SchemaProfile.load("TPCH");
+        Map<String, Long> rows = profile.rowCounts(0.01);
+        assertEquals(5L, rows.get("region").longValue());
+        assertEquals(25L, rows.get("nation").longValue());
+        assertEquals(100L, rows.get("supplier").longValue());
+        assertEquals(4 * rows.get("orders"), rows.get("lineitem").longValue());
+        
+        SchemaJobSpec spec = profile.toJobSpec(0.01);
+        spec.setOutputDir(tempDir.getPath());
+        spec.setThreads(4);
+        spec.setChunkRows(5000);
+        dataMocker.runSchemaJob(spec);
+        
+        List<String> nation = read("nation.csv");
+        assertEquals(26, nation.size());
+        assertTrue(nation.contains("7,FRANCE,4," + nation.get(7).split(",", 4)[3]));
+        
+        Set<String> partSupp = new HashSet<>();
+        for (String line : read("partsupp.csv").subList(1, 8001)) {
+            String[] values = line.split(",", 3);
+            assertTrue(partSupp.add(values[0] + "," + values[1]), "duplicate partsupp key " + line);
+            assertTrue(Integer.parseInt(values[1]) >= 1 && Integer.parseInt(values[1]) <= 100);
+        }
+        List<String> lineitem = read("lineitem.csv");
+        assertEquals(60001, lineitem.size());
+        for (String line : lineitem.subList(1, lineitem.size())) {
+            String[] values = line.split(",", 5);
+            long orderKey = Long.parseLong(values[0]);
+            assertTrue(orderKey >= 1 && orderKey <= 15000);
+            assertTrue(partSupp.contains(values[1] + "," + values[2]), "lineitem references unknown partsupp " + line);
+        }
+    }
+    
+    @Test
+    public void testTpccWarehouseScale() throws IOException {
+        SchemaProfile profile = SchemaProfile.load("tpcc");
+        assertThrows(IllegalArgumentException.class, () -> profile.rowCounts(1.5));
+        Map<String, Long> rows = profile.rowCounts(2);
+        assertEquals(20L, rows.get("district").longValue());
+        assertEquals(100000L, rows.get("item").longValue());
+        assertEquals(200000L, rows.get("stock").longValue());
+        
+        SchemaJobSpec spec = profile.toJobSpec(2);
+        spec.getTables().removeIf(table -> !table.getName().equals("district") && !table.getName().equals("new_order"));
+        spec.setOutputDir(tempDir.getPath());
+        spec.setThreads(2);
+        spec.setChunkRows(1000);
+        dataMocker.runSchemaJob(spec);
+        
+        List<String> newOrders = read("new_order.csv");
+        assertEquals(18001, newOrders.size());
+        Set<String> keys = new HashSet<>(newOrders.subList(1, newOrders.size()));
+        assertEquals(18000, keys.size());
+        assertTrue(keys.contains("2,10,3000"));
+        assertTrue(keys.contains("1,1,2101"));
+        assertTrue(read("district.csv").get(20).startsWith("2,10,"));
+    }
+    
+    private List<String> read(String name) throws IOException {
+        return Files.readAllLines(new File(tempDir, name).toPath(), StandardCharsets.UTF_8);
+    }
+} 
\ No newline at end of file
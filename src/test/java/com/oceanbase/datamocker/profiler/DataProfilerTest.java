@@ -0,0 +1,163 @@
+package com.oceanbase.datamocker.profiler;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.TestConfigs;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import com.oceanbase.datamocker.sink.CsvRowSink;
+import com.oceanbase.datamocker.sink.RowSink;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 数据采样统计测试类
+ */
+public class DataProfilerTest {
+    
+    private static final List<String> FIELD_NAMES = Arrays.asList("id", "status", "amount", "city", "created", "code");
+    private static final List<String> FIELD_TYPES = Arrays.asList("BIGINT", "VARCHAR", "DECIMAL", "VARCHAR", "DATE", "VARCHAR");
+    private static final int ROWS = 20000;
+    
+    @TempDir
+    File tempDir;
+    
+    @Test
+    public void testSketchesAndParallelSplits() throws IOException {
+        File sample = writeCsv(sampleConfig(), "sample.csv");
+        DataProfile profile = new DataProfiler(',', true, 1).profileCsv(sample);
+        
+        DataProfiler parallel = new DataProfiler(',', true, 4);
+        parallel.setMinSplitBytes(1024);
+        DataProfile merged = parallel.profileCsv(sample);
+        
+        assertEquals(ROWS, profile.getRowCount());
+        assertEquals(FIELD_NAMES, profile.getFieldNames());
+        assertEquals(Arrays.asList("INT", "VARCHAR", "DECIMAL", "VARCHAR", "DATE", "VARCHAR"), profile.getFieldTypes());
+        // 按分片并行统计后合并，计数和基数草图与单线程扫描完全一致
+        assertEquals(profile.getRowCount(), merged.getRowCount());
+        assertEquals(profile.getFieldTypes(), merged.getFieldTypes());
+        for (int i = 0; i < FIELD_NAMES.size(); i++) {
+            ColumnProfile single = profile.getColumns().get(i);
+            ColumnProfile split = merged.getColumns().get(i);
+            assertEquals(single.getNulls(), split.getNulls());
+            assertEquals(single.getDistinctCount(), split.getDistinctCount());
+            assertEquals(single.getMaxLength(), split.getMaxLength());
+        }
+        
+        ColumnProfile id = profile.getColumns().get(0);
+        assertEquals(ROWS, id.getDistinctCount(), ROWS * 0.05);
+        ColumnProfile city = profile.getColumns().get(3);
+        assertEquals(0.2, city.getNullRate(), 0.02);
+        assertEquals(40, city.getDistinctCount(), 2);
+        ColumnProfile amount = profile.getColumns().get(2);
+        assertEquals(2, amount.getMaxScale());
+        assertEquals(500, amount.getNumbers().quantile(0.5), 30);
+        assertEquals(500, merged.getColumns().get(2).getNumbers().quantile(0.5), 30);
+        
+        Map<String, FieldConfig> configs = profile.toFieldConfigs();
+        assertEquals(FieldConfig.DistributionType.CUSTOM, configs.get("amount").getDistributionType());
+        assertEquals(3, Arrays.stream(configs.get("status").getEnumValues()).distinct().count());
+        assertEquals(40, Arrays.stream(configs.get("city").getEnumValues()).distinct().count());
+        assertTrue(configs.get("id").isSequence());
+        assertNull(configs.get("amount").getValuePool());
+        // 2000个不同值各出现约10次，需要更大的值池才能在同样行数下抽到同样多的不同值
+        assertTrue(configs.get("code").getValuePool().getSize() > 2000);
+        assertEquals("1", configs.get("id").getMin());
+    }
+    
+    @Test
+    public void testLearnedConfigReproducesStatistics() throws IOException {
+        DataProfile original = new DataProfiler(',', true, 1).profileCsv(writeCsv(sampleConfig(), "sample.csv"));
+        File configFile = new File(tempDir, "learned.yaml");
+        original.toMockerConfig().toYaml(configFile);
+        
+        MockerConfig learned = MockerConfig.fromYaml(configFile);
+        learned.setSeed(2L);
+        assertEquals(ROWS, learned.getDefaultRowCount());
+        DataProfile regenerated = new DataProfiler(',', true, 1).profileCsv(writeCsv(learned, "regenerated.csv"));
+        
+        assertEquals(original.getFieldTypes(), regenerated.getFieldTypes());
+        for (int i = 0; i < FIELD_NAMES.size(); i++) {
+            ColumnProfile expected = original.getColumns().get(i);
+            ColumnProfile actual = regenerated.getColumns().get(i);
+            assertEquals(expected.getNullRate(), actual.getNullRate(), 0.02, FIELD_NAMES.get(i));
+            assertEquals(expected.getDistinctCount(), actual.getDistinctCount(), expected.getDistinctCount() * 0.1, FIELD_NAMES.get(i));
+        }
+        // 高频值的频率和数值分位数接近原始数据
+        Map<String, Long> statuses = regenerated.getColumns().get(1).getHeavyHitters().top(3);
+        assertEquals(ROWS * 0.5, statuses.get("PAID"), ROWS * 0.03);
+        QuantileSketch expectedAmounts = original.getColumns().get(2).getNumbers();
+        QuantileSketch actualAmounts = regenerated.getColumns().get(2).getNumbers();
+        for (double q : new double[]{0.1, 0.5, 0.9}) {
+            assertEquals(expectedAmounts.quantile(q), actualAmounts.quantile(q), 30);
+        }
+    }
+    
+    @Test
+    public void testQuotedFieldsAndMissingValues() throws IOException {
+        File file = new File(tempDir, "quoted.csv");
+        Files.write(file.toPath(), ("name;note\r\n\"a;b\";\"\"\r\n;\"say \"\"hi\"\"\"\r\nc\r\n")
+                .getBytes(StandardCharsets.UTF_8));
+        DataProfile profile = new DataProfiler(';', true, 1).profileCsv(file);
+        
+        assertEquals(3, profile.getRowCount());
+        ColumnProfile name = profile.getColumns().get(0);
+        ColumnProfile note = profile.getColumns().get(1);
+        assertEquals(1, name.getNulls());
+        assertEquals(3, name.getMaxLength());
+        // 空字符串不是空值，缺少的尾部字段按空值统计
+        assertEquals(1, note.getNulls());
+        assertEquals(0, note.getMinLength());
+        assertEquals(8, note.getMaxLength());
+    }
+    
+    private static MockerConfig sampleConfig() {
+        MockerConfig config = TestConfigs.config(1L);
+        Map<String, FieldConfig> fields = config.getFieldConfigs();
+        fields.put("id", TestConfigs.sequence());
+        fields.put("status", TestConfigs.enumOf("PAID", "PAID", "PAID", "NEW", "NEW", "CANCELLED"));
+        
+        FieldConfig amount = TestConfigs.range("0", "1000", FieldConfig.DistributionType.NORMAL);
+        amount.setScale(2);
+        fields.put("amount", amount);
+        
+        FieldConfig city = TestConfigs.nullable(TestConfigs.length(4, 12), 0.2);
+        FieldConfig.ValuePoolConfig pool = new FieldConfig.ValuePoolConfig();
+        pool.setSize(40);
+        city.setValuePool(pool);
+        fields.put("city", city);
+        
+        fields.put("created", TestConfigs.range("2023-01-01", "2024-01-01"));
+        
+        FieldConfig code = TestConfigs.length(8, 8);
+        FieldConfig.ValuePoolConfig codes = new FieldConfig.ValuePoolConfig();
+        codes.setSize(2000);
+        code.setValuePool(codes);
+        fields.put("code", code);
+        return config;
+    }
+    
+    private File writeCsv(MockerConfig config, String name) throws IOException {
+        File file = new File(tempDir, name);
+        DataMocker dataMocker = new DataMocker(config);
+        try (RowSink sink = new CsvRowSink(new FileOutputStream(file))) {
+            TablePlan plan = dataMocker.compilePlan("t", FIELD_NAMES, FIELD_TYPES);
+            dataMocker.generateData(plan, ROWS, sink);
+        } finally {
+            dataMocker.close();
+        }
+        return file;
+    }
+} 
\ No newline at end of file
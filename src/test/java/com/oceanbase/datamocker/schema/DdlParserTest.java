@@ -0,0 +1,185 @@
+package com.oceanbase.datamocker.schema;
+
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * DDL解析测试类
+ */
+public class DdlParserTest {
+    
+    private static final String DDL = "-- 用户表\n"
+            + "CREATE TABLE IF NOT EXISTS `users` (\n"
+            + "  `id` bigint(20) unsigned NOT NULL AUTO_INCREMENT COMMENT 'ID',\n"
+            + "  `name` varchar(32) NOT NULL,\n"
+            + "  `code` char(8) DEFAULT NULL,\n"
+            + "  `balance` decimal(5,2) NOT NULL DEFAULT '0.00',\n"
+            + "  `status` enum('active','locked') DEFAULT 'active',\n"
+            + "  `created_at` datetime DEFAULT CURRENT_TIMESTAMP ON UPDATE CURRENT_TIMESTAMP,\n"
+            + "  PRIMARY KEY (`id`),\n"
+            + "  UNIQUE KEY `uk_code` (`code`),\n"
+            + "  KEY `idx_name` (`name`)\n"
+            + ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4;\n"
+            + "INSERT INTO users VALUES (1);\n"
+            + "CREATE TABLE orders (\n"
+            + "  order_id INT PRIMARY KEY,\n"
+            + "  user_id BIGINT NOT NULL,\n"
+            + "  amount NUMBER(12, 2) CHECK (amount > 0),\n"
+            + "  CONSTRAINT fk_user FOREIGN KEY (user_id) REFERENCES users (id)\n"
+            + ");";
+    
+    @Test
+    public void testParseCreateTable() {
+        List<TableSchema> tables = new DdlParser().parse(DDL);
+        assertEquals(2, tables.size());
+        
+        TableSchema users = tables.get(0);
+        assertEquals("users", users.getName());
+        assertEquals(Arrays.asList("id", "name", "code", "balance", "status", "created_at"), users.getFieldNames());
+        assertEquals(Arrays.asList("BIGINT", "VARCHAR", "CHAR", "DECIMAL", "VARCHAR", "DATETIME"), users.getFieldTypes());
+        assertEquals(Arrays.asList("id"), users.getPrimaryKey());
+        
+        ColumnDefinition id = users.getColumn("id");
+        assertTrue(id.isPrimaryKey() && id.isNotNull() && id.isUnsigned() && id.isAutoIncrement());
+        assertEquals(Integer.valueOf(32), users.getColumn("name").getLength());
+        assertTrue(users.getColumn("code").isUnique());
+        assertNull(users.getColumn("code").getDefaultValue());
+        assertEquals(Integer.valueOf(5), users.getColumn("balance").getPrecision());
+        assertEquals(Integer.valueOf(2), users.getColumn("balance").getScale());
+        assertEquals("0.00", users.getColumn("balance").getDefaultValue());
+        assertEquals(Arrays.asList("active", "locked"), users.getColumn("status").getEnumValues());
+        
+        ColumnDefinition userId = tables.get(1).getColumn("user_id");
+        assertEquals("users", userId.getReferencedTable());
+        assertEquals("id", userId.getReferencedColumn());
+        assertFalse(tables.get(1).getColumn("amount").isNotNull());
+    }
+    
+    @Test
+    public void testParsePartitioning() {
+        List<TableSchema> tables = new DdlParser().parse(
+                "CREATE TABLE t1 (id BIGINT PRIMARY KEY, v INT) PARTITION BY HASH(id) PARTITIONS 4;\n"
+                        + "CREATE TABLE t2 (id INT PRIMARY KEY) PARTITION BY LINEAR HASH(id) PARTITIONS 6;\n"
+                        + "CREATE TABLE t3 (a INT, b VARCHAR(8), PRIMARY KEY (a, b)) PARTITION BY KEY() PARTITIONS 3;\n"
+                        + "CREATE TABLE t4 (id INT, d DATE) ENGINE=InnoDB COMMENT 'PARTITION BY' PARTITION BY RANGE COLUMNS(d)\n"
+                        + "  SUBPARTITION BY HASH(id) SUBPARTITIONS 2 (\n"
+                        + "  PARTITION p2023 VALUES LESS THAN ('2024-01-01'),\n"
+                        + "  PARTITION p2024 VALUES LESS THAN ('2025-01-01'));\n"
+                        + "CREATE TABLE t5 (id INT) PARTITION BY RANGE(id) (PARTITION n VALUES LESS THAN (-10), PARTITION m VALUES LESS THAN MAXVALUE);\n"
+                        + "CREATE TABLE t6 (d DATE) PARTITION BY HASH(YEAR(d)) PARTITIONS 4;\n"
+                        + "CREATE TABLE t7 (id INT) PARTITION BY LIST(id) (PARTITION p0 VALUES IN (1, 2));");
+        
+        Partitioning hash = tables.get(0).getPartitioning();
+        assertEquals(Partitioning.Method.HASH, hash.getMethod());
+        assertEquals(Arrays.asList("id"), hash.getColumns());
+        assertEquals(Arrays.asList("p0", "p1", "p2", "p3"), hash.getPartitionNames());
+        assertEquals(3, hash.locate(new Object[]{7L}));
+        assertEquals(1, hash.locate(new Object[]{-5}));
+        
+        // LINEAR HASH 按不小于分区数的2的幂次取掩码
+        Partitioning linear = tables.get(1).getPartitioning();
+        assertTrue(linear.isLinear());
+        assertEquals(3, linear.locate(new Object[]{2003}));
+        assertEquals(2, linear.locate(new Object[]{1998}));
+        
+        Partitioning key = tables.get(2).getPartitioning();
+        assertEquals(Arrays.asList("a", "b"), key.getColumns());
+        int located = key.locate(new Object[]{1, "x"});
+        assertTrue(located >= 0 && located < 3);
+        assertEquals(located, key.locate(new Object[]{1L, "x"}));
+        
+        Partitioning range = tables.get(3).getPartitioning();
+        assertEquals(Arrays.asList("p2023", "p2024"), range.getPartitionNames());
+        assertEquals(0, range.locate(new Object[]{"2023-12-31T23:59:59"}));
+        assertEquals(1, range.locate(new Object[]{"2024-01-01"}));
+        assertEquals(-1, range.locate(new Object[]{"2025-06-01"}));
+        
+        Partitioning bounded = tables.get(4).getPartitioning();
+        assertEquals(Arrays.asList("-10", null), bounded.getBounds());
+        assertEquals(0, bounded.locate(new Object[]{-11}));
+        assertEquals(1, bounded.locate(new Object[]{-10}));
+        
+        // 分区表达式不是字段或分区方式不受支持时按未分区处理
+        assertNull(tables.get(5).getPartitioning());
+        assertNull(tables.get(6).getPartitioning());
+    }
+    
+    @Test
+    public void testSinglePartition() {
+        List<TableSchema> tables = new DdlParser().parse(
+                "CREATE TABLE t1 (id INT PRIMARY KEY) PARTITION BY LINEAR HASH(id) PARTITIONS 1;\n"
+                        + "CREATE TABLE t2 (id INT PRIMARY KEY) PARTITION BY LINEAR KEY(id) PARTITIONS 1;");
+        for (TableSchema table : tables) {
+            Partitioning partitioning = table.getPartitioning();
+            assertTrue(partitioning.isLinear());
+            assertEquals(0, partitioning.locate(new Object[]{12345}));
+            assertEquals(0, partitioning.locate(new Object[]{-7}));
+        }
+    }
+    
+    @Test
+    public void testBuildFieldConfigs() {
+        List<TableSchema> tables = new DdlParser().parse(DDL);
+        Map<String, Map<String, FieldConfig>> configs = new SchemaConfigBuilder().build(tables, table -> 500L);
+        
+        Map<String, FieldConfig> users = configs.get("users");
+        assertTrue(users.get("id").isSequence());
+        assertFalse(users.get("id").isAllowNull());
+        assertEquals(Integer.valueOf(32), users.get("name").getMaxLength());
+        assertEquals(Integer.valueOf(8), users.get("code").getMinLength());
+        assertTrue(users.get("code").isAllowNull());
+        assertEquals(Integer.valueOf(2), users.get("balance").getScale());
+        assertEquals("999.99", users.get("balance").getMax());
+        assertArrayEquals(new String[]{"active", "locked"}, users.get("status").getEnumValues());
+        assertNull(users.get("created_at").getDefaultValue());
+        
+        FieldConfig userId = configs.get("orders").get("user_id");
+        assertEquals("users.id", userId.getReferences());
+        assertEquals("1", userId.getMin());
+        assertEquals("500", userId.getMax());
+    }
+    
+    @Test
+    public void testStringForeignKeysAndCompositePrimaryKeys() {
+        List<TableSchema> tables = new DdlParser().parse(
+                "CREATE TABLE parent (code VARCHAR(12) PRIMARY KEY, name VARCHAR(20));\n"
+                        + "CREATE TABLE child (id INT PRIMARY KEY, parent_code VARCHAR(12) REFERENCES parent (code));\n"
+                        + "CREATE TABLE item (order_id INT, line_no INT, PRIMARY KEY (order_id, line_no));");
+        Map<String, Map<String, FieldConfig>> configs = new SchemaConfigBuilder().build(tables, table -> 5L);
+        
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        DataMocker dataMocker = new DataMocker(config);
+        try {
+            Set<Object> codes = new HashSet<>();
+            for (Map<String, Object> row : dataMocker.generateData(dataMocker.compilePlan(tables.get(0), configs.get("parent")), 5)) {
+                codes.add(row.get("code"));
+            }
+            // 字符串外键引用序列主键时取值落在被引用表已生成的主键中
+            for (Map<String, Object> row : dataMocker.generateData(dataMocker.compilePlan(tables.get(1), configs.get("child")), 50)) {
+                assertTrue(codes.contains(row.get("parent_code")), String.valueOf(row.get("parent_code")));
+            }
+            
+            // 联合主键只有第一个字段按序列生成
+            assertTrue(configs.get("item").get("order_id").isSequence());
+            assertFalse(configs.get("item").get("line_no").isSequence());
+            int distinct = 0;
+            for (Map<String, Object> row : dataMocker.generateData(dataMocker.compilePlan(tables.get(2), configs.get("item")), 20)) {
+                distinct += row.get("order_id").equals(row.get("line_no")) ? 0 : 1;
+            }
+            assertTrue(distinct > 0);
+        } finally {
+            dataMocker.close();
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,169 @@
+package com.oceanbase.datamocker.server;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.generator.DataGenerator;
+import com.oceanbase.datamocker.plan.TablePlan;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 本地数据生成服务测试类
+ */
+public class MockerServerTest {
+    
+    private MockerServer server;
+    
+    @BeforeEach
+    public void setUp() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        FieldConfig broken = new FieldConfig();
+        broken.setCustomGeneratorClass(FailingGenerator.class.getName());
+        config.getFieldConfigs().put("broken", broken);
+        server = new MockerServer(new DataMocker(config), new InetSocketAddress("127.0.0.1", 0), 2);
+        server.start();
+    }
+    
+    @AfterEach
+    public void tearDown() {
+        server.close();
+    }
+    
+    @Test
+    public void testGenerateAdHocTable() throws IOException {
+        String url = "/generate?table=users&fields=id,name&types=INT,STRING&rows=5&seed=7";
+        String csv = get(url, 200);
+        String[] lines = csv.split("\r?\n");
+        assertEquals(6, lines.length);
+        assertEquals("id,name", lines[0]);
+        // 指定种子时同一请求的结果可重现
+        assertEquals(csv, get(url, 200));
+        
+        assertTrue(get("/generate?table=users&rows=1", 400).contains("Unknown table"));
+        assertEquals(400, request("/generate?table=users&fields=id&types=INT&format=xml", "GET", null).getResponseCode());
+    }
+    
+    @Test
+    public void testRegisterDdlAndStreamNdjson() throws IOException {
+        String ddl = "CREATE TABLE orders (order_id BIGINT NOT NULL, amount DECIMAL(10,2), status VARCHAR(16));";
+        HttpURLConnection post = request("/tables", "POST", ddl);
+        assertEquals(200, post.getResponseCode());
+        assertTrue(read(post.getInputStream()).contains("orders"));
+        
+        String body = get("/generate?table=orders&rows=20&format=ndjson", 200);
+        String[] lines = body.split("\n");
+        assertEquals(20, lines.length);
+        ObjectMapper mapper = new ObjectMapper();
+        for (String line : lines) {
+            JsonNode row = mapper.readTree(line);
+            assertTrue(row.has("order_id") && row.has("amount") && row.has("status"));
+        }
+    }
+    
+    @Test
+    public void testFailedGenerationAbortsResponse() throws IOException {
+        String path = "/generate?table=t&fields=id,broken&types=INT,STRING&rows=100000";
+        HttpURLConnection plain = request(path, "GET", null);
+        assertEquals(200, plain.getResponseCode());
+        // 出错时连接被直接断开，客户端读到的是连接异常而不是看似完整的截断数据
+        assertThrows(IOException.class, () -> read(plain.getInputStream()));
+        
+        HttpURLConnection gzip = request(path, "GET", null);
+        gzip.setRequestProperty("Accept-Encoding", "gzip");
+        assertEquals(200, gzip.getResponseCode());
+        assertThrows(IOException.class, () -> read(new GZIPInputStream(gzip.getInputStream())));
+        
+        // 服务仍可继续处理其他请求
+        assertEquals("ok\n", get("/health", 200));
+    }
+    
+    @Test
+    public void testAdHocPlanCacheIsBounded() throws IOException {
+        assertEquals(2, server.getWorkerThreads());
+        Map<String, String> params = new HashMap<>();
+        params.put("table", "t");
+        params.put("types", "INT");
+        params.put("fields", "c0");
+        TablePlan first = server.resolvePlan(params);
+        assertSame(first, server.resolvePlan(params));
+        for (int i = 1; i < MockerServer.MAX_AD_HOC_PLANS + 10; i++) {
+            params.put("fields", "c" + i);
+            server.resolvePlan(params);
+        }
+        assertEquals(MockerServer.MAX_AD_HOC_PLANS, server.adHocPlanCount());
+        // 最久未使用的计划已被淘汰，再次请求时重新编译
+        params.put("fields", "c0");
+        assertNotSame(first, server.resolvePlan(params));
+        // 编译出的计划仍可正常通过HTTP使用
+        assertEquals(2, get("/generate?table=t&fields=c1&types=INT&rows=1", 200).split("\n").length);
+    }
+    
+    private String get(String path, int expectedStatus) throws IOException {
+        HttpURLConnection connection = request(path, "GET", null);
+        assertEquals(expectedStatus, connection.getResponseCode());
+        return read(expectedStatus < 400 ? connection.getInputStream() : connection.getErrorStream());
+    }
+    
+    private HttpURLConnection request(String path, String method, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.getPort() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+        return connection;
+    }
+    
+    private static String read(InputStream in) throws IOException {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        byte[] chunk = new byte[4096];
+        int n;
+        try (InputStream input = in) {
+            while ((n = input.read(chunk)) > 0) {
+                buffer.write(chunk, 0, n);
+            }
+        }
+        return buffer.toString("UTF-8");
+    }
+    
+    /**
+     * 生成一定行数后抛出异常的生成器
+     */
+    public static class FailingGenerator implements DataGenerator {
+        private int calls;
+        
+        @Override
+        public Object generate(String fieldName, FieldConfig fieldConfig) {
+            if (++calls % 5000 == 0) {
+                throw new IllegalStateException("generator failed");
+            }
+            return "v" + calls;
+        }
+        
+        @Override
+        public boolean supports(String fieldType) {
+            return true;
+        }
+    }
+} 
\ No newline at end of file
@@ -0,0 +1,63 @@
+package com.oceanbase.datamocker.sink;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.oceanbase.datamocker.DataMocker;
+import com.oceanbase.datamocker.config.MockerConfig;
+import com.oceanbase.datamocker.plan.TablePlan;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JSON格式行输出测试类
+ */
+public class NdjsonRowSinkTest {
+    
+    @Test
+    public void testRowsAreWrittenOnePerLine() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (NdjsonRowSink sink = new NdjsonRowSink(out, 16)) {
+            sink.open("t", Arrays.asList("id", "name", "price", "active"));
+            sink.write(new Object[]{1, "a \"quoted\"\nvalue", new BigDecimal("9.90"), true});
+            sink.write(new Object[]{2L, null, 1.5d, false});
+            sink.flush();
+            assertEquals(out.size(), sink.getBytesWritten());
+        }
+        String[] lines = out.toString("UTF-8").split("\n");
+        assertEquals(2, lines.length);
+        JsonNode first = new ObjectMapper().readTree(lines[0]);
+        assertEquals("a \"quoted\"\nvalue", first.get("name").asText());
+        assertTrue(lines[0].contains("\"price\":9.90"));
+        assertTrue(new ObjectMapper().readTree(lines[1]).get("name").isNull());
+    }
+    
+    @Test
+    public void testPrettyArrayMatchesCollectedOutput() throws IOException {
+        MockerConfig config = new MockerConfig();
+        config.setEnableAiInference(false);
+        config.setSeed(3L);
+        DataMocker dataMocker = new DataMocker(config);
+        try {
+            TablePlan plan = dataMocker.compilePlan("users", Arrays.asList("id", "name", "score", "birthday"),
+                    Arrays.asList("INT", "VARCHAR", "DECIMAL", "DATE"));
+            List<Map<String, Object>> rows = dataMocker.generateData(plan, 20);
+            String collected = new ObjectMapper().writerWithDefaultPrettyPrinter().writeValueAsString(rows) + "\n";
+            
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            try (JsonArrayRowSink sink = new JsonArrayRowSink(out, true)) {
+                dataMocker.generateData(plan, 20, sink);
+            }
+            assertEquals(collected, out.toString("UTF-8"));
+        } finally {
+            dataMocker.close();
+        }
+    }
+} 
\ No newline at end of file
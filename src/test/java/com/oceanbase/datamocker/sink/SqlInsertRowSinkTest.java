@@ -0,0 +1,145 @@
+package com.oceanbase.datamocker.sink;
+
+import com.oceanbase.datamocker.config.FieldConfig;
+import com.oceanbase.datamocker.generator.DataGeneratorFactory;
+import com.oceanbase.datamocker.generator.LobValue;
+import com.oceanbase.datamocker.sql.SqlDialect;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * SQL脚本输出测试类
+ */
+public class SqlInsertRowSinkTest {
+    
+    @Test
+    public void testMysqlStatementsAreCappedByRows() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SqlInsertRowSink sink = new SqlInsertRowSink(out, SqlDialect.MYSQL, 2, 1 << 20)) {
+            sink.open("t", Arrays.asList("id", "name", "amount"));
+            sink.write(new Object[]{1, "O'Brien", new BigDecimal("1E+3")});
+            sink.write(new Object[]{2, "a\\b", null});
+            sink.write(new Object[]{3, "浙江", true});
+        }
+        assertEquals("INSERT INTO `t` (`id`, `name`, `amount`) VALUES\n"
+                + "(1, 'O''Brien', 1000),\n"
+                + "(2, 'a\\\\b', NULL);\n"
+                + "INSERT INTO `t` (`id`, `name`, `amount`) VALUES\n"
+                + "(3, '浙江', TRUE);\n", out.toString("UTF-8"));
+    }
+    
+    @Test
+    public void testOracleStatementsAreCappedByBytes() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int maxBytes = 120;
+        try (SqlInsertRowSink sink = new SqlInsertRowSink(out, SqlDialect.ORACLE, 1000, maxBytes)) {
+            sink.open("t", Arrays.asList("id", "name"));
+            for (int i = 0; i < 10; i++) {
+                sink.write(new Object[]{i, "x\\'y"});
+            }
+            assertTrue(sink.getBytesWritten() > 0);
+        }
+        String script = out.toString("UTF-8");
+        String[] statements = script.split("(?<=;\n)");
+        assertTrue(statements.length > 1);
+        int rows = 0;
+        for (String statement : statements) {
+            assertTrue(statement.startsWith("INSERT ALL\n"));
+            assertTrue(statement.endsWith("SELECT 1 FROM dual;\n"));
+            assertTrue(statement.getBytes("UTF-8").length <= maxBytes, statement);
+            rows += statement.split("INTO \"t\"", -1).length - 1;
+        }
+        assertEquals(10, rows);
+        assertTrue(script.contains("VALUES (0, 'x\\''y')"));
+    }
+    
+    @Test
+    public void testLobContentIsCountedWithoutBuffering() throws IOException {
+        FieldConfig config = new FieldConfig();
+        config.setType("LONGBLOB");
+        config.setMinLength(1000);
+        config.setMaxLength(1000);
+        LobValue blob = (LobValue) DataGeneratorFactory.getGenerator("LONGBLOB").generate("data", config);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        int maxBytes = 3000;
+        try (SqlInsertRowSink sink = new SqlInsertRowSink(out, SqlDialect.MYSQL, 1000, maxBytes)) {
+            sink.open("t", Arrays.asList("id", "data"));
+            for (int i = 0; i < 5; i++) {
+                sink.write(new Object[]{i, blob});
+            }
+        }
+        String script = out.toString("UTF-8");
+        String[] statements = script.split("(?<=;\n)");
+        // 每行的十六进制字面量约2000字节，每条语句只能容纳一行
+        assertEquals(5, statements.length);
+        for (String statement : statements) {
+            assertTrue(statement.getBytes("UTF-8").length <= maxBytes);
+        }
+        assertTrue(script.contains("(0, X'" + blob + "')"));
+    }
+    
+    @Test
+    public void testOracleLongLiteralsAreSplit() throws IOException {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < 3000; i++) {
+            text.append(i % 7 == 0 ? "'" : "浙");
+        }
+        FieldConfig config = new FieldConfig();
+        config.setType("CLOB");
+        config.setMinLength(9000);
+        config.setMaxLength(9000);
+        LobValue clob = (LobValue) DataGeneratorFactory.getGenerator("CLOB").generate("data", config);
+        
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (SqlInsertRowSink sink = new SqlInsertRowSink(out, SqlDialect.ORACLE)) {
+            sink.open("t", Arrays.asList("name", "data"));
+            sink.write(new Object[]{text, clob});
+        }
+        String script = out.toString("UTF-8");
+        String values = script.substring(script.indexOf("VALUES (") + 8, script.indexOf(")\nSELECT"));
+        String[] columns = values.split("'\\), TO_CLOB\\('");
+        assertEquals(2, columns.length);
+        assertEquals(text.toString(), joinPieces(columns[0] + "')"));
+        assertEquals(clob.toString(), joinPieces("TO_CLOB('" + columns[1]));
+        assertEquals(script, SqlDialect.ORACLE.insertHeader("t", null) + SqlDialect.ORACLE.insertRowPrefix("t",
+                Arrays.asList("name", "data"), true) + SqlDialect.ORACLE.literal(text) + ", "
+                + SqlDialect.ORACLE.literal(clob.toString()) + SqlDialect.ORACLE.insertRowSuffix() + SqlDialect.ORACLE.insertFooter());
+    }
+    
+    @Test
+    public void testOracleRejectsLongBinaryLiterals() throws IOException {
+        FieldConfig config = new FieldConfig();
+        config.setType("BLOB");
+        config.setMinLength(3000);
+        config.setMaxLength(3000);
+        LobValue blob = (LobValue) DataGeneratorFactory.getGenerator("BLOB").generate("data", config);
+        try (SqlInsertRowSink sink = new SqlInsertRowSink(new ByteArrayOutputStream(), SqlDialect.ORACLE)) {
+            sink.open("t", Arrays.asList("id", "data"));
+            assertThrows(IllegalArgumentException.class, () -> sink.write(new Object[]{1, blob}));
+        }
+        assertThrows(IllegalArgumentException.class, () -> SqlDialect.ORACLE.literal(blob));
+        assertTrue(SqlDialect.MYSQL.literal(blob).startsWith("X'"));
+    }
+    
+    /**
+     * 检查每段字面量都不超过4000字节，返回拼接并去掉转义后的内容
+     */
+    private static String joinPieces(String literal) throws IOException {
+        assertTrue(literal.startsWith("TO_CLOB('") && literal.endsWith("')"), literal);
+        String[] pieces = literal.substring(9, literal.length() - 2).split("'\\) \\|\\| TO_CLOB\\('");
+        assertTrue(pieces.length > 1);
+        StringBuilder sb = new StringBuilder();
+        for (String piece : pieces) {
+            assertTrue(piece.getBytes("UTF-8").length <= 4000);
+            sb.append(piece.replace("''", "'"));
+        }
+        return sb.toString();
+    }
+} 
\ No newline at end of file